@@ -0,0 +1,46 @@
+package org.arquillian.smart.testing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cache keeping at most the given number of entries - once the limit is reached, the least recently used entry is
+ * evicted. Meant for caches shared by a whole JVM, which may run for a long time (e.g. the daemon) and would otherwise
+ * keep entries of files and directories deleted in the meantime forever.
+ *
+ * The cache is safe to be used by several threads at once.
+ */
+public class BoundedCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    public BoundedCache(int maxSize) {
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return entries.computeIfAbsent(key, mappingFunction);
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
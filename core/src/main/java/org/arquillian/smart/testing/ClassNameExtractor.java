@@ -1,32 +1,57 @@
 package org.arquillian.smart.testing;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Optional;
-import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Resolves fully qualified names of classes from their source files. Only the beginning of a source file is read - up
+ * to the package declaration or the first token which can't precede it.
+ *
+ * Resolved names are cached by all instances for as long as the size and the modification time of the source file
+ * stay the same, so the same file is read only once even if it is checked by several strategies. As
+ * {@link FileFingerprints} do, a cached name is not trusted when the file was modified shortly before it was read, as
+ * another modification within the resolution of the file system timestamps wouldn't be noticed. At most
+ * {@link #MAX_CACHED_NAMES} names are cached, the least recently used are evicted.
+ */
 public class ClassNameExtractor {
 
-    private static final Pattern PACKAGE_PATTERN = Pattern.compile("^(?!\\s*//)\\s*(package)\\s+([\\w+.]+)\\s*;", Pattern.COMMENTS | Pattern.CASE_INSENSITIVE | Pattern.DOTALL | Pattern.MULTILINE);
+    private static final String JAVA_EXTENSION = ".java";
+    private static final String PACKAGE_KEYWORD = "package";
+
+    static final int MAX_CACHED_NAMES = 100000;
+
+    private static final BoundedCache<String, CachedName> NAMES = new BoundedCache<>(MAX_CACHED_NAMES);
 
     // FIXME this assumes we only support Java at this point
-    public String extractFullyQualifiedName(final File sourceFile)  {
-        final String absolutePath = sourceFile.getAbsolutePath();
-        final String className = absolutePath.substring(absolutePath.lastIndexOf('/') + 1).replaceAll(".java", "");
-
-        try (Stream<String> lines = Files.lines(Paths.get(sourceFile.getAbsolutePath()))) {
-            Optional<MatchResult> pkgName = lines.flatMap(line -> {
-                final Matcher matcher = PACKAGE_PATTERN.matcher(line);
-                return matcher.find() ? Stream.of(matcher.toMatchResult()) : null;
-            }).findFirst();
-            return pkgName.map(matchResult -> matchResult.group(2) + "." + className).orElse(className);
+    public String extractFullyQualifiedName(final File sourceFile) {
+        final Path path = sourceFile.getAbsoluteFile().toPath();
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            final long lastModified = attributes.lastModifiedTime().toMillis();
+            final CachedName cachedName = NAMES.get(path.toString());
+            if (cachedName != null && cachedName.size == attributes.size() && cachedName.lastModified == lastModified
+                && !FileFingerprints.isRacy(lastModified, cachedName.read)) {
+                return cachedName.name;
+            }
+
+            final long read = System.currentTimeMillis();
+            final String name = toFullyQualifiedName(readPackage(path), path);
+            NAMES.put(path.toString(), new CachedName(attributes.size(), lastModified, read, name));
+            return name;
         } catch (Throwable t) {
-            throw new RuntimeException("Unable to analyze source file " + sourceFile.getAbsolutePath(), t);
+            // e.g. the file has been deleted
+            NAMES.remove(path.toString());
+            throw new RuntimeException("Unable to analyze source file " + path, t);
         }
     }
 
@@ -34,8 +59,179 @@ public class ClassNameExtractor {
         return extractFullyQualifiedName(new File(path));
     }
 
-
     public String extractFullyQualifiedName(Path location) {
         return extractFullyQualifiedName(location.toFile());
     }
+
+    /**
+     * Resolves fully qualified names of all given source files at once, reading the ones which are not cached in
+     * parallel.
+     *
+     * @return fully qualified names by the given locations
+     */
+    public Map<Path, String> extractFullyQualifiedNames(Collection<Path> locations) {
+        return locations.parallelStream()
+            .distinct()
+            .collect(Collectors.toMap(Function.identity(), this::extractFullyQualifiedName));
+    }
+
+    private String toFullyQualifiedName(String packageName, Path path) {
+        final String fileName = path.getFileName().toString();
+        final String className =
+            fileName.endsWith(JAVA_EXTENSION) ? fileName.substring(0, fileName.length() - JAVA_EXTENSION.length()) : fileName;
+        return packageName == null ? className : packageName + "." + className;
+    }
+
+    private String readPackage(Path path) throws IOException {
+        try (HeaderTokenizer tokenizer = new HeaderTokenizer(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+            String token = tokenizer.nextToken();
+            // package annotations (package-info.java)
+            while ("@".equals(token)) {
+                token = tokenizer.skipAnnotation();
+            }
+            if (!PACKAGE_KEYWORD.equals(token)) {
+                return null;
+            }
+
+            final StringBuilder packageName = new StringBuilder();
+            token = tokenizer.nextToken();
+            while (token != null && !";".equals(token)) {
+                packageName.append(token);
+                token = tokenizer.nextToken();
+            }
+            return packageName.length() == 0 ? null : packageName.toString();
+        }
+    }
+
+    /**
+     * Splits the beginning of a source file into identifiers, literals and single character symbols, skipping whitespace
+     * and comments.
+     */
+    private static class HeaderTokenizer implements AutoCloseable {
+
+        private static final int BYTE_ORDER_MARK = '\uFEFF';
+
+        private final PushbackReader reader;
+
+        private HeaderTokenizer(Reader reader) {
+            this.reader = new PushbackReader(reader, 1);
+        }
+
+        String nextToken() throws IOException {
+            final int c = skipWhitespaceAndComments();
+            if (c == -1) {
+                return null;
+            }
+
+            final StringBuilder token = new StringBuilder().append((char) c);
+            if (Character.isJavaIdentifierStart(c)) {
+                int next = reader.read();
+                while (next != -1 && Character.isJavaIdentifierPart(next)) {
+                    token.append((char) next);
+                    next = reader.read();
+                }
+                unread(next);
+            } else if (c == '"' || c == '\'') {
+                int next = reader.read();
+                while (next != -1 && next != c) {
+                    token.append((char) next);
+                    if (next == '\\') {
+                        token.append((char) reader.read());
+                    }
+                    next = reader.read();
+                }
+                token.append((char) c);
+            }
+            return token.toString();
+        }
+
+        /**
+         * Skips an annotation whose '@' has just been read and returns the token following it.
+         */
+        String skipAnnotation() throws IOException {
+            nextToken(); // annotation name
+            String token;
+            do {
+                token = nextToken();
+            } while (".".equals(token) && nextToken() != null);
+
+            if ("(".equals(token)) {
+                int depth = 1;
+                while (depth > 0 && (token = nextToken()) != null) {
+                    if ("(".equals(token)) {
+                        depth++;
+                    } else if (")".equals(token)) {
+                        depth--;
+                    }
+                }
+                token = nextToken();
+            }
+            return token;
+        }
+
+        private int skipWhitespaceAndComments() throws IOException {
+            int c = reader.read();
+            while (c != -1) {
+                if (Character.isWhitespace(c) || c == BYTE_ORDER_MARK) {
+                    c = reader.read();
+                } else if (c == '/') {
+                    final int next = reader.read();
+                    if (next == '/') {
+                        c = skipLineComment();
+                    } else if (next == '*') {
+                        c = skipBlockComment();
+                    } else {
+                        unread(next);
+                        return c;
+                    }
+                } else {
+                    return c;
+                }
+            }
+            return c;
+        }
+
+        private int skipLineComment() throws IOException {
+            int c = reader.read();
+            while (c != -1 && c != '\n' && c != '\r') {
+                c = reader.read();
+            }
+            return c;
+        }
+
+        private int skipBlockComment() throws IOException {
+            int previous = -1;
+            int c = reader.read();
+            while (c != -1 && !(previous == '*' && c == '/')) {
+                previous = c;
+                c = reader.read();
+            }
+            return c == -1 ? -1 : reader.read();
+        }
+
+        private void unread(int c) throws IOException {
+            if (c != -1) {
+                reader.unread(c);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static class CachedName {
+        private final long size;
+        private final long lastModified;
+        private final long read;
+        private final String name;
+
+        private CachedName(long size, long lastModified, long read, String name) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.read = read;
+            this.name = name;
+        }
+    }
 }
@@ -0,0 +1,210 @@
+package org.arquillian.smart.testing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+
+/**
+ * Store of fingerprints of files which can be persisted between builds. The content of a file is hashed only when its
+ * size, modification time or file key (inode where available) differ from the ones recorded together with its
+ * fingerprint; otherwise the recorded fingerprint is returned without reading the file.
+ *
+ * Fingerprints are not trusted for files modified shortly before the fingerprint was recorded, as another modification
+ * within the resolution of the file system timestamps wouldn't be noticed. This applies to fingerprints loaded from a
+ * previous build as well as to the ones recorded by a long running process (e.g. the daemon) in the meantime.
+ */
+public class FileFingerprints {
+
+    private static final Logger logger = Log.getLogger();
+
+    private static final int VERSION = 1;
+
+    private static final long RACY_INTERVAL_MILLIS = 2000;
+
+    private final Map<String, Entry> entries;
+
+    private volatile boolean modified;
+
+    public FileFingerprints() {
+        this(new ConcurrentHashMap<>());
+    }
+
+    private FileFingerprints(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Returns a store keeping fingerprints of at most the given number of files - once the limit is reached, the
+     * fingerprint of the least recently used file is evicted, the same as {@link BoundedCache} does. Meant for stores
+     * shared by a whole JVM, which may run for a long time (e.g. the daemon) and would otherwise keep fingerprints of
+     * every file of every project it has seen.
+     */
+    public static FileFingerprints bounded(int maxSize) {
+        return new FileFingerprints(Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        }));
+    }
+
+    /**
+     * Returns fingerprint of given file, or null if it doesn't exist or cannot be read.
+     */
+    public String fingerprint(File file) {
+        final String path = file.getAbsolutePath();
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (IOException e) {
+            entries.remove(path);
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+
+        final long size = attributes.size();
+        final long lastModified = attributes.lastModifiedTime().toMillis();
+        final String fileKey = attributes.fileKey() != null ? attributes.fileKey().toString() : "";
+
+        final Entry entry = entries.get(path);
+        if (entry != null && entry.size == size && entry.lastModified == lastModified && entry.fileKey.equals(fileKey)
+            && !isRacy(lastModified, entry.recorded)) {
+            return entry.fingerprint;
+        }
+
+        try {
+            final String fingerprint = FilesCodec.checksum(file);
+            entries.put(path, new Entry(size, lastModified, fileKey, fingerprint, System.currentTimeMillis()));
+            modified = true;
+            return fingerprint;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Tells whether a file modified at the given time could have been modified again without changing its modification
+     * time after it was read at the given time, as both happened within the resolution of the file system timestamps.
+     */
+    static boolean isRacy(long lastModified, long read) {
+        return read - lastModified <= RACY_INTERVAL_MILLIS;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Loads fingerprints from the given file. If the file doesn't exist or it cannot be read then an empty store is
+     * returned.
+     */
+    public static FileFingerprints load(Path file) {
+        final FileFingerprints fingerprints = new FileFingerprints();
+        if (!Files.exists(file)) {
+            return fingerprints;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != VERSION) {
+                logger.debug("Ignoring fingerprints %s as they have been stored in an incompatible format", file);
+                return fingerprints;
+            }
+            final int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                final String path = in.readUTF();
+                fingerprints.entries.put(path,
+                    new Entry(in.readLong(), in.readLong(), in.readUTF(), in.readUTF(), in.readLong()));
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to read fingerprints %s. Reason: %s", file, e.getMessage());
+            return new FileFingerprints();
+        }
+
+        return fingerprints;
+    }
+
+    /**
+     * Stores the fingerprints into the given file. Fingerprints of files which don't exist anymore are dropped.
+     *
+     * The same file can be shared by several builds running at the same time, so the file is locked while it is being
+     * updated and fingerprints stored by the other builds in the meantime are merged in.
+     */
+    public void store(Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            final Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+            try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                load(file).entries.forEach(entries::putIfAbsent);
+                write(file);
+            }
+            modified = false;
+        } catch (IOException e) {
+            logger.warn("Unable to store fingerprints %s. Reason: %s", file, e.getMessage());
+        }
+    }
+
+    private void write(Path file) throws IOException {
+        final Path tmpFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+            final List<Map.Entry<String, Entry>> existing = new ArrayList<>(entries.entrySet())
+                .stream()
+                .filter(entry -> new File(entry.getKey()).isFile())
+                .collect(Collectors.toList());
+
+            out.writeInt(VERSION);
+            out.writeInt(existing.size());
+            for (Map.Entry<String, Entry> each : existing) {
+                final Entry entry = each.getValue();
+                out.writeUTF(each.getKey());
+                out.writeLong(entry.size);
+                out.writeLong(entry.lastModified);
+                out.writeUTF(entry.fileKey);
+                out.writeUTF(entry.fingerprint);
+                out.writeLong(entry.recorded);
+            }
+        }
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static class Entry {
+        private final long size;
+        private final long lastModified;
+        private final String fileKey;
+        private final String fingerprint;
+        private final long recorded;
+
+        private Entry(long size, long lastModified, String fileKey, String fingerprint, long recorded) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.fileKey = fileKey;
+            this.fingerprint = fingerprint;
+            this.recorded = recorded;
+        }
+    }
+}
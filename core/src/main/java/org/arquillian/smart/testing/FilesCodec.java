@@ -7,18 +7,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
 
 public class FilesCodec {
 
-    private static final MessageDigest messageDigest;
-
-    static {
+    // MessageDigest is stateful, so each thread gets its own instance
+    private static final ThreadLocal<MessageDigest> messageDigest = ThreadLocal.withInitial(() -> {
         try {
-            messageDigest = MessageDigest.getInstance("SHA-1");
+            return MessageDigest.getInstance("SHA-1");
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException(e);
         }
-    }
+    });
 
     private FilesCodec() {
     }
@@ -28,6 +29,8 @@ public class FilesCodec {
      */
     public static String sha1(final File file) throws IOException {
 
+        final MessageDigest messageDigest = FilesCodec.messageDigest.get();
+        messageDigest.reset();
         try (InputStream is = new BufferedInputStream(new FileInputStream(file))) {
             final byte[] buffer = new byte[1024];
             int read;
@@ -40,6 +43,25 @@ public class FilesCodec {
 
     }
 
+    /**
+     * Computes a fast non-cryptographic checksum of given file. It is meant only for detecting changes of a file, not
+     * for verifying its integrity.
+     */
+    public static String checksum(final File file) throws IOException {
+        final CRC32 crc32 = new CRC32();
+        final Adler32 adler32 = new Adler32();
+        try (InputStream is = new FileInputStream(file)) {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                crc32.update(buffer, 0, read);
+                adler32.update(buffer, 0, read);
+            }
+        }
+
+        return Long.toHexString(crc32.getValue() << 32 | adler32.getValue());
+    }
+
     private static final char[] hexArray = "0123456789abcdef".toCharArray();
 
     /**
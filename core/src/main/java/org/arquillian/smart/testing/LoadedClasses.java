@@ -0,0 +1,115 @@
+package org.arquillian.smart.testing;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Names of the project classes used by the tests, as reported by the agent of the traced strategy. The agent registers
+ * each class loaded from a directory - ie. a class compiled from any module of the project, not only the one being
+ * tested - and injects a probe at the beginning of each of its methods, so a class is reported as used by every test
+ * running any of its code, not only by the first one which has loaded it. The surefire provider collects them whenever
+ * a test class is finished.
+ *
+ * A used class is reported together with the project classes it refers to (its super classes and interfaces, the
+ * classes whose fields it reads, ...), as using them doesn't necessarily run any of their code.
+ *
+ * Probes are organized in fixed size pages allocated on registration, the same way as the ones of the covered
+ * strategy, so the arrays the probes write to are never copied while the tests are running and no hit is lost. The
+ * class depends on nothing else, as the agent of the traced strategy carries it to the tests.
+ */
+public final class LoadedClasses {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int MAX_PAGES = 1 << 10;
+
+    private static final Queue<String> loaded = new ConcurrentLinkedQueue<>();
+    private static final Set<String> registered = ConcurrentHashMap.newKeySet();
+    private static final boolean[][] hits = new boolean[MAX_PAGES][];
+    private static final String[][] names = new String[MAX_PAGES][];
+    private static final String[][][] references = new String[MAX_PAGES][][];
+    private static volatile int count;
+    private static volatile boolean active;
+
+    private LoadedClasses() {
+    }
+
+    /**
+     * Marks the reporting active - called by the agent before any class is loaded.
+     */
+    public static void activate() {
+        active = true;
+    }
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Called by the agent whenever a project class with given fully qualified name is loaded, before the class is
+     * used. Returns id of the probe the class reports its use with, or -1 if there's no room for more probes - the
+     * class is then reported only by the test which has loaded it.
+     *
+     * @param referencedClasses fully qualified names of the classes the loaded class refers to
+     */
+    public static synchronized int register(String className, String[] referencedClasses) {
+        loaded.add(className);
+        registered.add(className);
+        final int id = count;
+        final int page = id >>> PAGE_BITS;
+        if (page >= MAX_PAGES) {
+            return -1;
+        }
+        if (hits[page] == null) {
+            hits[page] = new boolean[PAGE_SIZE];
+            names[page] = new String[PAGE_SIZE];
+            references[page] = new String[PAGE_SIZE][];
+        }
+        names[page][id & PAGE_MASK] = className;
+        references[page][id & PAGE_MASK] = referencedClasses;
+        count = id + 1;
+        return id;
+    }
+
+    /**
+     * Called by the injected probe whenever any code of the class with given id is executed.
+     */
+    public static void used(int id) {
+        hits[id >>> PAGE_BITS][id & PAGE_MASK] = true;
+    }
+
+    /**
+     * Returns names of the classes loaded or used since the previous call, together with the project classes the used
+     * ones refer to, and resets the probes.
+     */
+    public static List<String> drain() {
+        final Set<String> classNames = new LinkedHashSet<>();
+        for (String className = loaded.poll(); className != null; className = loaded.poll()) {
+            classNames.add(className);
+        }
+        final int registeredClasses = count;
+        final int pages = (registeredClasses + PAGE_MASK) >>> PAGE_BITS;
+        for (int page = 0; page < pages; page++) {
+            final boolean[] pageHits = hits[page];
+            final int pageEnd = Math.min(PAGE_SIZE, registeredClasses - (page << PAGE_BITS));
+            for (int i = 0; i < pageEnd; i++) {
+                if (pageHits[i]) {
+                    pageHits[i] = false;
+                    classNames.add(names[page][i]);
+                    for (String referencedClass : references[page][i]) {
+                        if (registered.contains(referencedClass)) {
+                            classNames.add(referencedClass);
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(classNames);
+    }
+}
@@ -5,6 +5,7 @@ import java.nio.file.Path;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.OptionalInt;
 
 import static java.lang.String.format;
 import static java.lang.System.arraycopy;
@@ -16,13 +17,24 @@ public class TestSelection {
 
     private final Collection<String> types; // TODO or strategy instead (misleading name)
 
+    private final int distance;
+
     public TestSelection(Path location, String... type) {
         this(new ClassNameExtractor().extractFullyQualifiedName(location), type);
     }
 
     public TestSelection(String className, String ... type) {
+        this(className, -1, type);
+    }
+
+    /**
+     * @param distance number of dependency edges between the test and the nearest change it has been selected for, or
+     * -1 if not known
+     */
+    public TestSelection(String className, int distance, String ... type) {
         this.className = className;
         this.types = new LinkedHashSet<>(asList(type));
+        this.distance = distance;
     }
 
     public String getClassName() {
@@ -33,6 +45,14 @@ public class TestSelection {
         return types; // TODO should we return clone to avoid manipulation?
     }
 
+    /**
+     * Returns number of dependency edges between the test and the nearest change it has been selected for (1 when the
+     * test uses the changed class directly), if the strategy which has selected it knows it.
+     */
+    public OptionalInt getDistance() {
+        return distance < 0 ? OptionalInt.empty() : OptionalInt.of(distance);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -52,7 +72,8 @@ public class TestSelection {
 
     @Override
     public String toString() {
-        return "TestSelection{" + "className='" + className + '\'' + ", types=" + types + '}';
+        return "TestSelection{" + "className='" + className + '\'' + ", types=" + types
+            + (distance < 0 ? "" : ", distance=" + distance) + '}';
     }
 
     public TestSelection merge(TestSelection other) {
@@ -65,7 +86,9 @@ public class TestSelection {
 
         final String[] types = getTypes().toArray(new String[getTypes().size()]);
         final String[] typesOfOther = other.getTypes().toArray(new String[other.getTypes().size()]);
-        return new TestSelection(getClassName(), concat(types, typesOfOther));
+        final int nearest = distance < 0 || other.distance < 0
+            ? Math.max(distance, other.distance) : Math.min(distance, other.distance);
+        return new TestSelection(getClassName(), nearest, concat(types, typesOfOther));
     }
 
     private String[] concat(String[] first, String[] second) {
@@ -0,0 +1,185 @@
+package org.arquillian.smart.testing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.arquillian.smart.testing.hub.storage.local.LocalStorage;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+
+/**
+ * Classes of the project loaded by each test class, as recorded when the tests were run in the previous builds. Traces
+ * are kept in the cache of the project, so they are available to the subsequent builds until the project is cleaned.
+ *
+ * Names of classes are stored only once per file and the classes of each test as sorted, delta encoded indexes into
+ * the table of names, so the traces stay small even though most tests load many of the same classes.
+ */
+public class TestTraces {
+
+    private static final Logger logger = Log.getLogger();
+
+    static final String TRACES_FILE_NAME = "test-traces";
+
+    private static final int VERSION = 1;
+
+    private final Map<String, Set<String>> loadedClassesByTest = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the file the traces of the given project are stored in.
+     */
+    public static Path getFile(File projectDir) {
+        return new LocalStorage(projectDir).afterExecution().toCache().file(TRACES_FILE_NAME).getPath();
+    }
+
+    /**
+     * Records the classes loaded by the given test class, replacing the ones recorded before.
+     */
+    public void record(String testClassName, Collection<String> loadedClassNames) {
+        loadedClassesByTest.put(testClassName, new HashSet<>(loadedClassNames));
+    }
+
+    /**
+     * Returns names of test classes which have loaded any of the given classes.
+     */
+    public Set<String> findTestsLoadingAnyOf(Collection<String> classNames) {
+        final Set<String> tests = new HashSet<>();
+        loadedClassesByTest.forEach((test, loadedClasses) -> {
+            for (String className : classNames) {
+                if (loadedClasses.contains(className)) {
+                    tests.add(test);
+                    return;
+                }
+            }
+        });
+        return tests;
+    }
+
+    public int size() {
+        return loadedClassesByTest.size();
+    }
+
+    /**
+     * Loads traces from the given file. If the file doesn't exist or it cannot be read then empty traces are returned.
+     */
+    public static TestTraces load(Path file) {
+        final TestTraces traces = new TestTraces();
+        if (!Files.exists(file)) {
+            return traces;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != VERSION) {
+                logger.debug("Ignoring test traces %s as they have been stored in an incompatible format", file);
+                return traces;
+            }
+            final String[] names = new String[in.readInt()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = in.readUTF();
+            }
+            final int tests = in.readInt();
+            for (int i = 0; i < tests; i++) {
+                final String test = names[readVarInt(in)];
+                final int count = readVarInt(in);
+                final Set<String> loadedClasses = new HashSet<>(count * 2);
+                int id = 0;
+                for (int j = 0; j < count; j++) {
+                    id += readVarInt(in);
+                    loadedClasses.add(names[id]);
+                }
+                traces.loadedClassesByTest.put(test, loadedClasses);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unable to read test traces %s. Reason: %s", file, e.getMessage());
+            return new TestTraces();
+        }
+
+        return traces;
+    }
+
+    /**
+     * Stores the traces into the given file. The same file can be shared by several test executions running at the same
+     * time (eg. forks of one module), so the file is locked while it is being updated and traces of tests stored by the
+     * others in the meantime are merged in.
+     */
+    public void store(Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            final Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+            try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                load(file).loadedClassesByTest.forEach(loadedClassesByTest::putIfAbsent);
+                write(file);
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to store test traces %s. Reason: %s", file, e.getMessage());
+        }
+    }
+
+    private void write(Path file) throws IOException {
+        final Map<String, Integer> ids = new HashMap<>();
+        loadedClassesByTest.forEach((test, loadedClasses) -> {
+            ids.putIfAbsent(test, ids.size());
+            loadedClasses.forEach(loadedClass -> ids.putIfAbsent(loadedClass, ids.size()));
+        });
+        final String[] names = new String[ids.size()];
+        ids.forEach((name, id) -> names[id] = name);
+
+        final Path tmpFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+            out.writeInt(VERSION);
+            out.writeInt(names.length);
+            for (String name : names) {
+                out.writeUTF(name);
+            }
+            out.writeInt(loadedClassesByTest.size());
+            for (Map.Entry<String, Set<String>> trace : loadedClassesByTest.entrySet()) {
+                writeVarInt(out, ids.get(trace.getKey()));
+                final int[] loadedIds = trace.getValue().stream().mapToInt(ids::get).toArray();
+                Arrays.sort(loadedIds);
+                writeVarInt(out, loadedIds.length);
+                int previous = 0;
+                for (int id : loadedIds) {
+                    writeVarInt(out, id - previous);
+                    previous = id;
+                }
+            }
+        }
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -11,9 +11,13 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.arquillian.smart.testing.RunMode;
 import org.arquillian.smart.testing.hub.storage.local.LocalStorage;
 import org.arquillian.smart.testing.hub.storage.local.LocalStorageFileAction;
@@ -53,6 +57,9 @@ public class Configuration implements ConfigurationSection {
     private Report report;
     private Scm scm;
 
+    // set when the configuration is loaded for a build running in another JVM - see #getSystemProperty
+    private Map<String, String> systemProperties = Collections.emptyMap();
+
     public String[] getStrategies() {
         return strategies;
     }
@@ -125,6 +132,32 @@ public class Configuration implements ConfigurationSection {
         return customStrategies;
     }
 
+    /**
+     * Returns the system property of the build the configuration is loaded for. The properties the configuration has
+     * been loaded with take precedence over the ones of this JVM, so a process serving many builds (the daemon) doesn't
+     * have to change its own system properties for each of them.
+     */
+    public String getSystemProperty(String name) {
+        final String value = systemProperties.get(name);
+        return value != null ? value : System.getProperty(name);
+    }
+
+    public String getSystemProperty(String name, String defaultValue) {
+        final String value = getSystemProperty(name);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Returns system properties of the build the configuration is loaded for whose names start with the given prefix.
+     */
+    public Map<String, String> getSystemPropertiesStartingWith(String prefix) {
+        final Properties properties = toProperties(systemProperties);
+        return properties.stringPropertyNames()
+            .stream()
+            .filter(name -> name.startsWith(prefix))
+            .collect(Collectors.toMap(Function.identity(), properties::getProperty));
+    }
+
     public List<ConfigurationItem> registerConfigurationItems() {
         List<ConfigurationItem> configItems = new ArrayList<>();
         configItems.add(new ConfigurationItem("strategies", SMART_TESTING, new String[0]));
@@ -142,6 +175,15 @@ public class Configuration implements ConfigurationSection {
     }
 
     public static Configuration load(File projectDir) {
+        return load(projectDir, Collections.emptyMap());
+    }
+
+    /**
+     * Loads the configuration of the given project for a build with the given system properties.
+     *
+     * @param systemProperties system properties of the build, taking precedence over the ones of this JVM
+     */
+    public static Configuration load(File projectDir, Map<String, String> systemProperties) {
         final File[] files =
             projectDir.listFiles((dir, name) -> name.equals(SMART_TESTING_YML) || name.equals(SMART_TESTING_YAML));
 
@@ -163,16 +205,27 @@ public class Configuration implements ConfigurationSection {
             }
         }
 
-        return parseConfiguration(yamlConfiguration);
+        return parseConfiguration(yamlConfiguration, systemProperties);
     }
 
     public static Configuration loadPrecalculated(File projectDir) {
+        return loadPrecalculated(projectDir, Collections.emptyMap());
+    }
+
+    /**
+     * Loads the configuration precalculated by the extension for a build with the given system properties.
+     *
+     * @param systemProperties system properties of the build, taking precedence over the ones of this JVM
+     */
+    public static Configuration loadPrecalculated(File projectDir, Map<String, String> systemProperties) {
         final File configFile =
             new LocalStorage(projectDir).duringExecution().temporary().file(SMART_TESTING_YML).getFile();
         if (configFile.exists()) {
-            return loadConfigurationFromFile(configFile);
+            final Configuration configuration = loadConfigurationFromFile(configFile);
+            configuration.systemProperties = systemProperties;
+            return configuration;
         } else {
-            return load(projectDir);
+            return load(projectDir, systemProperties);
         }
     }
 
@@ -211,7 +264,7 @@ public class Configuration implements ConfigurationSection {
         try (InputStream io = Files.newInputStream(path)) {
             final Yaml yaml = new Yaml();
             Map<String, Object> yamlConfiguration = (Map<String, Object>) yaml.load(io);
-            return parseConfiguration(yamlConfiguration);
+            return parseConfiguration(yamlConfiguration, Collections.emptyMap());
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -234,8 +287,18 @@ public class Configuration implements ConfigurationSection {
             .get();
     }
 
-    private static Configuration parseConfiguration(Map<String, Object> yamlConfiguration) {
-        return ObjectMapper.mapToObject(Configuration.class, yamlConfiguration);
+    private static Configuration parseConfiguration(Map<String, Object> yamlConfiguration,
+        Map<String, String> systemProperties) {
+        final Configuration configuration =
+            ObjectMapper.mapToObject(Configuration.class, yamlConfiguration, toProperties(systemProperties));
+        configuration.systemProperties = systemProperties;
+        return configuration;
+    }
+
+    private static Properties toProperties(Map<String, String> systemProperties) {
+        final Properties properties = new Properties(System.getProperties());
+        properties.putAll(systemProperties);
+        return properties;
     }
 
     public boolean isSelectingMode() {
@@ -1,8 +1,18 @@
 package org.arquillian.smart.testing.configuration;
 
 import java.util.List;
+import java.util.Properties;
 
 public interface ConfigurationSection {
 
     List<ConfigurationItem> registerConfigurationItems();
+
+    /**
+     * Registers configuration items of sections whose defaults depend on system properties.
+     *
+     * @param systemProperties system properties of the build the configuration is loaded for
+     */
+    default List<ConfigurationItem> registerConfigurationItems(Properties systemProperties) {
+        return registerConfigurationItems();
+    }
 }
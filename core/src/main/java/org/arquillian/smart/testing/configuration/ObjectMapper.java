@@ -12,11 +12,20 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.stream.Collectors;
 
 class ObjectMapper {
 
     static <T extends ConfigurationSection> T mapToObject(Class<T> aClass, Map<String, Object> map) {
+        return mapToObject(aClass, map, System.getProperties());
+    }
+
+    /**
+     * @param systemProperties system properties overriding the values of the map
+     */
+    static <T extends ConfigurationSection> T mapToObject(Class<T> aClass, Map<String, Object> map,
+        Properties systemProperties) {
         T instance;
         try {
             instance = aClass.newInstance();
@@ -24,16 +33,16 @@ class ObjectMapper {
             throw new RuntimeException("Failed to create new instance of class " + aClass, e);
         }
 
-        List<ConfigurationItem> configItems = instance.registerConfigurationItems();
+        List<ConfigurationItem> configItems = instance.registerConfigurationItems(systemProperties);
 
         Arrays.stream(aClass.getMethods()).filter(ObjectMapper::isSetter)
-            .forEach(method -> invokeMethodWithMappedValue(configItems, method, instance, map));
+            .forEach(method -> invokeMethodWithMappedValue(configItems, method, instance, map, systemProperties));
 
         return instance;
     }
 
     private static <T> void invokeMethodWithMappedValue(List<ConfigurationItem> configItems, Method method, T instance,
-        Map<String, Object> map) {
+        Map<String, Object> map, Properties systemProperties) {
         method.setAccessible(true);
         if (method.getParameterTypes().length != 1) {
             return;
@@ -45,7 +54,7 @@ class ObjectMapper {
         Optional<ConfigurationItem> foundConfigItem =
             configItems.stream().filter(item -> property.equals(item.getParamName())).findFirst();
 
-        Object converted = getConvertedObject(method, configFileValue, foundConfigItem);
+        Object converted = getConvertedObject(method, configFileValue, foundConfigItem, systemProperties);
 
         try {
             if (converted != null) {
@@ -56,52 +65,55 @@ class ObjectMapper {
         }
     }
 
-    private static Object getConvertedObject(Method method, Object configFileValue, Optional<ConfigurationItem> foundConfigItem) {
+    private static Object getConvertedObject(Method method, Object configFileValue, Optional<ConfigurationItem> foundConfigItem,
+        Properties systemProperties) {
         if (!foundConfigItem.isPresent()) {
             Class<?> parameterType = method.getParameterTypes()[0];
             if (!ConfigurationSection.class.isAssignableFrom(parameterType)) {
                 return null;
             } else if (configFileValue == null) {
-                return mapToObject((Class<ConfigurationSection>) parameterType, new HashMap<>(0));
+                return mapToObject((Class<ConfigurationSection>) parameterType, new HashMap<>(0), systemProperties);
             } else {
-                return mapToObject((Class<ConfigurationSection>) parameterType, (Map<String, Object>) configFileValue);
+                return mapToObject((Class<ConfigurationSection>) parameterType, (Map<String, Object>) configFileValue,
+                    systemProperties);
             }
         } else {
             Object mappedValue = null;
             ConfigurationItem configItem = foundConfigItem.get();
 
-            mappedValue = getUserSetProperty(method, configItem, configFileValue);
+            mappedValue = getUserSetProperty(method, configItem, configFileValue, systemProperties);
             if (mappedValue == null && configItem.getDefaultValue() != null) {
                 mappedValue = configItem.getDefaultValue();
             }
             if (mappedValue != null) {
-                return convert(method, mappedValue);
+                return convert(method, mappedValue, systemProperties);
             }
         }
         return null;
     }
 
-    private static Object getUserSetProperty(Method method, ConfigurationItem configItem, Object configFileValue) {
+    private static Object getUserSetProperty(Method method, ConfigurationItem configItem, Object configFileValue,
+        Properties properties) {
         if (configItem.getSystemProperty() != null) {
             if (!configItem.getSystemProperty().endsWith(".*")) {
-                String sysPropertyValue = System.getProperty(configItem.getSystemProperty());
+                String sysPropertyValue = properties.getProperty(configItem.getSystemProperty());
                 return sysPropertyValue != null ? sysPropertyValue : configFileValue;
             } else {
-                return createMultipleOccurrenceProperty(method, configItem, configFileValue);
+                return createMultipleOccurrenceProperty(method, configItem, configFileValue, properties);
             }
         }
         return configFileValue;
     }
 
     private static List<Object> createMultipleOccurrenceProperty(Method method, ConfigurationItem configItem,
-        Object configFileValue) {
+        Object configFileValue, Properties properties) {
 
         String sysPropKey = configItem.getSystemProperty().substring(0, configItem.getSystemProperty().lastIndexOf('.'));
         Map<Object, Object> systemProperties =
-            System.getProperties().entrySet()
+            properties.stringPropertyNames()
                 .stream()
-                .filter(prop -> prop.getKey().toString().startsWith(sysPropKey))
-                .collect(Collectors.toMap(prop -> prop.getKey(), prop -> prop.getValue()));
+                .filter(name -> name.startsWith(sysPropKey))
+                .collect(Collectors.toMap(name -> name, properties::getProperty));
 
         List<Object> multipleValue = new ArrayList<>();
         if (configFileValue != null) {
@@ -146,7 +158,7 @@ class ObjectMapper {
         return false;
     }
 
-    private static Object convert(Method method, Object mappedValue) {
+    private static Object convert(Method method, Object mappedValue, Properties systemProperties) {
         Class<?> parameterType = method.getParameterTypes()[0];
         if (parameterType.isArray()) {
             return handleArray(parameterType.getComponentType(), mappedValue);
@@ -157,7 +169,8 @@ class ObjectMapper {
         } else if (parameterType.isAssignableFrom(mappedValue.getClass())) {
             return mappedValue;
         } else if (ConfigurationSection.class.isAssignableFrom(parameterType)) {
-            return mapToObject((Class<ConfigurationSection>) parameterType, (Map<String, Object>) mappedValue);
+            return mapToObject((Class<ConfigurationSection>) parameterType, (Map<String, Object>) mappedValue,
+                systemProperties);
         } else {
             return convertToType(parameterType, mappedValue.toString());
         }
@@ -2,6 +2,7 @@ package org.arquillian.smart.testing.configuration;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
 
 import static org.arquillian.smart.testing.scm.ScmRunnerProperties.DEFAULT_LAST_COMMITS;
 import static org.arquillian.smart.testing.scm.ScmRunnerProperties.HEAD;
@@ -32,11 +33,16 @@ public class Range implements ConfigurationSection {
 
     @Override
     public List<ConfigurationItem> registerConfigurationItems() {
+        return registerConfigurationItems(System.getProperties());
+    }
+
+    @Override
+    public List<ConfigurationItem> registerConfigurationItems(Properties systemProperties) {
         List<ConfigurationItem> configItems = new ArrayList<>();
 
         String tail = String.join("~", HEAD, DEFAULT_LAST_COMMITS);
 
-        final String scmLastChanges = System.getProperty(SCM_LAST_CHANGES);
+        final String scmLastChanges = systemProperties.getProperty(SCM_LAST_CHANGES);
         if (scmLastChanges != null) {
             tail = String.join("~", HEAD, scmLastChanges);
         }
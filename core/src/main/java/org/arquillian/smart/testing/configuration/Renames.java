@@ -0,0 +1,63 @@
+package org.arquillian.smart.testing.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.arquillian.smart.testing.scm.RenameDetection;
+
+import static org.arquillian.smart.testing.scm.ScmRunnerProperties.DEFAULT_RENAMES_DETECTION;
+import static org.arquillian.smart.testing.scm.ScmRunnerProperties.DEFAULT_RENAMES_LIMIT;
+import static org.arquillian.smart.testing.scm.ScmRunnerProperties.DEFAULT_RENAMES_SCORE;
+import static org.arquillian.smart.testing.scm.ScmRunnerProperties.SCM_RENAMES_DETECTION;
+import static org.arquillian.smart.testing.scm.ScmRunnerProperties.SCM_RENAMES_LIMIT;
+import static org.arquillian.smart.testing.scm.ScmRunnerProperties.SCM_RENAMES_SCORE;
+
+public class Renames implements ConfigurationSection {
+
+    private RenameDetection detection = RenameDetection.valueOf(DEFAULT_RENAMES_DETECTION.toUpperCase());
+    private int limit = DEFAULT_RENAMES_LIMIT;
+    private int score = DEFAULT_RENAMES_SCORE;
+
+    public RenameDetection getDetection() {
+        return detection;
+    }
+
+    public void setDetection(RenameDetection detection) {
+        this.detection = detection;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param limit maximal number of added or deleted files their contents are compared to find renames. If there are
+     * more of them, only the files moved without any change or keeping their names are detected as renamed. Zero means no
+     * limit.
+     */
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @param score minimal similarity (in percents) of the contents of a deleted and an added file to be seen as rename.
+     */
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+    @Override
+    public List<ConfigurationItem> registerConfigurationItems() {
+        List<ConfigurationItem> configItems = new ArrayList<>();
+
+        configItems.add(new ConfigurationItem("detection", SCM_RENAMES_DETECTION,
+            RenameDetection.valueOf(DEFAULT_RENAMES_DETECTION.toUpperCase())));
+        configItems.add(new ConfigurationItem("limit", SCM_RENAMES_LIMIT, DEFAULT_RENAMES_LIMIT));
+        configItems.add(new ConfigurationItem("score", SCM_RENAMES_SCORE, DEFAULT_RENAMES_SCORE));
+
+        return configItems;
+    }
+}
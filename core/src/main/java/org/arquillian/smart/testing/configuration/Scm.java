@@ -5,12 +5,18 @@ import java.util.List;
 import java.util.Objects;
 
 import static org.arquillian.smart.testing.scm.ScmRunnerProperties.DEFAULT_LAST_COMMITS;
+import static org.arquillian.smart.testing.scm.ScmRunnerProperties.DEFAULT_SUFFIXES;
 import static org.arquillian.smart.testing.scm.ScmRunnerProperties.HEAD;
 import static org.arquillian.smart.testing.scm.ScmRunnerProperties.SCM_LAST_CHANGES;
+import static org.arquillian.smart.testing.scm.ScmRunnerProperties.SCM_PATHS;
+import static org.arquillian.smart.testing.scm.ScmRunnerProperties.SCM_SUFFIXES;
 
 public class Scm implements ConfigurationSection {
 
     private Range range;
+    private Renames renames = new Renames();
+    private String[] suffixes = new String[] {DEFAULT_SUFFIXES};
+    private String[] paths = new String[0];
 
     @SuppressWarnings("unused")
     public void setLastChanges(String lastChanges) {
@@ -33,11 +39,44 @@ public class Scm implements ConfigurationSection {
         }
     }
 
+    public Renames getRenames() {
+        return renames;
+    }
+
+    public void setRenames(Renames renames) {
+        this.renames = renames;
+    }
+
+    public String[] getSuffixes() {
+        return suffixes;
+    }
+
+    /**
+     * @param suffixes suffixes of the files which changes are resolved. Empty suffix means all files.
+     */
+    public void setSuffixes(String[] suffixes) {
+        this.suffixes = suffixes;
+    }
+
+    public String[] getPaths() {
+        return paths;
+    }
+
+    /**
+     * @param paths directories (absolute or relative to the project) which changes are resolved in. No path means the
+     * whole repository.
+     */
+    public void setPaths(String[] paths) {
+        this.paths = paths;
+    }
+
     @Override
     public List<ConfigurationItem> registerConfigurationItems() {
         final ArrayList<ConfigurationItem> configItems = new ArrayList<>();
 
         configItems.add(new ConfigurationItem("lastChanges", SCM_LAST_CHANGES, DEFAULT_LAST_COMMITS));
+        configItems.add(new ConfigurationItem("suffixes", SCM_SUFFIXES, DEFAULT_SUFFIXES));
+        configItems.add(new ConfigurationItem("paths", SCM_PATHS));
 
         return configItems;
     }
@@ -0,0 +1,171 @@
+package org.arquillian.smart.testing.coverage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.arquillian.smart.testing.hub.storage.local.LocalStorage;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+
+/**
+ * Methods of the project executed by each test class, as recorded when the tests were run in the previous builds.
+ * Methods are identified by hashes of their signatures, see {@link #hash(String, String, String)}. The coverage is kept
+ * in the cache of the project, so it is available to the subsequent builds until the project is cleaned.
+ *
+ * The hashes are stored only once per file as a sorted table and the methods executed by each test as a bitmap over
+ * that table, so the coverage takes a few bytes per test even for large projects.
+ */
+public class MethodCoverage {
+
+    private static final Logger logger = Log.getLogger();
+
+    static final String COVERAGE_FILE_NAME = "method-coverage";
+
+    private static final int VERSION = 1;
+
+    private final Map<String, long[]> executedMethodsByTest = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the file the coverage of the given project is stored in.
+     */
+    public static Path getFile(File projectDir) {
+        return new LocalStorage(projectDir).afterExecution().toCache().file(COVERAGE_FILE_NAME).getPath();
+    }
+
+    /**
+     * Returns hash identifying a method (or a constructor or a static initializer) by its class, name and descriptor as
+     * they appear in the class file - eg. {@code org.example.Service}, {@code <init>} and {@code (Ljava/lang/String;)V}.
+     */
+    public static long hash(String className, String methodName, String descriptor) {
+        return MethodProbes.hash(className, methodName, descriptor);
+    }
+
+    /**
+     * Records the methods executed by the given test class, replacing the ones recorded before.
+     */
+    public void record(String testClassName, long[] methodHashes) {
+        executedMethodsByTest.put(testClassName, Arrays.stream(methodHashes).sorted().distinct().toArray());
+    }
+
+    /**
+     * Returns names of test classes which have executed any of the given methods.
+     */
+    public Set<String> findTestsExecutingAnyOf(Collection<Long> methodHashes) {
+        final Set<String> tests = new HashSet<>();
+        executedMethodsByTest.forEach((test, executedMethods) -> {
+            for (long methodHash : methodHashes) {
+                if (Arrays.binarySearch(executedMethods, methodHash) >= 0) {
+                    tests.add(test);
+                    return;
+                }
+            }
+        });
+        return tests;
+    }
+
+    public int size() {
+        return executedMethodsByTest.size();
+    }
+
+    /**
+     * Loads coverage from the given file. If the file doesn't exist or it cannot be read then empty coverage is returned.
+     */
+    public static MethodCoverage load(Path file) {
+        final MethodCoverage coverage = new MethodCoverage();
+        if (!Files.exists(file)) {
+            return coverage;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != VERSION) {
+                logger.debug("Ignoring method coverage %s as it has been stored in an incompatible format", file);
+                return coverage;
+            }
+            final long[] methods = new long[in.readInt()];
+            for (int i = 0; i < methods.length; i++) {
+                methods[i] = in.readLong();
+            }
+            final int tests = in.readInt();
+            for (int i = 0; i < tests; i++) {
+                final String test = in.readUTF();
+                final long[] words = new long[in.readInt()];
+                for (int j = 0; j < words.length; j++) {
+                    words[j] = in.readLong();
+                }
+                coverage.executedMethodsByTest.put(test, BitSet.valueOf(words).stream().mapToLong(id -> methods[id]).toArray());
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unable to read method coverage %s. Reason: %s", file, e.getMessage());
+            return new MethodCoverage();
+        }
+
+        return coverage;
+    }
+
+    /**
+     * Stores the coverage into the given file. The same file can be shared by several test executions running at the
+     * same time (eg. forks of one module), so the file is locked while it is being updated and coverage of tests stored
+     * by the others in the meantime is merged in.
+     */
+    public void store(Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            final Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+            try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                load(file).executedMethodsByTest.forEach(executedMethodsByTest::putIfAbsent);
+                write(file);
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to store method coverage %s. Reason: %s", file, e.getMessage());
+        }
+    }
+
+    private void write(Path file) throws IOException {
+        // executed methods of each test are sorted, so the table is sorted too and ids are found by binary search
+        final long[] methods = executedMethodsByTest.values().stream()
+            .flatMapToLong(Arrays::stream)
+            .sorted()
+            .distinct()
+            .toArray();
+
+        final Path tmpFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+            out.writeInt(VERSION);
+            out.writeInt(methods.length);
+            for (long method : methods) {
+                out.writeLong(method);
+            }
+            out.writeInt(executedMethodsByTest.size());
+            for (Map.Entry<String, long[]> coverage : executedMethodsByTest.entrySet()) {
+                out.writeUTF(coverage.getKey());
+                final BitSet executed = new BitSet(methods.length);
+                for (long method : coverage.getValue()) {
+                    executed.set(Arrays.binarySearch(methods, method));
+                }
+                final long[] words = executed.toLongArray();
+                out.writeInt(words.length);
+                for (long word : words) {
+                    out.writeLong(word);
+                }
+            }
+        }
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,108 @@
+package org.arquillian.smart.testing.coverage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Probes injected at the beginning of each method of the project classes by the agent of the covered strategy. Each
+ * method is registered by its signature hash when its class is loaded and gets an id it reports itself with, so a probe
+ * which has been hit costs just one array write.
+ *
+ * Probes are organized in fixed size pages allocated on registration, so the arrays the probes write to are never
+ * copied while the tests are running and no hit is lost.
+ *
+ * The class depends on nothing else, as the agent of the covered strategy carries it to the tests.
+ */
+public final class MethodProbes {
+
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int MAX_PAGES = 1 << 12;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final boolean[][] hits = new boolean[MAX_PAGES][];
+    private static final long[][] hashes = new long[MAX_PAGES][];
+    private static volatile int count;
+    private static volatile boolean active;
+
+    private MethodProbes() {
+    }
+
+    /**
+     * Marks the probes active - called by the agent before any class is instrumented.
+     */
+    public static void activate() {
+        active = true;
+    }
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Returns hash of the signature of a method, see {@link MethodCoverage#hash(String, String, String)}.
+     */
+    public static long hash(String className, String methodName, String descriptor) {
+        long hash = FNV_OFFSET_BASIS;
+        for (String part : new String[] {className, ".", methodName, descriptor}) {
+            for (byte b : part.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= FNV_PRIME;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Registers a method identified by given signature hash (see {@link #hash(String, String, String)})
+     * and returns id of its probe, or -1 if there's no room for more probes.
+     */
+    public static synchronized int register(long hash) {
+        final int id = count;
+        final int page = id >>> PAGE_BITS;
+        if (page >= MAX_PAGES) {
+            return -1;
+        }
+        if (hits[page] == null) {
+            hits[page] = new boolean[PAGE_SIZE];
+            hashes[page] = new long[PAGE_SIZE];
+        }
+        hashes[page][id & PAGE_MASK] = hash;
+        count = id + 1;
+        return id;
+    }
+
+    /**
+     * Called by the injected probe whenever the method with given id is executed.
+     */
+    public static void hit(int id) {
+        hits[id >>> PAGE_BITS][id & PAGE_MASK] = true;
+    }
+
+    /**
+     * Returns signature hashes of the methods executed since the previous call and resets their probes.
+     */
+    public static long[] drain() {
+        final int registered = count;
+        long[] executed = new long[64];
+        int size = 0;
+        final int pages = (registered + PAGE_MASK) >>> PAGE_BITS;
+        for (int page = 0; page < pages; page++) {
+            final boolean[] pageHits = hits[page];
+            final int pageEnd = Math.min(PAGE_SIZE, registered - (page << PAGE_BITS));
+            for (int i = 0; i < pageEnd; i++) {
+                if (pageHits[i]) {
+                    pageHits[i] = false;
+                    if (size == executed.length) {
+                        executed = Arrays.copyOf(executed, size * 2);
+                    }
+                    executed[size++] = hashes[page][i];
+                }
+            }
+        }
+        return Arrays.copyOf(executed, size);
+    }
+}
@@ -0,0 +1,83 @@
+package org.arquillian.smart.testing.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request for selecting tests or resolving changes of one project, sent by {@link SmartTestingDaemonClient} to
+ * {@link SmartTestingDaemon}. Requests for changes have neither classpath nor tests.
+ */
+class DaemonRequest {
+
+    private final File projectDir;
+    private final List<String> classpath;
+    private final Map<String, String> properties;
+    private final List<String> testClassNames;
+
+    DaemonRequest(File projectDir, List<String> classpath, Map<String, String> properties, List<String> testClassNames) {
+        this.projectDir = projectDir;
+        this.classpath = classpath;
+        this.properties = properties;
+        this.testClassNames = testClassNames;
+    }
+
+    File getProjectDir() {
+        return projectDir;
+    }
+
+    List<String> getClasspath() {
+        return classpath;
+    }
+
+    Map<String, String> getProperties() {
+        return properties;
+    }
+
+    List<String> getTestClassNames() {
+        return testClassNames;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeUTF(projectDir.getAbsolutePath());
+        writeStrings(out, classpath);
+        out.writeInt(properties.size());
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            out.writeUTF(property.getKey());
+            out.writeUTF(property.getValue());
+        }
+        writeStrings(out, testClassNames);
+    }
+
+    static DaemonRequest read(DataInputStream in) throws IOException {
+        final File projectDir = new File(in.readUTF());
+        final List<String> classpath = readStrings(in);
+        final int propertiesCount = in.readInt();
+        final Map<String, String> properties = new HashMap<>(propertiesCount * 2);
+        for (int i = 0; i < propertiesCount; i++) {
+            properties.put(in.readUTF(), in.readUTF());
+        }
+        return new DaemonRequest(projectDir, classpath, properties, readStrings(in));
+    }
+
+    static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+        out.writeInt(strings.size());
+        for (String string : strings) {
+            out.writeUTF(string);
+        }
+    }
+
+    static List<String> readStrings(DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        final List<String> strings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            strings.add(in.readUTF());
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,69 @@
+package org.arquillian.smart.testing.daemon;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.Enumeration;
+
+/**
+ * Exposes the classpath of a project for strategies analyzing its classes (by {@link #getURLs()}) without loading
+ * anything from it - classes, resources and services are all loaded by the daemon's own class loader, so the
+ * strategies, which are usually part of the project's test classpath too, are not loaded twice.
+ *
+ * The daemon counts the requests using the class loader, so it's closed only when no request needs it anymore. The
+ * count is guarded by the daemon.
+ */
+class ProjectClassLoader extends URLClassLoader {
+
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
+    private int users;
+    private volatile boolean closed;
+
+    ProjectClassLoader(URL[] urls, ClassLoader parent) {
+        super(urls, parent);
+    }
+
+    void acquire() {
+        users++;
+    }
+
+    /**
+     * @return true if no request uses the class loader anymore
+     */
+    boolean release() {
+        return --users == 0;
+    }
+
+    boolean isUsed() {
+        return users > 0;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        super.close();
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        throw new ClassNotFoundException(name);
+    }
+
+    @Override
+    public URL findResource(String name) {
+        return null;
+    }
+
+    @Override
+    public Enumeration<URL> findResources(String name) {
+        return Collections.emptyEnumeration();
+    }
+}
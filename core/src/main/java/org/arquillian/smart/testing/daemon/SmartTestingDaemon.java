@@ -0,0 +1,443 @@
+package org.arquillian.smart.testing.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.MalformedURLException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.arquillian.smart.testing.TestSelection;
+import org.arquillian.smart.testing.api.SmartTesting;
+import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.ChangesCodec;
+import org.arquillian.smart.testing.scm.spi.ChangeResolver;
+import org.arquillian.smart.testing.spi.JavaSPILoader;
+
+/**
+ * Long living process resolving changes and selecting tests for local builds. As it keeps running between the builds,
+ * everything the strategies cache in memory (parsed classes, fingerprints of files, names of classes resolved from
+ * source files, ...) stays warm, so repeated builds of the same workspace don't have to start from nothing in every
+ * surefire fork. The change resolvers of each project are kept open as well, so the repository stays open with its
+ * pack indexes and caches loaded - the strategies share it, as the repositories are shared within the JVM. The graph
+ * of the dependencies of the tests itself is not kept - it's built again for every request, from the classes already
+ * parsed, so only the classes which have changed are parsed again.
+ *
+ * The daemon listens only on the loopback interface and answers only the clients knowing its token - a random secret
+ * written to {@link #TOKEN_DIRECTORY} in the home directory of the user running the daemon, readable only by the user.
+ * So other users of the machine can neither run code nor write files by the daemon. Start it with:
+ * <pre>
+ * java -cp &lt;smart testing core, strategies and their dependencies&gt; org.arquillian.smart.testing.daemon.SmartTestingDaemon [port]
+ * </pre>
+ * and set {@link #SMART_TESTING_DAEMON_PORT} when running the build, so the maven extension asks the daemon for the
+ * changes and the surefire provider for the tests, instead of resolving them by themselves.
+ *
+ * Requests are processed concurrently by a bounded pool of threads, so the forks of a parallel build don't wait for
+ * each other. The system properties sent by the client are passed to the strategies by {@link Configuration}, the
+ * ones of the daemon are never changed. When all threads are busy and too many requests are waiting, new ones are
+ * refused and the builds select the tests by themselves. A client which doesn't send its whole request within
+ * {@link #REQUEST_TIMEOUT_MILLIS} is disconnected, so it can't hold a thread.
+ */
+public class SmartTestingDaemon implements Closeable {
+
+    public static final String SMART_TESTING_DAEMON_PORT = "smart.testing.daemon.port";
+    public static final int DEFAULT_PORT = 7665;
+
+    static final String TOKEN_DIRECTORY = ".smart-testing";
+
+    static final int VERSION = 4;
+    static final byte SELECT_TESTS = 0;
+    static final byte RESOLVE_CHANGES = 1;
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+    static final int REQUEST_TIMEOUT_MILLIS = 10000;
+    static final int MIN_THREADS = 4;
+    static final int MAX_WAITING_REQUESTS = 64;
+
+    private static final Logger logger = Log.getLogger();
+
+    private final ServerSocket serverSocket;
+    private final int requestTimeoutMillis;
+    private final byte[] token;
+    private final Path tokenFile;
+    private final ExecutorService executor;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final Map<File, ProjectClassLoader> classLoaders = new HashMap<>();
+    private final Map<File, List<ChangeResolver>> changeResolvers = new HashMap<>();
+    private volatile boolean running = true;
+
+    public SmartTestingDaemon(int port) throws IOException {
+        this(port, getDefaultTokenDirectory(), REQUEST_TIMEOUT_MILLIS);
+    }
+
+    SmartTestingDaemon(int port, File tokenDirectory, int requestTimeoutMillis) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        // a request mostly waits for files to be read, so even a small machine serves a few at once
+        final int threads = Math.max(MIN_THREADS, Runtime.getRuntime().availableProcessors());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_WAITING_REQUESTS), this::newRequestThread);
+        this.token = newToken();
+        try {
+            this.tokenFile = writeToken(getTokenFile(tokenDirectory, getPort()), token);
+        } catch (IOException e) {
+            serverSocket.close();
+            executor.shutdown();
+            throw e;
+        }
+    }
+
+    private Thread newRequestThread(Runnable runnable) {
+        final Thread thread = new Thread(runnable, "smart-testing-daemon-request");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    public static void main(String[] args) throws IOException {
+        final int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        try (SmartTestingDaemon daemon = new SmartTestingDaemon(port)) {
+            logger.info("Smart Testing daemon is listening on port %d", daemon.getPort());
+            daemon.run();
+        }
+    }
+
+    static File getDefaultTokenDirectory() {
+        return new File(System.getProperty("user.home"), TOKEN_DIRECTORY);
+    }
+
+    static File getTokenFile(File tokenDirectory, int port) {
+        return new File(tokenDirectory, "daemon-" + port + ".token");
+    }
+
+    private static byte[] newToken() {
+        final byte[] randomBytes = new byte[32];
+        new SecureRandom().nextBytes(randomBytes);
+        final StringBuilder token = new StringBuilder(randomBytes.length * 2);
+        for (byte randomByte : randomBytes) {
+            token.append(String.format("%02x", randomByte));
+        }
+        return token.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Writes the token to a file only the owner can read - the file is created with the permissions already set, so
+     * nobody can open it in between. On file systems without POSIX permissions the file is protected by the access
+     * rights of the home directory.
+     */
+    private static Path writeToken(File tokenFile, byte[] token) throws IOException {
+        final Path file = tokenFile.toPath();
+        final boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+        if (posix) {
+            Files.createDirectories(file.getParent(),
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } else {
+            Files.createDirectories(file.getParent());
+        }
+        // left behind by a daemon which hasn't been closed
+        Files.deleteIfExists(file);
+        if (posix) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(file);
+        }
+        Files.write(file, token);
+        return file;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Starts accepting requests in a background thread.
+     */
+    public SmartTestingDaemon start() {
+        final Thread thread = new Thread(this::run, "smart-testing-daemon");
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+
+    /**
+     * Accepts requests until the daemon is closed. Each request is handled by a thread of the pool.
+     */
+    public void run() {
+        while (running) {
+            final Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Connection failed: %s", e.getMessage());
+                }
+                continue;
+            }
+            try {
+                executor.execute(() -> serve(socket));
+            } catch (RejectedExecutionException e) {
+                logger.warn("Too many requests are waiting, refusing the connection");
+                close(socket);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        connections.add(socket);
+        try (Socket client = socket) {
+            client.setSoTimeout(requestTimeoutMillis);
+            handle(client);
+        } catch (SocketTimeoutException e) {
+            logger.warn("Client hasn't sent its request within %d ms, closing the connection", requestTimeoutMillis);
+        } catch (SocketException e) {
+            if (running) {
+                logger.warn("Connection failed: %s", e.getMessage());
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to process request: %s", e.getMessage());
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        final int version = in.readInt();
+        if (version != VERSION) {
+            writeError(out, "Unsupported protocol version " + version + ", expected " + VERSION);
+            return;
+        }
+
+        final byte[] clientToken = in.readUTF().getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(token, clientToken)) {
+            logger.warn("Rejecting request with invalid token");
+            writeError(out, "Invalid token");
+            return;
+        }
+
+        final byte type = in.readByte();
+        final DaemonRequest request = DaemonRequest.read(in);
+        switch (type) {
+            case SELECT_TESTS:
+                handleSelection(request, out);
+                break;
+            case RESOLVE_CHANGES:
+                handleChanges(request, out);
+                break;
+            default:
+                writeError(out, "Unsupported request type " + type);
+        }
+    }
+
+    private void handleSelection(DaemonRequest request, DataOutputStream out) throws IOException {
+        final long start = System.currentTimeMillis();
+        final Set<TestSelection> selection;
+        try {
+            selection = select(request);
+        } catch (RuntimeException e) {
+            logger.warn("Unable to select tests of %s: %s", request.getProjectDir(), e);
+            writeError(out, String.valueOf(e));
+            return;
+        }
+        logger.debug("Selected %d tests of %s in %d ms", selection.size(), request.getProjectDir(),
+            System.currentTimeMillis() - start);
+
+        out.writeByte(OK);
+        out.writeInt(selection.size());
+        for (TestSelection testSelection : selection) {
+            out.writeUTF(testSelection.getClassName());
+            DaemonRequest.writeStrings(out, new ArrayList<>(testSelection.getTypes()));
+            out.writeInt(testSelection.getDistance().orElse(-1));
+        }
+        out.flush();
+    }
+
+    private void handleChanges(DaemonRequest request, DataOutputStream out) throws IOException {
+        final long start = System.currentTimeMillis();
+        final Collection<Change> changes;
+        try {
+            changes = resolveChanges(request);
+        } catch (RuntimeException e) {
+            logger.warn("Unable to resolve changes of %s: %s", request.getProjectDir(), e);
+            writeError(out, String.valueOf(e));
+            return;
+        }
+        logger.debug("Resolved %d changes of %s in %d ms", changes.size(), request.getProjectDir(),
+            System.currentTimeMillis() - start);
+
+        out.writeByte(OK);
+        ChangesCodec.write(out, changes);
+        out.flush();
+    }
+
+    private void writeError(DataOutputStream out, String message) throws IOException {
+        out.writeByte(ERROR);
+        out.writeUTF(message);
+        out.flush();
+    }
+
+    private Set<TestSelection> select(DaemonRequest request) throws MalformedURLException {
+        final ProjectClassLoader classLoader = acquireClassLoader(request.getProjectDir(), request.getClasspath());
+        final Thread thread = Thread.currentThread();
+        final ClassLoader originalClassLoader = thread.getContextClassLoader();
+        try {
+            thread.setContextClassLoader(classLoader);
+
+            final Set<String> testClassNames = new HashSet<>(request.getTestClassNames());
+            final Configuration configuration =
+                Configuration.loadPrecalculated(request.getProjectDir(), request.getProperties());
+            return SmartTesting.with(testClassNames::contains, configuration)
+                .in(request.getProjectDir())
+                .applyOnNames(request.getTestClassNames());
+        } finally {
+            thread.setContextClassLoader(originalClassLoader);
+            releaseClassLoader(classLoader);
+        }
+    }
+
+    private Collection<Change> resolveChanges(DaemonRequest request) {
+        final File projectDir = request.getProjectDir();
+        final Configuration configuration = Configuration.load(projectDir, request.getProperties());
+        final List<ChangeResolver> resolvers = getChangeResolvers(projectDir);
+        // the same resolvers are not used by concurrent builds of the project at once
+        synchronized (resolvers) {
+            return resolvers.stream()
+                .map(changeResolver -> changeResolver.diff(projectDir, configuration))
+                .flatMap(Collection::stream)
+                .collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * Returns change resolvers applicable to the given project. They are kept open until the daemon is closed, as
+     * they keep the repository open. A project without any applicable resolver is looked up again next time, as its
+     * repository may be initialized later on.
+     */
+    private synchronized List<ChangeResolver> getChangeResolvers(File projectDir) {
+        final List<ChangeResolver> resolvers = changeResolvers.get(projectDir);
+        if (resolvers != null) {
+            return resolvers;
+        }
+        final List<ChangeResolver> applicableResolvers = new ArrayList<>();
+        new JavaSPILoader().all(ChangeResolver.class, resolver -> resolver.isApplicable(projectDir))
+            .forEach(applicableResolvers::add);
+        if (!applicableResolvers.isEmpty()) {
+            changeResolvers.put(projectDir, applicableResolvers);
+        }
+        return applicableResolvers;
+    }
+
+    /**
+     * Returns the class loader of the given classpath of the project, to be released by
+     * {@link #releaseClassLoader(ProjectClassLoader)} when the request is processed. When the classpath of the project
+     * changes, the class loader of the previous one is closed as soon as no other request (eg. of another fork of the
+     * same build) uses it.
+     */
+    synchronized ProjectClassLoader acquireClassLoader(File projectDir, List<String> classpath)
+        throws MalformedURLException {
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = new URL(classpath.get(i));
+        }
+
+        final ProjectClassLoader classLoader = classLoaders.get(projectDir);
+        if (classLoader != null && Arrays.equals(classLoader.getURLs(), urls)) {
+            classLoader.acquire();
+            return classLoader;
+        }
+        if (classLoader != null && !classLoader.isUsed()) {
+            close(classLoader);
+        }
+        final ProjectClassLoader newClassLoader = new ProjectClassLoader(urls, SmartTestingDaemon.class.getClassLoader());
+        newClassLoader.acquire();
+        classLoaders.put(projectDir, newClassLoader);
+        return newClassLoader;
+    }
+
+    synchronized void releaseClassLoader(ProjectClassLoader classLoader) {
+        if (classLoader.release() && !classLoaders.containsValue(classLoader)) {
+            close(classLoader);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        executor.shutdownNow();
+        connections.forEach(this::close);
+        try {
+            if (!executor.awaitTermination(requestTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.warn("Some requests are still being processed while closing the daemon");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeResources();
+    }
+
+    private synchronized void closeResources() throws IOException {
+        classLoaders.values().forEach(this::close);
+        classLoaders.clear();
+        changeResolvers.values().forEach(resolvers -> resolvers.forEach(this::close));
+        changeResolvers.clear();
+        Files.deleteIfExists(tokenFile);
+    }
+
+    private void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.debug("Unable to close connection: %s", e.getMessage());
+        }
+    }
+
+    private void close(ChangeResolver changeResolver) {
+        try {
+            changeResolver.close();
+        } catch (Exception e) {
+            logger.debug("Unable to close change resolver: %s", e.getMessage());
+        }
+    }
+
+    private void close(ProjectClassLoader classLoader) {
+        try {
+            classLoader.close();
+        } catch (IOException e) {
+            logger.debug("Unable to close class loader: %s", e.getMessage());
+        }
+    }
+}
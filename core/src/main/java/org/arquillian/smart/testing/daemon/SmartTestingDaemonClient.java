@@ -0,0 +1,158 @@
+package org.arquillian.smart.testing.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import org.arquillian.smart.testing.TestSelection;
+import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.ChangesCodec;
+
+/**
+ * Asks a running {@link SmartTestingDaemon} to resolve changes or to select tests of a project.
+ */
+public class SmartTestingDaemonClient {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+    // the first request of a project builds everything the strategies cache, so it can take a while
+    private static final int READ_TIMEOUT_MILLIS = 120000;
+    private static final String[] FORWARDED_PROPERTIES_PREFIXES = {"smart.testing", "scm."};
+    private static final int MAX_PORT = 0xFFFF;
+
+    private final int port;
+    private final File tokenDirectory;
+    private final int readTimeoutMillis;
+
+    public SmartTestingDaemonClient(int port) {
+        this(port, SmartTestingDaemon.getDefaultTokenDirectory(), READ_TIMEOUT_MILLIS);
+    }
+
+    SmartTestingDaemonClient(int port, File tokenDirectory, int readTimeoutMillis) {
+        this.port = port;
+        this.tokenDirectory = tokenDirectory;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    /**
+     * Selects tests of the given project by the daemon.
+     *
+     * @param projectDir root directory of the project
+     * @param classpath URLs of the test classpath of the project
+     * @param properties system properties the strategies should see - see {@link #getForwardedProperties()}
+     * @param testClassNames names of all tests of the project
+     *
+     * @throws IOException if the daemon is not running, its token can't be read, it hasn't answered in time or it has
+     * failed to select the tests
+     */
+    public Set<TestSelection> select(File projectDir, List<String> classpath, Map<String, String> properties,
+        List<String> testClassNames) throws IOException {
+        final DaemonRequest request = new DaemonRequest(projectDir, classpath, properties, testClassNames);
+        return send(SmartTestingDaemon.SELECT_TESTS, request, "select tests", in -> {
+            final int size = in.readInt();
+            final Set<TestSelection> selection = new LinkedHashSet<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                final String className = in.readUTF();
+                final List<String> types = DaemonRequest.readStrings(in);
+                final int distance = in.readInt();
+                selection.add(new TestSelection(className, distance, types.toArray(new String[types.size()])));
+            }
+            return selection;
+        });
+    }
+
+    /**
+     * Resolves changes of the given project by the daemon.
+     *
+     * @param projectDir root directory of the project
+     * @param properties system properties the change resolvers should see - see {@link #getForwardedProperties()}
+     *
+     * @throws IOException if the daemon is not running, its token can't be read, it hasn't answered in time or it has
+     * failed to resolve the changes
+     */
+    public Collection<Change> resolveChanges(File projectDir, Map<String, String> properties) throws IOException {
+        final DaemonRequest request =
+            new DaemonRequest(projectDir, Collections.emptyList(), properties, Collections.emptyList());
+        return send(SmartTestingDaemon.RESOLVE_CHANGES, request, "resolve changes", ChangesCodec::read);
+    }
+
+    private <T> T send(byte type, DaemonRequest request, String action, ResponseReader<T> responseReader)
+        throws IOException {
+        final String token = readToken();
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), CONNECT_TIMEOUT_MILLIS);
+            socket.setSoTimeout(readTimeoutMillis);
+
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(SmartTestingDaemon.VERSION);
+            out.writeUTF(token);
+            out.writeByte(type);
+            request.write(out);
+            out.flush();
+
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            if (in.readByte() != SmartTestingDaemon.OK) {
+                throw new IOException("Smart Testing daemon failed to " + action + ": " + in.readUTF());
+            }
+            return responseReader.read(in);
+        }
+    }
+
+    private String readToken() throws IOException {
+        final File tokenFile = SmartTestingDaemon.getTokenFile(tokenDirectory, port);
+        if (!tokenFile.isFile()) {
+            throw new IOException("Token of Smart Testing daemon " + tokenFile + " doesn't exist");
+        }
+        return new String(Files.readAllBytes(tokenFile.toPath()), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns whether the given value of {@link SmartTestingDaemon#SMART_TESTING_DAEMON_PORT} is a valid port number.
+     */
+    public static boolean isValidPort(String port) {
+        if (port.isEmpty() || port.length() > 5) {
+            return false;
+        }
+        for (char digit : port.toCharArray()) {
+            if (digit < '0' || digit > '9') {
+                return false;
+            }
+        }
+        return Integer.parseInt(port) <= MAX_PORT;
+    }
+
+    /**
+     * Returns the system properties of this JVM which configure Smart Testing and its strategies.
+     */
+    public static Map<String, String> getForwardedProperties() {
+        final Map<String, String> forwarded = new HashMap<>();
+        final Properties properties = System.getProperties();
+        for (String name : properties.stringPropertyNames()) {
+            for (String prefix : FORWARDED_PROPERTIES_PREFIXES) {
+                if (name.startsWith(prefix)) {
+                    forwarded.put(name, properties.getProperty(name));
+                }
+            }
+        }
+        return forwarded;
+    }
+
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+}
@@ -10,6 +10,7 @@ public class AfterExecutionLocalStorage {
 
     public static final String SMART_TESTING_TARGET_DIRECTORY_NAME = "smart-testing";
     public static final String REPORTING_SUBDIRECTORY = "reporting";
+    public static final String CACHE_SUBDIRECTORY = "cache";
 
     private String rootDir;
 
@@ -28,6 +29,17 @@ public class AfterExecutionLocalStorage {
         return new LocalStorageType(getPathTo(REPORTING_SUBDIRECTORY));
     }
 
+    /**
+     * Opens an API for any action above files and directories that are kept between builds (until the directory is
+     * cleaned) so they can be reused by the subsequent executions - eg. indexes that are expensive to compute.
+     *
+     * @return An instance of {@link LocalStorageType} that provides you an option to choose if you want to manage a file
+     * or a directory.
+     */
+    public LocalStorageType toCache() {
+        return new LocalStorageType(getPathTo(CACHE_SUBDIRECTORY));
+    }
+
     protected Path getPathTo(String subdirectory) {
         return Paths.get(rootDir, SMART_TESTING_TARGET_DIRECTORY_NAME, subdirectory);
     }
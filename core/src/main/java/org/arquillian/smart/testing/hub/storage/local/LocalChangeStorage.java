@@ -1,60 +1,105 @@
 package org.arquillian.smart.testing.hub.storage.local;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
 import org.arquillian.smart.testing.logger.Logger;
 import org.arquillian.smart.testing.hub.storage.ChangeStorage;
 import org.arquillian.smart.testing.logger.Log;
 import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.ChangesCodec;
 
+/**
+ * Stores changes in the format of {@link ChangesCodec}. Each strategy of each module reads the same file, so the
+ * decoded changes are kept per JVM until the file is replaced, as well as where the file was found for each directory.
+ */
 public class LocalChangeStorage implements ChangeStorage {
 
     private static final Logger LOGGER = Log.getLogger();
 
     public static final String SMART_TESTING_SCM_CHANGES = "scm-changes";
 
+    private static final Map<Path, ReadChanges> READ_CHANGES = new ConcurrentHashMap<>();
+    private static final Map<File, Path> FILES_BY_DIRECTORY = new ConcurrentHashMap<>();
+
     @Override
     public void store(Collection<Change> changes, File projectDir) {
-        StringBuilder fileContent = new StringBuilder();
-        changes.forEach(change -> fileContent.append(change.write()).append(System.lineSeparator()));
-
         LocalStorageFileAction scmChangesFile =
             new LocalStorage(projectDir)
                 .duringExecution()
                 .temporary()
                 .file(SMART_TESTING_SCM_CHANGES);
+        final Path scmChangesPath = scmChangesFile.getPath();
         try {
-            scmChangesFile.create(fileContent.toString().getBytes());
+            Files.createDirectories(scmChangesPath.getParent());
+            // written aside and moved, so the file is never read half-written and its file key changes with each store
+            final Path tmpFile = Files.createTempFile(scmChangesPath.getParent(), SMART_TESTING_SCM_CHANGES, ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                ChangesCodec.write(output, changes);
+            }
+            Files.move(tmpFile, scmChangesPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             throw new RuntimeException("Cannot create " + scmChangesFile.getPath() + " file", e);
         }
+        READ_CHANGES.remove(scmChangesPath.toAbsolutePath());
     }
 
     @Override
     public Optional<Collection<Change>> read(File projectDir) {
-        final Optional<Path> smartTestingScmChangesOptional =
-            findFileInDirectoryOrParents(projectDir.getAbsoluteFile(), SMART_TESTING_SCM_CHANGES);
+        final Optional<Path> smartTestingScmChangesOptional = findFile(projectDir.getAbsoluteFile());
 
         if (smartTestingScmChangesOptional.isPresent()) {
 
             final Path localScmChanges = smartTestingScmChangesOptional.get();
-            try (Stream<String> changes = Files.lines(localScmChanges)) {
-                return Optional.of(changes.map(Change::read).collect(Collectors.toList()));
+            try {
+                final BasicFileAttributes attributes = Files.readAttributes(localScmChanges, BasicFileAttributes.class);
+                final ReadChanges readChanges = READ_CHANGES.get(localScmChanges);
+                if (readChanges != null && readChanges.isReadFrom(attributes)) {
+                    return Optional.of(readChanges.changes);
+                }
+
+                try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(localScmChanges)))) {
+                    final List<Change> changes = Collections.unmodifiableList(ChangesCodec.read(input));
+                    READ_CHANGES.put(localScmChanges, new ReadChanges(attributes, changes));
+                    return Optional.of(changes);
+                }
             } catch (IOException e) {
                 LOGGER.warn("Unable to read changes from [%s]. Reason: %s", localScmChanges, e.getMessage());
-                e.printStackTrace();
             }
         }
 
         return Optional.empty();
     }
 
+    private Optional<Path> findFile(File directory) {
+        final Path found = FILES_BY_DIRECTORY.get(directory);
+        if (found != null && Files.isRegularFile(found)) {
+            return Optional.of(found);
+        }
+
+        final Optional<Path> file = findFileInDirectoryOrParents(directory, SMART_TESTING_SCM_CHANGES);
+        if (file.isPresent()) {
+            FILES_BY_DIRECTORY.put(directory, file.get());
+        } else {
+            FILES_BY_DIRECTORY.remove(directory);
+        }
+        return file;
+    }
+
     private Optional<Path> findFileInDirectoryOrParents(File directory, String fileName) {
         if (directory == null || !directory.exists()){
             return Optional.empty();
@@ -62,9 +107,29 @@ public class LocalChangeStorage implements ChangeStorage {
 
         File currentFile = new LocalStorage(directory).duringExecution().temporary().file(fileName).getFile();
         if (currentFile.exists()) {
-            return Optional.of(currentFile.toPath());
+            return Optional.of(currentFile.toPath().toAbsolutePath());
         }
 
         return findFileInDirectoryOrParents(directory.getParentFile(), fileName);
     }
+
+    private static class ReadChanges {
+
+        private final long size;
+        private final long lastModified;
+        private final Object fileKey;
+        private final Collection<Change> changes;
+
+        private ReadChanges(BasicFileAttributes attributes, Collection<Change> changes) {
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+            this.fileKey = attributes.fileKey();
+            this.changes = changes;
+        }
+
+        private boolean isReadFrom(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis()
+                && Objects.equals(fileKey, attributes.fileKey());
+        }
+    }
 }
@@ -10,6 +10,10 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.arquillian.smart.testing.TestSelection;
@@ -66,11 +70,11 @@ class TestStrategyApplierImpl implements TestStrategyApplier {
             return Collections.emptySet();
         }
 
-        final List<TestSelection> selectedTests = new ArrayList<>();
+        final List<TestExecutionPlanner> planners = new ArrayList<>(strategies.size());
         for (final String strategy : strategies) {
-            final TestExecutionPlanner plannerForStrategy = testExecutionPlannerLoader.getPlannerForStrategy(strategy, configuration.isAutocorrect());
-            selectedTests.addAll(plannerForStrategy.getTests());
+            planners.add(testExecutionPlannerLoader.getPlannerForStrategy(strategy, configuration.isAutocorrect()));
         }
+        final List<TestSelection> selectedTests = getTests(planners);
         logger.info("Applied strategies: %s", strategies);
         logger.info("Applied usage: [%s]", configuration.getMode().getName());
         final Collection<TestSelection> testSelections = filterMergeAndOrderTestSelection(selectedTests, strategies);
@@ -90,6 +94,66 @@ class TestStrategyApplierImpl implements TestStrategyApplier {
         return new LinkedHashSet<>(testSelections);
     }
 
+    /**
+     * Gets tests of all planners and returns them in the order of the planners. The planners are independent of each
+     * other and mostly wait for git, file system or parsing of reports, so when there are more of them each one runs in
+     * its own thread. Either way a failure of a planner is reported as the failure of its strategy.
+     */
+    private List<TestSelection> getTests(List<TestExecutionPlanner> planners) {
+        final int threads = planners.size();
+        if (threads < 2) {
+            return planners.stream()
+                .flatMap(planner -> getTests(planner).stream())
+                .collect(Collectors.toList());
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, this::newPlannerThread);
+        try {
+            final List<Future<Collection<TestSelection>>> futures = planners.stream()
+                .map(planner -> executor.submit(planner::getTests))
+                .collect(Collectors.toList());
+
+            final List<TestSelection> selectedTests = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                selectedTests.addAll(getTests(planners.get(i), futures.get(i)));
+            }
+            return selectedTests;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Collection<TestSelection> getTests(TestExecutionPlanner planner) {
+        try {
+            return planner.getTests();
+        } catch (RuntimeException e) {
+            throw strategyFailed(planner, e);
+        }
+    }
+
+    private Collection<TestSelection> getTests(TestExecutionPlanner planner, Future<Collection<TestSelection>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while selecting tests by strategy " + planner.getName(), e);
+        } catch (ExecutionException e) {
+            throw strategyFailed(planner, e.getCause());
+        }
+    }
+
+    private IllegalStateException strategyFailed(TestExecutionPlanner planner, Throwable cause) {
+        return new IllegalStateException("Strategy " + planner.getName() + " failed", cause);
+    }
+
+    private Thread newPlannerThread(Runnable runnable) {
+        // strategies may load resources and classes through the context class loader of the build
+        final Thread thread = new Thread(runnable, "smart-testing-strategy");
+        thread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+        thread.setDaemon(true);
+        return thread;
+    }
+
     private boolean testSelectionWithAnyStrategyIsChosen(Configuration configuration) {
         return configuration.isSelectingMode() && configuration.getStrategies().length > 0;
     }
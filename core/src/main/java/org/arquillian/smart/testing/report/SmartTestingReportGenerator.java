@@ -5,8 +5,6 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.arquillian.smart.testing.TestSelection;
 import org.arquillian.smart.testing.configuration.Configuration;
@@ -46,6 +44,7 @@ public class SmartTestingReportGenerator {
         return TestConfiguration.builder()
             .withName(testSelection.getClassName())
             .withStrategies(testSelection.getTypes())
+            .withDistance(testSelection.getDistance().isPresent() ? testSelection.getDistance().getAsInt() : null)
             .build();
     }
 
@@ -68,12 +67,7 @@ public class SmartTestingReportGenerator {
     }
 
     private Map<String, String> getSmartTestingProperties() {
-        final Properties properties = System.getProperties();
-
-        return properties.stringPropertyNames()
-            .stream()
-            .filter(name -> name.startsWith("smart.testing"))
-            .collect(Collectors.toMap(Function.identity(), properties::getProperty));
+        return configuration.getSystemPropertiesStartingWith("smart.testing");
     }
 
     private static File getReportFile(String baseDir) {
@@ -8,6 +8,7 @@ public class TestConfiguration {
 
     private String strategies;
     private String name;
+    private Integer distance;
 
     public TestConfiguration() {
     }
@@ -15,6 +16,7 @@ public class TestConfiguration {
     private TestConfiguration(TestConfiguration.Builder builder) {
         this.strategies = builder.strategies;
         this.name = builder.name;
+        this.distance = builder.distance;
     }
 
     @XmlAttribute
@@ -27,6 +29,11 @@ public class TestConfiguration {
         return name;
     }
 
+    @XmlAttribute
+    public Integer getDistance() {
+        return distance;
+    }
+
     public static TestConfiguration.Builder builder() {
         return new TestConfiguration.Builder();
     }
@@ -35,6 +42,7 @@ public class TestConfiguration {
 
         private String strategies;
         private String name;
+        private Integer distance;
 
         private TestConfiguration.Builder testBuilder;
 
@@ -49,6 +57,11 @@ public class TestConfiguration {
             return this;
         }
 
+        public TestConfiguration.Builder withDistance(Integer distance) {
+            this.distance = distance;
+            return this;
+        }
+
         public TestConfiguration build() {
             return new TestConfiguration(this);
         }
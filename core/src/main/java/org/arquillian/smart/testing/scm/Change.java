@@ -6,6 +6,10 @@ import java.nio.file.Paths;
 import static org.arquillian.smart.testing.scm.ChangeType.ADD;
 import static org.arquillian.smart.testing.scm.ChangeType.MODIFY;
 
+/**
+ * Change of a file. Changes are equal when both their location and type are, so a set of changes keeps a file which is
+ * both added and modified - eg. staged as a new file and then edited - as both.
+ */
 public class Change {
 
     private final Path location;
@@ -43,26 +47,21 @@ public class Change {
 
         final Change change = (Change) o;
 
-        return location != null ? location.equals(change.location) : change.location == null;
+        if (location != null ? !location.equals(change.location) : change.location != null) {
+            return false;
+        }
+        return changeType == change.changeType;
     }
 
     @Override
     public int hashCode() {
-        return location != null ? location.hashCode() : 0;
+        int result = location != null ? location.hashCode() : 0;
+        result = 31 * result + (changeType != null ? changeType.hashCode() : 0);
+        return result;
     }
 
     @Override
     public String toString() {
         return "Change{" + "location='" + location + '\'' + ", changeType=" + changeType + '}';
     }
-
-    // FIXME or maybe just Serializable - so we produce binary
-    public String write() {
-        return "" + location + ',' + changeType;
-    }
-
-    public static Change read(String serialized) {
-        final String[] parts = serialized.split(",");
-        return new Change(Paths.get(parts[0]), ChangeType.valueOf(parts[1]));
-    }
 }
@@ -0,0 +1,103 @@
+package org.arquillian.smart.testing.scm;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.arquillian.smart.testing.ClassNameExtractor;
+import org.arquillian.smart.testing.api.TestVerifier;
+import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.hub.storage.ChangeStorage;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+import org.arquillian.smart.testing.scm.spi.ChangeResolver;
+
+import static org.arquillian.smart.testing.scm.ChangeType.DELETE;
+
+/**
+ * Changes of a project shared by all strategies of one run. The changes are read (or resolved directly from SCM) only
+ * once and the changed java files are classified at the same time - the names of their classes are resolved and they
+ * are verified to be tests or core classes, so the strategies just filter the changes they are interested in.
+ *
+ * A run is identified by its {@link Configuration} - the snapshot is kept for as long as the configuration is in use
+ * and it is computed again for a different project directory or {@link TestVerifier}.
+ */
+public class ChangeSnapshot {
+
+    private static final Logger logger = Log.getLogger();
+
+    private static final Map<Configuration, Map<List<Object>, ChangeSnapshot>> SNAPSHOTS = new WeakHashMap<>();
+
+    private final Collection<Change> changes;
+    private final List<ClassifiedChange> javaChanges;
+
+    ChangeSnapshot(Collection<Change> changes, TestVerifier testVerifier) {
+        this.changes = Collections.unmodifiableCollection(changes);
+        this.javaChanges = Collections.unmodifiableList(classify(changes, testVerifier));
+    }
+
+    /**
+     * Returns the snapshot of changes of the given project, reading or resolving them only if it's the first strategy
+     * of the run asking for them.
+     */
+    public static ChangeSnapshot of(ChangeStorage changeStorage, ChangeResolver changeResolver, File projectDir,
+        TestVerifier testVerifier, Configuration configuration, String strategy) {
+        final Map<List<Object>, ChangeSnapshot> snapshots;
+        synchronized (SNAPSHOTS) {
+            snapshots = SNAPSHOTS.computeIfAbsent(configuration, key -> new ConcurrentHashMap<>());
+        }
+        return snapshots.computeIfAbsent(Arrays.asList(projectDir.getAbsoluteFile(), testVerifier), key -> {
+            //tag::read_changes[]
+            final Collection<Change> changes = changeStorage.read(projectDir) // <1>
+                .orElseGet(() -> {
+                    logger.warn("No cached changes detected... using direct resolution");
+                    return changeResolver.diff(projectDir, configuration, strategy); // <2>
+                });
+            //end::read_changes[]
+            return new ChangeSnapshot(changes, testVerifier);
+        });
+    }
+
+    private static List<ClassifiedChange> classify(Collection<Change> changes, TestVerifier testVerifier) {
+        final List<Change> javaChanges = changes.stream()
+            .filter(change -> testVerifier.isJavaFile(change.getLocation()))
+            .collect(Collectors.toList());
+
+        // resolves names of all existing files at once, verifying them below doesn't read them again
+        final Map<Path, String> classNames = new ClassNameExtractor().extractFullyQualifiedNames(javaChanges.stream()
+            .filter(change -> change.getChangeType() != DELETE)
+            .map(Change::getLocation)
+            .collect(Collectors.toList()));
+
+        return javaChanges.stream()
+            .map(change -> {
+                if (change.getChangeType() == DELETE) {
+                    return new ClassifiedChange(change, null, false, false);
+                }
+                // each file is verified only once, java files which are not tests are core classes
+                final boolean test = testVerifier.isTest(change.getLocation());
+                return new ClassifiedChange(change, classNames.get(change.getLocation()), test, !test);
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return all changes of the project
+     */
+    public Collection<Change> getChanges() {
+        return changes;
+    }
+
+    /**
+     * @return changes of java files, in the same order as {@link #getChanges()}
+     */
+    public List<ClassifiedChange> getJavaChanges() {
+        return javaChanges;
+    }
+}
@@ -0,0 +1,87 @@
+package org.arquillian.smart.testing.scm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Binary format of a collection of changes. Changes are sorted by their locations and each location is stored only
+ * as the part which differs from the previous one, as the changes mostly share long prefixes of their paths (the
+ * project directory, source roots, packages).
+ *
+ * <pre>
+ * int version
+ * int count
+ * count times:
+ *   byte change type
+ *   unsigned short length of the prefix shared with the previous location
+ *   UTF rest of the location
+ * </pre>
+ */
+public final class ChangesCodec {
+
+    private static final int VERSION = 1;
+
+    private static final ChangeType[] CHANGE_TYPES = ChangeType.values();
+
+    private ChangesCodec() {
+    }
+
+    public static void write(DataOutput output, Collection<Change> changes) throws IOException {
+        final List<Change> sorted = changes.stream()
+            .sorted(Comparator.comparing(change -> change.getLocation().toString()))
+            .collect(Collectors.toList());
+
+        output.writeInt(VERSION);
+        output.writeInt(sorted.size());
+        String previous = "";
+        for (Change change : sorted) {
+            final String location = change.getLocation().toString();
+            final int shared = sharedPrefixLength(previous, location);
+            output.writeByte(change.getChangeType().ordinal());
+            output.writeShort(shared);
+            output.writeUTF(location.substring(shared));
+            previous = location;
+        }
+    }
+
+    /**
+     * @throws IOException if the changes are not in the format of this version
+     */
+    public static List<Change> read(DataInput input) throws IOException {
+        final int version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version + " of changes format");
+        }
+
+        final int count = input.readInt();
+        final List<Change> changes = new ArrayList<>(count);
+        String previous = "";
+        for (int i = 0; i < count; i++) {
+            final int type = input.readUnsignedByte();
+            final int shared = input.readUnsignedShort();
+            if (type >= CHANGE_TYPES.length || shared > previous.length()) {
+                throw new IOException("Corrupted changes format");
+            }
+            final String location = previous.substring(0, shared) + input.readUTF();
+            changes.add(new Change(Paths.get(location), CHANGE_TYPES[type]));
+            previous = location;
+        }
+        return changes;
+    }
+
+    private static int sharedPrefixLength(String first, String second) {
+        final int length = Math.min(Math.min(first.length(), second.length()), 0xFFFF);
+        int shared = 0;
+        while (shared < length && first.charAt(shared) == second.charAt(shared)) {
+            shared++;
+        }
+        return shared;
+    }
+}
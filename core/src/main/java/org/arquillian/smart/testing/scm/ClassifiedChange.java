@@ -0,0 +1,52 @@
+package org.arquillian.smart.testing.scm;
+
+import java.nio.file.Path;
+
+/**
+ * A change of a java source file together with the name of the class it contains and whether it is a test or not.
+ * Deleted files can't be read any more, so they have no class name and they are neither tests nor core classes.
+ */
+public class ClassifiedChange {
+
+    private final Change change;
+    private final String className;
+    private final boolean test;
+    private final boolean core;
+
+    ClassifiedChange(Change change, String className, boolean test, boolean core) {
+        this.change = change;
+        this.className = className;
+        this.test = test;
+        this.core = core;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    public Path getLocation() {
+        return change.getLocation();
+    }
+
+    public ChangeType getChangeType() {
+        return change.getChangeType();
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public boolean isTest() {
+        return test;
+    }
+
+    public boolean isCore() {
+        return core;
+    }
+
+    @Override
+    public String toString() {
+        return "ClassifiedChange{" + "change=" + change + ", className='" + className + '\'' + ", test=" + test
+            + ", core=" + core + '}';
+    }
+}
@@ -0,0 +1,52 @@
+package org.arquillian.smart.testing.scm;
+
+/**
+ * Range of changed lines in the current version of a modified file. Lines are numbered from 1 and both the first and
+ * the last line are included. Removed lines are represented by the lines surrounding the place they were removed from.
+ */
+public class Hunk {
+
+    private final int firstLine;
+    private final int lastLine;
+
+    public Hunk(int firstLine, int lastLine) {
+        this.firstLine = firstLine;
+        this.lastLine = lastLine;
+    }
+
+    public int getFirstLine() {
+        return firstLine;
+    }
+
+    public int getLastLine() {
+        return lastLine;
+    }
+
+    public boolean overlaps(int first, int last) {
+        return firstLine <= last && first <= lastLine;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Hunk)) {
+            return false;
+        }
+
+        final Hunk hunk = (Hunk) o;
+
+        return firstLine == hunk.firstLine && lastLine == hunk.lastLine;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * firstLine + lastLine;
+    }
+
+    @Override
+    public String toString() {
+        return "Hunk{" + "firstLine=" + firstLine + ", lastLine=" + lastLine + '}';
+    }
+}
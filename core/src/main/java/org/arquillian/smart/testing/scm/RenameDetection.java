@@ -0,0 +1,14 @@
+package org.arquillian.smart.testing.scm;
+
+public enum RenameDetection {
+
+    /** Renamed files are reported as deleted and added ones */
+    NONE,
+
+    /** Only files moved without any change of their content are reported as renamed */
+    EXACT,
+
+    /** Also files which content is similar enough to the content of a deleted file are reported as renamed */
+    CONTENT
+
+}
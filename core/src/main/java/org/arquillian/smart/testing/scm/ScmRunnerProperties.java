@@ -7,5 +7,14 @@ public class ScmRunnerProperties {
     public static final String SCM_LAST_CHANGES = "scm.last.changes";
     public static final String HEAD = "HEAD";
     public static final String DEFAULT_LAST_COMMITS = "0";
+    public static final String SCM_RENAMES_DETECTION = "scm.renames.detection";
+    public static final String SCM_RENAMES_LIMIT = "scm.renames.limit";
+    public static final String SCM_RENAMES_SCORE = "scm.renames.score";
+    public static final String DEFAULT_RENAMES_DETECTION = "content";
+    public static final int DEFAULT_RENAMES_LIMIT = 400;
+    public static final int DEFAULT_RENAMES_SCORE = 60;
+    public static final String SCM_SUFFIXES = "scm.suffixes";
+    public static final String DEFAULT_SUFFIXES = ".java";
+    public static final String SCM_PATHS = "scm.paths";
 }
 
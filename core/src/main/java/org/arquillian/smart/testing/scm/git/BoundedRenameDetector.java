@@ -0,0 +1,158 @@
+package org.arquillian.smart.testing.scm.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.arquillian.smart.testing.configuration.Renames;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.ChangeType;
+import org.arquillian.smart.testing.scm.RenameDetection;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * By default jgit sees renames as ADDs and DELETEs. Renames are found in passes from the cheapest one, so the content
+ * similarity scoring done by {@link RenameDetector} (which compares each added file with each deleted one) gets only
+ * the files which are left:
+ * <ol>
+ *     <li>files moved without any change of their content are paired by their blob ids,</li>
+ *     <li>the rest is scored by the similarity of their contents, unless there are more added or deleted files than the
+ *     configured limit. In such case files moved keeping their names are taken as renamed instead.</li>
+ * </ol>
+ */
+class BoundedRenameDetector {
+
+    private static final Logger logger = Log.getLogger();
+
+    private final Repository repository;
+    private final Renames renames;
+
+    BoundedRenameDetector(Repository repository, Renames renames) {
+        this.repository = repository;
+        this.renames = renames;
+    }
+
+    Set<Change> detect(Collection<DiffEntry> diffs, ObjectReader reader, File repoRoot) throws IOException {
+        final Set<Change> changes = new HashSet<>();
+        if (renames.getDetection() == RenameDetection.NONE) {
+            diffs.forEach(diffEntry -> changes.add(toChange(diffEntry, repoRoot)));
+            return changes;
+        }
+
+        final long start = System.currentTimeMillis();
+        final List<DiffEntry> added = new ArrayList<>();
+        final List<DiffEntry> deleted = new ArrayList<>();
+        for (DiffEntry diffEntry : diffs) {
+            switch (diffEntry.getChangeType()) {
+                case ADD:
+                    added.add(diffEntry);
+                    break;
+                case DELETE:
+                    deleted.add(diffEntry);
+                    break;
+                default:
+                    changes.add(toChange(diffEntry, repoRoot));
+            }
+        }
+        final int addedCount = added.size();
+        final int deletedCount = deleted.size();
+
+        final List<DiffEntry> notRenamed = pair(added, deleted, diffEntry -> diffEntry.getOldId().name(),
+            diffEntry -> diffEntry.getNewId().name(), false, repoRoot, changes);
+        String lastPass = "exact";
+
+        if (renames.getDetection() == RenameDetection.CONTENT && !notRenamed.isEmpty() && !deleted.isEmpty()) {
+            if (renames.getLimit() == 0 || Math.max(notRenamed.size(), deleted.size()) <= renames.getLimit()) {
+                final RenameDetector renameDetector = new RenameDetector(repository);
+                renameDetector.setRenameScore(renames.getScore());
+                renameDetector.setRenameLimit(renames.getLimit());
+                renameDetector.addAll(notRenamed);
+                renameDetector.addAll(deleted);
+                renameDetector.compute(reader, NullProgressMonitor.INSTANCE)
+                    .forEach(diffEntry -> changes.add(toChange(diffEntry, repoRoot)));
+                notRenamed.clear();
+                deleted.clear();
+                lastPass = "content";
+            } else {
+                logger.warn("Skipping content similarity of %d added and %d deleted files as it exceeds the limit of %d "
+                    + "renames. Only files moved keeping their names are detected as renamed.", notRenamed.size(),
+                    deleted.size(), renames.getLimit());
+                final List<DiffEntry> notMoved = pair(notRenamed, deleted, diffEntry -> fileName(diffEntry.getOldPath()),
+                    diffEntry -> fileName(diffEntry.getNewPath()), true, repoRoot, changes);
+                notRenamed.clear();
+                notRenamed.addAll(notMoved);
+                lastPass = "path";
+            }
+        }
+
+        notRenamed.forEach(diffEntry -> changes.add(toChange(diffEntry, repoRoot)));
+        deleted.forEach(diffEntry -> changes.add(toChange(diffEntry, repoRoot)));
+
+        logger.debug("Rename detection (%s) of %d added and %d deleted files took %d ms", lastPass, addedCount,
+            deletedCount, System.currentTimeMillis() - start);
+        return changes;
+    }
+
+    /**
+     * Pairs added files with the deleted ones having the same key and adds them to the changes as renamed. Paired deleted
+     * files are removed from the given list.
+     *
+     * @param uniqueOnly whether to pair only keys which belong to a single added and a single deleted file
+     * @return added files which haven't been paired
+     */
+    private List<DiffEntry> pair(List<DiffEntry> added, List<DiffEntry> deleted, Function<DiffEntry, String> deletedKey,
+        Function<DiffEntry, String> addedKey, boolean uniqueOnly, File repoRoot, Set<Change> changes) {
+        final Map<String, List<DiffEntry>> deletedByKey = new HashMap<>();
+        deleted.forEach(diffEntry -> deletedByKey.computeIfAbsent(deletedKey.apply(diffEntry), key -> new ArrayList<>())
+            .add(diffEntry));
+        final Map<String, Integer> addedCounts = new HashMap<>();
+        if (uniqueOnly) {
+            added.forEach(diffEntry -> addedCounts.merge(addedKey.apply(diffEntry), 1, Integer::sum));
+        }
+
+        final Set<DiffEntry> paired = new HashSet<>();
+        final List<DiffEntry> notPaired = new ArrayList<>();
+        for (DiffEntry diffEntry : added) {
+            final String key = addedKey.apply(diffEntry);
+            final List<DiffEntry> candidates = deletedByKey.get(key);
+            if (candidates == null || candidates.isEmpty()
+                || (uniqueOnly && (candidates.size() > 1 || addedCounts.get(key) > 1))) {
+                notPaired.add(diffEntry);
+            } else {
+                paired.add(candidates.remove(candidates.size() - 1));
+                changes.add(new Change(location(diffEntry.getNewPath(), repoRoot), ChangeType.RENAME));
+            }
+        }
+        deleted.removeIf(paired::contains);
+        return notPaired;
+    }
+
+    private String fileName(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private Change toChange(DiffEntry diffEntry, File repoRoot) {
+        final ChangeType changeType = ChangeType.valueOf(diffEntry.getChangeType().name());
+        // new path of deleted file is /dev/null
+        final String path = changeType == ChangeType.DELETE ? diffEntry.getOldPath() : diffEntry.getNewPath();
+        return new Change(location(path, repoRoot), changeType);
+    }
+
+    private Path location(String path, File repoRoot) {
+        return Paths.get(repoRoot.getAbsolutePath(), path);
+    }
+}
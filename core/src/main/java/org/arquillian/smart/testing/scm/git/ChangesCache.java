@@ -0,0 +1,91 @@
+package org.arquillian.smart.testing.scm.git;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.arquillian.smart.testing.FilesCodec;
+import org.arquillian.smart.testing.hub.storage.local.LocalStorage;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.ChangesCodec;
+
+/**
+ * Keeps the changes between two commits last resolved for a project between builds, so they are not resolved again
+ * (including the rename detection) as long as the range hasn't moved. The changes are stored under a key made of the
+ * resolved trees of the range and the configuration of the resolution - uncommitted changes are not cached, as telling
+ * whether they are the same would take as much as resolving them.
+ */
+class ChangesCache {
+
+    private static final Logger logger = Log.getLogger();
+
+    static final String CHANGES_CACHE_FILE_NAME = "scm-changes";
+
+    private final Path file;
+
+    ChangesCache(File projectDir) {
+        this.file = new LocalStorage(projectDir).afterExecution().toCache().file(CHANGES_CACHE_FILE_NAME).getPath();
+    }
+
+    /**
+     * Computes key of the changes resolved with the given inputs (resolved trees, configuration).
+     */
+    static String key(List<String> inputs) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (String input : inputs) {
+            digest.update(input.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return FilesCodec.bytesToHex(digest.digest());
+    }
+
+    Optional<Set<Change>> read(String key) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (!key.equals(input.readUTF())) {
+                return Optional.empty();
+            }
+            return Optional.of(new HashSet<>(ChangesCodec.read(input)));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            // a corrupted entry (e.g. with an invalid path) is just a cache miss, the changes are resolved again
+            logger.warn("Unable to read cached changes from [%s]. Reason: %s", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    void store(String key, Collection<Change> changes) {
+        try {
+            Files.createDirectories(file.getParent());
+            final Path tmpFile = Files.createTempFile(file.getParent(), CHANGES_CACHE_FILE_NAME, ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                output.writeUTF(key);
+                ChangesCodec.write(output, changes);
+            }
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Unable to cache changes in [%s]. Reason: %s", file, e.getMessage());
+        }
+    }
+}
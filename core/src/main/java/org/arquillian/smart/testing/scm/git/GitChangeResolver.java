@@ -4,41 +4,73 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.arquillian.smart.testing.BoundedCache;
 import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.configuration.Renames;
 import org.arquillian.smart.testing.configuration.Scm;
 import org.arquillian.smart.testing.logger.Log;
 import org.arquillian.smart.testing.logger.Logger;
 import org.arquillian.smart.testing.scm.Change;
-import org.arquillian.smart.testing.scm.ChangeType;
+import org.arquillian.smart.testing.scm.Hunk;
 import org.arquillian.smart.testing.scm.spi.ChangeResolver;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.diff.DiffEntry;
-import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.Edit;
 import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.IndexDiff;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryCache;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.OrTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.PathSuffixFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.eclipse.jgit.util.FS;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
 
 import static java.lang.String.format;
 import static org.arquillian.smart.testing.scm.Change.add;
 import static org.arquillian.smart.testing.scm.Change.modify;
 
+/**
+ * Resolves changes by Git. The mvn extension, each strategy and each module's provider resolve changes of the same
+ * repository, so the repositories are shared through {@link RepositoryCache} - each git directory is opened once per
+ * JVM and its pack indexes and caches stay loaded while any resolver uses it (and for a while after the last one is
+ * closed). Git directories found for project directories are cached as well (up to {@link #MAX_CACHED_GIT_DIRS} of
+ * them), so the file system isn't searched for them again and again.
+ */
 public class GitChangeResolver implements ChangeResolver {
 
     private static final String WRONG_COMMIT_ID_EXCEPTION = "Commit id '%s' is not found in %s Git repository";
     private static final String ENSURE_TREE = "^{tree}";
 
+    private static final int MAX_CACHED_GIT_DIRS = 1024;
+    private static final BoundedCache<File, File> GIT_DIRS_BY_PROJECT_DIR = new BoundedCache<>(MAX_CACHED_GIT_DIRS);
+
     private static final Logger logger = Log.getLogger();
+    private Repository repository;
     private Git git;
+    private ObjectReader reader;
 
     @Override
     public void close() throws Exception {
@@ -46,8 +78,18 @@ public class GitChangeResolver implements ChangeResolver {
     }
 
     private void closeGitIfExists() {
+        if (reader != null) {
+            reader.close();
+            reader = null;
+        }
         if (git != null) {
             git.close();
+            git = null;
+        }
+        if (repository != null) {
+            // releases the shared repository - it's closed once it's not used by any other resolver
+            repository.close();
+            repository = null;
         }
     }
 
@@ -60,7 +102,10 @@ public class GitChangeResolver implements ChangeResolver {
             scm = configuration.getScm();
         }
 
-        return diff(projectDir, scm.getRange().getTail(), scm.getRange().getHead());
+        final String previous = scm.getRange().getTail();
+        final String head = scm.getRange().getHead();
+        return diff(projectDir, previous, head, scm.getRenames(), new ChangesCache(projectDir), scm.getPaths(),
+            scm.getSuffixes());
     }
 
     @Override
@@ -75,37 +120,260 @@ public class GitChangeResolver implements ChangeResolver {
     }
 
     Set<Change> diff(File projectDir, String previous, String head) {
+        return diff(projectDir, previous, head, new Renames());
+    }
+
+    /**
+     * @param suffixes suffixes of the files to be resolved. No suffix means all files. Changes are resolved in the whole
+     * repository, not only under the project directory, as a module is affected also by changes of the other modules
+     * it depends on.
+     */
+    Set<Change> diff(File projectDir, String previous, String head, Renames renames, String... suffixes) {
+        return diff(projectDir, previous, head, renames, new String[0], suffixes);
+    }
+
+    /**
+     * @param paths directories (absolute or relative to the project directory) the changes are resolved in. No path
+     * means the whole repository.
+     */
+    Set<Change> diff(File projectDir, String previous, String head, Renames renames, String[] paths,
+        String... suffixes) {
+        return diff(projectDir, previous, head, renames, null, paths, suffixes);
+    }
+
+    /**
+     * Changes between the commits depend only on the resolved trees and the configuration, so they are taken from the
+     * given cache when it has them. Uncommitted changes are resolved on each call - by a single status, which is
+     * needed for the result either way, so the work tree is inspected only once.
+     */
+    private Set<Change> diff(File projectDir, String previous, String head, Renames renames, ChangesCache changesCache,
+        String[] paths, String[] suffixes) {
         buildGit(projectDir);
+        final long start = System.currentTimeMillis();
 
-        File repoRoot = git.getRepository().getDirectory().getParentFile();
-        final Set<Change> allChanges= new HashSet<>();
+        final File repoRoot = repository.getDirectory().getParentFile();
+        final List<String> repoPaths = repoPaths(repoRoot, projectDir, paths);
+        final Set<Change> allChanges = new HashSet<>();
         if (isAnyCommitExists()) {
-            allChanges.addAll(retrieveCommitsChanges(previous, head, repoRoot));
+            if (changesCache == null) {
+                allChanges.addAll(committedChanges(repoRoot, previous, head, renames, repoPaths, suffixes));
+            } else {
+                allChanges.addAll(
+                    cachedCommittedChanges(changesCache, repoRoot, previous, head, renames, repoPaths, suffixes));
+            }
         }
-        allChanges.addAll(retrieveUncommittedChanges(repoRoot));
+        allChanges.addAll(uncommittedChanges(repoRoot, repoPaths, suffixes));
 
+        logger.debug("Resolved %d changes in %d ms", allChanges.size(), System.currentTimeMillis() - start);
         return allChanges;
     }
 
+    /**
+     * Returns the given paths relative to the repository root, leaving out the ones outside the repository. Returns no
+     * path - ie. the whole repository - if any of them is the root itself or if none of them is in the repository.
+     */
+    private List<String> repoPaths(File repoRoot, File projectDir, String[] paths) {
+        final Path root = repoRoot.toPath().toAbsolutePath().normalize();
+        final Path projectPath = projectDir.toPath().toAbsolutePath();
+        final List<String> repoPaths = new ArrayList<>();
+        for (String path : paths) {
+            if (path.trim().isEmpty()) {
+                continue;
+            }
+            final Path absolutePath = projectPath.resolve(path.trim()).normalize();
+            if (absolutePath.equals(root)) {
+                return Collections.emptyList();
+            }
+            if (absolutePath.startsWith(root)) {
+                repoPaths.add(root.relativize(absolutePath).toString().replace(File.separatorChar, '/'));
+            }
+        }
+        return repoPaths;
+    }
+
+    private Set<Change> cachedCommittedChanges(ChangesCache changesCache, File repoRoot, String previous, String head,
+        Renames renames, List<String> paths, String[] suffixes) {
+        final String key = ChangesCache.key(Arrays.asList(
+            resolveTree(previous).name(),
+            resolveTree(head).name(),
+            renames.getDetection() + ":" + renames.getLimit() + ":" + renames.getScore(),
+            String.join(",", paths),
+            String.join(",", suffixes)));
+        final Optional<Set<Change>> cachedChanges = changesCache.read(key);
+        if (cachedChanges.isPresent()) {
+            logger.debug("Using %d changes cached for the same range", cachedChanges.get().size());
+            return cachedChanges.get();
+        }
+        final Set<Change> changes = committedChanges(repoRoot, previous, head, renames, paths, suffixes);
+        changesCache.store(key, changes);
+        return changes;
+    }
+
+    /**
+     * Resolves changes between the given commits.
+     *
+     * @param paths paths relative to the repository root the changes are resolved in. No path means the whole repository.
+     */
+    Set<Change> committedChanges(File repoRoot, String previous, String head, Renames renames, List<String> paths,
+        String[] suffixes) {
+        return retrieveCommitsChanges(previous, head, repoRoot, renames, pathFilter(paths, suffixes));
+    }
+
+    /**
+     * Resolves changes of the index and the work tree.
+     *
+     * @param paths paths relative to the repository root the changes are resolved in. No path means the whole repository.
+     */
+    Set<Change> uncommittedChanges(File repoRoot, List<String> paths, String[] suffixes) {
+        return retrieveUncommittedChanges(repoRoot, pathFilter(paths, suffixes));
+    }
+
+    /**
+     * A suffix filter has to look into every directory, as any of them can contain a matching file, so the paths are
+     * put in front of it - the tree walk then skips the trees and the work tree directories out of them.
+     */
+    private TreeFilter pathFilter(List<String> paths, String[] suffixes) {
+        final TreeFilter suffixFilter = suffixFilter(suffixes);
+        if (paths.isEmpty()) {
+            return suffixFilter;
+        }
+        final TreeFilter pathsFilter = PathFilterGroup.createFromStrings(paths);
+        return suffixFilter == TreeFilter.ALL ? pathsFilter : AndTreeFilter.create(pathsFilter, suffixFilter);
+    }
+
+    private TreeFilter suffixFilter(String[] suffixes) {
+        final List<TreeFilter> suffixFilters = Arrays.stream(suffixes)
+            .map(String::trim)
+            .filter(suffix -> !suffix.isEmpty())
+            .map(PathSuffixFilter::create)
+            .collect(Collectors.toList());
+        if (suffixFilters.isEmpty()) {
+            return TreeFilter.ALL;
+        }
+        return suffixFilters.size() == 1 ? suffixFilters.get(0) : OrTreeFilter.create(suffixFilters);
+    }
+
+    @Override
+    public Map<Path, List<Hunk>> hunks(File projectDir, Configuration configuration, Collection<Path> files) {
+        Scm scm;
+        if (configuration == null){
+            scm = Configuration.loadPrecalculated(projectDir).getScm();
+        } else {
+            scm = configuration.getScm();
+        }
+
+        return hunks(projectDir, scm.getRange().getTail(), files);
+    }
+
+    /**
+     * Compares the given files in the working tree (which the classes are compiled from) with their previous revision,
+     * so both committed and uncommitted changes are covered by a single diff.
+     */
+    Map<Path, List<Hunk>> hunks(File projectDir, String previous, Collection<Path> files) {
+        buildGit(projectDir);
+
+        final Map<Path, List<Hunk>> hunks = new HashMap<>();
+        final File repoRoot = git.getRepository().getDirectory().getParentFile();
+        final List<String> paths = files.stream()
+            .filter(file -> file.startsWith(repoRoot.toPath()))
+            .map(file -> repoRoot.toPath().relativize(file).toString().replace(File.separatorChar, '/'))
+            .collect(Collectors.toList());
+        if (paths.isEmpty() || !isAnyCommitExists()) {
+            return hunks;
+        }
+
+        try (DiffFormatter formatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+            final ObjectId oldHead = repository.resolve(previous + ENSURE_TREE);
+            validateCommitExists(oldHead, previous, repository);
+
+            final CanonicalTreeParser oldTree = new CanonicalTreeParser();
+            oldTree.reset(getReader(), oldHead);
+            formatter.setReader(getReader(), repository.getConfig());
+            formatter.setPathFilter(PathFilterGroup.createFromStrings(paths));
+
+            for (DiffEntry diffEntry : formatter.scan(oldTree, new FileTreeIterator(repository))) {
+                if (diffEntry.getChangeType() == DiffEntry.ChangeType.MODIFY) {
+                    hunks.put(Paths.get(repoRoot.getAbsolutePath(), diffEntry.getNewPath()),
+                        formatter.toFileHeader(diffEntry).toEditList().stream()
+                            .map(this::toHunk)
+                            .collect(Collectors.toList()));
+                }
+            }
+        } catch (MissingObjectException e) {
+            throw new IllegalArgumentException(format(WRONG_COMMIT_ID_EXCEPTION, e.getObjectId().getName(), repository.getDirectory().getAbsolutePath()));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return hunks;
+    }
+
+    private Hunk toHunk(Edit edit) {
+        if (edit.getEndB() > edit.getBeginB()) {
+            return new Hunk(edit.getBeginB() + 1, edit.getEndB());
+        }
+        // lines were only removed, the lines around them are taken as changed
+        return new Hunk(Math.max(1, edit.getBeginB()), edit.getBeginB() + 1);
+    }
+
     @Override
     public boolean isApplicable(File projectDir) {
-        return fileRepositoryBuilder(projectDir).getGitDir() != null;
+        return findGitDir(projectDir) != null;
     }
 
-    private FileRepositoryBuilder fileRepositoryBuilder(File currentGitDir) {
-        return new FileRepositoryBuilder().readEnvironment().findGitDir(currentGitDir);
+    /**
+     * Returns git directory of the repository the given project is in, or null if it's not in any. Only found
+     * directories are cached, as a repository may be initialized later on.
+     */
+    private File findGitDir(File projectDir) {
+        final File absoluteProjectDir = projectDir.getAbsoluteFile();
+        final File cachedGitDir = GIT_DIRS_BY_PROJECT_DIR.get(absoluteProjectDir);
+        if (cachedGitDir != null && cachedGitDir.isDirectory()) {
+            return cachedGitDir;
+        }
+
+        final File gitDir = new FileRepositoryBuilder().readEnvironment().findGitDir(absoluteProjectDir).getGitDir();
+        if (gitDir == null) {
+            GIT_DIRS_BY_PROJECT_DIR.remove(absoluteProjectDir);
+        } else {
+            GIT_DIRS_BY_PROJECT_DIR.put(absoluteProjectDir, gitDir);
+        }
+        return gitDir;
     }
 
-    private void buildGit(File projectDir){
+    void buildGit(File projectDir){
+        final File gitDir = findGitDir(projectDir);
+        if (repository != null && repository.getDirectory().equals(gitDir)) {
+            return;
+        }
         closeGitIfExists();
+        if (gitDir == null) {
+            throw new IllegalArgumentException("Unable to find git repository for path " + projectDir.getAbsolutePath());
+        }
         try {
-            git = new Git(fileRepositoryBuilder(projectDir).build());
-        } catch (IOException | IllegalArgumentException e) {
+            repository = RepositoryCache.open(RepositoryCache.FileKey.exact(gitDir, FS.DETECTED), true);
+            git = new Git(repository);
+        } catch (IOException e) {
             throw new IllegalArgumentException("Unable to find git repository for path " + projectDir.getAbsolutePath(), e);
         }
     }
 
-    private boolean isAnyCommitExists() {
+    /**
+     * Returns reader of the repository kept for all the diffs of this resolver, so its caches of inflated objects are
+     * reused.
+     */
+    private ObjectReader getReader() {
+        if (reader == null) {
+            reader = repository.newObjectReader();
+        }
+        return reader;
+    }
+
+    Repository getRepository() {
+        return repository;
+    }
+
+    boolean isAnyCommitExists() {
         try {
             final ObjectId head = git.getRepository().resolve("HEAD" + ENSURE_TREE);
             return head != null;
@@ -114,21 +382,19 @@ public class GitChangeResolver implements ChangeResolver {
         }
     }
 
-    private Set<Change> retrieveCommitsChanges(String previous, String head, File repoRoot) {
-        final Repository repository = git.getRepository();
-        try (ObjectReader reader = repository.newObjectReader()) {
-            final ObjectId oldHead = repository.resolve(previous + ENSURE_TREE);
-            final ObjectId newHead = repository.resolve(head + ENSURE_TREE);
-            validateCommitExists(oldHead, previous, repository);
-            validateCommitExists(newHead, head, repository);
+    private Set<Change> retrieveCommitsChanges(String previous, String head, File repoRoot, Renames renames,
+        TreeFilter pathFilter) {
+        try {
+            final ObjectId oldHead = resolveTree(previous);
+            final ObjectId newHead = resolveTree(head);
 
             final CanonicalTreeParser oldTree = new CanonicalTreeParser();
-            oldTree.reset(reader, oldHead);
+            oldTree.reset(getReader(), oldHead);
             final CanonicalTreeParser newTree = new CanonicalTreeParser();
-            newTree.reset(reader, newHead);
+            newTree.reset(getReader(), newHead);
 
-            final List<DiffEntry> commitDiffs = git.diff().setNewTree(newTree).setOldTree(oldTree).call();
-            return transformToChangeSet(reduceToRenames(commitDiffs), repoRoot);
+            final List<DiffEntry> commitDiffs = git.diff().setNewTree(newTree).setOldTree(oldTree).setPathFilter(pathFilter).call();
+            return new BoundedRenameDetector(repository, renames).detect(commitDiffs, getReader(), repoRoot);
         } catch (MissingObjectException e) {
             throw new IllegalArgumentException(format(WRONG_COMMIT_ID_EXCEPTION, e.getObjectId().getName(), repository.getDirectory().getAbsolutePath()));
         } catch (IOException | GitAPIException e) {
@@ -136,19 +402,42 @@ public class GitChangeResolver implements ChangeResolver {
         }
     }
 
+    /**
+     * Resolves tree of the given revision.
+     *
+     * @throws IllegalArgumentException if the revision doesn't exist in the repository
+     */
+    ObjectId resolveTree(String revision) {
+        try {
+            final ObjectId tree = repository.resolve(revision + ENSURE_TREE);
+            validateCommitExists(tree, revision, repository);
+            return tree;
+        } catch (MissingObjectException e) {
+            throw new IllegalArgumentException(format(WRONG_COMMIT_ID_EXCEPTION, e.getObjectId().getName(), repository.getDirectory().getAbsolutePath()));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private void validateCommitExists(ObjectId retrievedId, String id, Repository repository) {
         if (retrievedId == null) {
             throw new IllegalArgumentException(format(WRONG_COMMIT_ID_EXCEPTION, id, repository.getDirectory().getAbsolutePath()));
         }
     }
 
-    private Set<Change> retrieveUncommittedChanges(File repoRoot) {
+    private Set<Change> retrieveUncommittedChanges(File repoRoot, TreeFilter pathFilter) {
         final Set<Change> allChanges = new HashSet<>();
 
         final Status status;
         try {
-            status = git.status().call();
-        } catch (GitAPIException e) {
+            // the same as git.status() does, but limited by the filter
+            final IndexDiff indexDiff = new IndexDiff(repository, Constants.HEAD, new FileTreeIterator(repository));
+            if (pathFilter != TreeFilter.ALL) {
+                indexDiff.setFilter(pathFilter);
+            }
+            indexDiff.diff();
+            status = new Status(indexDiff);
+        } catch (IOException e) {
             throw new IllegalArgumentException(e);
         }
 
@@ -174,29 +463,4 @@ public class GitChangeResolver implements ChangeResolver {
 
         return allChanges;
     }
-
-    /**
-     * By default jgit sees renames as ADDs and DELETEs. For finding renames we use {@link RenameDetector} which tracks changes
-     * and if they much similarity score (default 60%) treats them as renames
-     *
-     * @param commitDiffs diffs to analyze
-     * @return original list reduced by ADDs/DELETEs which are in fact RENAMEs
-     * @throws IOException
-     */
-    private List<DiffEntry> reduceToRenames(final Collection<DiffEntry> commitDiffs) throws IOException {
-        final RenameDetector renameDetector = new RenameDetector(git.getRepository());
-        renameDetector.addAll(commitDiffs);
-        return renameDetector.compute();
-    }
-
-    private Set<Change> transformToChangeSet(List<DiffEntry> diffs, File repoRoot) {
-        return diffs.stream()
-            .map(diffEntry -> {
-                final Path classLocation = Paths.get(repoRoot.getAbsolutePath(), diffEntry.getNewPath());
-                final ChangeType changeType = ChangeType.valueOf(diffEntry.getChangeType().name());
-
-                return new Change(classLocation, changeType);
-            })
-            .collect(Collectors.toSet());
-    }
 }
@@ -0,0 +1,153 @@
+package org.arquillian.smart.testing.scm.git;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+
+/**
+ * Runs the git binary found on the path in the given work tree. The output is parsed as it's produced, so it's never
+ * held in the memory as a whole.
+ */
+class NativeGit {
+
+    private static final Logger logger = Log.getLogger();
+
+    private static final String GIT = "git";
+
+    // porcelain v2 format of status is available since 2.11
+    private static final int REQUIRED_MAJOR = 2;
+    private static final int REQUIRED_MINOR = 11;
+    private static final Pattern VERSION = Pattern.compile("git version (\\d+)\\.(\\d+).*");
+
+    private static volatile Boolean available;
+
+    private final File workTree;
+
+    NativeGit(File workTree) {
+        this.workTree = workTree;
+    }
+
+    /**
+     * Returns whether git binary of a version supporting all the commands used is on the path. The binary is looked up
+     * only once.
+     */
+    static boolean isAvailable() {
+        if (available == null) {
+            available = checkVersion();
+        }
+        return available;
+    }
+
+    private static boolean checkVersion() {
+        final StringBuilder version = new StringBuilder();
+        try {
+            new NativeGit(new File(".")).run(output -> {
+                String line;
+                while ((line = output.next()) != null) {
+                    version.append(line);
+                }
+            }, "--version");
+        } catch (IllegalStateException e) {
+            logger.debug("Git binary is not available: %s", e.getMessage());
+            return false;
+        }
+
+        final Matcher matcher = VERSION.matcher(version.toString().trim());
+        if (!matcher.matches()) {
+            logger.debug("Unknown version of git binary: %s", version);
+            return false;
+        }
+        final int major = Integer.parseInt(matcher.group(1));
+        final int minor = Integer.parseInt(matcher.group(2));
+        return major > REQUIRED_MAJOR || (major == REQUIRED_MAJOR && minor >= REQUIRED_MINOR);
+    }
+
+    /**
+     * Runs git with the given arguments and passes its output to the given parser.
+     *
+     * @throws IllegalStateException if git can't be run or it fails
+     */
+    void run(OutputParser parser, String... arguments) {
+        final List<String> command = new ArrayList<>();
+        command.add(GIT);
+        command.addAll(Arrays.asList(arguments));
+
+        File errorFile = null;
+        try {
+            errorFile = File.createTempFile("smart-testing-git", ".err");
+            final ProcessBuilder processBuilder = new ProcessBuilder(command)
+                .directory(workTree)
+                .redirectError(errorFile);
+            // status doesn't need to refresh the index, so it doesn't compete for its lock with the build
+            processBuilder.environment().put("GIT_OPTIONAL_LOCKS", "0");
+            final Process process = processBuilder.start();
+
+            try (InputStream output = new BufferedInputStream(process.getInputStream())) {
+                final NulDelimitedOutput nulDelimitedOutput = new NulDelimitedOutput(output);
+                parser.parse(nulDelimitedOutput);
+                while (nulDelimitedOutput.next() != null) {
+                    // has to be consumed for the process to finish
+                }
+            }
+
+            final int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new IllegalStateException(String.format("%s failed with exit code %d: %s", command, exitCode,
+                    new String(Files.readAllBytes(errorFile.toPath()), StandardCharsets.UTF_8).trim()));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to run " + command, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running " + command, e);
+        } finally {
+            if (errorFile != null && !errorFile.delete()) {
+                errorFile.deleteOnExit();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface OutputParser {
+        void parse(NulDelimitedOutput output) throws IOException;
+    }
+
+    /**
+     * Output of a git command run with -z option, so the paths are neither quoted nor escaped but separated by NUL.
+     */
+    static class NulDelimitedOutput {
+
+        private final InputStream output;
+        private final ByteArrayOutputStream token = new ByteArrayOutputStream();
+
+        NulDelimitedOutput(InputStream output) {
+            this.output = output;
+        }
+
+        /**
+         * Returns the next NUL terminated token, or null if the output has ended.
+         */
+        String next() throws IOException {
+            token.reset();
+            int read;
+            while ((read = output.read()) > 0) {
+                token.write(read);
+            }
+            if (read < 0 && token.size() == 0) {
+                return null;
+            }
+            return new String(token.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
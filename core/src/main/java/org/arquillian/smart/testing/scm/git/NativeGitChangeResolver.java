@@ -0,0 +1,177 @@
+package org.arquillian.smart.testing.scm.git;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.arquillian.smart.testing.configuration.Renames;
+import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.ChangeType;
+
+/**
+ * Resolves changes by the git binary, when it's available. Git takes advantage of the index, fsmonitor and the
+ * commit-graph, so it's much faster than JGit on large work trees. Otherwise, the changes are resolved by JGit, which is
+ * used for everything else either way.
+ *
+ * Commands used are plumbing or porcelain v2 ones with NUL delimited output, so neither user's configuration nor paths
+ * with special characters affect their output.
+ *
+ * Within the rename limit both resolve the same changes. Beyond it git skips the content similarity as well, but it
+ * pairs the remaining files differently than {@link BoundedRenameDetector} does - it counts the limit of sources times
+ * destinations and recent versions pair files keeping their names only if their contents are similar enough, while
+ * older ones detect just exact renames. So some files can be resolved as renamed by one and as deleted and added by
+ * the other.
+ */
+public class NativeGitChangeResolver extends GitChangeResolver {
+
+    // keeps the command line far below the limits of all platforms
+    private static final int MAX_PATHSPECS_LENGTH = 16 * 1024;
+
+    @Override
+    Set<Change> committedChanges(File repoRoot, String previous, String head, Renames renames, List<String> paths,
+        String[] suffixes) {
+        if (!NativeGit.isAvailable()) {
+            return super.committedChanges(repoRoot, previous, head, renames, paths, suffixes);
+        }
+        // validates the revisions the same way JGit resolution does
+        resolveTree(previous);
+        resolveTree(head);
+        return retrieveCommitsChanges(new NativeGit(repoRoot), previous, head, repoRoot, renames,
+            pathspecs(paths, suffixes));
+    }
+
+    @Override
+    Set<Change> uncommittedChanges(File repoRoot, List<String> paths, String[] suffixes) {
+        if (!NativeGit.isAvailable()) {
+            return super.uncommittedChanges(repoRoot, paths, suffixes);
+        }
+        return retrieveUncommittedChanges(new NativeGit(repoRoot), repoRoot, pathspecs(paths, suffixes));
+    }
+
+    /**
+     * Without any magic the pathspec wildcards match also slashes, so "*.java" matches all java files of the repository
+     * and "core/src/main/java/*.java" all java files under the directory. Git then reads only the directories the
+     * pathspecs lead to. If there are too many of them for a command line, only the suffixes are matched.
+     */
+    private List<String> pathspecs(List<String> paths, String[] suffixes) {
+        final List<String> suffixPathspecs = Arrays.stream(suffixes)
+            .map(String::trim)
+            .filter(suffix -> !suffix.isEmpty())
+            .map(suffix -> "*" + suffix)
+            .collect(Collectors.toList());
+        if (paths.isEmpty()) {
+            return suffixPathspecs;
+        }
+        final List<String> pathspecs = new ArrayList<>();
+        for (String path : paths) {
+            if (suffixPathspecs.isEmpty()) {
+                pathspecs.add(path);
+            } else {
+                suffixPathspecs.forEach(suffixPathspec -> pathspecs.add(path + "/" + suffixPathspec));
+            }
+        }
+        final int length = pathspecs.stream().mapToInt(pathspec -> pathspec.length() + 1).sum();
+        return length > MAX_PATHSPECS_LENGTH ? suffixPathspecs : pathspecs;
+    }
+
+    private Set<Change> retrieveCommitsChanges(NativeGit nativeGit, String previous, String head, File repoRoot,
+        Renames renames, List<String> pathspecs) {
+        final List<String> arguments = new ArrayList<>(Arrays.asList("diff-tree", "-r", "--name-status", "-z"));
+        switch (renames.getDetection()) {
+            case NONE:
+                arguments.add("--no-renames");
+                break;
+            case EXACT:
+                arguments.add("-M100%");
+                break;
+            default:
+                arguments.add("-M" + renames.getScore() + "%");
+                arguments.add("-l" + renames.getLimit());
+        }
+        arguments.add(previous);
+        arguments.add(head);
+        arguments.add("--");
+        arguments.addAll(pathspecs);
+
+        final Set<Change> changes = new HashSet<>();
+        nativeGit.run(output -> {
+            String status;
+            while ((status = output.next()) != null) {
+                final String path = output.next();
+                switch (status.charAt(0)) {
+                    case 'A':
+                        changes.add(change(repoRoot, path, ChangeType.ADD));
+                        break;
+                    case 'D':
+                        changes.add(change(repoRoot, path, ChangeType.DELETE));
+                        break;
+                    case 'R':
+                        changes.add(change(repoRoot, output.next(), ChangeType.RENAME));
+                        break;
+                    case 'C':
+                        changes.add(change(repoRoot, output.next(), ChangeType.COPY));
+                        break;
+                    default:
+                        changes.add(change(repoRoot, path, ChangeType.MODIFY));
+                }
+            }
+        }, arguments.toArray(new String[arguments.size()]));
+        return changes;
+    }
+
+    /**
+     * Takes the same changes JGit does - files modified in the index or the work tree, and files added to the index or
+     * untracked ones. A file added to the index and then modified in the work tree is taken as both added and modified,
+     * the same as JGit's {@code Status} lists it in both {@code getAdded()} and {@code getModified()}.
+     */
+    private Set<Change> retrieveUncommittedChanges(NativeGit nativeGit, File repoRoot, List<String> pathspecs) {
+        final List<String> arguments =
+            new ArrayList<>(Arrays.asList("status", "--porcelain=v2", "-z", "--untracked-files=all", "--"));
+        arguments.addAll(pathspecs);
+
+        final Set<Change> changes = new HashSet<>();
+        nativeGit.run(output -> {
+            String entry;
+            while ((entry = output.next()) != null) {
+                switch (entry.charAt(0)) {
+                    case '1':
+                        // 1 XY sub mH mI mW hH hI path
+                        final String[] changed = entry.split(" ", 9);
+                        final char index = changed[1].charAt(0);
+                        final char workTree = changed[1].charAt(1);
+                        if (index == 'M' || workTree == 'M') {
+                            changes.add(change(repoRoot, changed[8], ChangeType.MODIFY));
+                        }
+                        if (index == 'A') {
+                            changes.add(change(repoRoot, changed[8], ChangeType.ADD));
+                        }
+                        break;
+                    case '2':
+                        // 2 XY sub mH mI mW hH hI Xscore path, followed by the original path
+                        // JGit doesn't detect renames in the index, so it sees the new path as added
+                        final String[] renamed = entry.split(" ", 10);
+                        if (renamed[1].charAt(1) == 'M') {
+                            changes.add(change(repoRoot, renamed[9], ChangeType.MODIFY));
+                        }
+                        changes.add(change(repoRoot, renamed[9], ChangeType.ADD));
+                        output.next();
+                        break;
+                    case '?':
+                        changes.add(change(repoRoot, entry.substring(2), ChangeType.ADD));
+                        break;
+                    default:
+                        // unmerged and ignored files are not taken by JGit either
+                }
+            }
+        }, arguments.toArray(new String[arguments.size()]));
+        return changes;
+    }
+
+    private Change change(File repoRoot, String path, ChangeType changeType) {
+        return new Change(Paths.get(repoRoot.getAbsolutePath(), path), changeType);
+    }
+}
@@ -1,9 +1,14 @@
 package org.arquillian.smart.testing.scm.spi;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import org.arquillian.smart.testing.configuration.Configuration;
 import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.Hunk;
 
 public interface ChangeResolver extends AutoCloseable {
 
@@ -22,4 +27,18 @@ public interface ChangeResolver extends AutoCloseable {
 
     boolean isApplicable(File projectDir);
 
+    /**
+     * Resolves which lines of the given modified files have changed, compared to the same revision {@link #diff(File,
+     * Configuration)} compares them to. Files missing in the result have to be treated as changed as a whole.
+     *
+     * @param projectDir A directory from which you are calculating git diff changes.
+     * @param configuration A configuration used to configure Smart Testing.
+     * @param files Absolute paths of the modified files.
+     *
+     * @return Changed lines of the current version of each file.
+     */
+    default Map<Path, List<Hunk>> hunks(File projectDir, Configuration configuration, Collection<Path> files) {
+        return Collections.emptyMap();
+    }
+
 }
@@ -0,0 +1,40 @@
+package org.arquillian.smart.testing;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void should_evict_least_recently_used_entry_when_limit_is_reached() {
+        // given
+        final BoundedCache<String, String> cache = new BoundedCache<>(2);
+        cache.put("first", "1");
+        cache.put("second", "2");
+        cache.get("first");
+
+        // when
+        cache.put("third", "3");
+
+        // then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("first")).isEqualTo("1");
+        assertThat(cache.get("second")).isNull();
+        assertThat(cache.get("third")).isEqualTo("3");
+    }
+
+    @Test
+    public void should_evict_least_recently_used_entry_when_entry_is_computed() {
+        // given
+        final BoundedCache<String, String> cache = new BoundedCache<>(1);
+        cache.put("first", "1");
+
+        // when
+        final String computed = cache.computeIfAbsent("second", key -> "2");
+
+        // then
+        assertThat(computed).isEqualTo("2");
+        assertThat(cache.get("first")).isNull();
+    }
+}
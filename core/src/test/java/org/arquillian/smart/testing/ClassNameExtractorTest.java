@@ -1,13 +1,22 @@
 package org.arquillian.smart.testing;
 
 import java.io.File;
-import org.junit.Ignore;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class ClassNameExtractorTest {
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void should_extract_fully_qualified_name_from_source_file_with_defined_package() throws Exception {
         // given
@@ -35,7 +44,6 @@ public class ClassNameExtractorTest {
     }
 
     @Test
-    @Ignore("FIXME: improve the pattern to handle this case")
     public void should_extract_fully_qualified_name_from_source_file_with_defined_package_ignoring_comments() throws Exception {
         // given
         final ClassNameExtractor classNameExtractor = new ClassNameExtractor();
@@ -61,6 +69,81 @@ public class ClassNameExtractorTest {
         assertThat(fullyQualifiedName).isEqualTo("DummyClassWithDefaultPackageName");
     }
 
+    @Test
+    public void should_extract_package_of_annotated_package_declaration() throws Exception {
+        // given
+        final ClassNameExtractor classNameExtractor = new ClassNameExtractor();
+        final File packageInfo = write("package-info.java",
+            "/* license */ @Deprecated @javax.annotation.Generated(value = \"(\") package dummy.cls;");
+
+        // when
+        final String fullyQualifiedName = classNameExtractor.extractFullyQualifiedName(packageInfo);
+
+        // then
+        assertThat(fullyQualifiedName).isEqualTo("dummy.cls.package-info");
+    }
+
+    @Test
+    public void should_extract_fully_qualified_name_again_when_source_file_is_modified() throws Exception {
+        // given
+        final ClassNameExtractor classNameExtractor = new ClassNameExtractor();
+        final File dummyClass = write("DummyClass.java", "package dummy.cls; public class DummyClass {}");
+        classNameExtractor.extractFullyQualifiedName(dummyClass);
+
+        write("DummyClass.java", "package dummy.other.cls; public class DummyClass {}");
+        dummyClass.setLastModified(dummyClass.lastModified() + 2000);
+
+        // when
+        final String fullyQualifiedName = classNameExtractor.extractFullyQualifiedName(dummyClass);
+
+        // then
+        assertThat(fullyQualifiedName).isEqualTo("dummy.other.cls.DummyClass");
+    }
+
+    @Test
+    public void should_extract_fully_qualified_name_again_when_source_file_was_modified_shortly_before_being_read()
+        throws Exception {
+        // given
+        final ClassNameExtractor classNameExtractor = new ClassNameExtractor();
+        final File dummyClass = write("DummyClass.java", "package dummy.aaa; public class DummyClass {}");
+        final long lastModified = dummyClass.lastModified();
+        classNameExtractor.extractFullyQualifiedName(dummyClass);
+
+        // modified again within the resolution of the file system timestamps, keeping the size
+        write("DummyClass.java", "package dummy.bbb; public class DummyClass {}");
+        dummyClass.setLastModified(lastModified);
+
+        // when
+        final String fullyQualifiedName = classNameExtractor.extractFullyQualifiedName(dummyClass);
+
+        // then
+        assertThat(fullyQualifiedName).isEqualTo("dummy.bbb.DummyClass");
+    }
+
+    @Test
+    public void should_extract_fully_qualified_names_of_all_source_files() throws Exception {
+        // given
+        final ClassNameExtractor classNameExtractor = new ClassNameExtractor();
+        final Path withPackage = load("DummyClassWithPackageName.java").toPath();
+        final Path withDefaultPackage = load("DummyClassWithDefaultPackageName.java").toPath();
+
+        // when
+        final Map<Path, String> fullyQualifiedNames =
+            classNameExtractor.extractFullyQualifiedNames(Arrays.asList(withPackage, withDefaultPackage, withPackage));
+
+        // then
+        assertThat(fullyQualifiedNames)
+            .hasSize(2)
+            .containsEntry(withPackage, "dummy.cls.DummyClassWithPackageName")
+            .containsEntry(withDefaultPackage, "DummyClassWithDefaultPackageName");
+    }
+
+    private File write(String fileName, String content) throws IOException {
+        final Path file = temporaryFolder.getRoot().toPath().resolve(fileName);
+        Files.write(file, content.getBytes());
+        return file.toFile();
+    }
+
     private File load(String fileName) {
         return new File(Thread.currentThread().getContextClassLoader().getResource(
             fileName).getFile());
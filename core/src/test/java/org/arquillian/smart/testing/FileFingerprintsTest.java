@@ -0,0 +1,134 @@
+package org.arquillian.smart.testing;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FileFingerprintsTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void should_not_hash_file_again_when_its_attributes_are_unchanged() throws IOException {
+        // given
+        final Path fingerprintsFile = temporaryFolder.getRoot().toPath().resolve("fingerprints");
+        final File file = temporaryFolder.newFile("A.class");
+        final FileTime lastModified = writeInPast(file, "first");
+
+        final FileFingerprints fingerprints = FileFingerprints.load(fingerprintsFile);
+        final String fingerprint = fingerprints.fingerprint(file);
+        fingerprints.store(fingerprintsFile);
+
+        // same size and same modification time
+        Files.write(file.toPath(), "other".getBytes());
+        Files.setLastModifiedTime(file.toPath(), lastModified);
+
+        // when
+        final String restoredFingerprint = FileFingerprints.load(fingerprintsFile).fingerprint(file);
+
+        // then
+        assertThat(restoredFingerprint).isEqualTo(fingerprint);
+    }
+
+    @Test
+    public void should_hash_file_again_when_its_size_changes() throws IOException {
+        // given
+        final Path fingerprintsFile = temporaryFolder.getRoot().toPath().resolve("fingerprints");
+        final File file = temporaryFolder.newFile("A.class");
+        final FileTime lastModified = writeInPast(file, "first");
+
+        final FileFingerprints fingerprints = FileFingerprints.load(fingerprintsFile);
+        final String fingerprint = fingerprints.fingerprint(file);
+        fingerprints.store(fingerprintsFile);
+
+        Files.write(file.toPath(), "changed".getBytes());
+        Files.setLastModifiedTime(file.toPath(), lastModified);
+
+        // when
+        final String restoredFingerprint = FileFingerprints.load(fingerprintsFile).fingerprint(file);
+
+        // then
+        assertThat(restoredFingerprint).isNotEqualTo(fingerprint).isEqualTo(FilesCodec.checksum(file));
+    }
+
+    @Test
+    public void should_not_trust_stored_fingerprint_of_file_modified_just_before_it_was_recorded() throws IOException {
+        // given
+        final Path fingerprintsFile = temporaryFolder.getRoot().toPath().resolve("fingerprints");
+        final File file = temporaryFolder.newFile("A.class");
+        Files.write(file.toPath(), "first".getBytes());
+        final FileTime lastModified = Files.getLastModifiedTime(file.toPath());
+
+        final FileFingerprints fingerprints = FileFingerprints.load(fingerprintsFile);
+        final String fingerprint = fingerprints.fingerprint(file);
+        fingerprints.store(fingerprintsFile);
+
+        Files.write(file.toPath(), "other".getBytes());
+        Files.setLastModifiedTime(file.toPath(), lastModified);
+
+        // when
+        final String restoredFingerprint = FileFingerprints.load(fingerprintsFile).fingerprint(file);
+
+        // then
+        assertThat(restoredFingerprint).isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    public void should_not_trust_fingerprint_recorded_in_memory_for_file_modified_just_before() throws IOException {
+        // given
+        final File file = temporaryFolder.newFile("A.class");
+        Files.write(file.toPath(), "first".getBytes());
+        final FileTime lastModified = Files.getLastModifiedTime(file.toPath());
+
+        final FileFingerprints fingerprints = new FileFingerprints();
+        final String fingerprint = fingerprints.fingerprint(file);
+
+        // recompiled within the resolution of the file system timestamps
+        Files.write(file.toPath(), "other".getBytes());
+        Files.setLastModifiedTime(file.toPath(), lastModified);
+
+        // when
+        final String newFingerprint = fingerprints.fingerprint(file);
+
+        // then
+        assertThat(newFingerprint).isNotEqualTo(fingerprint).isEqualTo(FilesCodec.checksum(file));
+    }
+
+    @Test
+    public void should_evict_fingerprint_of_least_recently_used_file_when_limit_is_reached() throws IOException {
+        // given
+        final File first = temporaryFolder.newFile("A.class");
+        final File second = temporaryFolder.newFile("B.class");
+        final File third = temporaryFolder.newFile("C.class");
+        writeInPast(first, "first");
+        writeInPast(second, "second");
+        writeInPast(third, "third");
+
+        final FileFingerprints fingerprints = FileFingerprints.bounded(2);
+        fingerprints.fingerprint(first);
+        fingerprints.fingerprint(second);
+
+        // when
+        final String fingerprint = fingerprints.fingerprint(third);
+
+        // then
+        assertThat(fingerprint).isEqualTo(FilesCodec.checksum(third));
+        assertThat(fingerprints.size()).isEqualTo(2);
+    }
+
+    private FileTime writeInPast(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes());
+        final FileTime lastModified = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
+        Files.setLastModifiedTime(file.toPath(), lastModified);
+        return lastModified;
+    }
+}
@@ -45,6 +45,21 @@ public class TestSelectionTest {
         assertThat(mergedTestSelection.getClassName()).isEqualTo(CLASS_NAME_1);
     }
 
+    @Test
+    public void should_keep_nearest_known_distance_when_merging_test_selections() {
+        // given
+        final TestSelection testSelection = new TestSelection(CLASS_NAME_1, 3, AFFECTED);
+
+        // when
+        final TestSelection mergedWithUnknown = testSelection.merge(new TestSelection(CLASS_NAME_1, NEW));
+        final TestSelection mergedWithNearer = mergedWithUnknown.merge(new TestSelection(CLASS_NAME_1, 1, CHANGED));
+
+        // then
+        assertThat(mergedWithUnknown.getDistance()).hasValue(3);
+        assertThat(mergedWithNearer.getDistance()).hasValue(1);
+        assertThat(new TestSelection(CLASS_NAME_1, NEW).getDistance()).isEmpty();
+    }
+
     @Test
     public void should_not_merge_test_selection_with_different_class_name() {
         // given
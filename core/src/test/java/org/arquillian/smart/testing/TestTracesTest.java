@@ -0,0 +1,57 @@
+package org.arquillian.smart.testing;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestTracesTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void should_find_tests_loading_changed_classes_in_stored_traces() {
+        // given
+        final Path tracesFile = temporaryFolder.getRoot().toPath().resolve("traces");
+        final TestTraces traces = new TestTraces();
+        traces.record("org.example.ATest", Arrays.asList("org.example.ATest", "org.example.A", "org.example.B"));
+        traces.record("org.example.BTest", Arrays.asList("org.example.BTest", "org.example.B"));
+        traces.record("org.example.CTest", Arrays.asList("org.example.CTest", "org.example.C"));
+        traces.store(tracesFile);
+
+        // when
+        final TestTraces loaded = TestTraces.load(tracesFile);
+
+        // then
+        assertThat(loaded.size()).isEqualTo(3);
+        assertThat(loaded.findTestsLoadingAnyOf(Collections.singletonList("org.example.B")))
+            .containsOnly("org.example.ATest", "org.example.BTest");
+        assertThat(loaded.findTestsLoadingAnyOf(Arrays.asList("org.example.A", "org.example.C")))
+            .containsOnly("org.example.ATest", "org.example.CTest");
+    }
+
+    @Test
+    public void should_keep_traces_of_tests_stored_by_other_executions() {
+        // given
+        final Path tracesFile = temporaryFolder.getRoot().toPath().resolve("traces");
+        final TestTraces first = new TestTraces();
+        first.record("org.example.ATest", Arrays.asList("org.example.A", "org.example.B"));
+        first.record("org.example.BTest", Collections.singletonList("org.example.B"));
+        first.store(tracesFile);
+
+        final TestTraces second = new TestTraces();
+        second.record("org.example.ATest", Collections.singletonList("org.example.A"));
+
+        // when
+        second.store(tracesFile);
+
+        // then
+        assertThat(TestTraces.load(tracesFile).findTestsLoadingAnyOf(Collections.singletonList("org.example.B")))
+            .containsOnly("org.example.BTest");
+    }
+}
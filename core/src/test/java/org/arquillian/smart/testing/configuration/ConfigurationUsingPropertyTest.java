@@ -1,10 +1,13 @@
 package org.arquillian.smart.testing.configuration;
 
+import java.util.HashMap;
+import java.util.Map;
 import net.jcip.annotations.NotThreadSafe;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.contrib.java.lang.system.RestoreSystemProperties;
 import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
 
 import static org.arquillian.smart.testing.RunMode.SELECTING;
 import static org.arquillian.smart.testing.configuration.Configuration.SMART_TESTING;
@@ -25,6 +28,28 @@ public class ConfigurationUsingPropertyTest {
     @Rule
     public final RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void should_load_configuration_with_given_system_properties_over_the_ones_of_jvm() {
+        // given
+        System.setProperty(SCM_LAST_CHANGES, "3");
+        System.setProperty(SMART_TESTING_MODE, "ordering");
+        final Map<String, String> buildProperties = new HashMap<>();
+        buildProperties.put(SCM_LAST_CHANGES, "5");
+        buildProperties.put(SMART_TESTING_MODE, "selecting");
+
+        // when
+        final Configuration actualConfiguration = Configuration.load(temporaryFolder.getRoot(), buildProperties);
+
+        // then
+        assertThat(actualConfiguration.getMode()).isEqualTo(SELECTING);
+        assertThat(actualConfiguration.getScm().getRange()).extracting("head", "tail").containsExactly(HEAD, HEAD + "~5");
+        assertThat(actualConfiguration.getSystemProperty(SCM_LAST_CHANGES)).isEqualTo("5");
+        assertThat(System.getProperty(SCM_LAST_CHANGES)).isEqualTo("3");
+    }
+
     @Test
     public void should_load_configuration_with_overwriting_system_property_for_scmLastChanges_over_values_from_config_file() {
         // given
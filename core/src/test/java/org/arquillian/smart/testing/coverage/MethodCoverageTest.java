@@ -0,0 +1,60 @@
+package org.arquillian.smart.testing.coverage;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MethodCoverageTest {
+
+    private static final long SERVICE_CONSTRUCTOR = MethodCoverage.hash("org.example.Service", "<init>", "()V");
+    private static final long SERVICE_FIND = MethodCoverage.hash("org.example.Service", "find", "(Ljava/lang/String;)I");
+    private static final long SERVICE_STORE = MethodCoverage.hash("org.example.Service", "store", "(Ljava/lang/String;)V");
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void should_find_tests_executing_changed_methods_in_stored_coverage() {
+        // given
+        final Path coverageFile = temporaryFolder.getRoot().toPath().resolve("coverage");
+        final MethodCoverage coverage = new MethodCoverage();
+        coverage.record("org.example.FindTest", new long[] {SERVICE_FIND, SERVICE_CONSTRUCTOR});
+        coverage.record("org.example.StoreTest", new long[] {SERVICE_CONSTRUCTOR, SERVICE_STORE, SERVICE_STORE});
+        coverage.store(coverageFile);
+
+        // when
+        final MethodCoverage loaded = MethodCoverage.load(coverageFile);
+
+        // then
+        assertThat(loaded.size()).isEqualTo(2);
+        assertThat(loaded.findTestsExecutingAnyOf(Collections.singletonList(SERVICE_FIND)))
+            .containsOnly("org.example.FindTest");
+        assertThat(loaded.findTestsExecutingAnyOf(Arrays.asList(SERVICE_STORE, SERVICE_CONSTRUCTOR)))
+            .containsOnly("org.example.FindTest", "org.example.StoreTest");
+    }
+
+    @Test
+    public void should_keep_coverage_of_tests_stored_by_other_executions() {
+        // given
+        final Path coverageFile = temporaryFolder.getRoot().toPath().resolve("coverage");
+        final MethodCoverage first = new MethodCoverage();
+        first.record("org.example.FindTest", new long[] {SERVICE_FIND, SERVICE_STORE});
+        first.record("org.example.StoreTest", new long[] {SERVICE_STORE});
+        first.store(coverageFile);
+
+        final MethodCoverage second = new MethodCoverage();
+        second.record("org.example.FindTest", new long[] {SERVICE_FIND});
+
+        // when
+        second.store(coverageFile);
+
+        // then
+        assertThat(MethodCoverage.load(coverageFile).findTestsExecutingAnyOf(Collections.singletonList(SERVICE_STORE)))
+            .containsOnly("org.example.StoreTest");
+    }
+}
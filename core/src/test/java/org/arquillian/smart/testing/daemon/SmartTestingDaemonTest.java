@@ -0,0 +1,247 @@
+package org.arquillian.smart.testing.daemon;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import net.jcip.annotations.NotThreadSafe;
+import org.arquillian.smart.testing.TestSelection;
+import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.ChangeType;
+import org.eclipse.jgit.api.Git;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.Assume.assumeTrue;
+
+@Category(NotThreadSafe.class)
+public class SmartTestingDaemonTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public final RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+    @Test
+    public void should_return_all_tests_selected_by_daemon_when_ordering_mode_is_requested() throws IOException {
+        // given
+        final List<String> tests = Arrays.asList("org.example.FirstTest", "org.example.SecondTest");
+
+        try (SmartTestingDaemon daemon = startDaemon(10000)) {
+            // when
+            final Set<TestSelection> selection = client(daemon.getPort(), 120000)
+                .select(temporaryFolder.getRoot(), Collections.emptyList(),
+                    Collections.singletonMap(Configuration.SMART_TESTING_MODE, "ordering"), tests);
+
+            // then
+            assertThat(selection).extracting(TestSelection::getClassName)
+                .containsOnly("org.example.FirstTest", "org.example.SecondTest");
+        }
+    }
+
+    @Test
+    public void should_resolve_changes_of_project_by_daemon() throws Exception {
+        // given
+        final File projectDir = temporaryFolder.newFolder("project");
+        Git.init().setDirectory(projectDir).call().close();
+        final File untracked = new File(projectDir, "Untracked.java");
+        Files.write(untracked.toPath(), "class Untracked {}".getBytes());
+
+        try (SmartTestingDaemon daemon = startDaemon(10000)) {
+            // when
+            final Collection<Change> changes = client(daemon.getPort(), 120000)
+                .resolveChanges(projectDir, Collections.emptyMap());
+
+            // then
+            assertThat(changes).extracting(Change::getLocation, Change::getChangeType)
+                .containsOnly(tuple(untracked.toPath(), ChangeType.ADD));
+        }
+    }
+
+    @Test
+    public void should_not_change_daemon_system_properties_by_request() throws IOException {
+        // given
+        System.setProperty(Configuration.SMART_TESTING_MODE, "selecting");
+
+        try (SmartTestingDaemon daemon = startDaemon(10000)) {
+            // when
+            client(daemon.getPort(), 120000)
+                .select(temporaryFolder.getRoot(), Collections.emptyList(),
+                    Collections.singletonMap(Configuration.SMART_TESTING_MODE, "ordering"),
+                    Collections.singletonList("org.example.FirstTest"));
+        }
+
+        // then
+        assertThat(System.getProperty(Configuration.SMART_TESTING_MODE)).isEqualTo("selecting");
+    }
+
+    @Test
+    public void should_serve_other_clients_when_one_client_never_sends_its_request() throws IOException {
+        // given
+        try (SmartTestingDaemon daemon = startDaemon(200);
+             Socket stalledClient = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+
+            // when
+            final Set<TestSelection> selection = client(daemon.getPort(), 5000)
+                .select(temporaryFolder.getRoot(), Collections.emptyList(),
+                    Collections.singletonMap(Configuration.SMART_TESTING_MODE, "ordering"),
+                    Collections.singletonList("org.example.FirstTest"));
+
+            // then
+            assertThat(selection).extracting(TestSelection::getClassName).containsOnly("org.example.FirstTest");
+        }
+    }
+
+    @Test
+    public void should_reject_request_with_invalid_token() throws IOException {
+        // given
+        try (SmartTestingDaemon daemon = startDaemon(10000)) {
+            final File tokenFile = SmartTestingDaemon.getTokenFile(getTokenDirectory(), daemon.getPort());
+            Files.write(tokenFile.toPath(), "guessed".getBytes());
+
+            // when
+            final SmartTestingDaemonClient client = client(daemon.getPort(), 5000);
+
+            // then
+            assertThatThrownBy(() -> client.select(temporaryFolder.getRoot(), Collections.emptyList(),
+                Collections.emptyMap(), Collections.singletonList("org.example.FirstTest")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid token");
+        }
+    }
+
+    @Test
+    public void should_write_token_readable_only_by_owner_and_delete_it_when_closed() throws IOException {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+
+        // given
+        final File tokenFile;
+        try (SmartTestingDaemon daemon = startDaemon(10000)) {
+            tokenFile = SmartTestingDaemon.getTokenFile(getTokenDirectory(), daemon.getPort());
+
+            // when
+            final Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(tokenFile.toPath());
+
+            // then
+            assertThat(permissions).containsOnly(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE);
+            assertThat(Files.getPosixFilePermissions(getTokenDirectory().toPath())).containsOnly(
+                PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE, PosixFilePermission.OWNER_EXECUTE);
+        }
+        assertThat(tokenFile).doesNotExist();
+    }
+
+    @Test
+    public void should_serve_other_clients_while_request_of_one_client_is_being_handled() throws IOException {
+        // given
+        try (SmartTestingDaemon daemon = startDaemon(60000);
+             Socket slowClient = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+
+            // when
+            final Set<TestSelection> selection = client(daemon.getPort(), 5000)
+                .select(temporaryFolder.getRoot(), Collections.emptyList(),
+                    Collections.singletonMap(Configuration.SMART_TESTING_MODE, "ordering"),
+                    Collections.singletonList("org.example.FirstTest"));
+
+            // then
+            assertThat(selection).extracting(TestSelection::getClassName).containsOnly("org.example.FirstTest");
+        }
+    }
+
+    @Test
+    public void should_not_close_class_loader_of_previous_classpath_while_request_uses_it() throws IOException {
+        // given
+        final File projectDir = temporaryFolder.getRoot();
+        final String classes = new File(projectDir, "target/classes").toURI().toURL().toString();
+        final String testClasses = new File(projectDir, "target/test-classes").toURI().toURL().toString();
+
+        try (SmartTestingDaemon daemon = new SmartTestingDaemon(0, getTokenDirectory(), 10000)) {
+            final ProjectClassLoader usedClassLoader =
+                daemon.acquireClassLoader(projectDir, Collections.singletonList(classes));
+
+            // when
+            final ProjectClassLoader newClassLoader =
+                daemon.acquireClassLoader(projectDir, Arrays.asList(classes, testClasses));
+            daemon.releaseClassLoader(newClassLoader);
+
+            // then
+            assertThat(usedClassLoader.isClosed()).isFalse();
+            assertThat(newClassLoader.isClosed()).isFalse();
+            daemon.releaseClassLoader(usedClassLoader);
+            assertThat(usedClassLoader.isClosed()).isTrue();
+        }
+    }
+
+    @Test
+    public void should_fail_when_daemon_does_not_answer_in_time() throws IOException {
+        // given
+        try (ServerSocket unresponsiveDaemon = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            Files.createDirectories(getTokenDirectory().toPath());
+            Files.write(SmartTestingDaemon.getTokenFile(getTokenDirectory(), unresponsiveDaemon.getLocalPort()).toPath(),
+                "token".getBytes());
+
+            // when
+            final SmartTestingDaemonClient client = client(unresponsiveDaemon.getLocalPort(), 200);
+
+            // then
+            assertThatThrownBy(() -> client.select(temporaryFolder.getRoot(), Collections.emptyList(),
+                Collections.emptyMap(), Collections.emptyList()))
+                .isInstanceOf(SocketTimeoutException.class);
+        }
+    }
+
+    @Test
+    public void should_fail_when_daemon_is_not_running() throws IOException {
+        // given
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        // when
+        final SmartTestingDaemonClient client = client(port, 200);
+
+        // then
+        assertThatThrownBy(() -> client.select(temporaryFolder.getRoot(), Collections.emptyList(),
+            Collections.emptyMap(), Collections.emptyList()))
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void should_accept_only_valid_port_numbers() {
+        assertThat(SmartTestingDaemonClient.isValidPort("7665")).isTrue();
+        assertThat(SmartTestingDaemonClient.isValidPort("")).isFalse();
+        assertThat(SmartTestingDaemonClient.isValidPort("port")).isFalse();
+        assertThat(SmartTestingDaemonClient.isValidPort("-1")).isFalse();
+        assertThat(SmartTestingDaemonClient.isValidPort("65536")).isFalse();
+    }
+
+    private SmartTestingDaemon startDaemon(int requestTimeoutMillis) throws IOException {
+        return new SmartTestingDaemon(0, getTokenDirectory(), requestTimeoutMillis).start();
+    }
+
+    private SmartTestingDaemonClient client(int port, int readTimeoutMillis) {
+        return new SmartTestingDaemonClient(port, getTokenDirectory(), readTimeoutMillis);
+    }
+
+    private File getTokenDirectory() {
+        return new File(temporaryFolder.getRoot(), SmartTestingDaemon.TOKEN_DIRECTORY);
+    }
+}
@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -12,11 +13,13 @@ import java.util.Optional;
 import org.arquillian.smart.testing.hub.storage.local.LocalChangeStorage;
 import org.arquillian.smart.testing.scm.Change;
 import org.arquillian.smart.testing.scm.ChangeType;
+import org.assertj.core.groups.Tuple;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 public class LocalChangeStorageTest {
 
@@ -81,6 +84,47 @@ public class LocalChangeStorageTest {
         assertThat(readChangesOptional).contains(changes);
     }
 
+    @Test
+    public void should_read_changes_with_any_characters_in_their_paths() {
+        // given
+        final Path rootDir = temporaryFolder.getRoot().toPath();
+        final LocalChangeStorage localChangeStorage = new LocalChangeStorage();
+        final List<Change> changes = Arrays.asList(
+            new Change(rootDir.resolve("src/main/java/org/example/Service.java"), ChangeType.MODIFY),
+            new Change(rootDir.resolve("src/main/java/org/example/Service,Impl.java"), ChangeType.ADD),
+            new Change(rootDir.resolve("src/main/java/org/example/My Service.java"), ChangeType.RENAME),
+            new Change(rootDir.resolve("src/test/java/org/example/ServiceTest.java"), ChangeType.DELETE));
+
+        // when
+        localChangeStorage.store(changes, rootDir.toFile());
+        final Optional<Collection<Change>> readChanges = localChangeStorage.read(rootDir.toFile());
+
+        // then
+        assertThat(readChanges).isPresent();
+        assertThat(readChanges.get()).extracting(Change::getLocation, Change::getChangeType)
+            .containsOnly(changes.stream().map(change -> tuple(change.getLocation(), change.getChangeType())).toArray(Tuple[]::new));
+    }
+
+    @Test
+    public void should_decode_changes_only_once_until_they_are_stored_again() {
+        // given
+        final File rootDir = temporaryFolder.getRoot();
+        final LocalChangeStorage localChangeStorage = new LocalChangeStorage();
+        localChangeStorage.store(
+            Collections.singletonList(new Change(rootDir.toPath().resolve("mychange.txt"), ChangeType.ADD)), rootDir);
+        final Collection<Change> firstRead = localChangeStorage.read(rootDir).get();
+
+        // when
+        final Collection<Change> secondRead = localChangeStorage.read(rootDir).get();
+        final List<Change> newChanges =
+            Collections.singletonList(new Change(rootDir.toPath().resolve("mychange.txt"), ChangeType.MODIFY));
+        localChangeStorage.store(newChanges, rootDir);
+
+        // then
+        assertThat(secondRead).isSameAs(firstRead);
+        assertThat(localChangeStorage.read(rootDir).get()).extracting(Change::getChangeType).containsOnly(ChangeType.MODIFY);
+    }
+
     @Test
     public void should_return_empty_if_file_not_found() {
         // given
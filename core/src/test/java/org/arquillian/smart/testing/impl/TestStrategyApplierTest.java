@@ -5,12 +5,18 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import org.arquillian.smart.testing.RunMode;
 import org.arquillian.smart.testing.configuration.Configuration;
 import org.arquillian.smart.testing.TestSelection;
+import org.arquillian.smart.testing.spi.TestExecutionPlanner;
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
 
 import static java.util.Arrays.asList;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -66,6 +72,99 @@ public class TestStrategyApplierTest {
             .flatExtracting("types").containsExactly("new", "changed");
     }
 
+    @Test
+    public void should_run_strategies_concurrently_and_keep_order_of_strategies() throws Exception {
+        // given
+        final Set<Class<?>> classes =
+            new LinkedHashSet<>(asList(TestExecutionPlannerLoaderTest.class, TestStrategyApplierTest.class));
+        final TestExecutionPlannerLoader testExecutionPlannerLoader = prepareLoader(classes);
+
+        // each strategy waits until the other one is running as well
+        final CyclicBarrier bothStrategiesRunning = new CyclicBarrier(2);
+        final TestExecutionPlanner newPlanner = mock(TestExecutionPlanner.class);
+        when(newPlanner.getTests()).thenAnswer(invocation -> {
+            bothStrategiesRunning.await(10, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            return Collections.singletonList(new TestSelection(TestStrategyApplierTest.class.getName(), "new"));
+        });
+        final TestExecutionPlanner changedPlanner = mock(TestExecutionPlanner.class);
+        when(changedPlanner.getTests()).thenAnswer(invocation -> {
+            bothStrategiesRunning.await(10, TimeUnit.SECONDS);
+            return Collections.singletonList(new TestSelection(TestExecutionPlannerLoaderTest.class.getName(), "changed"));
+        });
+        when(testExecutionPlannerLoader.getPlannerForStrategy(eq("new"), anyBoolean())).thenReturn(newPlanner);
+        when(testExecutionPlannerLoader.getPlannerForStrategy(eq("changed"), anyBoolean())).thenReturn(changedPlanner);
+
+        final Configuration configuration = Configuration.load();
+        configuration.setMode(RunMode.SELECTING);
+        configuration.setStrategies("new", "changed");
+        final TestStrategyApplierImpl testStrategyApplier =
+            new TestStrategyApplierImpl(configuration, testExecutionPlannerLoader, new File("."));
+
+        // when
+        final Set<TestSelection> testSelections = testStrategyApplier.applyOnNames(Collections.emptyList());
+
+        // then
+        Assertions.assertThat(testSelections)
+            .flatExtracting("types").containsExactly("new", "changed");
+    }
+
+    @Test
+    public void should_name_strategy_which_failed_when_strategies_run_concurrently() {
+        // given
+        final TestExecutionPlannerLoader testExecutionPlannerLoader =
+            prepareLoader(new LinkedHashSet<>(Collections.singletonList(TestStrategyApplierTest.class)));
+        final TestExecutionPlanner newPlanner = mock(TestExecutionPlanner.class);
+        when(newPlanner.getName()).thenReturn("new");
+        when(newPlanner.getTests()).thenReturn(Collections.emptyList());
+        final TestExecutionPlanner changedPlanner = mock(TestExecutionPlanner.class);
+        when(changedPlanner.getName()).thenReturn("changed");
+        when(changedPlanner.getTests()).thenThrow(new IllegalArgumentException("broken"));
+        when(testExecutionPlannerLoader.getPlannerForStrategy(eq("new"), anyBoolean())).thenReturn(newPlanner);
+        when(testExecutionPlannerLoader.getPlannerForStrategy(eq("changed"), anyBoolean())).thenReturn(changedPlanner);
+
+        final Configuration configuration = Configuration.load();
+        configuration.setMode(RunMode.SELECTING);
+        configuration.setStrategies("new", "changed");
+        final TestStrategyApplierImpl testStrategyApplier =
+            new TestStrategyApplierImpl(configuration, testExecutionPlannerLoader, new File("."));
+
+        // when
+        final Throwable failure = Assertions.catchThrowable(() -> testStrategyApplier.applyOnNames(Collections.emptyList()));
+
+        // then
+        Assertions.assertThat(failure)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Strategy changed failed")
+            .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void should_name_strategy_which_failed_when_it_is_the_only_strategy() {
+        // given
+        final TestExecutionPlannerLoader testExecutionPlannerLoader =
+            prepareLoader(new LinkedHashSet<>(Collections.singletonList(TestStrategyApplierTest.class)));
+        final TestExecutionPlanner changedPlanner = mock(TestExecutionPlanner.class);
+        when(changedPlanner.getName()).thenReturn("changed");
+        when(changedPlanner.getTests()).thenThrow(new IllegalArgumentException("broken"));
+        when(testExecutionPlannerLoader.getPlannerForStrategy(eq("changed"), anyBoolean())).thenReturn(changedPlanner);
+
+        final Configuration configuration = Configuration.load();
+        configuration.setMode(RunMode.SELECTING);
+        configuration.setStrategies("changed");
+        final TestStrategyApplierImpl testStrategyApplier =
+            new TestStrategyApplierImpl(configuration, testExecutionPlannerLoader, new File("."));
+
+        // when
+        final Throwable failure = Assertions.catchThrowable(() -> testStrategyApplier.applyOnNames(Collections.emptyList()));
+
+        // then
+        Assertions.assertThat(failure)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Strategy changed failed")
+            .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
     private TestExecutionPlannerLoader prepareLoader(final Set<Class<?>> testsToRun) {
         TestExecutionPlannerLoader testExecutionPlannerLoader = mock(TestExecutionPlannerLoader.class);
         when(testExecutionPlannerLoader.getVerifier())
@@ -0,0 +1,105 @@
+package org.arquillian.smart.testing.scm;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.arquillian.smart.testing.api.TestVerifier;
+import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.hub.storage.ChangeStorage;
+import org.arquillian.smart.testing.scm.spi.ChangeResolver;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class ChangeSnapshotTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final TestVerifier testVerifier = className -> className.endsWith("Test");
+
+    @Test
+    public void should_classify_changed_java_files() throws IOException {
+        // given
+        final File projectDir = temporaryFolder.getRoot();
+        final List<Change> changes = Arrays.asList(
+            new Change(createClass(projectDir, "src/main/java/org/example/Service.java", "org.example"), ChangeType.MODIFY),
+            new Change(createClass(projectDir, "src/test/java/org/example/ServiceTest.java", "org.example"), ChangeType.ADD),
+            new Change(projectDir.toPath().resolve("src/main/java/org/example/Removed.java"), ChangeType.DELETE),
+            new Change(projectDir.toPath().resolve("pom.xml"), ChangeType.MODIFY));
+
+        // when
+        final ChangeSnapshot changeSnapshot = new ChangeSnapshot(changes, testVerifier);
+
+        // then
+        assertThat(changeSnapshot.getChanges()).containsExactlyElementsOf(changes);
+        assertThat(changeSnapshot.getJavaChanges())
+            .extracting(ClassifiedChange::getChangeType, ClassifiedChange::getClassName, ClassifiedChange::isTest,
+                ClassifiedChange::isCore)
+            .containsExactly(
+                tuple(ChangeType.MODIFY, "org.example.Service", false, true),
+                tuple(ChangeType.ADD, "org.example.ServiceTest", true, false),
+                tuple(ChangeType.DELETE, null, false, false));
+    }
+
+    @Test
+    public void should_read_changes_only_once_for_all_strategies_of_a_run() {
+        // given
+        final File projectDir = temporaryFolder.getRoot();
+        final Configuration configuration = Configuration.load(projectDir);
+        final ChangeStorage changeStorage = mock(ChangeStorage.class);
+        when(changeStorage.read(projectDir)).thenReturn(Optional.of(
+            Collections.singletonList(new Change(projectDir.toPath().resolve("pom.xml"), ChangeType.MODIFY))));
+        final ChangeResolver changeResolver = mock(ChangeResolver.class);
+
+        // when
+        final ChangeSnapshot changedSnapshot =
+            ChangeSnapshot.of(changeStorage, changeResolver, projectDir, testVerifier, configuration, "changed");
+        final ChangeSnapshot affectedSnapshot =
+            ChangeSnapshot.of(changeStorage, changeResolver, projectDir, testVerifier, configuration, "affected");
+
+        // then
+        assertThat(affectedSnapshot).isSameAs(changedSnapshot);
+        verify(changeStorage, times(1)).read(projectDir);
+        verifyZeroInteractions(changeResolver);
+    }
+
+    @Test
+    public void should_resolve_changes_again_for_another_run() {
+        // given
+        final File projectDir = temporaryFolder.getRoot();
+        final ChangeStorage changeStorage = mock(ChangeStorage.class);
+        when(changeStorage.read(projectDir)).thenReturn(Optional.empty());
+        final ChangeResolver changeResolver = mock(ChangeResolver.class);
+        when(changeResolver.diff(any(File.class), any(Configuration.class), any(String.class)))
+            .thenReturn(Collections.emptySet());
+
+        // when
+        ChangeSnapshot.of(changeStorage, changeResolver, projectDir, testVerifier, Configuration.load(projectDir), "new");
+        ChangeSnapshot.of(changeStorage, changeResolver, projectDir, testVerifier, Configuration.load(projectDir), "new");
+
+        // then
+        verify(changeResolver, times(2)).diff(any(File.class), any(Configuration.class), any(String.class));
+    }
+
+    private Path createClass(File projectDir, String location, String packageName) throws IOException {
+        final Path file = projectDir.toPath().resolve(location);
+        Files.createDirectories(file.getParent());
+        final String className = file.getFileName().toString().replace(".java", "");
+        return Files.write(file, Arrays.asList("package " + packageName + ";", "", "public class " + className + " {", "}"));
+    }
+}
@@ -0,0 +1,60 @@
+package org.arquillian.smart.testing.scm.git;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.arquillian.smart.testing.hub.storage.local.LocalStorage;
+import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.ChangeType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChangesCacheTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void should_read_stored_changes_of_the_same_key() {
+        // given
+        final ChangesCache changesCache = new ChangesCache(temporaryFolder.getRoot());
+        final Change change = new Change(temporaryFolder.getRoot().toPath().resolve("A.java"), ChangeType.MODIFY);
+        changesCache.store("key", Collections.singletonList(change));
+
+        // when
+        final boolean sameKeyFound = changesCache.read("key").isPresent();
+        final boolean otherKeyFound = changesCache.read("other").isPresent();
+
+        // then
+        assertThat(sameKeyFound).isTrue();
+        assertThat(otherKeyFound).isFalse();
+        assertThat(changesCache.read("key").get()).containsOnly(change);
+    }
+
+    @Test
+    public void should_treat_cached_changes_with_invalid_path_as_cache_miss() throws IOException {
+        // given
+        final Path cacheFile = new LocalStorage(temporaryFolder.getRoot()).afterExecution().toCache()
+            .file(ChangesCache.CHANGES_CACHE_FILE_NAME).getPath();
+        Files.createDirectories(cacheFile.getParent());
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(cacheFile))) {
+            output.writeUTF("key");
+            output.writeInt(1);
+            output.writeInt(1);
+            output.writeByte(ChangeType.MODIFY.ordinal());
+            output.writeShort(0);
+            output.writeUTF("Invalid\u0000Path.java");
+        }
+
+        // when
+        final boolean found = new ChangesCache(temporaryFolder.getRoot()).read("key").isPresent();
+
+        // then
+        assertThat(found).isFalse();
+    }
+}
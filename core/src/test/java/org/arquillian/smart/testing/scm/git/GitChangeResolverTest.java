@@ -7,9 +7,22 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.configuration.Range;
+import org.arquillian.smart.testing.configuration.Renames;
+import org.arquillian.smart.testing.configuration.Scm;
+import org.arquillian.smart.testing.hub.storage.local.LocalStorage;
 import org.arquillian.smart.testing.scm.Change;
 import org.arquillian.smart.testing.scm.ChangeType;
+import org.arquillian.smart.testing.scm.Hunk;
+import org.arquillian.smart.testing.scm.RenameDetection;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.junit.After;
@@ -65,6 +78,21 @@ public class GitChangeResolverTest {
         assertThat(diff).hasSize(18);
     }
 
+    @Test
+    public void should_share_repository_between_resolvers_of_the_same_project() throws Exception {
+        // given
+        this.gitChangeResolver = new GitChangeResolver();
+        try (GitChangeResolver otherResolver = new GitChangeResolver()) {
+
+            // when
+            gitChangeResolver.diff(gitFolder.getRoot(), "32bd752", "07b181b");
+            otherResolver.diff(gitFolder.getRoot(), "d923b3a", "1ee4abf");
+
+            // then
+            assertThat(otherResolver.getRepository()).isSameAs(gitChangeResolver.getRepository());
+        }
+    }
+
     @Test
     public void should_fetch_all_untracked_files() throws IOException {
         // given
@@ -132,6 +160,100 @@ public class GitChangeResolverTest {
             relative("README.adoc"), ChangeType.MODIFY));
     }
 
+    @Test
+    public void should_fetch_only_changes_of_files_with_given_suffixes_in_whole_repository() throws Exception {
+        // given
+        final Path files = relative("core/src/main/java/org/arquillian/smart/testing/Files.java");
+        Files.write(files, "// More".getBytes(), StandardOpenOption.APPEND);
+        Files.write(relative("README.adoc"), "More".getBytes(), StandardOpenOption.APPEND);
+        Files.write(relative("core/untracked.txt"), "More".getBytes());
+        final Path otherModuleFile = relative("strategies/affected/Untracked.java");
+        Files.write(otherModuleFile, "More".getBytes());
+        this.gitChangeResolver = new GitChangeResolver();
+
+        // when
+        final Set<Change> changes = gitChangeResolver.diff(new File(gitFolder.getRoot(), "core"), "d923b3a", "1ee4abf",
+            new Renames(), ".java");
+
+        // then
+        assertThat(changes).extracting(Change::getLocation).contains(files, otherModuleFile)
+            .allMatch(location -> location.toString().endsWith(".java"));
+    }
+
+    @Test
+    public void should_fetch_only_changes_in_given_paths() throws Exception {
+        // given
+        final Path files = relative("core/src/main/java/org/arquillian/smart/testing/Files.java");
+        Files.write(files, "// More".getBytes(), StandardOpenOption.APPEND);
+        final Path otherModuleFile = relative("strategies/affected/src/main/java/Untracked.java");
+        Files.createDirectories(otherModuleFile.getParent());
+        Files.write(otherModuleFile, "More".getBytes());
+        Files.write(relative("strategies/affected/Untracked.java"), "More".getBytes());
+        final String[] paths = {"src/main/java", relative("strategies/affected/src").toString(), "/outside/repository"};
+        this.gitChangeResolver = new GitChangeResolver();
+
+        // when
+        final Set<Change> changes = gitChangeResolver.diff(new File(gitFolder.getRoot(), "core"), "d923b3a", "1ee4abf",
+            new Renames(), paths, ".java");
+
+        // then
+        assertThat(changes).extracting(Change::getLocation).contains(files, otherModuleFile)
+            .allMatch(location -> location.startsWith(relative("core/src/main/java"))
+                || location.startsWith(relative("strategies/affected/src")));
+    }
+
+    @Test
+    public void should_fetch_changes_in_whole_repository_when_repository_root_is_given_path() throws Exception {
+        // given
+        final Path otherModuleFile = relative("strategies/affected/Untracked.java");
+        Files.write(otherModuleFile, "More".getBytes());
+        this.gitChangeResolver = new GitChangeResolver();
+
+        // when
+        final Set<Change> changes = gitChangeResolver.diff(new File(gitFolder.getRoot(), "core"), "HEAD", "HEAD",
+            new Renames(), new String[] {"src/main/java", ".."}, ".java");
+
+        // then
+        assertThat(changes).extracting(Change::getLocation).contains(otherModuleFile);
+    }
+
+    @Test
+    public void should_reuse_changes_cached_for_the_same_range() throws Exception {
+        // given
+        final Configuration configuration = configurationWithRange("d923b3a", "1ee4abf");
+        this.gitChangeResolver = new GitChangeResolver();
+        final Set<Change> changes = gitChangeResolver.diff(gitFolder.getRoot(), configuration);
+        final Path cacheFile = new LocalStorage(gitFolder.getRoot()).afterExecution().toCache()
+            .file(ChangesCache.CHANGES_CACHE_FILE_NAME).getPath();
+        modifiedBefore(cacheFile, 1, TimeUnit.HOURS);
+        final FileTime cached = Files.getLastModifiedTime(cacheFile);
+
+        // when
+        final Set<Change> cachedChanges = gitChangeResolver.diff(gitFolder.getRoot(), configuration);
+
+        // then
+        assertThat(cachedChanges).isNotEmpty().isEqualTo(changes);
+        assertThat(Files.getLastModifiedTime(cacheFile)).isEqualTo(cached);
+    }
+
+    @Test
+    public void should_resolve_uncommitted_changes_even_when_committed_ones_are_cached() throws Exception {
+        // given
+        final Configuration configuration = configurationWithRange("HEAD", "HEAD");
+        this.gitChangeResolver = new GitChangeResolver();
+        assertThat(gitChangeResolver.diff(gitFolder.getRoot(), configuration)).isEmpty();
+
+        final Path files = relative("core/src/main/java/org/arquillian/smart/testing/Files.java");
+        Files.write(files, "// More".getBytes(), StandardOpenOption.APPEND);
+
+        // when
+        final Set<Change> changes = gitChangeResolver.diff(gitFolder.getRoot(), configuration);
+
+        // then
+        assertThat(changes).extracting(Change::getLocation, Change::getChangeType)
+            .containsOnly(tuple(files, ChangeType.MODIFY));
+    }
+
     @Test
     public void should_return_meaningful_exception_when_incorrect_previous_commit_provided() throws Exception {
         // given
@@ -182,6 +304,136 @@ public class GitChangeResolverTest {
         assertThat(throwable).isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("Commit id '' is not found in");
     }
 
+    @Test
+    public void should_resolve_changed_lines_of_modified_file_in_working_tree() throws Exception {
+        // given
+        final Path modifiedFile = relative("core/src/main/java/org/arquillian/smart/testing/Files.java");
+        final List<String> lines = Files.readAllLines(modifiedFile);
+        lines.set(9, "// changed");
+        lines.remove(19);
+        Files.write(modifiedFile, lines);
+        this.gitChangeResolver = new GitChangeResolver();
+
+        // when
+        final Map<Path, List<Hunk>> hunks =
+            gitChangeResolver.hunks(gitFolder.getRoot(), "HEAD", Collections.singletonList(modifiedFile));
+
+        // then
+        assertThat(hunks).containsOnlyKeys(modifiedFile);
+        assertThat(hunks.get(modifiedFile)).containsExactly(new Hunk(10, 10), new Hunk(19, 20));
+    }
+
+    @Test
+    public void should_detect_renamed_files_with_changed_content() throws Exception {
+        // given
+        commitRenames();
+        this.gitChangeResolver = new GitChangeResolver();
+
+        // when
+        final Set<Change> diff = gitChangeResolver.diff(gitFolder.getRoot(), "HEAD~", "HEAD", new Renames());
+
+        // then
+        assertThat(diff).extracting(Change::getLocation, Change::getChangeType).containsOnly(
+            tuple(relative("core/src/main/java/org/arquillian/smart/testing/io/Files.java"), ChangeType.RENAME),
+            tuple(relative("core/src/test/java/org/arquillian/smart/testing/FileUtilsTest.java"), ChangeType.RENAME));
+    }
+
+    @Test
+    public void should_detect_only_files_moved_keeping_their_names_when_renames_exceed_limit() throws Exception {
+        // given
+        commitRenames();
+        final Renames renames = new Renames();
+        renames.setLimit(1);
+        this.gitChangeResolver = new GitChangeResolver();
+
+        // when
+        final Set<Change> diff = gitChangeResolver.diff(gitFolder.getRoot(), "HEAD~", "HEAD", renames);
+
+        // then
+        assertThat(diff).extracting(Change::getLocation, Change::getChangeType).contains(
+            tuple(relative("core/src/main/java/org/arquillian/smart/testing/io/Files.java"), ChangeType.RENAME),
+            tuple(relative("core/src/test/java/org/arquillian/smart/testing/FileUtilsTest.java"), ChangeType.ADD));
+        assertThat(diff).extracting(Change::getChangeType).containsOnlyOnce(ChangeType.DELETE);
+    }
+
+    @Test
+    public void should_not_detect_renames_when_disabled() throws Exception {
+        // given
+        commitRenames();
+        final Renames renames = new Renames();
+        renames.setDetection(RenameDetection.NONE);
+        this.gitChangeResolver = new GitChangeResolver();
+
+        // when
+        final Set<Change> diff = gitChangeResolver.diff(gitFolder.getRoot(), "HEAD~", "HEAD", renames);
+
+        // then
+        assertThat(diff).extracting(Change::getChangeType).doesNotContain(ChangeType.RENAME).contains(ChangeType.DELETE);
+        assertThat(diff).extracting(Change::getLocation, Change::getChangeType).contains(
+            tuple(relative("core/src/main/java/org/arquillian/smart/testing/io/Files.java"), ChangeType.ADD),
+            tuple(relative("core/src/test/java/org/arquillian/smart/testing/FileUtilsTest.java"), ChangeType.ADD));
+    }
+
+    @Test
+    public void should_fetch_file_staged_as_new_and_then_modified_as_both_added_and_modified() throws Exception {
+        // given
+        final Path added = relative("core/src/test/java/org/arquillian/smart/testing/NewTest.java");
+        Files.write(added, "class NewTest {}".getBytes());
+        try (Git git = Git.open(gitFolder.getRoot())) {
+            git.add().addFilepattern(".").call();
+        }
+        Files.write(added, "// edited".getBytes(), StandardOpenOption.APPEND);
+        this.gitChangeResolver = new GitChangeResolver();
+
+        // when
+        final Set<Change> changes = gitChangeResolver.diff(gitFolder.getRoot(), "HEAD", "HEAD");
+
+        // then
+        assertThat(changes).extracting(Change::getLocation, Change::getChangeType)
+            .containsOnly(tuple(added, ChangeType.ADD), tuple(added, ChangeType.MODIFY));
+    }
+
+    private void commitRenames() throws IOException, GitAPIException {
+        move("core/src/main/java/org/arquillian/smart/testing/Files.java",
+            "core/src/main/java/org/arquillian/smart/testing/io/Files.java");
+        move("core/src/test/java/org/arquillian/smart/testing/FilesTest.java",
+            "core/src/test/java/org/arquillian/smart/testing/FileUtilsTest.java");
+        try (Git git = Git.open(gitFolder.getRoot())) {
+            git.add().addFilepattern(".").call();
+            git.add().setUpdate(true).addFilepattern(".").call();
+            git.commit().setMessage("moves files").setAuthor("Smart Testing", "smart@testing.org")
+                .setCommitter("Smart Testing", "smart@testing.org").call();
+        }
+    }
+
+    private void move(String from, String to) throws IOException {
+        final List<String> lines = Files.readAllLines(relative(from));
+        lines.set(0, lines.get(0) + " // moved");
+        Files.createDirectories(relative(to).getParent());
+        Files.write(relative(to), lines);
+        Files.delete(relative(from));
+    }
+
+    private Configuration configurationWithRange(String tail, String head) {
+        final Range range = new Range();
+        range.setTail(tail);
+        range.setHead(head);
+        final Scm scm = new Scm();
+        scm.setRange(range);
+        final Configuration configuration = new Configuration();
+        configuration.setScm(scm);
+        return configuration;
+    }
+
+    private void modifiedBefore(Path path, long duration, TimeUnit unit) throws IOException {
+        final FileTime lastModified = FileTime.fromMillis(System.currentTimeMillis() - unit.toMillis(duration));
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path file : (Iterable<Path>) paths::iterator) {
+                Files.setLastModifiedTime(file, lastModified);
+            }
+        }
+    }
+
     private Path relative(String path) {
         return Paths.get(gitFolder.getRoot().getAbsolutePath(), path);
     }
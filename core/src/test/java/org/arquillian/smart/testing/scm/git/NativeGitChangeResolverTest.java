@@ -0,0 +1,181 @@
+package org.arquillian.smart.testing.scm.git;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import org.arquillian.smart.testing.configuration.Renames;
+import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.ChangeType;
+import org.assertj.core.groups.Tuple;
+import org.eclipse.jgit.api.Git;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.Assume.assumeTrue;
+
+public class NativeGitChangeResolverTest {
+
+    @Rule
+    public final TemporaryFolder gitFolder = new TemporaryFolder();
+
+    private final GitChangeResolver jGitChangeResolver = new GitChangeResolver();
+    private final NativeGitChangeResolver nativeGitChangeResolver = new NativeGitChangeResolver();
+
+    @Before
+    public void unpack_repo() {
+        assumeTrue("git binary is not available", NativeGit.isAvailable());
+        final URL repoBundle = Thread.currentThread().getContextClassLoader().getResource("repo.bundle");
+        GitRepositoryUnpacker.unpackRepository(gitFolder.getRoot().getAbsolutePath(), repoBundle.getFile());
+    }
+
+    @After
+    public void closeRepo() throws Exception {
+        jGitChangeResolver.close();
+        nativeGitChangeResolver.close();
+    }
+
+    @Test
+    public void should_resolve_the_same_committed_and_uncommitted_changes_as_jgit() throws Exception {
+        // given
+        Files.write(relative("README.adoc"), "More".getBytes(), StandardOpenOption.APPEND);
+        Files.write(relative("untracked file.txt"), "More".getBytes());
+        Files.write(relative("core/staged.txt"), "More".getBytes());
+        GitRepositoryOperations.addFile(gitFolder.getRoot(), "core/staged.txt");
+
+        // when
+        final Set<Change> changes = nativeGitChangeResolver.diff(gitFolder.getRoot(), "d923b3a", "1ee4abf");
+
+        // then
+        assertThat(changes).hasSize(21);
+        assertThat(changes).extracting(Change::getLocation, Change::getChangeType)
+            .containsOnly(changesOf(jGitChangeResolver.diff(gitFolder.getRoot(), "d923b3a", "1ee4abf")));
+    }
+
+    @Test
+    public void should_resolve_staged_files_modified_in_work_tree_as_added_and_modified_the_same_as_jgit()
+        throws Exception {
+        // given
+        final String added = "core/src/test/java/org/arquillian/smart/testing/NewTest.java";
+        Files.write(relative(added), "class NewTest {}".getBytes());
+        final String renamed = "core/src/main/java/org/arquillian/smart/testing/io/Files.java";
+        move("core/src/main/java/org/arquillian/smart/testing/Files.java", renamed);
+        try (Git git = Git.open(gitFolder.getRoot())) {
+            git.add().addFilepattern(".").call();
+            git.add().setUpdate(true).addFilepattern(".").call();
+        }
+        Files.write(relative(added), "// edited".getBytes(), StandardOpenOption.APPEND);
+        Files.write(relative(renamed), "// edited".getBytes(), StandardOpenOption.APPEND);
+
+        // when
+        final Set<Change> changes = nativeGitChangeResolver.diff(gitFolder.getRoot(), "HEAD", "HEAD");
+
+        // then
+        assertThat(changes).extracting(Change::getLocation, Change::getChangeType)
+            .contains(tuple(relative(added), ChangeType.ADD), tuple(relative(added), ChangeType.MODIFY),
+                tuple(relative(renamed), ChangeType.ADD), tuple(relative(renamed), ChangeType.MODIFY))
+            .containsOnly(changesOf(jGitChangeResolver.diff(gitFolder.getRoot(), "HEAD", "HEAD")));
+    }
+
+    @Test
+    public void should_resolve_the_same_renames_as_jgit() throws Exception {
+        // given
+        move("core/src/main/java/org/arquillian/smart/testing/Files.java",
+            "core/src/main/java/org/arquillian/smart/testing/io/Files.java");
+        move("core/src/test/java/org/arquillian/smart/testing/FilesTest.java",
+            "core/src/test/java/org/arquillian/smart/testing/FileUtilsTest.java");
+        try (Git git = Git.open(gitFolder.getRoot())) {
+            git.add().addFilepattern(".").call();
+            git.add().setUpdate(true).addFilepattern(".").call();
+            git.commit().setMessage("moves files").setAuthor("Smart Testing", "smart@testing.org")
+                .setCommitter("Smart Testing", "smart@testing.org").call();
+        }
+
+        // when
+        final Set<Change> changes = nativeGitChangeResolver.diff(gitFolder.getRoot(), "HEAD~", "HEAD");
+
+        // then
+        assertThat(changes).extracting(Change::getLocation, Change::getChangeType)
+            .containsOnly(changesOf(jGitChangeResolver.diff(gitFolder.getRoot(), "HEAD~", "HEAD")));
+    }
+
+    @Test
+    public void should_resolve_the_same_changes_of_files_with_given_suffixes_as_jgit()
+        throws Exception {
+        // given
+        Files.write(relative("core/src/main/java/org/arquillian/smart/testing/Files.java"), "// More".getBytes(),
+            StandardOpenOption.APPEND);
+        Files.write(relative("core/untracked.txt"), "More".getBytes());
+        Files.write(relative("strategies/affected/Untracked.java"), "More".getBytes());
+        final File projectDir = new File(gitFolder.getRoot(), "core");
+
+        // when
+        final Set<Change> changes =
+            nativeGitChangeResolver.diff(projectDir, "d923b3a", "1ee4abf", new Renames(), ".java");
+
+        // then
+        assertThat(changes).isNotEmpty();
+        assertThat(changes).extracting(Change::getLocation, Change::getChangeType)
+            .containsOnly(changesOf(jGitChangeResolver.diff(projectDir, "d923b3a", "1ee4abf", new Renames(), ".java")));
+    }
+
+    @Test
+    public void should_resolve_the_same_changes_in_given_paths_as_jgit() throws Exception {
+        // given
+        Files.write(relative("core/src/main/java/org/arquillian/smart/testing/Files.java"), "// More".getBytes(),
+            StandardOpenOption.APPEND);
+        Files.write(relative("core/src/main/java/Untracked.txt"), "More".getBytes());
+        Files.write(relative("strategies/affected/Untracked.java"), "More".getBytes());
+        final File projectDir = new File(gitFolder.getRoot(), "core");
+        final String[] paths = {"src/main/java", new File(gitFolder.getRoot(), "strategies/affected/src").getPath()};
+
+        // when
+        final Set<Change> changes =
+            nativeGitChangeResolver.diff(projectDir, "d923b3a", "1ee4abf", new Renames(), paths, ".java");
+
+        // then
+        assertThat(changes).isNotEmpty();
+        assertThat(changes).extracting(Change::getLocation, Change::getChangeType)
+            .containsOnly(
+                changesOf(jGitChangeResolver.diff(projectDir, "d923b3a", "1ee4abf", new Renames(), paths, ".java")));
+    }
+
+    @Test
+    public void should_return_meaningful_exception_when_incorrect_previous_commit_provided() throws Exception {
+        // when
+        final Throwable throwable = catchThrowable(() -> nativeGitChangeResolver.diff(gitFolder.getRoot(),
+            "a34a06478ef3957c866cff3f546f2c55c1a39364", "07b181b"));
+
+        // then
+        assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+            .hasMessageStartingWith("Commit id 'a34a06478ef3957c866cff3f546f2c55c1a39364' is not found in");
+    }
+
+    private Tuple[] changesOf(Set<Change> changes) {
+        return changes.stream()
+            .map(change -> tuple(change.getLocation(), change.getChangeType()))
+            .toArray(Tuple[]::new);
+    }
+
+    private void move(String from, String to) throws Exception {
+        final List<String> lines = Files.readAllLines(relative(from));
+        lines.set(0, lines.get(0) + " // moved");
+        Files.createDirectories(relative(to).getParent());
+        Files.write(relative(to), lines);
+        Files.delete(relative(from));
+    }
+
+    private Path relative(String path) {
+        return Paths.get(gitFolder.getRoot().getAbsolutePath(), path);
+    }
+}
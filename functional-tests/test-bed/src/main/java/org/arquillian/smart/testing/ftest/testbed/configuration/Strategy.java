@@ -5,6 +5,8 @@ public class Strategy {
     public static final Strategy NEW = new Strategy("new");
     public static final Strategy CHANGED = new Strategy("changed");
     public static final Strategy FAILED = new Strategy("failed");
+    public static final Strategy COVERED = new Strategy("covered");
+    public static final Strategy TRACED = new Strategy("traced");
 
     private final String name;
 
@@ -0,0 +1,118 @@
+package org.arquillian.smart.testing.ftest.covered;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.arquillian.smart.testing.ftest.testbed.project.Project;
+import org.arquillian.smart.testing.ftest.testbed.project.TestResults;
+import org.arquillian.smart.testing.ftest.testbed.testresults.TestResult;
+import org.arquillian.smart.testing.rules.TestBed;
+import org.arquillian.smart.testing.rules.git.GitClone;
+import org.eclipse.jgit.api.Git;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.arquillian.smart.testing.ftest.testbed.TestRepository.testRepository;
+import static org.arquillian.smart.testing.ftest.testbed.configuration.Mode.ORDERING;
+import static org.arquillian.smart.testing.ftest.testbed.configuration.Mode.SELECTING;
+import static org.arquillian.smart.testing.ftest.testbed.configuration.Strategy.COVERED;
+import static org.arquillian.smart.testing.ftest.testbed.testresults.Status.PASSED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LocalChangesCoveredTestsSelectionExecutionFunctionalTest {
+
+    private static final String MODULE = "config/impl-base";
+    private static final String PACKAGE = "org/jboss/arquillian/config/impl/covered/";
+
+    @ClassRule
+    public static final GitClone GIT_CLONE = new GitClone(testRepository());
+
+    @Rule
+    public final TestBed testBed = new TestBed(GIT_CLONE);
+
+    @Test
+    public void should_only_execute_tests_which_executed_changed_method_when_covered_is_enabled() throws Exception {
+        // given
+        final Project project = testBed.getProject();
+
+        // both tests execute a method of the same class, each a different one
+        write(project, "src/main/java/" + PACKAGE + "Greeter.java",
+            "package org.jboss.arquillian.config.impl.covered;",
+            "public class Greeter {",
+            "    public String hello(String name) {",
+            "        return \"Hello \" + name;",
+            "    }",
+            "    public String bye(String name) {",
+            "        return \"Bye \" + name;",
+            "    }",
+            "}");
+        write(project, "src/test/java/" + PACKAGE + "HelloTestCase.java",
+            "package org.jboss.arquillian.config.impl.covered;",
+            "public class HelloTestCase {",
+            "    @org.junit.Test",
+            "    public void should_greet() {",
+            "        org.junit.Assert.assertTrue(new Greeter().hello(\"Smart Testing\").endsWith(\"Smart Testing\"));",
+            "    }",
+            "}");
+        write(project, "src/test/java/" + PACKAGE + "ByeTestCase.java",
+            "package org.jboss.arquillian.config.impl.covered;",
+            "public class ByeTestCase {",
+            "    @org.junit.Test",
+            "    public void should_say_bye() {",
+            "        org.junit.Assert.assertTrue(new Greeter().bye(\"Smart Testing\").endsWith(\"Smart Testing\"));",
+            "    }",
+            "}");
+        commit(project, "Adds greeter covered by two tests");
+
+        // records the methods executed by each test
+        project.configureSmartTesting()
+                    .executionOrder(COVERED)
+                    .inMode(ORDERING)
+               .enable();
+        project.build(MODULE).run();
+
+        project.configureSmartTesting()
+                    .executionOrder(COVERED)
+                    .inMode(SELECTING)
+               .enable();
+
+        replace(project, "src/main/java/" + PACKAGE + "Greeter.java", "\"Hello \"", "\"Hi \"");
+        deleteTestReports(project);
+
+        // when (without clean, as the recorded methods are kept in target)
+        final TestResults actualTestResults = project.build(MODULE).run("package");
+
+        // then
+        assertThat(actualTestResults.accumulatedPerTestClass())
+            .containsExactly(new TestResult("org.jboss.arquillian.config.impl.covered.HelloTestCase", "*", PASSED));
+    }
+
+    private void write(Project project, String path, String... lines) throws IOException {
+        final Path file = project.getRoot().resolve(MODULE).resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, String.join(System.lineSeparator(), lines).getBytes());
+    }
+
+    private void replace(Project project, String path, String original, String replacement) throws IOException {
+        final Path file = project.getRoot().resolve(MODULE).resolve(path);
+        Files.write(file, new String(Files.readAllBytes(file)).replace(original, replacement).getBytes());
+    }
+
+    private void deleteTestReports(Project project) throws IOException {
+        try (Stream<Path> reports = Files.list(project.getRoot().resolve(MODULE).resolve("target/surefire-reports"))) {
+            for (Path report : reports.collect(Collectors.toList())) {
+                Files.delete(report);
+            }
+        }
+    }
+
+    private void commit(Project project, String message) throws Exception {
+        try (Git git = Git.open(project.getRoot().toFile())) {
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage(message).call();
+        }
+    }
+}
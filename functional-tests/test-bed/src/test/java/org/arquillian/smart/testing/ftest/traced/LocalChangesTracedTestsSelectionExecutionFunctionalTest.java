@@ -0,0 +1,138 @@
+package org.arquillian.smart.testing.ftest.traced;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.arquillian.smart.testing.ftest.testbed.project.Project;
+import org.arquillian.smart.testing.ftest.testbed.project.TestResults;
+import org.arquillian.smart.testing.ftest.testbed.testresults.TestResult;
+import org.arquillian.smart.testing.rules.TestBed;
+import org.arquillian.smart.testing.rules.git.GitClone;
+import org.eclipse.jgit.api.Git;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.arquillian.smart.testing.ftest.testbed.TestRepository.testRepository;
+import static org.arquillian.smart.testing.ftest.testbed.configuration.Mode.ORDERING;
+import static org.arquillian.smart.testing.ftest.testbed.configuration.Mode.SELECTING;
+import static org.arquillian.smart.testing.ftest.testbed.configuration.Strategy.TRACED;
+import static org.arquillian.smart.testing.ftest.testbed.testresults.Status.PASSED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LocalChangesTracedTestsSelectionExecutionFunctionalTest {
+
+    private static final String MODULE = "config/impl-base";
+    private static final String PACKAGE = "org/jboss/arquillian/config/impl/traced/";
+
+    @ClassRule
+    public static final GitClone GIT_CLONE = new GitClone(testRepository());
+
+    @Rule
+    public final TestBed testBed = new TestBed(GIT_CLONE);
+
+    @Test
+    public void should_only_execute_tests_which_used_changed_class_by_reflection_when_traced_is_enabled() throws Exception {
+        // given
+        final Project project = testBed.getProject();
+
+        // the plugin is referenced only by its name, so it's found only by tracing the classes the tests use
+        write(project, "src/main/java/" + PACKAGE + "Plugins.java",
+            "package org.jboss.arquillian.config.impl.traced;",
+            "public class Plugins {",
+            "    public static Object load(String className) throws Exception {",
+            "        return Class.forName(className).newInstance();",
+            "    }",
+            "}");
+        write(project, "src/main/java/" + PACKAGE + "GreetingPlugin.java",
+            "package org.jboss.arquillian.config.impl.traced;",
+            "public class GreetingPlugin {",
+            "    @Override",
+            "    public String toString() {",
+            "        return \"Hello\";",
+            "    }",
+            "}");
+        write(project, "src/test/java/" + PACKAGE + "PluginsTestCase.java",
+            "package org.jboss.arquillian.config.impl.traced;",
+            "public class PluginsTestCase {",
+            "    @org.junit.Test",
+            "    public void should_load_plugin() throws Exception {",
+            "        org.junit.Assert.assertNotNull(Plugins.load(\"org.jboss.arquillian.config.impl.traced.GreetingPlugin\"));",
+            "    }",
+            "}");
+        write(project, "src/test/java/" + PACKAGE + "ReusingPluginTestCase.java",
+            "package org.jboss.arquillian.config.impl.traced;",
+            "public class ReusingPluginTestCase {",
+            "    @org.junit.Test",
+            "    public void should_greet_by_plugin() throws Exception {",
+            "        org.junit.Assert.assertNotNull(Plugins.load(\"org.jboss.arquillian.config.impl.traced.GreetingPlugin\").toString());",
+            "    }",
+            "}");
+        write(project, "src/test/java/" + PACKAGE + "UnrelatedTestCase.java",
+            "package org.jboss.arquillian.config.impl.traced;",
+            "public class UnrelatedTestCase {",
+            "    @org.junit.Test(expected = ClassNotFoundException.class)",
+            "    public void should_not_load_missing_plugin() throws Exception {",
+            "        Plugins.load(\"org.jboss.arquillian.config.impl.traced.MissingPlugin\");",
+            "    }",
+            "}");
+        commit(project, "Adds plugin loaded by reflection");
+
+        // records the classes used by each test - all of them run in one JVM, the ones reusing the loaded plugin and
+        // the unrelated one after the test which has loaded it
+        project.configureSmartTesting()
+                    .executionOrder(TRACED)
+                    .inMode(ORDERING)
+               .enable();
+        project.build(MODULE)
+                    .options()
+                        .withSystemProperties("surefire.runOrder", "alphabetical")
+                    .configure()
+                .run();
+
+        project.configureSmartTesting()
+                    .executionOrder(TRACED)
+                    .inMode(SELECTING)
+               .enable();
+
+        replace(project, "src/main/java/" + PACKAGE + "GreetingPlugin.java", "\"Hello\"", "\"Hi\"");
+        deleteTestReports(project);
+
+        // when (without clean, as the recorded traces are kept in target)
+        final TestResults actualTestResults = project.build(MODULE).run("package");
+
+        // then
+        assertThat(actualTestResults.accumulatedPerTestClass())
+            .containsExactlyInAnyOrder(
+                new TestResult("org.jboss.arquillian.config.impl.traced.PluginsTestCase", "*", PASSED),
+                new TestResult("org.jboss.arquillian.config.impl.traced.ReusingPluginTestCase", "*", PASSED));
+    }
+
+    private void write(Project project, String path, String... lines) throws IOException {
+        final Path file = project.getRoot().resolve(MODULE).resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, String.join(System.lineSeparator(), lines).getBytes());
+    }
+
+    private void replace(Project project, String path, String original, String replacement) throws IOException {
+        final Path file = project.getRoot().resolve(MODULE).resolve(path);
+        Files.write(file, new String(Files.readAllBytes(file)).replace(original, replacement).getBytes());
+    }
+
+    private void deleteTestReports(Project project) throws IOException {
+        try (Stream<Path> reports = Files.list(project.getRoot().resolve(MODULE).resolve("target/surefire-reports"))) {
+            for (Path report : reports.collect(Collectors.toList())) {
+                Files.delete(report);
+            }
+        }
+    }
+
+    private void commit(Project project, String message) throws Exception {
+        try (Git git = Git.open(project.getRoot().toFile())) {
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage(message).call();
+        }
+    }
+}
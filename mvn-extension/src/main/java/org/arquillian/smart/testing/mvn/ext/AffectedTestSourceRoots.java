@@ -0,0 +1,59 @@
+package org.arquillian.smart.testing.mvn.ext;
+
+import java.io.File;
+import java.util.List;
+import org.apache.maven.project.MavenProject;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Passes the test source roots of a module to affected strategy, so it looks for the tests of the module exactly where
+ * the module has them instead of guessing it from the default Maven layout. The roots are set as a system property of
+ * the test runs of the module, as each module has its own ones.
+ */
+class AffectedTestSourceRoots {
+
+    // has to match the property used by affected strategy
+    static final String SMART_TESTING_AFFECTED_TEST_SOURCE_ROOTS = "smart.testing.affected.test.source.roots";
+
+    private static final String SYSTEM_PROPERTY_VARIABLES = "systemPropertyVariables";
+
+    private static final Logger logger = Log.getLogger();
+
+    /**
+     * Sets the test source roots of the given project to all its test runner plugins and their executions. Roots set
+     * by the user are kept untouched.
+     */
+    static void configure(MavenProject project) {
+        final List<String> testSourceRoots = project.getTestCompileSourceRoots();
+        if (testSourceRoots == null || testSourceRoots.isEmpty()) {
+            return;
+        }
+        final String roots = String.join(File.pathSeparator, testSourceRoots);
+        logger.debug("Test source roots of %s module are %s", project.getArtifactId(), roots);
+        project.getModel().getBuild().getPlugins().stream()
+            .filter(plugin -> ApplicablePlugins.contains(plugin.getArtifactId()))
+            .forEach(plugin -> {
+                plugin.setConfiguration(withTestSourceRoots(plugin.getConfiguration(), roots));
+                plugin.getExecutions().forEach(execution ->
+                    execution.setConfiguration(withTestSourceRoots(execution.getConfiguration(), roots)));
+            });
+    }
+
+    private static Xpp3Dom withTestSourceRoots(Object pluginConfiguration, String roots) {
+        final Xpp3Dom configuration =
+            pluginConfiguration == null ? new Xpp3Dom("configuration") : (Xpp3Dom) pluginConfiguration;
+        Xpp3Dom systemPropertyVariables = configuration.getChild(SYSTEM_PROPERTY_VARIABLES);
+        if (systemPropertyVariables == null) {
+            systemPropertyVariables = new Xpp3Dom(SYSTEM_PROPERTY_VARIABLES);
+            configuration.addChild(systemPropertyVariables);
+        }
+        if (systemPropertyVariables.getChild(SMART_TESTING_AFFECTED_TEST_SOURCE_ROOTS) == null) {
+            final Xpp3Dom testSourceRoots = new Xpp3Dom(SMART_TESTING_AFFECTED_TEST_SOURCE_ROOTS);
+            testSourceRoots.setValue(roots);
+            systemPropertyVariables.addChild(testSourceRoots);
+        }
+        return configuration;
+    }
+}
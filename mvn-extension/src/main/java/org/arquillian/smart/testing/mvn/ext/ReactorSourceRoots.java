@@ -0,0 +1,53 @@
+package org.arquillian.smart.testing.mvn.ext;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.maven.model.Resource;
+import org.apache.maven.project.MavenProject;
+import org.arquillian.smart.testing.configuration.Scm;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+
+/**
+ * Limits the resolution of changes to the source and resource roots of all modules of the reactor, so git reads only
+ * the directories the sources and resources are in instead of the whole work tree. Paths set by the user are kept
+ * untouched.
+ */
+class ReactorSourceRoots {
+
+    private static final Logger logger = Log.getLogger();
+
+    static void configure(List<MavenProject> projects, Scm scm) {
+        if (scm.getPaths().length > 0) {
+            return;
+        }
+        final Set<String> roots = new LinkedHashSet<>();
+        for (MavenProject project : projects) {
+            addAll(roots, project.getCompileSourceRoots());
+            addAll(roots, project.getTestCompileSourceRoots());
+            addResources(roots, project.getResources());
+            addResources(roots, project.getTestResources());
+        }
+        if (roots.isEmpty()) {
+            return;
+        }
+        logger.debug("Resolving changes in source and resource roots %s", roots);
+        scm.setPaths(roots.toArray(new String[roots.size()]));
+    }
+
+    private static void addAll(Set<String> roots, List<String> sourceRoots) {
+        if (sourceRoots != null) {
+            roots.addAll(sourceRoots);
+        }
+    }
+
+    private static void addResources(Set<String> roots, List<Resource> resources) {
+        if (resources != null) {
+            resources.stream()
+                .map(Resource::getDirectory)
+                .filter(directory -> directory != null && !directory.isEmpty())
+                .forEach(roots::add);
+        }
+    }
+}
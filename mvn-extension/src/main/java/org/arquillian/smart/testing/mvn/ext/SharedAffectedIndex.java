@@ -0,0 +1,42 @@
+package org.arquillian.smart.testing.mvn.ext;
+
+import java.io.File;
+import java.util.Properties;
+import org.apache.maven.execution.MavenSession;
+import org.arquillian.smart.testing.hub.storage.local.LocalStorage;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+
+/**
+ * Makes all modules of the reactor share one index of classes parsed by affected strategy, so classes of upstream
+ * modules are parsed only once per build and not again by each downstream module depending on them.
+ */
+class SharedAffectedIndex {
+
+    // has to match the property and file name used by affected strategy
+    static final String SMART_TESTING_AFFECTED_SHARED_INDEX = "smart.testing.affected.shared.index";
+    static final String AFFECTED_INDEX_FILE_NAME = "affected-index";
+
+    private static final Logger logger = Log.getLogger();
+
+    /**
+     * Sets the location of the shared index as a user property, so it is propagated to each test execution. Location set
+     * by the user is kept untouched.
+     */
+    static void configure(MavenSession session) {
+        final Properties userProperties = session.getUserProperties();
+        if (userProperties.containsKey(SMART_TESTING_AFFECTED_SHARED_INDEX)) {
+            return;
+        }
+
+        final File projectDirectory = session.getTopLevelProject().getModel().getProjectDirectory();
+        final String sharedIndex = new LocalStorage(projectDirectory)
+            .afterExecution()
+            .toCache()
+            .file(AFFECTED_INDEX_FILE_NAME)
+            .getPath()
+            .toString();
+        logger.debug("Classes parsed by affected strategy are shared by all modules in [%s]", sharedIndex);
+        userProperties.setProperty(SMART_TESTING_AFFECTED_SHARED_INDEX, sharedIndex);
+    }
+}
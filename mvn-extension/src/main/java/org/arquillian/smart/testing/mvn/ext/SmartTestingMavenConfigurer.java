@@ -6,12 +6,16 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import org.apache.maven.AbstractMavenLifecycleParticipant;
 import org.apache.maven.MavenExecutionException;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Model;
 import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.daemon.SmartTestingDaemon;
+import org.arquillian.smart.testing.daemon.SmartTestingDaemonClient;
 import org.arquillian.smart.testing.hub.storage.ChangeStorage;
 import org.arquillian.smart.testing.hub.storage.local.LocalChangeStorage;
 import org.arquillian.smart.testing.hub.storage.local.LocalStorage;
@@ -28,6 +32,7 @@ import org.codehaus.plexus.component.annotations.Requirement;
 
 import static java.util.stream.StreamSupport.stream;
 import static org.arquillian.smart.testing.configuration.Configuration.SMART_TESTING_DISABLE;
+import static org.arquillian.smart.testing.scm.ScmRunnerProperties.SCM_PATHS;
 
 @Component(role = AbstractMavenLifecycleParticipant.class,
     description = "Entry point to install and manage Smart-Testing extension. Takes care of adding needed dependencies and "
@@ -126,35 +131,86 @@ class SmartTestingMavenConfigurer extends AbstractMavenLifecycleParticipant {
     }
 
     private void calculateChanges(File projectDirectory, Configuration configuration) {
+        final Collection<Change> changes = resolveChangesByDaemon(projectDirectory)
+            .orElseGet(() -> resolveChanges(projectDirectory, configuration));
+
+        if (!changes.isEmpty()) {
+            changeStorage.store(changes, projectDirectory);
+        }
+    }
+
+    private Collection<Change> resolveChanges(File projectDirectory, Configuration configuration) {
         final Iterable<ChangeResolver> changeResolvers =
             new JavaSPILoader().all(ChangeResolver.class, resolver -> resolver.isApplicable(projectDirectory));
-        final Collection<Change> changes = stream(changeResolvers.spliterator(), false)
+        return stream(changeResolvers.spliterator(), false)
             .map(changeResolver -> changeResolver.diff(projectDirectory, configuration))
             .flatMap(Collection::stream)
             .collect(Collectors.toSet());
+    }
 
-        if (!changes.isEmpty()) {
-            changeStorage.store(changes, projectDirectory);
+    /**
+     * Asks the daemon set by {@link SmartTestingDaemon#SMART_TESTING_DAEMON_PORT} for the changes, as it keeps the
+     * repository open between the builds. If the daemon is not set or it's not reachable, the changes are resolved
+     * locally. The daemon gets the paths of the changes set by {@link ReactorSourceRoots} as well.
+     */
+    private Optional<Collection<Change>> resolveChangesByDaemon(File projectDirectory) {
+        final String daemonPort = System.getProperty(SmartTestingDaemon.SMART_TESTING_DAEMON_PORT);
+        if (daemonPort == null) {
+            return Optional.empty();
+        }
+        if (!SmartTestingDaemonClient.isValidPort(daemonPort)) {
+            logger.warn("Invalid port [%s] of Smart Testing daemon set by %s, resolving changes locally.", daemonPort,
+                SmartTestingDaemon.SMART_TESTING_DAEMON_PORT);
+            return Optional.empty();
+        }
+        final int port = Integer.parseInt(daemonPort);
+        final Map<String, String> properties = SmartTestingDaemonClient.getForwardedProperties();
+        if (configuration.getScm().getPaths().length > 0) {
+            properties.putIfAbsent(SCM_PATHS, String.join(",", configuration.getScm().getPaths()));
+        }
+        try {
+            return Optional.of(new SmartTestingDaemonClient(port).resolveChanges(projectDirectory, properties));
+        } catch (IOException e) {
+            logger.warn("Unable to resolve changes by Smart Testing daemon on port %d, resolving them locally. Reason: %s",
+                port, e.getMessage());
+            return Optional.empty();
         }
     }
 
     private void configureExtension(MavenSession session, Configuration configuration) {
         logger.info("Enabling extension.");
         final MavenProjectConfigurator mavenProjectConfigurator = new MavenProjectConfigurator(configuration);
+        if (isAffectedStrategyUsed()) {
+            SharedAffectedIndex.configure(session);
+        }
+        ReactorSourceRoots.configure(session.getAllProjects(), configuration.getScm());
         final File dumpedConfigFile = configuration.dump(Paths.get("").toFile());
         session.getAllProjects().forEach(mavenProject -> {
             mavenProjectConfigurator.configureTestRunner(mavenProject.getModel());
             copyConfigurationFile(mavenProject.getModel(), dumpedConfigFile);
+            if (isAffectedStrategyUsed()) {
+                AffectedTestSourceRoots.configure(mavenProject);
+            }
             if (isFailedStrategyUsed()) {
                 SurefireReportStorage.copySurefireReports(mavenProject.getModel());
             }
         });
+        for (String strategy : Arrays.asList(StrategyAgent.COVERED_STRATEGY, StrategyAgent.TRACED_STRATEGY)) {
+            if (Arrays.asList(configuration.getStrategies()).contains(strategy)) {
+                final StrategyAgent strategyAgent = new StrategyAgent(session, configuration, strategy);
+                session.getAllProjects().forEach(mavenProject -> strategyAgent.attachTo(mavenProject.getModel()));
+            }
+        }
     }
 
     private boolean isFailedStrategyUsed(){
         return Arrays.asList(configuration.getStrategies()).contains("failed");
     }
 
+    private boolean isAffectedStrategyUsed(){
+        return Arrays.asList(configuration.getStrategies()).contains("affected");
+    }
+
     private void logStrategiesNotDefined() {
         logger.warn(
             "Smart Testing Extension is installed but no strategies are provided. It won't influence the way how your tests are executed. "
@@ -0,0 +1,120 @@
+package org.arquillian.smart.testing.mvn.ext;
+
+import java.io.File;
+import java.util.Properties;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+import org.arquillian.smart.testing.mvn.ext.dependencies.DependencyResolver;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.LocalRepositoryManager;
+
+/**
+ * Attaches the agent of a strategy recording the tests to the test runs - the agent of covered strategy injects probes
+ * into the project classes reporting which methods each test executes, the one of traced strategy reports which
+ * classes each test loads. The agent is the jar of the strategy classified as {@code agent}, which carries everything
+ * the agent needs - so it doesn't depend on what the classpath of the tests contains. It's added as a dependency of the
+ * test runner plugins, so it's resolved to the local repository by the time the tests are run, but it's not put on the
+ * classpath of the tests.
+ *
+ * The agent is appended to the argLine of the test runner plugins. If the argLine is not configured for the plugin, the
+ * argLine property is referenced as {@code @{argLine}}, which the plugin evaluates only when the tests are run - so
+ * the property includes what other plugins (eg. jacoco) set in the meantime. The property is defined for the project
+ * when it's not there yet, otherwise the reference would be passed to the JVM as it is.
+ */
+class StrategyAgent {
+
+    // have to match the aliases of the strategies
+    static final String COVERED_STRATEGY = "covered";
+    static final String TRACED_STRATEGY = "traced";
+
+    static final String AGENT_CLASSIFIER = "agent";
+
+    private static final String ARG_LINE = "argLine";
+
+    private static final Logger logger = Log.getLogger();
+
+    private final Dependency agentDependency;
+    private final String agentArgument;
+    private final Properties userProperties;
+
+    StrategyAgent(MavenSession session, Configuration configuration, String strategy) {
+        this(agentDependency(new DependencyResolver(configuration).getStrategyDependency(strategy)), session);
+    }
+
+    private StrategyAgent(Dependency agentDependency, MavenSession session) {
+        this(agentDependency, resolveAgentJar(session, agentDependency), session.getUserProperties());
+    }
+
+    StrategyAgent(Dependency agentDependency, File agentJar, Properties userProperties) {
+        final String agentPath = agentJar.getAbsolutePath();
+        this.agentDependency = agentDependency;
+        this.agentArgument = "-javaagent:" + (agentPath.contains(" ") ? '"' + agentPath + '"' : agentPath);
+        this.userProperties = userProperties;
+    }
+
+    static Dependency agentDependency(Dependency strategy) {
+        final Dependency agent = new Dependency();
+        agent.setGroupId(strategy.getGroupId());
+        agent.setArtifactId(strategy.getArtifactId());
+        agent.setVersion(strategy.getVersion());
+        agent.setClassifier(AGENT_CLASSIFIER);
+        return agent;
+    }
+
+    private static File resolveAgentJar(MavenSession session, Dependency agent) {
+        final LocalRepositoryManager localRepositoryManager = session.getRepositorySession().getLocalRepositoryManager();
+        return new File(localRepositoryManager.getRepository().getBasedir(),
+            localRepositoryManager.getPathForLocalArtifact(
+                new DefaultArtifact(agent.getGroupId(), agent.getArtifactId(), agent.getClassifier(), "jar",
+                    agent.getVersion())));
+    }
+
+    /**
+     * Attaches the agent to all the test runner plugins of the given project and their executions, as their
+     * configuration has already been merged into the executions when the project was read.
+     */
+    void attachTo(Model model) {
+        model.getBuild().getPlugins().stream()
+            .filter(plugin -> ApplicablePlugins.contains(plugin.getArtifactId()))
+            .forEach(plugin -> {
+                logger.debug("Attaching %s to %s in %s module", agentArgument, plugin.getArtifactId(), model.getArtifactId());
+                if (!hasAgentDependency(plugin)) {
+                    plugin.addDependency(agentDependency.clone());
+                }
+                plugin.setConfiguration(withAgent(plugin.getConfiguration(), model));
+                plugin.getExecutions().forEach(execution ->
+                    execution.setConfiguration(withAgent(execution.getConfiguration(), model)));
+            });
+    }
+
+    private boolean hasAgentDependency(Plugin plugin) {
+        return plugin.getDependencies().stream()
+            .anyMatch(dependency -> dependency.getManagementKey().equals(agentDependency.getManagementKey()));
+    }
+
+    private Xpp3Dom withAgent(Object pluginConfiguration, Model model) {
+        final Xpp3Dom configuration =
+            pluginConfiguration == null ? new Xpp3Dom("configuration") : (Xpp3Dom) pluginConfiguration;
+        Xpp3Dom argLine = configuration.getChild(ARG_LINE);
+        if (argLine == null) {
+            argLine = new Xpp3Dom(ARG_LINE);
+            argLine.setValue("@{" + ARG_LINE + "}");
+            configuration.addChild(argLine);
+            model.getProperties().setProperty(ARG_LINE,
+                userProperties.getProperty(ARG_LINE, model.getProperties().getProperty(ARG_LINE, "")));
+        }
+        final String value = argLine.getValue();
+        if (value == null || value.trim().isEmpty()) {
+            argLine.setValue(agentArgument);
+        } else if (!value.contains(agentArgument)) {
+            argLine.setValue(value + " " + agentArgument);
+        }
+        return configuration;
+    }
+}
@@ -70,6 +70,13 @@ public class DependencyResolver {
         configuration.setStrategies(strategies);
     }
 
+    /**
+     * Returns the dependency providing the given strategy, or null if there's none.
+     */
+    public Dependency getStrategyDependency(String strategy) {
+        return new StrategyDependencyResolver(configuration.getCustomStrategies()).resolveDependencies().get(strategy);
+    }
+
     public void addAsPluginDependency(Plugin plugin) {
         plugin.addDependency(smartTestingProviderDependency());
     }
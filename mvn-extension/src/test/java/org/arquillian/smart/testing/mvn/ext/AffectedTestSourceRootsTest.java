@@ -0,0 +1,75 @@
+package org.arquillian.smart.testing.mvn.ext;
+
+import java.io.File;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.Test;
+
+import static org.arquillian.smart.testing.mvn.ext.AffectedTestSourceRoots.SMART_TESTING_AFFECTED_TEST_SOURCE_ROOTS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AffectedTestSourceRootsTest {
+
+    @Test
+    public void should_pass_test_source_roots_to_plugin_and_its_executions() {
+        // given
+        final Plugin surefire = createPlugin("maven-surefire-plugin");
+        final PluginExecution defaultTest = new PluginExecution();
+        surefire.addExecution(defaultTest);
+        final MavenProject project = createProject(surefire);
+        project.addTestCompileSourceRoot("/project/src/test/java");
+        project.addTestCompileSourceRoot("/project/target/generated-test-sources");
+
+        // when
+        AffectedTestSourceRoots.configure(project);
+
+        // then
+        final String expectedRoots = "/project/src/test/java" + File.pathSeparator + "/project/target/generated-test-sources";
+        assertThat(getTestSourceRoots(surefire.getConfiguration())).isEqualTo(expectedRoots);
+        assertThat(getTestSourceRoots(defaultTest.getConfiguration())).isEqualTo(expectedRoots);
+    }
+
+    @Test
+    public void should_keep_test_source_roots_set_by_user() {
+        // given
+        final Plugin failsafe = createPlugin("maven-failsafe-plugin");
+        final Xpp3Dom configuration = new Xpp3Dom("configuration");
+        final Xpp3Dom systemPropertyVariables = new Xpp3Dom("systemPropertyVariables");
+        final Xpp3Dom testSourceRoots = new Xpp3Dom(SMART_TESTING_AFFECTED_TEST_SOURCE_ROOTS);
+        testSourceRoots.setValue("/project/src/it/java");
+        systemPropertyVariables.addChild(testSourceRoots);
+        configuration.addChild(systemPropertyVariables);
+        failsafe.setConfiguration(configuration);
+        final MavenProject project = createProject(failsafe);
+        project.addTestCompileSourceRoot("/project/src/test/java");
+
+        // when
+        AffectedTestSourceRoots.configure(project);
+
+        // then
+        assertThat(getTestSourceRoots(failsafe.getConfiguration())).isEqualTo("/project/src/it/java");
+    }
+
+    private Plugin createPlugin(String artifactId) {
+        final Plugin plugin = new Plugin();
+        plugin.setArtifactId(artifactId);
+        return plugin;
+    }
+
+    private MavenProject createProject(Plugin plugin) {
+        final Model model = new Model();
+        model.setBuild(new Build());
+        model.getBuild().addPlugin(plugin);
+        return new MavenProject(model);
+    }
+
+    private String getTestSourceRoots(Object configuration) {
+        return ((Xpp3Dom) configuration).getChild("systemPropertyVariables")
+            .getChild(SMART_TESTING_AFFECTED_TEST_SOURCE_ROOTS)
+            .getValue();
+    }
+}
@@ -0,0 +1,62 @@
+package org.arquillian.smart.testing.mvn.ext;
+
+import java.util.Arrays;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Resource;
+import org.apache.maven.project.MavenProject;
+import org.arquillian.smart.testing.configuration.Scm;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReactorSourceRootsTest {
+
+    @Test
+    public void should_set_source_and_resource_roots_of_all_modules_as_paths_of_changes() {
+        // given
+        final MavenProject core = createProject("/project/core");
+        final MavenProject api = createProject("/project/api");
+        final Scm scm = new Scm();
+
+        // when
+        ReactorSourceRoots.configure(Arrays.asList(core, api), scm);
+
+        // then
+        assertThat(scm.getPaths()).containsExactly(
+            "/project/core/src/main/java", "/project/core/src/test/java",
+            "/project/core/src/main/resources", "/project/core/src/test/resources",
+            "/project/api/src/main/java", "/project/api/src/test/java",
+            "/project/api/src/main/resources", "/project/api/src/test/resources");
+    }
+
+    @Test
+    public void should_keep_paths_set_by_user() {
+        // given
+        final Scm scm = new Scm();
+        scm.setPaths(new String[] {"/project"});
+
+        // when
+        ReactorSourceRoots.configure(Arrays.asList(createProject("/project/core")), scm);
+
+        // then
+        assertThat(scm.getPaths()).containsExactly("/project");
+    }
+
+    private MavenProject createProject(String directory) {
+        final Model model = new Model();
+        model.setBuild(new Build());
+        model.getBuild().addResource(resource(directory + "/src/main/resources"));
+        model.getBuild().addTestResource(resource(directory + "/src/test/resources"));
+        final MavenProject project = new MavenProject(model);
+        project.addCompileSourceRoot(directory + "/src/main/java");
+        project.addTestCompileSourceRoot(directory + "/src/test/java");
+        return project;
+    }
+
+    private Resource resource(String directory) {
+        final Resource resource = new Resource();
+        resource.setDirectory(directory);
+        return resource;
+    }
+}
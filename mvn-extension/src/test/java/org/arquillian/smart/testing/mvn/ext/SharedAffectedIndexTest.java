@@ -0,0 +1,57 @@
+package org.arquillian.smart.testing.mvn.ext;
+
+import java.io.File;
+import java.util.Properties;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.arquillian.smart.testing.mvn.ext.SharedAffectedIndex.SMART_TESTING_AFFECTED_SHARED_INDEX;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SharedAffectedIndexTest {
+
+    private MavenSession setUpMavenSession(Properties userProperties) {
+        Model model = new Model();
+        model.setPomFile(new File("/project/pom.xml"));
+
+        MavenProject topLevelProject = Mockito.mock(MavenProject.class);
+        Mockito.when(topLevelProject.getModel()).thenReturn(model);
+
+        MavenSession mavenSession = Mockito.mock(MavenSession.class);
+        Mockito.when(mavenSession.getUserProperties()).thenReturn(userProperties);
+        Mockito.when(mavenSession.getTopLevelProject()).thenReturn(topLevelProject);
+
+        return mavenSession;
+    }
+
+    @Test
+    public void should_set_shared_index_to_cache_of_top_level_project() {
+        // given
+        final Properties userProperties = new Properties();
+        final MavenSession mavenSession = setUpMavenSession(userProperties);
+
+        // when
+        SharedAffectedIndex.configure(mavenSession);
+
+        // then
+        assertThat(userProperties.getProperty(SMART_TESTING_AFFECTED_SHARED_INDEX))
+            .isEqualTo(new File("/project/target/smart-testing/cache/affected-index").getAbsolutePath());
+    }
+
+    @Test
+    public void should_keep_shared_index_set_by_user() {
+        // given
+        final Properties userProperties = new Properties();
+        userProperties.setProperty(SMART_TESTING_AFFECTED_SHARED_INDEX, "/custom/index");
+        final MavenSession mavenSession = setUpMavenSession(userProperties);
+
+        // when
+        SharedAffectedIndex.configure(mavenSession);
+
+        // then
+        assertThat(userProperties.getProperty(SMART_TESTING_AFFECTED_SHARED_INDEX)).isEqualTo("/custom/index");
+    }
+}
@@ -0,0 +1,138 @@
+package org.arquillian.smart.testing.mvn.ext;
+
+import java.io.File;
+import java.util.Properties;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class StrategyAgentTest {
+
+    private static final Dependency AGENT_DEPENDENCY = agentDependency("strategy-covered");
+    private static final File AGENT_JAR = new File("/repository/strategy-covered-agent.jar");
+    private static final String AGENT = "-javaagent:" + AGENT_JAR.getAbsolutePath();
+
+    @Test
+    public void should_append_agent_to_arg_line_of_plugin_and_its_executions() {
+        // given
+        final Plugin surefire = createPlugin("maven-surefire-plugin");
+        surefire.setConfiguration(argLine("-Xmx1024m"));
+        final PluginExecution defaultTest = new PluginExecution();
+        defaultTest.setConfiguration(argLine("-Xmx1024m"));
+        surefire.addExecution(defaultTest);
+        final Model model = createModel(surefire);
+
+        // when
+        new StrategyAgent(AGENT_DEPENDENCY, AGENT_JAR, new Properties()).attachTo(model);
+
+        // then
+        assertThat(getArgLine(surefire.getConfiguration())).isEqualTo("-Xmx1024m " + AGENT);
+        assertThat(getArgLine(defaultTest.getConfiguration())).isEqualTo("-Xmx1024m " + AGENT);
+    }
+
+    @Test
+    public void should_reference_arg_line_property_when_plugin_does_not_configure_arg_line() {
+        // given
+        final Plugin failsafe = createPlugin("maven-failsafe-plugin");
+        final Model model = createModel(failsafe);
+        model.getProperties().setProperty("argLine", "-Dfrom.model=true");
+        final Properties userProperties = new Properties();
+        userProperties.setProperty("argLine", "-Dfrom.user=true");
+
+        // when
+        new StrategyAgent(AGENT_DEPENDENCY, AGENT_JAR, userProperties).attachTo(model);
+
+        // then
+        assertThat(getArgLine(failsafe.getConfiguration())).isEqualTo("@{argLine} " + AGENT);
+        assertThat(model.getProperties()).containsEntry("argLine", "-Dfrom.user=true");
+    }
+
+    @Test
+    public void should_define_empty_arg_line_property_when_it_is_not_defined() {
+        // given
+        final Plugin surefire = createPlugin("maven-surefire-plugin");
+        final Model model = createModel(surefire);
+
+        // when
+        new StrategyAgent(AGENT_DEPENDENCY, AGENT_JAR, new Properties()).attachTo(model);
+
+        // then
+        assertThat(getArgLine(surefire.getConfiguration())).isEqualTo("@{argLine} " + AGENT);
+        assertThat(model.getProperties()).containsEntry("argLine", "");
+    }
+
+    @Test
+    public void should_append_agents_of_both_covered_and_traced_strategies() {
+        // given
+        final Plugin surefire = createPlugin("maven-surefire-plugin");
+        surefire.setConfiguration(argLine("-Xmx1024m"));
+        final Model model = createModel(surefire);
+        final File tracedAgentJar = new File("/repository/strategy-traced-agent.jar");
+
+        // when
+        new StrategyAgent(AGENT_DEPENDENCY, AGENT_JAR, new Properties()).attachTo(model);
+        new StrategyAgent(agentDependency("strategy-traced"), tracedAgentJar, new Properties()).attachTo(model);
+
+        // then
+        assertThat(getArgLine(surefire.getConfiguration()))
+            .isEqualTo("-Xmx1024m " + AGENT + " -javaagent:" + tracedAgentJar.getAbsolutePath());
+    }
+
+    @Test
+    public void should_add_agent_jar_as_dependency_of_plugin_only_once() {
+        // given
+        final Plugin surefire = createPlugin("maven-surefire-plugin");
+        final Model model = createModel(surefire);
+        final StrategyAgent strategyAgent = new StrategyAgent(AGENT_DEPENDENCY, AGENT_JAR, new Properties());
+
+        // when
+        strategyAgent.attachTo(model);
+        strategyAgent.attachTo(model);
+
+        // then
+        assertThat(surefire.getDependencies())
+            .extracting(Dependency::getArtifactId, Dependency::getClassifier)
+            .containsExactly(tuple("strategy-covered", "agent"));
+        assertThat(model.getDependencies()).isEmpty();
+    }
+
+    private static Dependency agentDependency(String strategy) {
+        final Dependency dependency = new Dependency();
+        dependency.setGroupId("org.arquillian.smart.testing");
+        dependency.setArtifactId(strategy);
+        dependency.setVersion("1.0.0");
+        return StrategyAgent.agentDependency(dependency);
+    }
+
+    private Plugin createPlugin(String artifactId) {
+        final Plugin plugin = new Plugin();
+        plugin.setArtifactId(artifactId);
+        return plugin;
+    }
+
+    private Model createModel(Plugin plugin) {
+        final Model model = new Model();
+        model.setBuild(new Build());
+        model.getBuild().addPlugin(plugin);
+        return model;
+    }
+
+    private Xpp3Dom argLine(String value) {
+        final Xpp3Dom configuration = new Xpp3Dom("configuration");
+        final Xpp3Dom argLine = new Xpp3Dom("argLine");
+        argLine.setValue(value);
+        configuration.addChild(argLine);
+        return configuration;
+    }
+
+    private String getArgLine(Object configuration) {
+        return ((Xpp3Dom) configuration).getChild("argLine").getValue();
+    }
+}
@@ -25,11 +25,13 @@ public class StrategyDependencyResolverTest {
         Map<String, Dependency> dependencies = strategyDependencyResolver.resolveDependencies();
 
         // then
-        assertThat(dependencies.values()).hasSize(4)
+        assertThat(dependencies.values()).hasSize(6)
             .extracting(
                 dependency -> dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + dependency.getVersion())
             .contains("org.arquillian.smart.testing:strategy-changed:" + ExtensionVersion.version().toString(),
                       "org.arquillian.smart.testing:strategy-failed:" + ExtensionVersion.version().toString(),
+                      "org.arquillian.smart.testing:strategy-traced:" + ExtensionVersion.version().toString(),
+                      "org.arquillian.smart.testing:strategy-covered:" + ExtensionVersion.version().toString(),
                       "org.arquillian.smart.testing:strategy-changed:" + ExtensionVersion.version().toString(),
                       "org.arquillian.smart.testing:strategy-affected:" + ExtensionVersion.version().toString());
     }
@@ -64,11 +66,13 @@ public class StrategyDependencyResolverTest {
         Map<String, Dependency> dependencies = strategyDependencyResolver.resolveDependencies();
 
         // then
-        assertThat(dependencies.values()).hasSize(5)
+        assertThat(dependencies.values()).hasSize(7)
             .extracting(
                 dependency -> dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + dependency.getVersion())
             .contains("org.arquillian.smart.testing:strategy-changed:" + ExtensionVersion.version().toString(),
                 "org.arquillian.smart.testing:strategy-failed:" + ExtensionVersion.version().toString(),
+                "org.arquillian.smart.testing:strategy-traced:" + ExtensionVersion.version().toString(),
+                "org.arquillian.smart.testing:strategy-covered:" + ExtensionVersion.version().toString(),
                 "org.arquillian.smart.testing:strategy-affected:" + ExtensionVersion.version().toString(),
                 "org.arquillian.smart.testing:strategy-cool:1.0.0");
     }
@@ -85,11 +89,13 @@ public class StrategyDependencyResolverTest {
         Map<String, Dependency> dependencies = strategyDependencyResolver.resolveDependencies();
 
         // then
-        assertThat(dependencies.values()).hasSize(5)
+        assertThat(dependencies.values()).hasSize(7)
             .extracting(
                 dependency -> dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + dependency.getVersion())
             .contains("org.arquillian.smart.testing:strategy-changed:" + ExtensionVersion.version().toString(),
                 "org.arquillian.smart.testing:strategy-failed:" + ExtensionVersion.version().toString(),
+                "org.arquillian.smart.testing:strategy-traced:" + ExtensionVersion.version().toString(),
+                "org.arquillian.smart.testing:strategy-covered:" + ExtensionVersion.version().toString(),
                 "org.arquillian.smart.testing:strategy-affected:" + ExtensionVersion.version().toString(),
                 "org.arquillian.smart.testing:strategy-cool:1.0.1");
     }
@@ -105,6 +111,6 @@ public class StrategyDependencyResolverTest {
 
         // then
         assertThat(dependencies.keySet())
-            .containsExactlyInAnyOrder("affected", "changed", "my.cool", "new", "failed");
+            .containsExactlyInAnyOrder("affected", "changed", "my.cool", "new", "failed", "traced", "covered");
     }
 }
@@ -1,11 +1,18 @@
 package org.arquillian.smart.testing.strategies.affected;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.arquillian.smart.testing.configuration.Configuration;
 
 class AffectedRunnerProperties {
 
@@ -14,18 +21,47 @@ class AffectedRunnerProperties {
     static final String SMART_TESTING_AFFECTED_TRANSITIVITY = "smart.testing.affected.transitivity";
     static final String DEFAULT_SMART_TESTING_AFFECTED_TRANSITIVITY_VALUE = "true";
 
+    static final String SMART_TESTING_AFFECTED_TRANSITIVITY_DEPTH = "smart.testing.affected.transitivity.depth";
+    static final String SMART_TESTING_AFFECTED_TRANSITIVITY_DEPTH_OVERRIDES = "smart.testing.affected.transitivity.depth.overrides";
+    static final String DEPTH_OVERRIDES = "depth.overrides";
+
+    static final String SMART_TESTING_AFFECTED_INDEX = "smart.testing.affected.index";
+    static final String DEFAULT_SMART_TESTING_AFFECTED_INDEX_VALUE = "true";
+
+    static final String SMART_TESTING_AFFECTED_SHARED_INDEX = "smart.testing.affected.shared.index";
+
+    static final String SMART_TESTING_AFFECTED_TEST_SOURCE_ROOTS = "smart.testing.affected.test.source.roots";
+
+    static final String SMART_TESTING_AFFECTED_THREADS = "smart.testing.affected.threads";
+    static final String DEFAULT_SMART_TESTING_AFFECTED_THREADS_VALUE = "1";
+
+    static final String SMART_TESTING_AFFECTED_COMPACT_GRAPH = "smart.testing.affected.compact.graph";
+    static final String DEFAULT_SMART_TESTING_AFFECTED_COMPACT_GRAPH_VALUE = "false";
+
     static final String SMART_TESTING_AFFECTED_EXCLUSIONS = "smart.testing.affected.exclusions";
     static final String SMART_TESTING_AFFECTED_INCLUSIONS = "smart.testing.affected.inclusions";
     static final String INCLUSIONS = "inclusions";
     static final String EXCLUSIONS = "exclusions";
 
     private final Properties properties = new Properties();
+    private final Function<String, String> systemProperties;
 
     AffectedRunnerProperties(){
+        this.systemProperties = System::getProperty;
         readFile(System.getProperty(SMART_TESTING_AFFECTED_CONFIG));
     }
 
+    /**
+     * Reads the system properties of the build the configuration is loaded for, which differ from the ones of this JVM
+     * when the tests are selected by the daemon.
+     */
+    AffectedRunnerProperties(Configuration configuration) {
+        this.systemProperties = configuration::getSystemProperty;
+        readFile(configuration.getSystemProperty(SMART_TESTING_AFFECTED_CONFIG));
+    }
+
     AffectedRunnerProperties(String csvLocation) {
+        this.systemProperties = System::getProperty;
         readFile(csvLocation);
     }
 
@@ -42,24 +78,72 @@ class AffectedRunnerProperties {
     }
 
     boolean getSmartTestingAffectedTransitivity() {
-        return Boolean.parseBoolean(System.getProperty(SMART_TESTING_AFFECTED_TRANSITIVITY,
+        return Boolean.parseBoolean(getSystemProperty(SMART_TESTING_AFFECTED_TRANSITIVITY,
             DEFAULT_SMART_TESTING_AFFECTED_TRANSITIVITY_VALUE));
     }
 
+    int getSmartTestingAffectedTransitivityDepth() {
+        final String depth = systemProperties.apply(SMART_TESTING_AFFECTED_TRANSITIVITY_DEPTH);
+        return depth == null || depth.trim().isEmpty() ? 0 : Integer.parseInt(depth.trim());
+    }
+
+    String getSmartTestingAffectedTransitivityDepthOverrides() {
+        String overrides = systemProperties.apply(SMART_TESTING_AFFECTED_TRANSITIVITY_DEPTH_OVERRIDES);
+        String overridesFromFile = properties.getProperty(DEPTH_OVERRIDES);
+
+        return resolve(overrides, overridesFromFile);
+    }
+
+    boolean getSmartTestingAffectedIndex() {
+        return Boolean.parseBoolean(getSystemProperty(SMART_TESTING_AFFECTED_INDEX,
+            DEFAULT_SMART_TESTING_AFFECTED_INDEX_VALUE));
+    }
+
+    String getSmartTestingAffectedSharedIndex() {
+        return systemProperties.apply(SMART_TESTING_AFFECTED_SHARED_INDEX);
+    }
+
+    List<File> getSmartTestingAffectedTestSourceRoots() {
+        final String roots = systemProperties.apply(SMART_TESTING_AFFECTED_TEST_SOURCE_ROOTS);
+        if (roots == null || roots.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(roots.split(File.pathSeparator))
+            .map(String::trim)
+            .filter(root -> !root.isEmpty())
+            .map(File::new)
+            .collect(Collectors.toList());
+    }
+
+    int getSmartTestingAffectedThreads() {
+        return Integer.parseInt(getSystemProperty(SMART_TESTING_AFFECTED_THREADS,
+            DEFAULT_SMART_TESTING_AFFECTED_THREADS_VALUE));
+    }
+
+    boolean getSmartTestingAffectedCompactGraph() {
+        return Boolean.parseBoolean(getSystemProperty(SMART_TESTING_AFFECTED_COMPACT_GRAPH,
+            DEFAULT_SMART_TESTING_AFFECTED_COMPACT_GRAPH_VALUE));
+    }
+
     String getSmartTestingAffectedExclusions() {
-        String exclusions = System.getProperty(SMART_TESTING_AFFECTED_EXCLUSIONS);
+        String exclusions = systemProperties.apply(SMART_TESTING_AFFECTED_EXCLUSIONS);
         String exclusionsFromFile = properties.getProperty(EXCLUSIONS);
 
         return resolve(exclusions, exclusionsFromFile);
     }
 
     String getSmartTestingAffectedInclusions() {
-        String inclusions = System.getProperty(SMART_TESTING_AFFECTED_INCLUSIONS);
+        String inclusions = systemProperties.apply(SMART_TESTING_AFFECTED_INCLUSIONS);
         String inclusionsFromFile = properties.getProperty(INCLUSIONS);
 
         return resolve(inclusions, inclusionsFromFile);
     }
 
+    private String getSystemProperty(String name, String defaultValue) {
+        final String value = systemProperties.apply(name);
+        return value != null ? value : defaultValue;
+    }
+
     String resolve(String expressions, String fileExpressions) {
         StringJoiner joiner = new StringJoiner(", ");
         if (expressions != null) {
@@ -1,9 +1,9 @@
 package org.arquillian.smart.testing.strategies.affected;
 
 import java.io.File;
-import java.nio.file.Path;
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.arquillian.smart.testing.configuration.Configuration;
@@ -12,7 +12,8 @@ import org.arquillian.smart.testing.TestSelection;
 import org.arquillian.smart.testing.api.TestVerifier;
 import org.arquillian.smart.testing.hub.storage.ChangeStorage;
 import org.arquillian.smart.testing.logger.Log;
-import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.ChangeSnapshot;
+import org.arquillian.smart.testing.scm.ClassifiedChange;
 import org.arquillian.smart.testing.scm.spi.ChangeResolver;
 import org.arquillian.smart.testing.spi.JavaSPILoader;
 import org.arquillian.smart.testing.spi.TestExecutionPlanner;
@@ -33,7 +34,8 @@ public class AffectedTestsDetector implements TestExecutionPlanner {
     private final Configuration configuration;
 
     AffectedTestsDetector(File projectDir, TestVerifier testVerifier, Configuration configuration) {
-        this(new FileSystemTestClassDetector(projectDir, testVerifier),
+        this(new FileSystemTestClassDetector(projectDir,
+                new AffectedRunnerProperties(configuration).getSmartTestingAffectedTestSourceRoots(), testVerifier),
             new JavaSPILoader().onlyOne(ChangeStorage.class).get(),
             new JavaSPILoader().onlyOne(ChangeResolver.class).get(),
             projectDir,
@@ -60,35 +62,41 @@ public class AffectedTestsDetector implements TestExecutionPlanner {
     public Collection<TestSelection> getTests() {
         ClassDependenciesGraph classDependenciesGraph = configureTestClassDetector();
 
-        // TODO this operations should be done in extension to avoid scanning for all modules.
-        // TODO In case of Arquillian core is an improvement of 500 ms per module
-        // Scan disk finding all tests of current project
+        // Scan disk finding all tests of current project. Classes already parsed by other modules of the build are taken
+        // from the index shared by the whole reactor (configured by the extension), so only the classes of this module
+        // which have been changed are parsed.
 
         final long beforeDetection = System.currentTimeMillis();
 
         final Set<File> allTestsOfCurrentProject = this.testClassDetector.detect();
         classDependenciesGraph.buildTestDependencyGraph(allTestsOfCurrentProject);
 
-        final Collection<Change> files = changeStorage.read(projectDir)
-            .orElseGet(() -> {
-                logger.warn("No cached changes detected... using direct resolution");
-                return changeResolver.diff(projectDir, configuration, getName());
-            });
+        final ChangeSnapshot changes =
+            ChangeSnapshot.of(changeStorage, changeResolver, projectDir, testVerifier, configuration, getName());
 
         logger.debug("Time To Build Affected Dependencies Graph %d ms", (System.currentTimeMillis() - beforeDetection));
 
-        final Set<File> mainClasses = files.stream()
-            .map(Change::getLocation)
-            .filter(testVerifier::isCore)
-            .map(Path::toFile)
+        final Set<File> mainClasses = changes.getJavaChanges().stream()
+            .filter(ClassifiedChange::isCore)
+            .map(change -> change.getLocation().toFile())
             .collect(Collectors.toSet());
 
         final long beforeFind = System.currentTimeMillis();
 
-        final Set<TestSelection> affected = classDependenciesGraph.findTestsDependingOn(mainClasses)
-            .stream()
-            .map(s -> new TestSelection(s, "affected"))
-            .collect(Collectors.toCollection(LinkedHashSet::new));
+        final Set<TestSelection> affected;
+        if (classDependenciesGraph.isTransitivityDepthLimited()) {
+            final Map<String, Integer> testsWithDistances = classDependenciesGraph.findTestsWithDistances(mainClasses);
+            testsWithDistances.forEach((test, distance) -> logger.debug("Test %s affected at distance %d", test, distance));
+            affected = testsWithDistances.entrySet()
+                .stream()
+                .map(test -> new TestSelection(test.getKey(), test.getValue(), "affected"))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        } else {
+            affected = classDependenciesGraph.findTestsDependingOn(mainClasses)
+                .stream()
+                .map(s -> new TestSelection(s, "affected"))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
 
         logger.debug("Time To Find Affected Tests %d ms", (System.currentTimeMillis() - beforeFind));
 
@@ -96,6 +104,6 @@ public class AffectedTestsDetector implements TestExecutionPlanner {
     }
 
     private ClassDependenciesGraph configureTestClassDetector() {
-        return new ClassDependenciesGraph(testVerifier);
+        return new ClassDependenciesGraph(testVerifier, projectDir, new AffectedRunnerProperties(configuration));
     }
 }
@@ -28,141 +28,263 @@
 package org.arquillian.smart.testing.strategies.affected;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
+import org.arquillian.smart.testing.FileFingerprints;
 import org.arquillian.smart.testing.api.TestVerifier;
+import org.arquillian.smart.testing.hub.storage.local.LocalStorage;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
 import org.arquillian.smart.testing.strategies.affected.ast.JavaClass;
 import org.arquillian.smart.testing.strategies.affected.ast.JavaClassBuilder;
-import org.jgrapht.DirectedGraph;
-import org.jgrapht.graph.DefaultDirectedGraph;
-import org.jgrapht.graph.DefaultEdge;
-
-import static org.jgrapht.Graphs.predecessorListOf;
+import org.arquillian.smart.testing.strategies.affected.ast.JavaClassIndex;
+import org.arquillian.smart.testing.strategies.affected.ast.SourceToClassIndex;
 
 public class ClassDependenciesGraph {
 
+    private static final Logger logger = Log.getLogger();
+
+    static final String INDEX_FILE_NAME = "affected-index";
+    static final String FINGERPRINTS_FILE_NAME = "affected-fingerprints";
+
     private static final Filter coreJava = new Filter("", "java.*");
 
     private final JavaClassBuilder builder;
-    private final DirectedGraph<JavaElement, DefaultEdge> graph;
+    private final ThreadLocal<JavaClassBuilder> threadBuilder;
+    private final int threads;
+    private final DependencyGraph graph;
     private final Filter filter;
     private final TestVerifier testVerifier;
     private final boolean enableTransitivity;
+    private final TransitivityDepth transitivityDepth;
+    private final JavaClassIndex index;
+    private final Path indexFile;
+    private final FileFingerprints fingerprints;
+    private final Path fingerprintsFile;
+    private final SourceToClassIndex sourceToClassIndex = new SourceToClassIndex();
+    private final Set<String> testClassesNames = new HashSet<>();
+    private ReverseDependencyIndex reverseDependencyIndex;
 
     ClassDependenciesGraph(TestVerifier testVerifier) {
-        this.builder = new JavaClassBuilder();
-        this.graph = new DefaultDirectedGraph<>(DefaultEdge.class);
-        AffectedRunnerProperties affectedRunnerProperties = new AffectedRunnerProperties();
+        this(testVerifier, null);
+    }
+
+    /**
+     * @param projectDir directory of the project the index of parsed classes is stored in, unless an index shared by
+     * all modules of the build is configured. If null, or if the index is disabled, all classes are parsed again.
+     */
+    ClassDependenciesGraph(TestVerifier testVerifier, File projectDir) {
+        this(testVerifier, projectDir, new AffectedRunnerProperties());
+    }
+
+    ClassDependenciesGraph(TestVerifier testVerifier, File projectDir, AffectedRunnerProperties affectedRunnerProperties) {
+        if (projectDir != null && affectedRunnerProperties.getSmartTestingAffectedIndex()) {
+            this.indexFile = resolveIndexFile(projectDir, affectedRunnerProperties.getSmartTestingAffectedSharedIndex());
+            this.fingerprintsFile = indexFile.resolveSibling(FINGERPRINTS_FILE_NAME);
+            this.fingerprints = FileFingerprints.load(fingerprintsFile);
+            this.index = JavaClassIndex.load(indexFile, fingerprints);
+        } else {
+            this.indexFile = null;
+            this.index = null;
+            this.fingerprintsFile = null;
+            this.fingerprints = null;
+        }
+        this.builder = newBuilder();
+        this.threadBuilder = ThreadLocal.withInitial(this::newBuilder);
+        this.threads = affectedRunnerProperties.getSmartTestingAffectedThreads();
+        this.graph = affectedRunnerProperties.getSmartTestingAffectedCompactGraph() ? new CompactDependencyGraph() : new JGraphTDependencyGraph();
         this.filter = new Filter(affectedRunnerProperties.getSmartTestingAffectedInclusions(), affectedRunnerProperties.getSmartTestingAffectedExclusions());
         this.testVerifier = testVerifier;
         this.enableTransitivity = affectedRunnerProperties.getSmartTestingAffectedTransitivity();
+        this.transitivityDepth = new TransitivityDepth(affectedRunnerProperties.getSmartTestingAffectedTransitivityDepth(),
+            affectedRunnerProperties.getSmartTestingAffectedTransitivityDepthOverrides());
+    }
+
+    static Path resolveIndexFile(File projectDir, String sharedIndex) {
+        if (sharedIndex != null && !sharedIndex.trim().isEmpty()) {
+            return Paths.get(sharedIndex.trim());
+        }
+        return new LocalStorage(projectDir).afterExecution().toCache().file(INDEX_FILE_NAME).getPath();
     }
 
     void buildTestDependencyGraph(Collection<File> testJavaFiles) {
-        // First update class index
-        List<String> testClassesNames = new ArrayList<>();
-        for (File testJavaFile : testJavaFiles) {
-            String changedTestClassClassname = builder.getClassName(JavaToClassLocation.transform(testJavaFile, testVerifier));
-            if (changedTestClassClassname != null) {
-                testClassesNames.add(changedTestClassClassname);
+        final ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads, this::newParsingThread) : null;
+        try {
+            // First update class index
+            final List<String> classNames = parse(executor, new ArrayList<>(testJavaFiles),
+                (javaClassBuilder, testJavaFile) -> javaClassBuilder.getClassName(toClassFile(testJavaFile)));
+            classNames.stream().filter(Objects::nonNull).forEach(testClassesNames::add);
+
+            // Then find dependencies - each class is parsed only once and only its direct imports are stored. Classes are
+            // expanded level by level, so each class is reached at its shortest distance from any test and classes
+            // further than the maximum transitivity depth are not parsed at all.
+            final int maxDepth = transitivityDepth.getMaxDepth();
+            final Set<String> expandedClassesNames = new HashSet<>(testClassesNames);
+            List<String> classesToExpand = new ArrayList<>(testClassesNames);
+            for (int depth = 0; !classesToExpand.isEmpty(); depth++) {
+                final boolean expandImports = depth + 1 < maxDepth;
+                final List<JavaClass> javaClasses = parse(executor, classesToExpand, JavaClassBuilder::getClassDescription);
+                classesToExpand = new ArrayList<>();
+                for (JavaClass javaClass : javaClasses) {
+                    if (javaClass != null) {
+                        graph.addClass(javaClass);
+                        for (String importz : javaClass.getImports()) {
+                            if (addImport(javaClass.getName(), importz) && expandImports && isTransitive(importz)
+                                && expandedClassesNames.add(importz)) {
+                                classesToExpand.add(importz);
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
             }
         }
+        reverseDependencyIndex = null;
 
-        // Then find dependencies
-        for (String changedTestClassNames : testClassesNames) {
-            JavaClass javaClass = builder.getClassDescription(changedTestClassNames);
-            if (javaClass != null) {
-                addToIndex(new JavaElement(javaClass), javaClass.getImports());
+        storeIndex();
+    }
+
+    /**
+     * Applies the given parsing on all elements and returns the results in the same order. If an executor is given,
+     * the elements are parsed concurrently and each thread uses its own {@link JavaClassBuilder}, as the underlying
+     * class pool can't be shared between threads.
+     */
+    private <T, R> List<R> parse(ExecutorService executor, List<T> elements, BiFunction<JavaClassBuilder, T, R> parsing) {
+        if (executor == null) {
+            return elements.stream().map(element -> parsing.apply(builder, element)).collect(Collectors.toList());
+        }
+
+        final List<Future<R>> futures = elements.stream()
+            .map(element -> executor.submit(() -> parsing.apply(threadBuilder.get(), element)))
+            .collect(Collectors.toList());
+
+        final List<R> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building test dependency graph", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw new IllegalStateException("Failed building test dependency graph", e.getCause());
         }
+        return results;
     }
 
-    private void addToIndex(JavaElement javaElement, String[] imports) {
-        addToGraph(javaElement);
-        updateJavaElementWithImportReferences(javaElement, imports);
+    private Thread newParsingThread(Runnable runnable) {
+        // class pool of each builder is created from the classpath of the context class loader
+        final Thread thread = new Thread(runnable, "smart-testing-affected-parser");
+        thread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+        thread.setDaemon(true);
+        return thread;
     }
 
-    private void addToGraph(JavaElement newClass) {
-        if (!graph.addVertex(newClass)) {
-            replaceVertex(newClass);
-        }
+    private JavaClassBuilder newBuilder() {
+        return index != null ? new JavaClassBuilder(index) : new JavaClassBuilder();
     }
 
-    private void replaceVertex(JavaElement newClass) {
-        List<JavaElement> incomingEdges = getParents(newClass);
+    private boolean isTransitive(String className) {
+        return this.enableTransitivity && filter.shouldBeIncluded(className);
+    }
 
-        graph.removeVertex(newClass);
-        graph.addVertex(newClass);
-        for (JavaElement each : incomingEdges) {
-            graph.addEdge(each, newClass);
+    private void storeIndex() {
+        if (index != null && index.isModified()) {
+            index.store(indexFile);
+            logger.debug("Stored index of %d parsed classes to %s", index.size(), indexFile);
+        }
+        if (fingerprints != null && fingerprints.isModified()) {
+            fingerprints.store(fingerprintsFile);
         }
     }
 
-    private void updateJavaElementWithImportReferences(JavaElement javaElementParentClass, String[] imports) {
-
-        for (String importz : imports) {
+    private boolean addImport(String className, String importz) {
+        return coreJava.shouldBeIncluded(importz) && !importz.equals(className) && graph.addDependency(className, importz);
+    }
 
-            if (addImport(javaElementParentClass, importz) && filter.shouldBeIncluded(importz) && this.enableTransitivity) {
-                JavaClass javaClass = builder.getClassDescription(importz);
-                if (javaClass != null) {
-                    updateJavaElementWithImportReferences(javaElementParentClass, javaClass.getImports());
-                }
-            }
+    Set<String> findTestsDependingOn(Set<File> classes) {
+        if (transitivityDepth.isLimited()) {
+            return findTestsWithDistances(classes).keySet();
         }
+        return getReverseDependencyIndex().findTestsDependingOn(toClassNames(classes));
     }
 
-    private boolean addImport(JavaElement javaElementParentClass, String importz) {
+    /**
+     * Returns tests depending on any of the given classes at most at the configured transitivity depth, together with
+     * the shortest distance at which each of them depends on the changed classes.
+     */
+    Map<String, Integer> findTestsWithDistances(Set<File> classes) {
+        return getReverseDependencyIndex().findTestsDependingOn(toClassNames(classes), transitivityDepth::getMaxDepth);
+    }
 
-        if (coreJava.shouldBeIncluded(importz)) {
+    boolean isTransitivityDepthLimited() {
+        return transitivityDepth.isLimited();
+    }
 
-            JavaElement importClass = new JavaElement(importz);
-            if (!importClass.equals(javaElementParentClass)) {
-                if (!graph.containsVertex(importClass)) {
-                    graph.addVertex(importClass);
-                }
+    private List<String> toClassNames(Set<File> classes) {
+        return classes.stream()
+            .flatMap(javaClass -> toClassFiles(javaClass).stream())
+            .map(this.builder::getClassName)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
 
-                // This condition is required because we are flattening imports in graph
-                if (!graph.containsEdge(javaElementParentClass, importClass)) {
-                    graph.addEdge(javaElementParentClass, importClass);
-                    return true;
-                }
-            }
+    /**
+     * Returns the .class file of the top level class of the given source file. Class files are returned as they are.
+     */
+    private File toClassFile(File javaFile) {
+        if (isClassFile(javaFile)) {
+            return javaFile;
         }
-
-        return false;
+        final File classFile = sourceToClassIndex.getClassFile(javaFile);
+        return classFile != null ? classFile : JavaToClassLocation.transform(javaFile, testVerifier);
     }
 
+    /**
+     * Returns .class files of all classes (nested ones included) compiled from the given source file.
+     */
+    private List<File> toClassFiles(File javaFile) {
+        if (isClassFile(javaFile)) {
+            return Collections.singletonList(javaFile);
+        }
+        final List<File> classFiles = sourceToClassIndex.getClassFiles(javaFile);
+        return classFiles.isEmpty() ? Collections.singletonList(JavaToClassLocation.transform(javaFile, testVerifier)) : classFiles;
+    }
 
-    Set<String> findTestsDependingOn(Set<File> classes) {
-        return classes.stream()
-            .map( javaClass -> {
-                final File classLocation = JavaToClassLocation.transform(javaClass, testVerifier);
-                final String className = this.builder.getClassName(classLocation);
-                return this.builder.getClassDescription(className);
-            })
-            .map(JavaElement::new)
-            .filter(graph::containsVertex)
-            .map(this::getParents)
-            .flatMap(Collection::stream)
-            .map(JavaElement::getClassName)
-            .collect(Collectors.toSet());
+    private boolean isClassFile(File file) {
+        return file.getName().endsWith(".class");
     }
 
-    private List<JavaElement> getParents(JavaElement childClass) {
-        return predecessorListOf(graph, childClass);
+    private ReverseDependencyIndex getReverseDependencyIndex() {
+        if (reverseDependencyIndex == null) {
+            reverseDependencyIndex = graph.createReverseDependencyIndex(testClassesNames::contains, this::isTransitive);
+        }
+        return reverseDependencyIndex;
     }
 
     @Override
     public String toString() {
-        final Set<DefaultEdge> defaultEdges = graph.edgeSet();
-        StringBuilder s = new StringBuilder(System.lineSeparator());
-
-        defaultEdges.forEach(de -> s.append(de.toString()).append(System.lineSeparator()));
-
-        return s.toString();
+        return graph.toString();
     }
 
 }
@@ -0,0 +1,276 @@
+package org.arquillian.smart.testing.strategies.affected;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.arquillian.smart.testing.FileFingerprints;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+import org.arquillian.smart.testing.strategies.affected.ast.JavaClassBuilder;
+import org.arquillian.smart.testing.strategies.affected.ast.JavaClassIndex;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Keeps the index of parsed classes of a project up to date while its classes are being compiled (eg. by an IDE), so
+ * the affected strategy finds all the classes already parsed in the index when the tests are run and only has to look
+ * the dependencies up.
+ *
+ * The output directories (target/classes and target/test-classes) are watched for class files being written. Once no
+ * other class file has been written for a while, the written ones are parsed and the index is stored to the same file
+ * the affected strategy reads it from - see {@link AffectedRunnerProperties#SMART_TESTING_AFFECTED_SHARED_INDEX}. Start
+ * it with:
+ * <pre>
+ * java -cp &lt;affected strategy and its dependencies&gt; org.arquillian.smart.testing.strategies.affected.ClassFilesWatcher [module directory...]
+ * </pre>
+ */
+public class ClassFilesWatcher implements Closeable {
+
+    private static final Logger logger = Log.getLogger();
+
+    private static final String[] OUTPUT_DIRECTORIES = {"target/classes", "target/test-classes"};
+    private static final long QUIET_PERIOD_MILLIS = 200;
+
+    private final File projectDir;
+    private final List<Path> outputDirectories = new ArrayList<>();
+    private final Path indexFile;
+    private final Path fingerprintsFile;
+    private final FileFingerprints fingerprints;
+    private final JavaClassIndex index;
+    private final JavaClassBuilder builder;
+    private final URLClassLoader classLoader;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final Set<Path> changedClassFiles = new LinkedHashSet<>();
+    private volatile boolean running = true;
+    private Thread thread;
+
+    public ClassFilesWatcher(File projectDir) throws IOException {
+        final AffectedRunnerProperties affectedRunnerProperties = new AffectedRunnerProperties();
+        if (!affectedRunnerProperties.getSmartTestingAffectedIndex()) {
+            throw new IllegalStateException("Watching class files requires the index of parsed classes to be enabled by "
+                + AffectedRunnerProperties.SMART_TESTING_AFFECTED_INDEX);
+        }
+
+        this.projectDir = projectDir.getAbsoluteFile();
+        final URL[] urls = new URL[OUTPUT_DIRECTORIES.length];
+        for (int i = 0; i < OUTPUT_DIRECTORIES.length; i++) {
+            final Path outputDirectory = this.projectDir.toPath().resolve(OUTPUT_DIRECTORIES[i]);
+            outputDirectories.add(outputDirectory);
+            urls[i] = toUrl(outputDirectory);
+        }
+        this.indexFile = ClassDependenciesGraph.resolveIndexFile(this.projectDir,
+            affectedRunnerProperties.getSmartTestingAffectedSharedIndex());
+        this.fingerprintsFile = indexFile.resolveSibling(ClassDependenciesGraph.FINGERPRINTS_FILE_NAME);
+        this.fingerprints = FileFingerprints.load(fingerprintsFile);
+        this.index = JavaClassIndex.load(indexFile, fingerprints);
+        this.builder = new JavaClassBuilder(index);
+        this.classLoader = new URLClassLoader(urls, ClassFilesWatcher.class.getClassLoader());
+        this.watchService = FileSystems.getDefault().newWatchService();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final List<ClassFilesWatcher> watchers = new ArrayList<>();
+        for (String projectDir : args.length > 0 ? args : new String[] {"."}) {
+            watchers.add(new ClassFilesWatcher(new File(projectDir)).start());
+        }
+        for (ClassFilesWatcher watcher : watchers) {
+            watcher.join();
+        }
+    }
+
+    /**
+     * Starts watching the class files in a background thread.
+     */
+    public ClassFilesWatcher start() {
+        thread = new Thread(this::run, "smart-testing-class-files-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Watching class files of %s", projectDir);
+        return this;
+    }
+
+    void join() throws InterruptedException {
+        thread.join();
+    }
+
+    /**
+     * Watches the class files until the watcher is closed.
+     */
+    public void run() {
+        try {
+            while (running) {
+                registerOutputDirectories();
+                final WatchKey key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    updateIndex();
+                } else {
+                    collectChanges(key);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    /**
+     * Starts watching output directories which are not watched yet, eg. because they didn't exist before the project
+     * was compiled or because they were removed by a clean build. All class files they already contain are indexed.
+     */
+    private void registerOutputDirectories() {
+        for (Path outputDirectory : outputDirectories) {
+            if (Files.isDirectory(outputDirectory) && !watchedDirectories.containsValue(outputDirectory)) {
+                register(outputDirectory);
+            }
+        }
+    }
+
+    private void collectChanges(WatchKey key) {
+        final Path directory = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                // some events have been lost, every class file is checked against the index
+                watchedDirectories.values().forEach(this::collectClassFiles);
+                continue;
+            }
+            final Path path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                register(path);
+            } else if (isClassFile(path)) {
+                changedClassFiles.add(path);
+            }
+        }
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+    }
+
+    private void register(Path root) {
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    watchedDirectories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY), dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (isClassFile(file)) {
+                        changedClassFiles.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Unable to watch directory %s. Reason: %s", root, e.getMessage());
+        }
+    }
+
+    private void collectClassFiles(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(this::isClassFile).forEach(changedClassFiles::add);
+        } catch (IOException e) {
+            logger.debug("Unable to list directory %s. Reason: %s", directory, e.getMessage());
+        }
+    }
+
+    private boolean isClassFile(Path path) {
+        return path.getFileName().toString().endsWith(".class");
+    }
+
+    /**
+     * Parses the class files written since the last update (those which are not indexed in their current version yet)
+     * and stores the index.
+     */
+    private void updateIndex() {
+        if (changedClassFiles.isEmpty()) {
+            return;
+        }
+
+        final long start = System.currentTimeMillis();
+        final Thread currentThread = Thread.currentThread();
+        final ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+        // class pool of the builder is created from the classpath of the context class loader
+        currentThread.setContextClassLoader(classLoader);
+        try {
+            for (Path classFile : changedClassFiles) {
+                if (Files.isRegularFile(classFile)) {
+                    index(classFile);
+                }
+            }
+        } finally {
+            currentThread.setContextClassLoader(originalClassLoader);
+        }
+
+        if (index.isModified()) {
+            index.store(indexFile);
+        }
+        if (fingerprints.isModified()) {
+            fingerprints.store(fingerprintsFile);
+        }
+        logger.debug("Indexed %d class files of %s in %d ms", changedClassFiles.size(), projectDir,
+            System.currentTimeMillis() - start);
+        changedClassFiles.clear();
+    }
+
+    private void index(Path classFile) {
+        try {
+            final String className = builder.getClassName(classFile.toFile());
+            if (className != null) {
+                builder.getClassDescription(className);
+            }
+        } catch (RuntimeException e) {
+            // the class file may be still being written, it's parsed again once the compiler modifies it
+            logger.debug("Unable to parse class file %s. Reason: %s", classFile, e.getMessage());
+        }
+    }
+
+    private static URL toUrl(Path directory) {
+        try {
+            // trailing slash marks a directory for the class loader
+            return new URL(directory.toUri().toURL().toExternalForm().replaceAll("/?$", "/"));
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Unable to resolve URL of " + directory, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        watchService.close();
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        classLoader.close();
+    }
+}
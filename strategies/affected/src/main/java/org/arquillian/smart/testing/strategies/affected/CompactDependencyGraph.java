@@ -0,0 +1,103 @@
+package org.arquillian.smart.testing.strategies.affected;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.arquillian.smart.testing.strategies.affected.ast.JavaClass;
+
+/**
+ * Dependency graph for very large projects. Class names are interned into a symbol table of int ids and the dependencies
+ * of each class are stored in a primitive int array, so there is no object per vertex or edge.
+ */
+class CompactDependencyGraph implements DependencyGraph {
+
+    private static final int[] NO_DEPENDENCIES = new int[0];
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] classNames = new String[256];
+    private int[][] dependencies = new int[256][];
+    private int[] dependenciesCounts = new int[256];
+    private int size;
+
+    @Override
+    public void addClass(JavaClass javaClass) {
+        idOf(javaClass.getName());
+    }
+
+    @Override
+    public boolean addDependency(String className, String dependencyName) {
+        final int id = idOf(className);
+        final int dependency = idOf(dependencyName);
+
+        int[] classDependencies = dependencies[id];
+        final int count = dependenciesCounts[id];
+        for (int i = 0; i < count; i++) {
+            if (classDependencies[i] == dependency) {
+                return false;
+            }
+        }
+        if (count == classDependencies.length) {
+            classDependencies = Arrays.copyOf(classDependencies, Math.max(4, count * 2));
+            dependencies[id] = classDependencies;
+        }
+        classDependencies[count] = dependency;
+        dependenciesCounts[id] = count + 1;
+        return true;
+    }
+
+    private int idOf(String className) {
+        final Integer existingId = ids.get(className);
+        if (existingId != null) {
+            return existingId;
+        }
+
+        if (size == classNames.length) {
+            final int capacity = size * 2;
+            classNames = Arrays.copyOf(classNames, capacity);
+            dependencies = Arrays.copyOf(dependencies, capacity);
+            dependenciesCounts = Arrays.copyOf(dependenciesCounts, capacity);
+        }
+        final int id = size++;
+        classNames[id] = className;
+        dependencies[id] = NO_DEPENDENCIES;
+        ids.put(className, id);
+        return id;
+    }
+
+    @Override
+    public ReverseDependencyIndex createReverseDependencyIndex(Predicate<String> isTest, Predicate<String> isTransitive) {
+        final int[] predecessorsOffsets = new int[size + 1];
+        for (int id = 0; id < size; id++) {
+            for (int i = 0; i < dependenciesCounts[id]; i++) {
+                predecessorsOffsets[dependencies[id][i] + 1]++;
+            }
+        }
+        for (int id = 0; id < size; id++) {
+            predecessorsOffsets[id + 1] += predecessorsOffsets[id];
+        }
+
+        final int[] predecessors = new int[predecessorsOffsets[size]];
+        final int[] positions = Arrays.copyOf(predecessorsOffsets, size);
+        for (int id = 0; id < size; id++) {
+            for (int i = 0; i < dependenciesCounts[id]; i++) {
+                predecessors[positions[dependencies[id][i]]++] = id;
+            }
+        }
+
+        return new ReverseDependencyIndex(Arrays.copyOf(classNames, size), predecessorsOffsets, predecessors, isTest,
+            isTransitive);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder(System.lineSeparator());
+        for (int id = 0; id < size; id++) {
+            for (int i = 0; i < dependenciesCounts[id]; i++) {
+                s.append('(').append(classNames[id]).append(" : ").append(classNames[dependencies[id][i]]).append(')')
+                    .append(System.lineSeparator());
+            }
+        }
+        return s.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package org.arquillian.smart.testing.strategies.affected;
+
+import java.util.function.Predicate;
+import org.arquillian.smart.testing.strategies.affected.ast.JavaClass;
+
+/**
+ * Storage of direct dependencies between classes used by {@link ClassDependenciesGraph}.
+ */
+interface DependencyGraph {
+
+    /**
+     * Adds given class to the graph. If the class is already present (eg. as a dependency of another class) then its
+     * description is updated.
+     */
+    void addClass(JavaClass javaClass);
+
+    /**
+     * Adds an edge from the given class to the class it depends on.
+     *
+     * @return true if the edge has not been present in the graph yet.
+     */
+    boolean addDependency(String className, String dependencyName);
+
+    /**
+     * Creates reverse view of the current state of the graph.
+     *
+     * @param isTest whether the given class is a test which should be reported.
+     * @param isTransitive whether the traversal should continue through the given class to the classes depending on it.
+     */
+    ReverseDependencyIndex createReverseDependencyIndex(Predicate<String> isTest, Predicate<String> isTransitive);
+}
@@ -6,8 +6,8 @@ import java.util.StringTokenizer;
 
 class Filter {
 
-    private final List<String> inclusions = new ArrayList<>();
-    private final List<String> exclusions = new ArrayList<>();
+    private final PrefixTrie inclusions;
+    private final PrefixTrie exclusions;
 
     /**
      * @param inclusions in CSV format
@@ -15,19 +15,18 @@ class Filter {
      */
     Filter(String inclusions, String exclusions) {
 
-        if (inclusions != null && !inclusions.isEmpty()) {
-            this.inclusions.addAll(parse(inclusions));
-        }
-
-        if (exclusions != null && !exclusions.isEmpty()) {
-            this.exclusions.addAll(parse(exclusions));
-        }
+        this.inclusions = new PrefixTrie(parse(inclusions));
+        this.exclusions = new PrefixTrie(parse(exclusions));
 
     }
 
     private List<String> parse(String expression) {
 
         final List<String> tokens = new ArrayList<>();
+        if (expression == null || expression.isEmpty()) {
+            return tokens;
+        }
+
         final StringTokenizer stringTokenizer = new StringTokenizer(expression, ",");
         while(stringTokenizer.hasMoreTokens()) {
             final String preProcessedToken = stringTokenizer.nextToken().trim();
@@ -49,9 +48,9 @@ class Filter {
             return true;
         }
 
-        final boolean excluded = exclusions.stream().anyMatch(element::startsWith);
+        final boolean excluded = exclusions.matchesPrefixOf(element);
 
-        return !excluded && (inclusions.isEmpty() || inclusions.stream().anyMatch(element::startsWith));
+        return !excluded && (inclusions.isEmpty() || inclusions.matchesPrefixOf(element));
     }
 
 }
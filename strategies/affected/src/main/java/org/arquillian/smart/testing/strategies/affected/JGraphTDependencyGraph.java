@@ -0,0 +1,78 @@
+package org.arquillian.smart.testing.strategies.affected;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.arquillian.smart.testing.strategies.affected.ast.JavaClass;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+import static org.jgrapht.Graphs.predecessorListOf;
+
+class JGraphTDependencyGraph implements DependencyGraph {
+
+    private final DirectedGraph<JavaElement, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+
+    @Override
+    public void addClass(JavaClass javaClass) {
+        final JavaElement newClass = new JavaElement(javaClass);
+        if (!graph.addVertex(newClass)) {
+            replaceVertex(newClass);
+        }
+    }
+
+    private void replaceVertex(JavaElement newClass) {
+        List<JavaElement> incomingEdges = predecessorListOf(graph, newClass);
+
+        graph.removeVertex(newClass);
+        graph.addVertex(newClass);
+        for (JavaElement each : incomingEdges) {
+            graph.addEdge(each, newClass);
+        }
+    }
+
+    @Override
+    public boolean addDependency(String className, String dependencyName) {
+        final JavaElement javaElement = new JavaElement(className);
+        final JavaElement dependency = new JavaElement(dependencyName);
+        graph.addVertex(javaElement);
+        graph.addVertex(dependency);
+        return graph.addEdge(javaElement, dependency) != null;
+    }
+
+    @Override
+    public ReverseDependencyIndex createReverseDependencyIndex(Predicate<String> isTest, Predicate<String> isTransitive) {
+        final JavaElement[] elements = graph.vertexSet().toArray(new JavaElement[0]);
+        final String[] classNames = new String[elements.length];
+        final Map<JavaElement, Integer> ids = new HashMap<>(elements.length * 2);
+        final int[] predecessorsOffsets = new int[elements.length + 1];
+        for (int id = 0; id < elements.length; id++) {
+            classNames[id] = elements[id].getClassName();
+            ids.put(elements[id], id);
+            predecessorsOffsets[id + 1] = predecessorsOffsets[id] + graph.inDegreeOf(elements[id]);
+        }
+
+        final int[] predecessors = new int[predecessorsOffsets[elements.length]];
+        for (int id = 0; id < elements.length; id++) {
+            int position = predecessorsOffsets[id];
+            for (DefaultEdge edge : graph.incomingEdgesOf(elements[id])) {
+                predecessors[position++] = ids.get(graph.getEdgeSource(edge));
+            }
+        }
+
+        return new ReverseDependencyIndex(classNames, predecessorsOffsets, predecessors, isTest, isTransitive);
+    }
+
+    @Override
+    public String toString() {
+        final Set<DefaultEdge> defaultEdges = graph.edgeSet();
+        StringBuilder s = new StringBuilder(System.lineSeparator());
+
+        defaultEdges.forEach(de -> s.append(de.toString()).append(System.lineSeparator()));
+
+        return s.toString();
+    }
+}
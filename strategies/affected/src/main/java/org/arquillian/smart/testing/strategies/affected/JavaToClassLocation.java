@@ -4,6 +4,10 @@ import java.io.File;
 
 import org.arquillian.smart.testing.api.TestVerifier;
 
+/**
+ * Guesses the location of a .class file from the location of its source file. Used only as a fallback when the class
+ * file is not found by {@link org.arquillian.smart.testing.strategies.affected.ast.SourceToClassIndex}.
+ */
 public class JavaToClassLocation {
 
     private JavaToClassLocation() {
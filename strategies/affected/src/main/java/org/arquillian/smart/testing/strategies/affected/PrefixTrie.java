@@ -0,0 +1,82 @@
+package org.arquillian.smart.testing.strategies.affected;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Matches strings against a set of prefixes. The prefixes are compiled into a trie once, so a lookup only walks the
+ * characters of the looked up string and doesn't allocate anything, no matter how many prefixes there are.
+ */
+class PrefixTrie {
+
+    private final Node root = new Node();
+    private final boolean empty;
+
+    PrefixTrie(Collection<String> prefixes) {
+        for (String prefix : prefixes) {
+            Node node = root;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.getOrAddChild(prefix.charAt(i));
+            }
+            node.terminal = true;
+        }
+        this.empty = prefixes.isEmpty();
+    }
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Returns whether the given element starts with any of the prefixes.
+     */
+    boolean matchesPrefixOf(String element) {
+        Node node = root;
+        for (int i = 0; i < element.length(); i++) {
+            if (node.terminal) {
+                return true;
+            }
+            node = node.getChild(element.charAt(i));
+            if (node == null) {
+                return false;
+            }
+        }
+        return node.terminal;
+    }
+
+    private static class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        // sorted, so children are found by binary search
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private boolean terminal;
+
+        Node getChild(char key) {
+            final int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrAddChild(char key) {
+            final int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            final int insertion = -index - 1;
+            final char[] newKeys = new char[keys.length + 1];
+            final Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertion);
+            System.arraycopy(children, 0, newChildren, 0, insertion);
+            newKeys[insertion] = key;
+            newChildren[insertion] = new Node();
+            System.arraycopy(keys, insertion, newKeys, insertion + 1, keys.length - insertion);
+            System.arraycopy(children, insertion, newChildren, insertion + 1, children.length - insertion);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[insertion];
+        }
+    }
+}
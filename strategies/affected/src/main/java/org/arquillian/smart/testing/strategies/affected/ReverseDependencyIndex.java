@@ -0,0 +1,336 @@
+package org.arquillian.smart.testing.strategies.affected;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Compact reverse view of a dependency graph which only contains direct edges. Each class is identified by an int id and
+ * its predecessors are stored in one shared array.
+ *
+ * The reverse graph is condensed into its strongly connected components (classes depending on each other through
+ * transitive classes), which form an acyclic graph. Tests reachable from a component are resolved only once and the
+ * result is reused for every other class and every other query reaching the same component, so each component is
+ * traversed at most once however many changed classes and tests share it.
+ */
+class ReverseDependencyIndex {
+
+    private static final BitSet NO_TESTS = new BitSet(0);
+
+    private final Map<String, Integer> ids;
+    private final int[] predecessorsOffsets;
+    private final int[] predecessors;
+    private final BitSet transitive;
+
+    // dense numbering of tests, so the sets of reachable tests only take as many bits as there are tests
+    private final int[] testIds;
+    private final String[] testNames;
+
+    private final int[] components;
+    private final int[] componentSuccessorsOffsets;
+    private final int[] componentSuccessors;
+    private final int[] componentTestsOffsets;
+    private final int[] componentTests;
+    private final BitSet[] reachableTests;
+
+    /**
+     * @param classNames names of all classes of the graph - the index in the array is the id of the class.
+     * @param predecessorsOffsets position of the first predecessor of each class in the predecessors array; contains one
+     * more element than there are classes, so predecessors of a class with id i are stored between
+     * predecessorsOffsets[i] (inclusive) and predecessorsOffsets[i + 1] (exclusive).
+     * @param predecessors ids of classes directly depending on each class.
+     * @param isTest whether the given class is a test which should be reported.
+     * @param isTransitive whether the traversal should continue through the given class to the classes depending on it.
+     */
+    ReverseDependencyIndex(String[] classNames, int[] predecessorsOffsets, int[] predecessors,
+        Predicate<String> isTest, Predicate<String> isTransitive) {
+        final int size = classNames.length;
+        this.predecessorsOffsets = predecessorsOffsets;
+        this.predecessors = predecessors;
+        this.ids = new HashMap<>(size * 2);
+        this.testIds = new int[size];
+
+        this.transitive = new BitSet(size);
+        int testsCount = 0;
+        for (int id = 0; id < size; id++) {
+            ids.put(classNames[id], id);
+            transitive.set(id, isTransitive.test(classNames[id]));
+            testIds[id] = isTest.test(classNames[id]) ? testsCount++ : -1;
+        }
+        this.testNames = new String[testsCount];
+        for (int id = 0; id < size; id++) {
+            if (testIds[id] >= 0) {
+                testNames[testIds[id]] = classNames[id];
+            }
+        }
+
+        this.components = new int[size];
+        final int componentsCount = findComponents();
+
+        // members of each component, ordered by component
+        final int[] membersOffsets = new int[componentsCount + 1];
+        for (int id = 0; id < size; id++) {
+            membersOffsets[components[id] + 1]++;
+        }
+        for (int component = 0; component < componentsCount; component++) {
+            membersOffsets[component + 1] += membersOffsets[component];
+        }
+        final int[] members = new int[size];
+        final int[] positions = Arrays.copyOf(membersOffsets, componentsCount);
+        for (int id = 0; id < size; id++) {
+            members[positions[components[id]]++] = id;
+        }
+
+        // edges between components (without duplicates) and tests of each component
+        this.componentSuccessorsOffsets = new int[componentsCount + 1];
+        this.componentTestsOffsets = new int[componentsCount + 1];
+        final int[] successors = new int[Math.max(16, predecessors.length)];
+        final int[] tests = new int[testsCount];
+        final int[] lastSuccessorOf = new int[componentsCount];
+        Arrays.fill(lastSuccessorOf, -1);
+        int successorsCount = 0;
+        int componentTestsCount = 0;
+        for (int component = 0; component < componentsCount; component++) {
+            for (int i = membersOffsets[component]; i < membersOffsets[component + 1]; i++) {
+                final int id = members[i];
+                if (testIds[id] >= 0) {
+                    tests[componentTestsCount++] = testIds[id];
+                }
+                if (!transitive.get(id)) {
+                    continue;
+                }
+                for (int j = predecessorsOffsets[id]; j < predecessorsOffsets[id + 1]; j++) {
+                    final int successor = components[predecessors[j]];
+                    if (successor != component && lastSuccessorOf[successor] != component) {
+                        lastSuccessorOf[successor] = component;
+                        successors[successorsCount++] = successor;
+                    }
+                }
+            }
+            componentSuccessorsOffsets[component + 1] = successorsCount;
+            componentTestsOffsets[component + 1] = componentTestsCount;
+        }
+        this.componentSuccessors = Arrays.copyOf(successors, successorsCount);
+        this.componentTests = tests;
+        this.reachableTests = new BitSet[componentsCount];
+    }
+
+    /**
+     * Finds strongly connected components of the graph where each class leads to the classes depending on it, as long
+     * as the class itself is transitive (Tarjan's algorithm, without recursion). Components are numbered in the order
+     * they are completed, so all components reachable from a component have lower numbers.
+     *
+     * @return number of components
+     */
+    private int findComponents() {
+        final int size = components.length;
+        final int[] index = new int[size];
+        final int[] lowLink = new int[size];
+        Arrays.fill(index, -1);
+        final int[] stack = new int[size];
+        final BitSet onStack = new BitSet(size);
+        final int[] callStack = new int[size];
+        final int[] nextEdge = new int[size];
+        int stackSize = 0;
+        int counter = 0;
+        int componentsCount = 0;
+
+        for (int root = 0; root < size; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+            int depth = 0;
+            index[root] = lowLink[root] = counter++;
+            stack[stackSize++] = root;
+            onStack.set(root);
+            callStack[depth] = root;
+            nextEdge[depth++] = predecessorsOffsets[root];
+
+            while (depth > 0) {
+                final int id = callStack[depth - 1];
+                final int end = transitive.get(id) ? predecessorsOffsets[id + 1] : predecessorsOffsets[id];
+                if (nextEdge[depth - 1] < end) {
+                    final int successor = predecessors[nextEdge[depth - 1]++];
+                    if (index[successor] == -1) {
+                        index[successor] = lowLink[successor] = counter++;
+                        stack[stackSize++] = successor;
+                        onStack.set(successor);
+                        callStack[depth] = successor;
+                        nextEdge[depth++] = predecessorsOffsets[successor];
+                    } else if (onStack.get(successor)) {
+                        lowLink[id] = Math.min(lowLink[id], index[successor]);
+                    }
+                } else {
+                    depth--;
+                    if (lowLink[id] == index[id]) {
+                        int member;
+                        do {
+                            member = stack[--stackSize];
+                            onStack.clear(member);
+                            components[member] = componentsCount;
+                        } while (member != id);
+                        componentsCount++;
+                    }
+                    if (depth > 0) {
+                        final int caller = callStack[depth - 1];
+                        lowLink[caller] = Math.min(lowLink[caller], lowLink[id]);
+                    }
+                }
+            }
+        }
+        return componentsCount;
+    }
+
+    /**
+     * Returns names of all tests which depend on any of the given classes. Classes which are not part of the graph are
+     * ignored.
+     */
+    synchronized Set<String> findTestsDependingOn(Collection<String> changedClassNames) {
+        final BitSet dependingTests = new BitSet(testNames.length);
+        for (String changedClassName : changedClassNames) {
+            final Integer id = ids.get(changedClassName);
+            if (id != null) {
+                for (int i = predecessorsOffsets[id]; i < predecessorsOffsets[id + 1]; i++) {
+                    dependingTests.or(getReachableTests(components[predecessors[i]]));
+                }
+            }
+        }
+
+        final Set<String> tests = new HashSet<>();
+        for (int test = dependingTests.nextSetBit(0); test >= 0; test = dependingTests.nextSetBit(test + 1)) {
+            tests.add(testNames[test]);
+        }
+        return tests;
+    }
+
+    /**
+     * Returns names of all tests which depend on any of the given classes at most at the given distance, together with
+     * the shortest distance at which each test depends on any of them. Classes which are not part of the graph are
+     * ignored.
+     *
+     * @param maxDepth maximum distance of tests depending on the given changed class
+     */
+    synchronized Map<String, Integer> findTestsDependingOn(Collection<String> changedClassNames,
+        ToIntFunction<String> maxDepth) {
+        // classes with the same maximum distance are resolved by one traversal
+        final Map<Integer, List<Integer>> changedIdsByMaxDepth = new HashMap<>();
+        for (String changedClassName : changedClassNames) {
+            final Integer id = ids.get(changedClassName);
+            if (id != null) {
+                changedIdsByMaxDepth.computeIfAbsent(maxDepth.applyAsInt(changedClassName), depth -> new ArrayList<>()).add(id);
+            }
+        }
+
+        final Map<String, Integer> dependingTests = new HashMap<>();
+        changedIdsByMaxDepth.forEach((depth, changedIds) -> findTestsDependingOn(changedIds, depth, dependingTests));
+        return dependingTests;
+    }
+
+    private void findTestsDependingOn(List<Integer> changedIds, int maxDepth, Map<String, Integer> dependingTests) {
+        final int size = components.length;
+        final int[] distances = new int[size];
+        final int[] toVisit = new int[size];
+        int head = 0;
+        int tail = 0;
+
+        for (int changedId : changedIds) {
+            tail = enqueuePredecessors(changedId, 1, distances, toVisit, tail);
+        }
+
+        while (head < tail) {
+            final int id = toVisit[head++];
+            final int distance = distances[id];
+            if (testIds[id] >= 0) {
+                dependingTests.merge(testNames[testIds[id]], distance, Math::min);
+            }
+            if (transitive.get(id) && distance < maxDepth) {
+                tail = enqueuePredecessors(id, distance + 1, distances, toVisit, tail);
+            }
+        }
+    }
+
+    private int enqueuePredecessors(int id, int distance, int[] distances, int[] toVisit, int tail) {
+        for (int i = predecessorsOffsets[id]; i < predecessorsOffsets[id + 1]; i++) {
+            final int predecessor = predecessors[i];
+            if (distances[predecessor] == 0) {
+                distances[predecessor] = distance;
+                toVisit[tail++] = predecessor;
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Returns tests reachable from the given component, resolving (post-order, without recursion) those of all
+     * components reachable from it which haven't been resolved yet.
+     */
+    private BitSet getReachableTests(int component) {
+        if (reachableTests[component] != null) {
+            return reachableTests[component];
+        }
+
+        int[] toResolve = new int[16];
+        int[] nextSuccessor = new int[16];
+        int depth = 0;
+        toResolve[depth] = component;
+        nextSuccessor[depth++] = componentSuccessorsOffsets[component];
+
+        while (depth > 0) {
+            final int current = toResolve[depth - 1];
+            final int end = componentSuccessorsOffsets[current + 1];
+            int next = nextSuccessor[depth - 1];
+            while (next < end && reachableTests[componentSuccessors[next]] != null) {
+                next++;
+            }
+            nextSuccessor[depth - 1] = next;
+
+            if (next < end) {
+                if (depth == toResolve.length) {
+                    toResolve = Arrays.copyOf(toResolve, depth * 2);
+                    nextSuccessor = Arrays.copyOf(nextSuccessor, depth * 2);
+                }
+                final int successor = componentSuccessors[next];
+                toResolve[depth] = successor;
+                nextSuccessor[depth++] = componentSuccessorsOffsets[successor];
+            } else {
+                reachableTests[current] = resolveReachableTests(current);
+                depth--;
+            }
+        }
+        return reachableTests[component];
+    }
+
+    private BitSet resolveReachableTests(int component) {
+        final int successorsStart = componentSuccessorsOffsets[component];
+        final int successorsEnd = componentSuccessorsOffsets[component + 1];
+        final int testsStart = componentTestsOffsets[component];
+        final int testsEnd = componentTestsOffsets[component + 1];
+
+        if (testsStart == testsEnd) {
+            if (successorsStart == successorsEnd) {
+                return NO_TESTS;
+            }
+            if (successorsEnd - successorsStart == 1) {
+                // nothing to add, the set of the only successor can be shared
+                return reachableTests[componentSuccessors[successorsStart]];
+            }
+        }
+
+        final BitSet tests = new BitSet(testNames.length);
+        for (int i = testsStart; i < testsEnd; i++) {
+            tests.set(componentTests[i]);
+        }
+        for (int i = successorsStart; i < successorsEnd; i++) {
+            tests.or(reachableTests[componentSuccessors[i]]);
+        }
+        return tests;
+    }
+}
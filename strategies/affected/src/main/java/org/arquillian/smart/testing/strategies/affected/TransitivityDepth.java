@@ -0,0 +1,84 @@
+package org.arquillian.smart.testing.strategies.affected;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+
+/**
+ * Maximum distance between a changed class and a test for which the test is still considered affected by the change.
+ * A test importing the changed class is at distance 1, a test importing a class which imports the changed class is at
+ * distance 2, and so on.
+ *
+ * The default maximum distance can be overridden for changed classes from specific packages, the longest matching
+ * package wins.
+ */
+class TransitivityDepth {
+
+    static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private final int defaultDepth;
+    private final List<String> prefixes = new ArrayList<>();
+    private final List<Integer> depths = new ArrayList<>();
+
+    /**
+     * @param defaultDepth maximum distance, or a non positive number if it is not limited
+     * @param overrides in CSV format, each element being a package pattern and a depth, for example
+     * org.mysuperbiz.base.*=1
+     */
+    TransitivityDepth(int defaultDepth, String overrides) {
+        this.defaultDepth = toDepth(defaultDepth);
+
+        if (overrides != null && !overrides.isEmpty()) {
+            final StringTokenizer stringTokenizer = new StringTokenizer(overrides, ",");
+            while (stringTokenizer.hasMoreTokens()) {
+                final String override = stringTokenizer.nextToken().trim();
+                final int separator = override.lastIndexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Transitivity depth override " + override + " has to be in format <package>=<depth>");
+                }
+                final String pattern = override.substring(0, separator).trim();
+                prefixes.add(pattern.endsWith("*") ? pattern.substring(0, pattern.length() - 1) : pattern);
+                depths.add(toDepth(Integer.parseInt(override.substring(separator + 1).trim())));
+            }
+        }
+    }
+
+    private static int toDepth(int depth) {
+        return depth > 0 ? depth : UNLIMITED;
+    }
+
+    /**
+     * Returns maximum distance of tests affected by a change of the given class.
+     */
+    int getMaxDepth(String changedClassName) {
+        int depth = defaultDepth;
+        int longestPrefix = -1;
+        for (int i = 0; i < prefixes.size(); i++) {
+            final String prefix = prefixes.get(i);
+            if (changedClassName.startsWith(prefix) && prefix.length() > longestPrefix) {
+                longestPrefix = prefix.length();
+                depth = depths.get(i);
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Returns maximum distance of tests affected by a change of any class, so classes further from all tests don't
+     * have to be analyzed at all.
+     */
+    int getMaxDepth() {
+        int depth = defaultDepth;
+        for (int override : depths) {
+            depth = Math.max(depth, override);
+        }
+        return depth;
+    }
+
+    /**
+     * Whether the distance is limited for changes of any class.
+     */
+    boolean isLimited() {
+        return defaultDepth != UNLIMITED || depths.stream().anyMatch(depth -> depth != UNLIMITED);
+    }
+}
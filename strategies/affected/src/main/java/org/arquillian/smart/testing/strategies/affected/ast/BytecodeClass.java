@@ -0,0 +1,42 @@
+package org.arquillian.smart.testing.strategies.affected.ast;
+
+import java.io.File;
+
+/**
+ * Description of a class read by {@link ClassFileReader} directly from its .class file.
+ */
+class BytecodeClass extends AbstractJavaClass {
+
+    private final String className;
+    private final String[] imports;
+    private File classFile;
+
+    BytecodeClass(String className, String[] imports) {
+        this.className = className;
+        this.imports = imports;
+    }
+
+    @Override
+    public String getName() {
+        return className;
+    }
+
+    @Override
+    public String[] getImports() {
+        return imports;
+    }
+
+    void setClassFile(File classFile) {
+        this.classFile = classFile;
+    }
+
+    @Override
+    public File getClassFile() {
+        return classFile;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
@@ -0,0 +1,384 @@
+package org.arquillian.smart.testing.strategies.affected.ast;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reads the name and the referenced classes of a class directly from the bytes of its .class file. Only the constant
+ * pool, the field descriptors and the annotation attributes are decoded, everything else is skipped. Strings are decoded
+ * only when they are needed, so parsing a class allocates little more than the resulting names.
+ *
+ * The referenced classes are the same ones as resolved by {@link JavaAssistClass}: classes from the constant pool, types
+ * of fields and types of annotations of the class, its fields, methods and method parameters.
+ */
+class ClassFileReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int FLOAT = 4;
+    private static final int LONG = 5;
+    private static final int DOUBLE = 6;
+    private static final int CLASS = 7;
+    private static final int STRING = 8;
+    private static final int FIELD_REF = 9;
+    private static final int METHOD_REF = 10;
+    private static final int INTERFACE_METHOD_REF = 11;
+    private static final int NAME_AND_TYPE = 12;
+    private static final int METHOD_HANDLE = 15;
+    private static final int METHOD_TYPE = 16;
+    private static final int DYNAMIC = 17;
+    private static final int INVOKE_DYNAMIC = 18;
+    private static final int MODULE = 19;
+    private static final int PACKAGE = 20;
+
+    private static final String VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+    private static final String INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations";
+    private static final String VISIBLE_PARAMETER_ANNOTATIONS = "RuntimeVisibleParameterAnnotations";
+    private static final String INVISIBLE_PARAMETER_ANNOTATIONS = "RuntimeInvisibleParameterAnnotations";
+    private static final String SOURCE_FILE = "SourceFile";
+
+    private final byte[] bytes;
+    private int position;
+
+    // offset of each constant pool entry (pointing behind its tag)
+    private int[] entries;
+    private byte[] tags;
+    private int thisClass;
+
+    private ClassFileReader(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    static BytecodeClass read(InputStream inputStream) throws IOException {
+        return read(toByteArray(inputStream));
+    }
+
+    static BytecodeClass read(byte[] bytes) throws IOException {
+        final ClassFileReader reader = new ClassFileReader(bytes);
+        try {
+            reader.readConstantPool();
+            final Set<String> imports = new HashSet<>();
+            reader.readClassNames(imports);
+            reader.readMembersAndAttributes(imports);
+            return new BytecodeClass(reader.readClassName(), toArray(imports));
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Truncated class file", e);
+        }
+    }
+
+    /**
+     * Returns the name of the class without reading anything else than the constant pool.
+     */
+    static String readClassName(byte[] bytes) throws IOException {
+        final ClassFileReader reader = new ClassFileReader(bytes);
+        try {
+            reader.readConstantPool();
+            return reader.readClassName();
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Truncated class file", e);
+        }
+    }
+
+    /**
+     * Returns the path of the source file the class has been compiled from, relative to the source root (e.g.
+     * org/foo/Bar.java for both org.foo.Bar and org.foo.Bar$Inner). The name of the source file is taken from the
+     * SourceFile attribute; if the class has been compiled without it, the name of the top level class is used instead.
+     */
+    static String readSourcePath(byte[] bytes) throws IOException {
+        final ClassFileReader reader = new ClassFileReader(bytes);
+        try {
+            reader.readConstantPool();
+            final String internalName = reader.utf8(reader.readUnsignedShort(reader.entries[reader.thisClass]));
+            final int packageEnd = internalName.lastIndexOf('/');
+            String sourceFile = reader.readSourceFile();
+            if (sourceFile == null) {
+                final int nestedStart = internalName.indexOf('$', packageEnd + 1);
+                sourceFile = internalName.substring(packageEnd + 1, nestedStart < 0 ? internalName.length() : nestedStart) + ".java";
+            }
+            return packageEnd < 0 ? sourceFile : internalName.substring(0, packageEnd + 1) + sourceFile;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Truncated class file", e);
+        }
+    }
+
+    private void readConstantPool() throws IOException {
+        if (readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        position += 4; // minor and major version
+
+        final int count = readUnsignedShort();
+        entries = new int[count];
+        tags = new byte[count];
+        for (int i = 1; i < count; i++) {
+            final int tag = bytes[position++];
+            tags[i] = (byte) tag;
+            entries[i] = position;
+            switch (tag) {
+                case UTF8:
+                    position += 2 + readUnsignedShort(position);
+                    break;
+                case CLASS:
+                case STRING:
+                case METHOD_TYPE:
+                case MODULE:
+                case PACKAGE:
+                    position += 2;
+                    break;
+                case METHOD_HANDLE:
+                    position += 3;
+                    break;
+                case INTEGER:
+                case FLOAT:
+                case FIELD_REF:
+                case METHOD_REF:
+                case INTERFACE_METHOD_REF:
+                case NAME_AND_TYPE:
+                case DYNAMIC:
+                case INVOKE_DYNAMIC:
+                    position += 4;
+                    break;
+                case LONG:
+                case DOUBLE:
+                    position += 8;
+                    i++; // takes two entries
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        position += 2; // access flags
+        thisClass = readUnsignedShort();
+        position += 2; // super class
+        final int interfacesCount = readUnsignedShort();
+        position += 2 * interfacesCount; // interfaces are part of the constant pool
+    }
+
+    private String readClassName() throws IOException {
+        return classNameOfEntry(thisClass);
+    }
+
+    private void readClassNames(Set<String> imports) throws IOException {
+        for (int i = 1; i < entries.length; i++) {
+            if (tags[i] == CLASS) {
+                addIfNotNull(imports, classNameOfEntry(i));
+            }
+        }
+    }
+
+    private void readMembersAndAttributes(Set<String> imports) throws IOException {
+        final int fieldsCount = readUnsignedShort();
+        for (int i = 0; i < fieldsCount; i++) {
+            position += 4; // access flags and name
+            final String descriptor = utf8(readUnsignedShort());
+            addIfNotNull(imports, DescriptorParser.parseClassNameFromConstantPoolDescriptor(descriptor));
+            readAttributes(imports);
+        }
+
+        final int methodsCount = readUnsignedShort();
+        for (int i = 0; i < methodsCount; i++) {
+            position += 6; // access flags, name and descriptor
+            readAttributes(imports);
+        }
+
+        readAttributes(imports);
+    }
+
+    private String readSourceFile() throws IOException {
+        for (int members = 0; members < 2; members++) { // fields and methods
+            final int count = readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                position += 6; // access flags, name and descriptor
+                skipAttributes();
+            }
+        }
+
+        final int count = readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            final int nameIndex = readUnsignedShort();
+            final int length = readInt();
+            if (isUtf8(nameIndex, SOURCE_FILE)) {
+                return utf8(readUnsignedShort());
+            }
+            position += length;
+        }
+        return null;
+    }
+
+    private void skipAttributes() {
+        final int count = readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            position += 2; // name
+            final int length = readInt();
+            position += length;
+        }
+    }
+
+    private void readAttributes(Set<String> imports) throws IOException {
+        final int count = readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            final int nameIndex = readUnsignedShort();
+            final int length = readInt();
+            final int end = position + length;
+            if (isUtf8(nameIndex, VISIBLE_ANNOTATIONS) || isUtf8(nameIndex, INVISIBLE_ANNOTATIONS)) {
+                readAnnotations(imports);
+            } else if (isUtf8(nameIndex, VISIBLE_PARAMETER_ANNOTATIONS) || isUtf8(nameIndex, INVISIBLE_PARAMETER_ANNOTATIONS)) {
+                final int parameters = bytes[position++] & 0xFF;
+                for (int j = 0; j < parameters; j++) {
+                    readAnnotations(imports);
+                }
+            }
+            position = end;
+        }
+    }
+
+    private void readAnnotations(Set<String> imports) throws IOException {
+        final int count = readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            addIfNotNull(imports, DescriptorParser.parseClassNameFromConstantPoolDescriptor(utf8(readUnsignedShort())));
+            skipElementValuePairs();
+        }
+    }
+
+    private void skipElementValuePairs() throws IOException {
+        final int count = readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            position += 2; // element name
+            skipElementValue();
+        }
+    }
+
+    private void skipElementValue() throws IOException {
+        final char tag = (char) bytes[position++];
+        switch (tag) {
+            case 'B':
+            case 'C':
+            case 'D':
+            case 'F':
+            case 'I':
+            case 'J':
+            case 'S':
+            case 'Z':
+            case 's':
+            case 'c':
+                position += 2;
+                break;
+            case 'e':
+                position += 4;
+                break;
+            case '@':
+                position += 2; // annotation type
+                skipElementValuePairs();
+                break;
+            case '[':
+                final int count = readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue();
+                }
+                break;
+            default:
+                throw new IOException("Unknown annotation element value tag " + tag);
+        }
+    }
+
+    private String classNameOfEntry(int index) throws IOException {
+        if (tags[index] != CLASS) {
+            throw new IOException("Constant pool entry " + index + " is not a class");
+        }
+        final String internalName = utf8(readUnsignedShort(entries[index]));
+        if (internalName.charAt(0) == '[') {
+            return DescriptorParser.parseClassNameFromConstantPoolDescriptor(internalName);
+        }
+        return internalName.replace('/', '.');
+    }
+
+    private boolean isUtf8(int index, String expected) {
+        if (tags[index] != UTF8) {
+            return false;
+        }
+        final int offset = entries[index];
+        final int length = readUnsignedShort(offset);
+        if (length != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (bytes[offset + 2 + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the modified UTF-8 string stored in the given constant pool entry.
+     */
+    private String utf8(int index) throws IOException {
+        if (tags[index] != UTF8) {
+            throw new IOException("Constant pool entry " + index + " is not an UTF8 string");
+        }
+        final int offset = entries[index] + 2;
+        final int end = offset + readUnsignedShort(entries[index]);
+        final char[] chars = new char[end - offset];
+        int length = 0;
+        int i = offset;
+        while (i < end) {
+            final int b = bytes[i++] & 0xFF;
+            if (b < 0x80) {
+                chars[length++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[length++] = (char) (((b & 0x1F) << 6) | (bytes[i++] & 0x3F));
+            } else {
+                chars[length++] = (char) (((b & 0x0F) << 12) | ((bytes[i++] & 0x3F) << 6) | (bytes[i++] & 0x3F));
+            }
+        }
+        return new String(chars, 0, length);
+    }
+
+    private int readUnsignedShort() {
+        final int value = readUnsignedShort(position);
+        position += 2;
+        return value;
+    }
+
+    private int readUnsignedShort(int offset) {
+        return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+
+    private int readInt() {
+        final int value = ((bytes[position] & 0xFF) << 24) | ((bytes[position + 1] & 0xFF) << 16)
+            | ((bytes[position + 2] & 0xFF) << 8) | (bytes[position + 3] & 0xFF);
+        position += 4;
+        return value;
+    }
+
+    private static void addIfNotNull(Set<String> imports, String className) {
+        if (className != null) {
+            imports.add(className);
+        }
+    }
+
+    private static String[] toArray(Set<String> imports) {
+        final String[] array = new String[imports.size()];
+        int index = 0;
+        for (String anImport : imports) {
+            array[index++] = anImport.intern(); // Use less memory
+        }
+        return array;
+    }
+
+    static byte[] toByteArray(InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
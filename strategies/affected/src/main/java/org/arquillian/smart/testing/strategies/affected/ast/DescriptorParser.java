@@ -28,14 +28,23 @@
 package org.arquillian.smart.testing.strategies.affected.ast;
 
 class DescriptorParser {
+
+    /**
+     * Returns the name of the class referenced by given field descriptor (eg. {@code [Ljava/lang/String;}), or null if
+     * the descriptor references a primitive type.
+     */
     static String parseClassNameFromConstantPoolDescriptor(String descriptor) {
-        String newDescriptor = descriptor.replaceAll("\\[", "");
-        if (newDescriptor.startsWith("L")) {
-            newDescriptor = newDescriptor.replaceFirst("L", "");
+        int start = 0;
+        while (start < descriptor.length() && descriptor.charAt(start) == '[') {
+            start++;
+        }
+        if (start == descriptor.length() || descriptor.charAt(start) != 'L') {
+            return null;
         }
-        if (newDescriptor.length() == 1) {
-            return Object.class.getName();
+        int end = descriptor.indexOf(';', start);
+        if (end < 0) {
+            end = descriptor.length();
         }
-        return newDescriptor.replace(";", "").replace('/', '.');
+        return descriptor.substring(start + 1, end).replace('/', '.');
     }
 }
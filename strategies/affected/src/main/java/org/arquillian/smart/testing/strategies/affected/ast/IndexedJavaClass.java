@@ -0,0 +1,39 @@
+package org.arquillian.smart.testing.strategies.affected.ast;
+
+import java.io.File;
+
+/**
+ * Description of a class restored from {@link JavaClassIndex} without parsing its .class file.
+ */
+class IndexedJavaClass extends AbstractJavaClass {
+
+    private final String className;
+    private final String[] imports;
+    private final File classFile;
+
+    IndexedJavaClass(String className, String[] imports, File classFile) {
+        this.className = className;
+        this.imports = imports;
+        this.classFile = classFile;
+    }
+
+    @Override
+    public String getName() {
+        return className;
+    }
+
+    @Override
+    public String[] getImports() {
+        return imports;
+    }
+
+    @Override
+    public File getClassFile() {
+        return classFile;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
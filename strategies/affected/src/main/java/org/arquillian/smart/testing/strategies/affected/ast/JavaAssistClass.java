@@ -90,7 +90,10 @@ public class JavaAssistClass extends AbstractJavaClass {
 
     private void addFieldDependencies(CtClass ctClass, Collection<String> imports) {
         for (CtField field : ctClass.getDeclaredFields()) {
-            imports.add(DescriptorParser.parseClassNameFromConstantPoolDescriptor(field.getFieldInfo2().getDescriptor()));
+            final String fieldType = DescriptorParser.parseClassNameFromConstantPoolDescriptor(field.getFieldInfo2().getDescriptor());
+            if (fieldType != null) {
+                imports.add(fieldType);
+            }
         }
     }
 
@@ -150,11 +153,17 @@ public class JavaAssistClass extends AbstractJavaClass {
         ConstPool constPool = ctClass.getClassFile2().getConstPool();
         Set<?> classNames = constPool.getClassNames();
         for (Object each : classNames) {
-            imports.add(pathToClassName(each.toString()));
+            final String className = pathToClassName(each.toString());
+            if (className != null) {
+                imports.add(className);
+            }
         }
     }
 
     private String pathToClassName(String classPath) {
+        if (classPath.startsWith("[")) {
+            return DescriptorParser.parseClassNameFromConstantPoolDescriptor(classPath);
+        }
         return classPath.replace('/', '.');
     }
 
@@ -30,24 +30,38 @@ package org.arquillian.smart.testing.strategies.affected.ast;
 import javassist.ClassPool;
 import javassist.CtClass;
 import javassist.NotFoundException;
-import org.arquillian.smart.testing.FilesCodec;
+import org.arquillian.smart.testing.BoundedCache;
+import org.arquillian.smart.testing.FileFingerprints;
 import org.arquillian.smart.testing.strategies.affected.MissingClassException;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Files;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
+/**
+ * Classes are read directly from their .class files by {@link ClassFileReader}. Javassist is used only as a fallback
+ * when the class file cannot be found or read.
+ *
+ * The caches of parsed classes are shared by all instances, whereas the underlying {@link ClassPool} is not thread
+ * safe. If classes are parsed concurrently then each thread has to use its own instance of this parser.
+ */
 class JavaAssistClassParser {
+    private final FileFingerprints fingerprints;
     private ClassPool classPool;
 
     JavaAssistClassParser() {
+        this(FINGERPRINTS);
+    }
+
+    JavaAssistClassParser(FileFingerprints fingerprints) {
+        this.fingerprints = fingerprints;
     }
 
     private ClassPool getClassPool() {
@@ -83,42 +97,132 @@ class JavaAssistClassParser {
         return ((URLClassLoader) (Thread.currentThread().getContextClassLoader())).getURLs();
     }
 
-    private final static Map<String, JavaClass> CLASSES_BY_NAME = new HashMap<>();
+    static final int MAX_CACHED_CLASSES = 50000;
+
+    private final static BoundedCache<String, ParsedClass> CLASSES_BY_LOCATION = new BoundedCache<>(MAX_CACHED_CLASSES);
+
+    private static final FileFingerprints FINGERPRINTS = FileFingerprints.bounded(MAX_CACHED_CLASSES);
 
+    /**
+     * Returns the class of the given name. Parsed classes are cached by the location they are read from, as classes of
+     * the same name can be found on classpaths of different projects (e.g. served by the same daemon) or modules. A
+     * cached class is reused only as long as the fingerprint of its class file stays the same, so classes recompiled
+     * since they have been cached (e.g. between builds served by the same JVM) are parsed again. At most
+     * {@link #MAX_CACHED_CLASSES} classes are cached, the least recently used are evicted.
+     */
     JavaClass getClass(String className) {
-        JavaClass clazz = CLASSES_BY_NAME.get(className);
+        final URL url = getClassPool().find(className);
+        final String location = url == null ? null : toLocation(url);
+        final ParsedClass parsed = location == null ? null : CLASSES_BY_LOCATION.get(location);
+        if (parsed != null && parsed.isUpToDate(fingerprints)) {
+            return parsed.javaClass;
+        }
+
+        JavaClass clazz = readClass(className, url);
         if (clazz == null) {
-            CtClass ctClass = getCachedClass(className);
-
-            if (unparsableClass(ctClass)) {
-                clazz = new UnparsableClass(className);
-            } else {
-                try {
-                    JavaAssistClass javaAssistClass = new JavaAssistClass(ctClass);
-                    URL url = getClassPool().find(className);
-                    if ((url != null) && url.getProtocol().equals("file")) {
-                        javaAssistClass.setClassFile(new File(url.toURI()));
-                    }
-                    clazz = javaAssistClass;
-                } catch (URISyntaxException e) {
-                    throw new RuntimeException(e);
-                }
-            }
+            clazz = parseClass(className);
+        }
 
-            CLASSES_BY_NAME.put(className, clazz);
+        if (location != null) {
+            final File classFile = clazz.getClassFile();
+            CLASSES_BY_LOCATION.put(location,
+                new ParsedClass(clazz, classFile == null ? null : fingerprints.fingerprint(classFile)));
         }
 
         return clazz;
     }
 
-    private final static Map<String, CacheEntry> BY_PATH = new HashMap<>();
+    /**
+     * Returns the .class file the given class would be read from, or null if it isn't read from a file (e.g. it is
+     * read from a jar).
+     */
+    File findClassFile(String className) {
+        final URL url = getClassPool().find(className);
+        if (url == null || !url.getProtocol().equals("file")) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static String toLocation(URL url) {
+        if (url.getProtocol().equals("file")) {
+            try {
+                return new File(url.toURI()).getAbsolutePath();
+            } catch (URISyntaxException e) {
+                return url.toExternalForm();
+            }
+        }
+        return url.toExternalForm();
+    }
+
+    private static class ParsedClass {
+        private final JavaClass javaClass;
+        private final String fingerprint;
+
+        private ParsedClass(JavaClass javaClass, String fingerprint) {
+            this.javaClass = javaClass;
+            this.fingerprint = fingerprint;
+        }
+
+        private boolean isUpToDate(FileFingerprints fingerprints) {
+            final File classFile = javaClass.getClassFile();
+            return classFile == null || fingerprint == null || fingerprint.equals(fingerprints.fingerprint(classFile));
+        }
+    }
+
+    /**
+     * Reads the class directly from its .class file. Returns null if the class file cannot be found or read, in which
+     * case it has to be parsed by Javassist.
+     */
+    private JavaClass readClass(String className, URL url) {
+        if (url == null) {
+            return null;
+        }
+
+        try (InputStream inputStream = url.openStream()) {
+            final BytecodeClass bytecodeClass = ClassFileReader.read(inputStream);
+            if (!className.equals(bytecodeClass.getName())) {
+                return null;
+            }
+            if (url.getProtocol().equals("file")) {
+                bytecodeClass.setClassFile(new File(url.toURI()));
+            }
+            return bytecodeClass;
+        } catch (IOException | URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private JavaClass parseClass(String className) {
+        CtClass ctClass = getCachedClass(className);
+
+        if (unparsableClass(ctClass)) {
+            return new UnparsableClass(className);
+        }
+        try {
+            JavaAssistClass javaAssistClass = new JavaAssistClass(ctClass);
+            URL url = getClassPool().find(className);
+            if ((url != null) && url.getProtocol().equals("file")) {
+                javaAssistClass.setClassFile(new File(url.toURI()));
+            }
+            return javaAssistClass;
+        } catch (URISyntaxException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private final static BoundedCache<String, CacheEntry> BY_PATH = new BoundedCache<>(MAX_CACHED_CLASSES);
 
     public static class CacheEntry {
-        final String sha1;
+        final String fingerprint;
         final String classname;
 
-        CacheEntry(String sha1, String classname) {
-            this.sha1 = sha1;
+        CacheEntry(String fingerprint, String classname) {
+            this.fingerprint = fingerprint;
             this.classname = classname;
         }
     }
@@ -127,20 +231,30 @@ class JavaAssistClassParser {
      * Returns the classname of given .class file.
      */
     String getClassName(File file) throws IOException {
-        String sha1 = FilesCodec.sha1(file);
+        String fingerprint = fingerprints.fingerprint(file);
+        if (fingerprint == null) {
+            BY_PATH.remove(file.getAbsolutePath());
+            CLASSES_BY_LOCATION.remove(file.getAbsolutePath());
+            throw new FileNotFoundException(file.getAbsolutePath());
+        }
         CacheEntry entry = BY_PATH.get(file.getAbsolutePath());
-        if ((entry != null) && (entry.sha1.equals(sha1))) {
+        if ((entry != null) && (entry.fingerprint.equals(fingerprint))) {
             return entry.classname;
         }
 
-        try (InputStream inputStream = new FileInputStream(file)) {
-            CtClass ctClass = makeClass(inputStream);
-            String classname = ctClass.getName();
+        String classname = readClassName(Files.readAllBytes(file.toPath()));
+
+        CLASSES_BY_LOCATION.remove(file.getAbsolutePath());
+        BY_PATH.put(file.getAbsolutePath(), new CacheEntry(fingerprint, classname));
 
-            CLASSES_BY_NAME.remove(classname);
-            BY_PATH.put(file.getAbsolutePath(), new CacheEntry(sha1, classname));
+        return classname;
+    }
 
-            return classname;
+    private String readClassName(byte[] classFile) throws IOException {
+        try {
+            return ClassFileReader.readClassName(classFile);
+        } catch (IOException e) {
+            return makeClass(new ByteArrayInputStream(classFile)).getName();
         }
     }
 
@@ -37,16 +37,42 @@ import org.arquillian.smart.testing.strategies.affected.MissingClassException;
  */
 public class JavaClassBuilder {
     private final JavaAssistClassParser parser;
+    private final JavaClassIndex index;
 
     public JavaClassBuilder() {
         this(new JavaAssistClassParser());
     }
 
+    public JavaClassBuilder(JavaClassIndex index) {
+        this(new JavaAssistClassParser(index.getFingerprints()), index);
+    }
+
     public JavaClassBuilder(JavaAssistClassParser parser) {
+        this(parser, null);
+    }
+
+    JavaClassBuilder(JavaAssistClassParser parser, JavaClassIndex index) {
         this.parser = parser;
+        this.index = index;
     }
 
     public JavaClass getClassDescription(String classname) {
+        if (index != null) {
+            final File classFile = parser.findClassFile(classname);
+            final JavaClass indexedClass = classFile == null ? null : index.getClass(classFile);
+            if (indexedClass != null && indexedClass.getName().equals(classname)) {
+                return indexedClass;
+            }
+        }
+
+        final JavaClass javaClass = parseClassDescription(classname);
+        if (index != null) {
+            index.put(javaClass);
+        }
+        return javaClass;
+    }
+
+    private JavaClass parseClassDescription(String classname) {
         try {
             return parser.getClass(classname);
         } catch (RuntimeException e) {
@@ -71,6 +97,13 @@ public class JavaClassBuilder {
      * Returns class name from given .class file.
      */
     public String getClassName(File file) {
+        if (index != null) {
+            final String indexedClassName = index.getClassName(file);
+            if (indexedClassName != null) {
+                return indexedClassName;
+            }
+        }
+
         try {
             return parser.getClassName(file);
         } catch (RuntimeException e) {
@@ -0,0 +1,210 @@
+package org.arquillian.smart.testing.strategies.affected.ast;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.arquillian.smart.testing.FileFingerprints;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+
+/**
+ * Index of already parsed classes which is persisted between builds. Each entry is keyed by the location of the .class
+ * file it was parsed from, as the index is shared by all modules of a build and classes of the same name can be found
+ * in several of them (e.g. test utilities or generated classes). Entries are valid as long as the fingerprint of their
+ * .class file stays the same (see {@link FileFingerprints}), so only classes which have been modified since the last
+ * build have to be parsed again.
+ *
+ * The index can be safely shared by threads parsing classes concurrently.
+ */
+public class JavaClassIndex {
+
+    private static final Logger logger = Log.getLogger();
+
+    private static final int VERSION = 2;
+
+    private final Map<String, Entry> byPath = new ConcurrentHashMap<>();
+    private final FileFingerprints fingerprints;
+
+    private volatile boolean modified;
+
+    private JavaClassIndex(FileFingerprints fingerprints) {
+        this.fingerprints = fingerprints;
+    }
+
+    /**
+     * Returns the class name of the given .class file if it hasn't been modified since it was indexed.
+     */
+    String getClassName(File classFile) {
+        final Entry entry = byPath.get(classFile.getAbsolutePath());
+        if (entry != null && isUpToDate(entry)) {
+            return entry.javaClass.getName();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the description of the class parsed from the given .class file if it hasn't been modified since it was
+     * indexed.
+     */
+    JavaClass getClass(File classFile) {
+        final Entry entry = byPath.get(classFile.getAbsolutePath());
+        if (entry != null && isUpToDate(entry)) {
+            return entry.javaClass;
+        }
+        return null;
+    }
+
+    /**
+     * Adds given class to the index. Classes which are not backed by a .class file (eg. classes from jars) are ignored.
+     */
+    void put(JavaClass javaClass) {
+        final File classFile = javaClass.getClassFile();
+        if (classFile == null || !classFile.isFile()) {
+            return;
+        }
+        final String fingerprint = fingerprint(classFile);
+        if (fingerprint != null) {
+            final IndexedJavaClass indexed = new IndexedJavaClass(javaClass.getName(), javaClass.getImports(), classFile);
+            add(new Entry(indexed, fingerprint));
+            modified = true;
+        }
+    }
+
+    public int size() {
+        return byPath.size();
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    private boolean isUpToDate(Entry entry) {
+        return entry.fingerprint.equals(fingerprint(entry.javaClass.getClassFile()));
+    }
+
+    private String fingerprint(File classFile) {
+        return fingerprints.fingerprint(classFile);
+    }
+
+    FileFingerprints getFingerprints() {
+        return fingerprints;
+    }
+
+    private void add(Entry entry) {
+        byPath.put(entry.javaClass.getClassFile().getAbsolutePath(), entry);
+    }
+
+    /**
+     * Loads the index from the given file. If the file doesn't exist or it cannot be read then an empty index is
+     * returned.
+     */
+    public static JavaClassIndex load(Path indexFile) {
+        return load(indexFile, new FileFingerprints());
+    }
+
+    /**
+     * Loads the index from the given file. The given fingerprints are used to find out which classes have been modified
+     * since they were indexed.
+     */
+    public static JavaClassIndex load(Path indexFile, FileFingerprints fingerprints) {
+        final JavaClassIndex index = new JavaClassIndex(fingerprints);
+        if (!Files.exists(indexFile)) {
+            return index;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != VERSION) {
+                logger.debug("Ignoring index %s as it has been stored in an incompatible format", indexFile);
+                return index;
+            }
+            final int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                final String className = in.readUTF();
+                final File classFile = new File(in.readUTF());
+                final String fingerprint = in.readUTF();
+                final String[] imports = new String[in.readInt()];
+                for (int j = 0; j < imports.length; j++) {
+                    imports[j] = in.readUTF().intern();
+                }
+                index.add(new Entry(new IndexedJavaClass(className, imports, classFile), fingerprint));
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to read index %s. Reason: %s", indexFile, e.getMessage());
+            return new JavaClassIndex(fingerprints);
+        }
+
+        return index;
+    }
+
+    /**
+     * Stores the index into the given file. Entries of classes whose .class file doesn't exist anymore are dropped.
+     *
+     * The same file can be shared by several builds running at the same time (eg. by modules of a parallel reactor
+     * build), so the file is locked while it is being updated and entries stored by the other builds in the meantime
+     * are merged into this index.
+     */
+    public void store(Path indexFile) {
+        try {
+            Files.createDirectories(indexFile.getParent());
+            final Path lockFile = indexFile.resolveSibling(indexFile.getFileName() + ".lock");
+            try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                mergeStoredEntries(indexFile);
+                write(indexFile);
+            }
+            modified = false;
+        } catch (IOException e) {
+            logger.warn("Unable to store index %s. Reason: %s", indexFile, e.getMessage());
+        }
+    }
+
+    private void mergeStoredEntries(Path indexFile) {
+        final JavaClassIndex storedIndex = load(indexFile, fingerprints);
+        storedIndex.byPath.forEach(byPath::putIfAbsent);
+    }
+
+    private void write(Path indexFile) throws IOException {
+        final Path tmpFile = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+            final Entry[] entries = byPath.values()
+                .stream()
+                .filter(entry -> entry.javaClass.getClassFile().isFile())
+                .toArray(Entry[]::new);
+
+            out.writeInt(VERSION);
+            out.writeInt(entries.length);
+            for (Entry entry : entries) {
+                out.writeUTF(entry.javaClass.getName());
+                out.writeUTF(entry.javaClass.getClassFile().getAbsolutePath());
+                out.writeUTF(entry.fingerprint);
+                final String[] imports = entry.javaClass.getImports();
+                out.writeInt(imports.length);
+                for (String anImport : imports) {
+                    out.writeUTF(anImport);
+                }
+            }
+        }
+        Files.move(tmpFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static class Entry {
+        private final JavaClass javaClass;
+        private final String fingerprint;
+
+        private Entry(JavaClass javaClass, String fingerprint) {
+            this.javaClass = javaClass;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
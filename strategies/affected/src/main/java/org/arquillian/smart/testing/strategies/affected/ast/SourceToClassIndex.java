@@ -0,0 +1,218 @@
+package org.arquillian.smart.testing.strategies.affected.ast;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.arquillian.smart.testing.BoundedCache;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+
+/**
+ * Maps source files to all the .class files compiled from them, nested and local classes included. The mapping is built
+ * from the compiled output directories (target/classes and target/test-classes) of the Maven module the source file
+ * belongs to, using the package and the SourceFile attribute of each class, so it doesn't depend on the layout of the
+ * source directories.
+ *
+ * The mapping of each output directory is shared by all instances. Every instance updates it once when the directory is
+ * first needed, re-reading only class files which have been added or modified since the last update. Mappings of at
+ * most {@link #MAX_INDEXED_DIRECTORIES} directories are kept, the least recently used and the ones of deleted
+ * directories are evicted.
+ */
+public class SourceToClassIndex {
+
+    private static final Logger logger = Log.getLogger();
+
+    private static final String POM_XML = "pom.xml";
+    private static final String[] OUTPUT_DIRECTORIES = {"target/classes", "target/test-classes"};
+
+    static final int MAX_INDEXED_DIRECTORIES = 512;
+
+    private static final BoundedCache<Path, OutputDirectory> INDEXED_DIRECTORIES =
+        new BoundedCache<>(MAX_INDEXED_DIRECTORIES);
+
+    private final Map<Path, Path> modules = new ConcurrentHashMap<>();
+    // kept by the instance, so a directory evicted from the shared ones meanwhile is not indexed again
+    private final Map<Path, OutputDirectory> updatedDirectories = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the .class file of the top level class declared in the given source file, or null if it can't be found.
+     */
+    public File getClassFile(File sourceFile) {
+        final List<File> classFiles = getClassFiles(sourceFile);
+        return classFiles.isEmpty() ? null : classFiles.get(0);
+    }
+
+    /**
+     * Returns all .class files compiled from the given source file, the one of the top level class (if any) first. If
+     * the source file doesn't belong to a module with compiled classes then an empty list is returned.
+     */
+    public List<File> getClassFiles(File sourceFile) {
+        final Path source = sourceFile.getAbsoluteFile().toPath().normalize();
+        final Path module = findModule(source.getParent());
+        if (module == null) {
+            return Collections.emptyList();
+        }
+
+        for (String outputDirectory : OUTPUT_DIRECTORIES) {
+            final List<File> classFiles = getOutputDirectory(module.resolve(outputDirectory)).getClassFiles(source);
+            if (!classFiles.isEmpty()) {
+                return classFiles;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private Path findModule(Path directory) {
+        if (directory == null) {
+            return null;
+        }
+        final Path module = modules.get(directory);
+        if (module != null) {
+            return module;
+        }
+
+        final Path resolved = Files.isRegularFile(directory.resolve(POM_XML)) ? directory : findModule(directory.getParent());
+        if (resolved != null) {
+            modules.put(directory, resolved);
+        }
+        return resolved;
+    }
+
+    private OutputDirectory getOutputDirectory(Path directory) {
+        final OutputDirectory updatedDirectory = updatedDirectories.get(directory);
+        if (updatedDirectory != null) {
+            return updatedDirectory;
+        }
+
+        final OutputDirectory outputDirectory = INDEXED_DIRECTORIES.computeIfAbsent(directory, OutputDirectory::new);
+        if (!outputDirectory.update()) {
+            INDEXED_DIRECTORIES.remove(directory);
+        }
+        updatedDirectories.put(directory, outputDirectory);
+        return outputDirectory;
+    }
+
+    private static class OutputDirectory {
+
+        private final Path directory;
+        private final Map<Path, ClassFile> classFiles = new HashMap<>();
+        private final Map<String, Set<Path>> classFilesBySource = new HashMap<>();
+
+        private OutputDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        synchronized List<File> getClassFiles(Path source) {
+            // the package of the source is not known, so the longest matching suffix of its path is looked up
+            for (int i = 0; i < source.getNameCount(); i++) {
+                final Set<Path> paths = classFilesBySource.get(toSourcePath(source.subpath(i, source.getNameCount())));
+                if (paths != null) {
+                    return toFiles(source, paths);
+                }
+            }
+            return Collections.emptyList();
+        }
+
+        private List<File> toFiles(Path source, Set<Path> paths) {
+            final String topLevelClassFile = source.getFileName().toString().replaceFirst("\\.java$", ".class");
+            final List<File> files = new ArrayList<>(paths.size());
+            for (Path path : paths) {
+                if (path.getFileName().toString().equals(topLevelClassFile)) {
+                    files.add(0, path.toFile());
+                } else {
+                    files.add(path.toFile());
+                }
+            }
+            return files;
+        }
+
+        /**
+         * @return false if the directory doesn't exist
+         */
+        synchronized boolean update() {
+            if (!Files.isDirectory(directory)) {
+                classFiles.clear();
+                classFilesBySource.clear();
+                return false;
+            }
+
+            final Set<Path> existing = new HashSet<>();
+            try {
+                Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (attrs.isRegularFile() && file.getFileName().toString().endsWith(".class")) {
+                            existing.add(file);
+                            updateClassFile(file, attrs);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                logger.warn("Unable to index classes of %s. Reason: %s", directory, e.getMessage());
+            }
+
+            new ArrayList<>(classFiles.keySet()).stream()
+                .filter(path -> !existing.contains(path))
+                .forEach(this::remove);
+            return true;
+        }
+
+        private void updateClassFile(Path file, BasicFileAttributes attrs) {
+            final long lastModified = attrs.lastModifiedTime().toMillis();
+            final ClassFile classFile = classFiles.get(file);
+            if (classFile != null && classFile.size == attrs.size() && classFile.lastModified == lastModified) {
+                return;
+            }
+
+            remove(file);
+            try {
+                final String sourcePath = ClassFileReader.readSourcePath(Files.readAllBytes(file));
+                classFiles.put(file, new ClassFile(attrs.size(), lastModified, sourcePath));
+                classFilesBySource.computeIfAbsent(sourcePath, key -> new LinkedHashSet<>()).add(file);
+            } catch (IOException e) {
+                logger.debug("Unable to read class file %s. Reason: %s", file, e.getMessage());
+            }
+        }
+
+        private void remove(Path file) {
+            final ClassFile classFile = classFiles.remove(file);
+            if (classFile != null) {
+                final Set<Path> paths = classFilesBySource.get(classFile.sourcePath);
+                paths.remove(file);
+                if (paths.isEmpty()) {
+                    classFilesBySource.remove(classFile.sourcePath);
+                }
+            }
+        }
+
+        private static String toSourcePath(Path relativePath) {
+            return relativePath.toString().replace(File.separatorChar, '/');
+        }
+    }
+
+    private static class ClassFile {
+        private final long size;
+        private final long lastModified;
+        private final String sourcePath;
+
+        private ClassFile(long size, long lastModified, String sourcePath) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sourcePath = sourcePath;
+        }
+    }
+}
@@ -3,36 +3,114 @@ package org.arquillian.smart.testing.strategies.affected.detector;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.arquillian.smart.testing.api.TestVerifier;
 
 /**
- * Implementation that gets all tests using glob pattern () by default and using root directory as reference by default
+ * Implementation that gets all tests from the test sources of the project.
+ *
+ * When the test source roots of the module are known (the Maven extension passes them from the project model) only
+ * those are scanned. Otherwise, if the root directory is a Maven module with the default test source directory
+ * (src/test/java) then only this directory is scanned, or the whole root directory is scanned, skipping output, VCS and other hidden directories
+ * and, when the root directory is a Maven module itself, directories of nested modules. Files are verified whether they
+ * are tests in parallel, as it requires reading each of them.
  */
 public class FileSystemTestClassDetector implements TestClassDetector {
 
+    private static final String POM_XML = "pom.xml";
+    private static final Path DEFAULT_TEST_SOURCE_DIRECTORY = new File("src/test/java").toPath();
+    private static final Set<String> IGNORED_DIRECTORIES =
+        Collections.unmodifiableSet(new HashSet<>(Arrays.asList("target", "node_modules")));
+
     private final File rootDirectory;
+    private final List<File> testSourceRoots;
     private final TestVerifier verifier;
 
     public FileSystemTestClassDetector(File rootDirectory, TestVerifier verifier) {
+        this(rootDirectory, Collections.emptyList(), verifier);
+    }
+
+    /**
+     * @param testSourceRoots test source roots of the module - relative ones are resolved against the root directory.
+     * If empty, the test sources are looked up in the root directory.
+     */
+    public FileSystemTestClassDetector(File rootDirectory, List<File> testSourceRoots, TestVerifier verifier) {
         this.rootDirectory = rootDirectory;
+        this.testSourceRoots = testSourceRoots;
         this.verifier = verifier;
     }
 
     @Override
     public Set<File> detect() {
-        try (Stream<Path> stream = Files.walk(rootDirectory.toPath())) {
-            return stream
-                .filter(path -> Files.isRegularFile(path) && isJavaFile(path) && verifier.isTest(path))
-                .map(Path::toFile)
-                .collect(Collectors.toSet());
+        return resolveTestSourceRoots().stream()
+            .flatMap(root -> findJavaFiles(root).stream())
+            .collect(Collectors.toList())
+            .parallelStream()
+            .filter(verifier::isTest)
+            .map(Path::toFile)
+            .collect(Collectors.toSet());
+    }
+
+    private List<Path> resolveTestSourceRoots() {
+        final Path root = rootDirectory.toPath();
+        if (!testSourceRoots.isEmpty()) {
+            return testSourceRoots.stream()
+                .map(testSourceRoot -> root.resolve(testSourceRoot.toPath()))
+                .filter(Files::isDirectory)
+                .collect(Collectors.toList());
+        }
+        final Path testSourceDirectory = root.resolve(DEFAULT_TEST_SOURCE_DIRECTORY);
+        if (isMavenModule(root) && Files.isDirectory(testSourceDirectory)) {
+            return Collections.singletonList(testSourceDirectory);
+        }
+        return Collections.singletonList(root);
+    }
+
+    private List<Path> findJavaFiles(Path root) {
+        final boolean pruneNestedModules = isMavenModule(rootDirectory.toPath());
+        final List<Path> javaFiles = new ArrayList<>();
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (dir.equals(root)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    final String name = dir.getFileName().toString();
+                    if (name.startsWith(".") || IGNORED_DIRECTORIES.contains(name)
+                        || (pruneNestedModules && isMavenModule(dir))) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && isJavaFile(file)) {
+                        javaFiles.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
+        return javaFiles;
+    }
+
+    private boolean isMavenModule(Path directory) {
+        return Files.isRegularFile(directory.resolve(POM_XML));
     }
 
     private boolean isJavaFile(Path path) {
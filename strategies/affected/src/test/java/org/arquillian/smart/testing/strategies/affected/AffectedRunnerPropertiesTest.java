@@ -1,11 +1,31 @@
 package org.arquillian.smart.testing.strategies.affected;
 
+import java.util.Collections;
+import org.arquillian.smart.testing.configuration.Configuration;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class AffectedRunnerPropertiesTest {
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void should_read_system_properties_of_build_configuration_is_loaded_for() {
+        // given
+        final Configuration configuration = Configuration.load(temporaryFolder.getRoot(),
+            Collections.singletonMap(AffectedRunnerProperties.SMART_TESTING_AFFECTED_TRANSITIVITY_DEPTH, "2"));
+
+        // when
+        final AffectedRunnerProperties affectedRunnerProperties = new AffectedRunnerProperties(configuration);
+
+        // then
+        assertThat(affectedRunnerProperties.getSmartTestingAffectedTransitivityDepth()).isEqualTo(2);
+    }
+
     @Test
     public void should_load_exclusions_from_configuration_file() {
         // given
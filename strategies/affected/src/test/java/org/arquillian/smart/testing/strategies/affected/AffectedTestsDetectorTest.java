@@ -16,14 +16,21 @@ import org.arquillian.smart.testing.scm.Change;
 import org.arquillian.smart.testing.scm.ChangeType;
 import org.arquillian.smart.testing.scm.spi.ChangeResolver;
 import org.arquillian.smart.testing.strategies.affected.detector.FileSystemTestClassDetector;
+import org.arquillian.smart.testing.strategies.affected.fakeproject.main.C;
 import org.arquillian.smart.testing.strategies.affected.fakeproject.main.MyBusinessObject;
+import org.arquillian.smart.testing.strategies.affected.fakeproject.test.ATest;
+import org.arquillian.smart.testing.strategies.affected.fakeproject.test.BTest;
+import org.arquillian.smart.testing.strategies.affected.fakeproject.test.CTest;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import static java.util.Arrays.asList;
+import static org.arquillian.smart.testing.strategies.affected.AffectedRunnerProperties.SMART_TESTING_AFFECTED_TRANSITIVITY_DEPTH;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -71,6 +78,35 @@ public class AffectedTestsDetectorTest {
             .contains("org.arquillian.smart.testing.strategies.affected.fakeproject.test.MyBusinessObjectTest", "org.arquillian.smart.testing.strategies.affected.fakeproject.test.MyBusinessObjectTestCase");
     }
 
+    @Test
+    public void should_select_affected_tests_with_their_distance_from_change_when_depth_is_limited() {
+
+        // given
+        Set<File> testClasses = new HashSet<>();
+        for (Class<?> testClass : asList(ATest.class, BTest.class, CTest.class)) {
+            testClasses.add(getJavaPath(testClass).toFile());
+        }
+        when(fileSystemTestClassDetector.detect()).thenReturn(testClasses);
+
+        Change change = new Change(getJavaPath(C.class), ChangeType.MODIFY);
+        when(changeStorage.read(new File("."))).thenReturn(Optional.of(Collections.singletonList(change)));
+
+        final Configuration configuration = mock(Configuration.class);
+        when(configuration.getSystemProperty(SMART_TESTING_AFFECTED_TRANSITIVITY_DEPTH)).thenReturn("2");
+
+        final AffectedTestsDetector affectedTestsDetector =
+            new AffectedTestsDetector(fileSystemTestClassDetector, changeStorage, changeResolver, new File("."),
+                className -> className.endsWith("Test"), configuration);
+
+        // when
+        final Collection<TestSelection> tests = affectedTestsDetector.getTests();
+
+        // then
+        assertThat(tests)
+            .extracting(TestSelection::getClassName, test -> test.getDistance().getAsInt())
+            .containsOnly(tuple(CTest.class.getName(), 1), tuple(BTest.class.getName(), 2));
+    }
+
     private Path getJavaPath(Class<?> clazz) {
         final String packageDirectory = clazz.getPackage().getName().replace(".", "/");
         final Path path = Paths.get("src/test/java", packageDirectory, clazz.getSimpleName() + ".java");
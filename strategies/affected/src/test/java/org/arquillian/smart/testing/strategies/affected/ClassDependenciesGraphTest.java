@@ -3,6 +3,7 @@ package org.arquillian.smart.testing.strategies.affected;
 import java.io.File;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import net.jcip.annotations.NotThreadSafe;
 import org.arquillian.smart.testing.strategies.affected.fakeproject.main.D;
@@ -140,6 +141,56 @@ public class ClassDependenciesGraphTest {
                 "org.arquillian.smart.testing.strategies.affected.fakeproject.test.ATest", "org.arquillian.smart.testing.strategies.affected.fakeproject.test.BTest");
     }
 
+    @Test
+    public void should_detect_all_changes_transitive_when_parsing_in_parallel() {
+        // given
+        System.setProperty(AffectedRunnerProperties.SMART_TESTING_AFFECTED_THREADS, "4");
+        final ClassDependenciesGraph
+            classDependenciesGraph = new ClassDependenciesGraph(new EndingWithTestTestVerifier());
+
+        final String testLocation = ATest.class.getResource("ATest.class").getPath();
+        final String testLocation2 = BTest.class.getResource("BTest.class").getPath();
+        final String testLocation3 = CTest.class.getResource("CTest.class").getPath();
+        classDependenciesGraph.buildTestDependencyGraph(Arrays.asList(new File(testLocation), new File(testLocation2),
+            new File(testLocation3)));
+
+        // when
+        Set<File> mainObjectsChanged = new HashSet<>();
+        mainObjectsChanged.add(new File(D.class.getResource("D.class").getPath()));
+
+        final Set<String> testsDependingOn = classDependenciesGraph.findTestsDependingOn(mainObjectsChanged);
+
+        // then
+        assertThat(testsDependingOn)
+            .containsExactlyInAnyOrder(
+                "org.arquillian.smart.testing.strategies.affected.fakeproject.test.ATest", "org.arquillian.smart.testing.strategies.affected.fakeproject.test.BTest");
+    }
+
+    @Test
+    public void should_detect_all_changes_transitive_using_compact_graph() {
+        // given
+        System.setProperty(AffectedRunnerProperties.SMART_TESTING_AFFECTED_COMPACT_GRAPH, "true");
+        final ClassDependenciesGraph
+            classDependenciesGraph = new ClassDependenciesGraph(new EndingWithTestTestVerifier());
+
+        final String testLocation = ATest.class.getResource("ATest.class").getPath();
+        final String testLocation2 = BTest.class.getResource("BTest.class").getPath();
+        final String testLocation3 = CTest.class.getResource("CTest.class").getPath();
+        classDependenciesGraph.buildTestDependencyGraph(Arrays.asList(new File(testLocation), new File(testLocation2),
+            new File(testLocation3)));
+
+        // when
+        Set<File> mainObjectsChanged = new HashSet<>();
+        mainObjectsChanged.add(new File(D.class.getResource("D.class").getPath()));
+
+        final Set<String> testsDependingOn = classDependenciesGraph.findTestsDependingOn(mainObjectsChanged);
+
+        // then
+        assertThat(testsDependingOn)
+            .containsExactlyInAnyOrder(
+                "org.arquillian.smart.testing.strategies.affected.fakeproject.test.ATest", "org.arquillian.smart.testing.strategies.affected.fakeproject.test.BTest");
+    }
+
     @Test
     public void should_not_detect_all_changes_transitive_if_transitivity_is_disabled() {
         // given
@@ -215,4 +266,58 @@ public class ClassDependenciesGraphTest {
                 "org.arquillian.smart.testing.strategies.affected.fakeproject.test.ATest");
     }
 
+    @Test
+    public void should_not_detect_tests_further_than_transitivity_depth() {
+        // given
+        System.setProperty(AffectedRunnerProperties.SMART_TESTING_AFFECTED_TRANSITIVITY_DEPTH, "2");
+        final ClassDependenciesGraph
+            classDependenciesGraph = new ClassDependenciesGraph(new EndingWithTestTestVerifier());
+
+        final String testLocation = ATest.class.getResource("ATest.class").getPath();
+        final String testLocation2 = BTest.class.getResource("BTest.class").getPath();
+        final String testLocation3 = CTest.class.getResource("CTest.class").getPath();
+        classDependenciesGraph.buildTestDependencyGraph(Arrays.asList(new File(testLocation), new File(testLocation2),
+            new File(testLocation3)));
+
+        // when
+        Set<File> mainObjectsChanged = new HashSet<>();
+        mainObjectsChanged.add(new File(D.class.getResource("D.class").getPath()));
+
+        final Set<String> testsDependingOn = classDependenciesGraph.findTestsDependingOn(mainObjectsChanged);
+
+        // then
+        assertThat(testsDependingOn)
+            .containsExactly("org.arquillian.smart.testing.strategies.affected.fakeproject.test.BTest");
+    }
+
+    @Test
+    public void should_report_distance_of_tests_using_transitivity_depth_overrides() {
+        // given
+        System.setProperty(AffectedRunnerProperties.SMART_TESTING_AFFECTED_TRANSITIVITY_DEPTH, "1");
+        System.setProperty(AffectedRunnerProperties.SMART_TESTING_AFFECTED_TRANSITIVITY_DEPTH_OVERRIDES,
+            "org.arquillian.smart.testing.strategies.affected.fakeproject.main.D*=3");
+        final ClassDependenciesGraph
+            classDependenciesGraph = new ClassDependenciesGraph(new EndingWithTestTestVerifier());
+
+        final String testLocation = ATest.class.getResource("ATest.class").getPath();
+        final String testLocation2 = BTest.class.getResource("BTest.class").getPath();
+        final String testLocation3 = CTest.class.getResource("CTest.class").getPath();
+        classDependenciesGraph.buildTestDependencyGraph(Arrays.asList(new File(testLocation), new File(testLocation2),
+            new File(testLocation3)));
+
+        // when
+        Set<File> mainObjectsChanged = new HashSet<>();
+        mainObjectsChanged.add(new File(D.class.getResource("D.class").getPath()));
+        mainObjectsChanged.add(new File(D.class.getResource("C.class").getPath()));
+
+        final Map<String, Integer> testsDependingOn = classDependenciesGraph.findTestsWithDistances(mainObjectsChanged);
+
+        // then
+        assertThat(testsDependingOn)
+            .hasSize(3)
+            .containsEntry("org.arquillian.smart.testing.strategies.affected.fakeproject.test.ATest", 3)
+            .containsEntry("org.arquillian.smart.testing.strategies.affected.fakeproject.test.BTest", 2)
+            .containsEntry("org.arquillian.smart.testing.strategies.affected.fakeproject.test.CTest", 1);
+    }
+
 }
@@ -0,0 +1,59 @@
+package org.arquillian.smart.testing.strategies.affected;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.arquillian.smart.testing.strategies.affected.ast.JavaClassIndex;
+import org.arquillian.smart.testing.strategies.affected.fakeproject.main.A;
+import org.arquillian.smart.testing.strategies.affected.fakeproject.main.B;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClassFilesWatcherTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void should_index_class_files_compiled_before_and_while_watching() throws Exception {
+        // given
+        final Path projectDir = temporaryFolder.getRoot().toPath();
+        final Path classes = projectDir.resolve("target/classes");
+        final Path indexFile = ClassDependenciesGraph.resolveIndexFile(projectDir.toFile(), null);
+        copyClassFile(A.class, classes);
+
+        try (ClassFilesWatcher ignored = new ClassFilesWatcher(projectDir.toFile()).start()) {
+            awaitIndexedClasses(indexFile, 1);
+
+            // when
+            copyClassFile(B.class, classes);
+
+            // then
+            assertThat(awaitIndexedClasses(indexFile, 2)).isEqualTo(2);
+        }
+    }
+
+    private void copyClassFile(Class<?> clazz, Path outputDirectory) throws IOException {
+        final String classFile = clazz.getName().replace('.', '/') + ".class";
+        final Path target = outputDirectory.resolve(classFile);
+        Files.createDirectories(target.getParent());
+        try (InputStream classFileStream = clazz.getClassLoader().getResourceAsStream(classFile)) {
+            Files.copy(classFileStream, target);
+        }
+    }
+
+    private int awaitIndexedClasses(Path indexFile, int expected) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        int indexed = JavaClassIndex.load(indexFile).size();
+        while (indexed < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            indexed = JavaClassIndex.load(indexFile).size();
+        }
+        return indexed;
+    }
+}
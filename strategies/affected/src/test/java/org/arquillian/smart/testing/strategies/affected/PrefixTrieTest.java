@@ -0,0 +1,48 @@
+package org.arquillian.smart.testing.strategies.affected;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrefixTrieTest {
+
+    @Test
+    public void should_match_elements_starting_with_any_prefix() {
+        // given
+        final PrefixTrie prefixTrie = new PrefixTrie(Arrays.asList("org.mypackage.", "org.my", "com.other.Class"));
+
+        // when
+        // then
+        assertThat(prefixTrie.matchesPrefixOf("org.mypackage.mycontroller.Class")).isTrue();
+        assertThat(prefixTrie.matchesPrefixOf("org.myotherpackage.Class")).isTrue();
+        assertThat(prefixTrie.matchesPrefixOf("com.other.Class")).isTrue();
+        assertThat(prefixTrie.matchesPrefixOf("com.other.ClassTest")).isTrue();
+        assertThat(prefixTrie.matchesPrefixOf("com.other.Clas")).isFalse();
+        assertThat(prefixTrie.matchesPrefixOf("org.m")).isFalse();
+        assertThat(prefixTrie.matchesPrefixOf("")).isFalse();
+    }
+
+    @Test
+    public void should_match_all_elements_with_empty_prefix() {
+        // given
+        final PrefixTrie prefixTrie = new PrefixTrie(Collections.singletonList(""));
+
+        // when
+        // then
+        assertThat(prefixTrie.matchesPrefixOf("org.mypackage.Class")).isTrue();
+        assertThat(prefixTrie.matchesPrefixOf("")).isTrue();
+    }
+
+    @Test
+    public void should_not_match_anything_without_prefixes() {
+        // given
+        final PrefixTrie prefixTrie = new PrefixTrie(Collections.emptyList());
+
+        // when
+        // then
+        assertThat(prefixTrie.isEmpty()).isTrue();
+        assertThat(prefixTrie.matchesPrefixOf("org.mypackage.Class")).isFalse();
+    }
+}
@@ -0,0 +1,100 @@
+package org.arquillian.smart.testing.strategies.affected;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReverseDependencyIndexTest {
+
+    @Test
+    public void should_find_tests_reaching_changed_classes_through_cycles() {
+        for (DependencyGraph dependencyGraph : Arrays.asList(new JGraphTDependencyGraph(), new CompactDependencyGraph())) {
+            // given
+            addDependencies(dependencyGraph,
+                "ATest", "A",
+                "A", "B",
+                "B", "A",
+                "BTest", "B",
+                "CTest", "C");
+            final ReverseDependencyIndex reverseDependencyIndex =
+                dependencyGraph.createReverseDependencyIndex(className -> className.endsWith("Test"), className -> true);
+
+            // when
+            final Set<String> tests = reverseDependencyIndex.findTestsDependingOn(Arrays.asList("B", "Unknown"));
+
+            // then
+            assertThat(tests).containsExactlyInAnyOrder("ATest", "BTest");
+        }
+    }
+
+    @Test
+    public void should_not_continue_through_non_transitive_classes() {
+        for (DependencyGraph dependencyGraph : Arrays.asList(new JGraphTDependencyGraph(), new CompactDependencyGraph())) {
+            // given
+            addDependencies(dependencyGraph,
+                "ATest", "A",
+                "A", "B",
+                "BTest", "B");
+            final ReverseDependencyIndex reverseDependencyIndex =
+                dependencyGraph.createReverseDependencyIndex(className -> className.endsWith("Test"),
+                    className -> !"A".equals(className));
+
+            // when
+            final Set<String> tests = reverseDependencyIndex.findTestsDependingOn(Collections.singletonList("B"));
+
+            // then
+            assertThat(tests).containsExactly("BTest");
+        }
+    }
+
+    @Test
+    public void should_reuse_tests_resolved_for_shared_classes_in_subsequent_queries() {
+        for (DependencyGraph dependencyGraph : Arrays.asList(new JGraphTDependencyGraph(), new CompactDependencyGraph())) {
+            // given
+            addDependencies(dependencyGraph,
+                "ATest", "A",
+                "BTest", "B",
+                "A", "Util",
+                "B", "Util",
+                "Util", "Helper",
+                "Helper", "Util",
+                "Helper", "Core",
+                "CoreTest", "Core");
+            final ReverseDependencyIndex reverseDependencyIndex =
+                dependencyGraph.createReverseDependencyIndex(className -> className.endsWith("Test"), className -> true);
+
+            // when
+            final Set<String> testsOfUtil = reverseDependencyIndex.findTestsDependingOn(Collections.singletonList("Util"));
+            final Set<String> testsOfCore = reverseDependencyIndex.findTestsDependingOn(Collections.singletonList("Core"));
+            final Set<String> testsOfA = reverseDependencyIndex.findTestsDependingOn(Collections.singletonList("A"));
+
+            // then
+            assertThat(testsOfUtil).containsExactlyInAnyOrder("ATest", "BTest");
+            assertThat(testsOfCore).containsExactlyInAnyOrder("ATest", "BTest", "CoreTest");
+            assertThat(testsOfA).containsExactly("ATest");
+        }
+    }
+
+    @Test
+    public void should_not_add_the_same_dependency_twice() {
+        for (DependencyGraph dependencyGraph : Arrays.asList(new JGraphTDependencyGraph(), new CompactDependencyGraph())) {
+            // given
+            dependencyGraph.addDependency("ATest", "A");
+
+            // when
+            final boolean added = dependencyGraph.addDependency("ATest", "A");
+
+            // then
+            assertThat(added).isFalse();
+        }
+    }
+
+    private void addDependencies(DependencyGraph dependencyGraph, String... edges) {
+        for (int i = 0; i < edges.length; i += 2) {
+            dependencyGraph.addDependency(edges[i], edges[i + 1]);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.arquillian.smart.testing.strategies.affected;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TransitivityDepthTest {
+
+    @Test
+    public void should_use_depth_of_longest_matching_package() {
+        // given
+        final TransitivityDepth transitivityDepth =
+            new TransitivityDepth(2, "org.mysuperbiz.*=4, org.mysuperbiz.base.*=1");
+
+        // when
+        final int baseDepth = transitivityDepth.getMaxDepth("org.mysuperbiz.base.Entity");
+        final int bizDepth = transitivityDepth.getMaxDepth("org.mysuperbiz.Service");
+        final int otherDepth = transitivityDepth.getMaxDepth("org.other.Service");
+
+        // then
+        assertThat(baseDepth).isEqualTo(1);
+        assertThat(bizDepth).isEqualTo(4);
+        assertThat(otherDepth).isEqualTo(2);
+        assertThat(transitivityDepth.getMaxDepth()).isEqualTo(4);
+    }
+
+    @Test
+    public void should_not_limit_depth_by_default() {
+        // given
+        final TransitivityDepth transitivityDepth = new TransitivityDepth(0, "");
+
+        // when
+        final boolean limited = transitivityDepth.isLimited();
+
+        // then
+        assertThat(limited).isFalse();
+        assertThat(transitivityDepth.getMaxDepth("org.mysuperbiz.Service")).isEqualTo(TransitivityDepth.UNLIMITED);
+    }
+
+    @Test
+    public void should_fail_on_override_without_depth() {
+        // when
+        // then
+        assertThatThrownBy(() -> new TransitivityDepth(0, "org.mysuperbiz.*"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
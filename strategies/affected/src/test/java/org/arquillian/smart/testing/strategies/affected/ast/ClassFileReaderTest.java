@@ -0,0 +1,92 @@
+package org.arquillian.smart.testing.strategies.affected.ast;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ClassFileReaderTest {
+
+    @Test
+    public void should_read_the_same_imports_as_javassist() throws IOException {
+        // given
+        final Class<?>[] classes = {SimpleImportsClass.class, DuplicateClassNameDifferentPackagesAsField.class,
+            DuplicateClassNameDifferentPackagesAsLocal.class, FullQualifiedNameAnnotationsClass.class,
+            ClassFileReader.class};
+
+        for (Class<?> clazz : classes) {
+            // when
+            final BytecodeClass bytecodeClass = read(clazz);
+            final JavaAssistClass javaAssistClass = new JavaAssistClass(new JavaAssistClassParser().makeClass(
+                clazz.getResourceAsStream(clazz.getSimpleName() + ".class")));
+
+            // then
+            assertThat(bytecodeClass.getName()).isEqualTo(clazz.getName());
+            assertThat(bytecodeClass.getImports()).containsExactlyInAnyOrder(javaAssistClass.getImports());
+        }
+    }
+
+    @Test
+    public void should_resolve_annotations() throws IOException {
+        // when
+        final BytecodeClass annotationClass = read(FullQualifiedNameAnnotationsClass.class);
+
+        // then
+        assertThat(annotationClass.getImports())
+            .containsExactlyInAnyOrder(
+                "org.arquillian.smart.testing.strategies.affected.ast.FullQualifiedNameAnnotationsClass",
+                "org.arquillian.smart.testing.strategies.affected.ast.FieldTestAnnotation",
+                "org.arquillian.smart.testing.strategies.affected.ast.ParameterTestAnnotation", "java.lang.Object",
+                "org.arquillian.smart.testing.strategies.affected.ast.TypeTestAnnotation",
+                "org.arquillian.smart.testing.strategies.affected.ast.DuplicateClassNameDifferentPackagesAsLocal",
+                "java.lang.Integer");
+    }
+
+    @Test
+    public void should_read_class_name_only() throws IOException {
+        // given
+        final byte[] classFile = ClassFileReader.toByteArray(SimpleImportsClass.class.getResourceAsStream("SimpleImportsClass.class"));
+
+        // when
+        final String className = ClassFileReader.readClassName(classFile);
+
+        // then
+        assertThat(className).isEqualTo(SimpleImportsClass.class.getName());
+    }
+
+    @Test
+    public void should_read_source_path_of_nested_class() throws IOException {
+        // given
+        final byte[] classFile = ClassFileReader.toByteArray(
+            ClassFileReaderTest.class.getResourceAsStream("ClassFileReaderTest$NestedClass.class"));
+
+        // when
+        final String sourcePath = ClassFileReader.readSourcePath(classFile);
+
+        // then
+        assertThat(sourcePath).isEqualTo("org/arquillian/smart/testing/strategies/affected/ast/ClassFileReaderTest.java");
+    }
+
+    @Test
+    public void should_fail_on_truncated_class_file() throws IOException {
+        // given
+        final byte[] classFile = ClassFileReader.toByteArray(SimpleImportsClass.class.getResourceAsStream("SimpleImportsClass.class"));
+        final byte[] truncated = new byte[classFile.length / 2];
+        System.arraycopy(classFile, 0, truncated, 0, truncated.length);
+
+        // when
+        // then
+        assertThatThrownBy(() -> ClassFileReader.read(truncated)).isInstanceOf(IOException.class);
+    }
+
+    private BytecodeClass read(Class<?> clazz) throws IOException {
+        try (InputStream inputStream = clazz.getResourceAsStream(clazz.getSimpleName() + ".class")) {
+            return ClassFileReader.read(inputStream);
+        }
+    }
+
+    private static class NestedClass {
+    }
+}
@@ -1,11 +1,23 @@
 package org.arquillian.smart.testing.strategies.affected.ast;
 
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import org.arquillian.smart.testing.FileFingerprints;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class JavaAssistClassParserTest {
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void should_resolve_direct_imports() {
         // given
@@ -74,4 +86,53 @@ public class JavaAssistClassParserTest {
                 "org.arquillian.smart.testing.strategies.affected.ast.DuplicateClassNameDifferentPackagesAsLocal",
                 "java.lang.Integer");
     }
+
+    @Test
+    public void should_read_class_directly_from_class_file() {
+        // given
+        final JavaAssistClassParser javaAssistClassParser = new JavaAssistClassParser();
+
+        // when
+        final JavaClass javaClass = javaAssistClassParser.getClass(TypeTestAnnotation.class.getName());
+
+        // then
+        assertThat(javaClass).isInstanceOf(BytecodeClass.class);
+        assertThat(javaClass.getClassFile()).isFile();
+    }
+
+    @Test
+    public void should_not_mix_classes_of_the_same_name_from_different_classpaths() throws Exception {
+        // given
+        final File firstProjectClasses = compileUtilWithFieldOf("java.net.URL");
+        final File secondProjectClasses = compileUtilWithFieldOf("java.io.File");
+
+        // when
+        final JavaClass firstUtil = getClassFrom(firstProjectClasses, "com.acme.Util");
+        final JavaClass secondUtil = getClassFrom(secondProjectClasses, "com.acme.Util");
+
+        // then
+        assertThat(firstUtil.getImports()).contains("java.net.URL").doesNotContain("java.io.File");
+        assertThat(secondUtil.getImports()).contains("java.io.File").doesNotContain("java.net.URL");
+    }
+
+    private File compileUtilWithFieldOf(String fieldType) throws Exception {
+        final ClassPool classPool = new ClassPool(true);
+        final CtClass util = classPool.makeClass("com.acme.Util");
+        util.addField(new CtField(classPool.get(fieldType), "field", util));
+        final File classesDir = temporaryFolder.newFolder();
+        util.writeFile(classesDir.getAbsolutePath());
+        return classesDir;
+    }
+
+    private JavaClass getClassFrom(File classesDir, String className) throws Exception {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader originalClassLoader = thread.getContextClassLoader();
+        try (URLClassLoader projectClassLoader = new URLClassLoader(new URL[] {classesDir.toURI().toURL()},
+            originalClassLoader)) {
+            thread.setContextClassLoader(projectClassLoader);
+            return new JavaAssistClassParser(new FileFingerprints()).getClass(className);
+        } finally {
+            thread.setContextClassLoader(originalClassLoader);
+        }
+    }
 }
@@ -0,0 +1,137 @@
+package org.arquillian.smart.testing.strategies.affected.ast;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JavaClassIndexTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void should_restore_stored_class_description_without_parsing() {
+        // given
+        final Path indexFile = temporaryFolder.getRoot().toPath().resolve("index");
+        final JavaClassIndex index = JavaClassIndex.load(indexFile);
+        final JavaClass parsedClass = new JavaClassBuilder(index).getClassDescription(SimpleImportsClass.class.getName());
+        index.store(indexFile);
+
+        // when
+        final JavaClass restoredClass = JavaClassIndex.load(indexFile).getClass(parsedClass.getClassFile());
+
+        // then
+        assertThat(restoredClass).isInstanceOf(IndexedJavaClass.class);
+        assertThat(restoredClass.getClassFile()).isEqualTo(parsedClass.getClassFile());
+        assertThat(restoredClass.getImports()).containsExactlyInAnyOrder(parsedClass.getImports());
+    }
+
+    @Test
+    public void should_resolve_class_name_of_unmodified_class_file() throws IOException {
+        // given
+        final Path indexFile = temporaryFolder.getRoot().toPath().resolve("index");
+        final File classFile = temporaryFolder.newFile("A.class");
+        Files.write(classFile.toPath(), new byte[] {1, 2, 3});
+
+        final JavaClassIndex index = JavaClassIndex.load(indexFile);
+        index.put(new IndexedJavaClass("org.superbiz.A", new String[] {"org.superbiz.B"}, classFile));
+        index.store(indexFile);
+
+        // when
+        final String className = JavaClassIndex.load(indexFile).getClassName(classFile);
+
+        // then
+        assertThat(className).isEqualTo("org.superbiz.A");
+    }
+
+    @Test
+    public void should_invalidate_entry_when_class_file_is_modified() throws IOException {
+        // given
+        final Path indexFile = temporaryFolder.getRoot().toPath().resolve("index");
+        final File classFile = temporaryFolder.newFile("A.class");
+        Files.write(classFile.toPath(), new byte[] {1, 2, 3});
+
+        final JavaClassIndex index = JavaClassIndex.load(indexFile);
+        index.put(new IndexedJavaClass("org.superbiz.A", new String[] {"org.superbiz.B"}, classFile));
+        index.store(indexFile);
+
+        Files.write(classFile.toPath(), new byte[] {4}, StandardOpenOption.APPEND);
+
+        // when
+        final JavaClassIndex reloadedIndex = JavaClassIndex.load(indexFile);
+
+        // then
+        assertThat(reloadedIndex.getClass(classFile)).isNull();
+        assertThat(reloadedIndex.getClassName(classFile)).isNull();
+    }
+
+    @Test
+    public void should_drop_entries_of_deleted_class_files() throws IOException {
+        // given
+        final Path indexFile = temporaryFolder.getRoot().toPath().resolve("index");
+        final File classFile = temporaryFolder.newFile("A.class");
+
+        final JavaClassIndex index = JavaClassIndex.load(indexFile);
+        index.put(new IndexedJavaClass("org.superbiz.A", new String[0], classFile));
+        Files.delete(classFile.toPath());
+
+        // when
+        index.store(indexFile);
+
+        // then
+        assertThat(JavaClassIndex.load(indexFile).size()).isZero();
+    }
+
+    @Test
+    public void should_merge_entries_stored_by_another_build_into_shared_index() throws IOException {
+        // given
+        final Path indexFile = temporaryFolder.getRoot().toPath().resolve("index");
+        final File classFileA = temporaryFolder.newFile("A.class");
+        final File classFileB = temporaryFolder.newFile("B.class");
+
+        final JavaClassIndex firstModuleIndex = JavaClassIndex.load(indexFile);
+        final JavaClassIndex secondModuleIndex = JavaClassIndex.load(indexFile);
+        firstModuleIndex.put(new IndexedJavaClass("org.superbiz.A", new String[0], classFileA));
+        secondModuleIndex.put(new IndexedJavaClass("org.superbiz.B", new String[0], classFileB));
+
+        // when
+        firstModuleIndex.store(indexFile);
+        secondModuleIndex.store(indexFile);
+
+        // then
+        final JavaClassIndex sharedIndex = JavaClassIndex.load(indexFile);
+        assertThat(sharedIndex.getClass(classFileA)).isNotNull();
+        assertThat(sharedIndex.getClass(classFileB)).isNotNull();
+    }
+
+    @Test
+    public void should_keep_classes_of_the_same_name_from_different_modules() throws IOException {
+        // given
+        final Path indexFile = temporaryFolder.getRoot().toPath().resolve("index");
+        final File firstModuleClassFile = temporaryFolder.newFolder("first").toPath().resolve("Util.class").toFile();
+        final File secondModuleClassFile = temporaryFolder.newFolder("second").toPath().resolve("Util.class").toFile();
+        Files.write(firstModuleClassFile.toPath(), new byte[] {1});
+        Files.write(secondModuleClassFile.toPath(), new byte[] {2});
+
+        final JavaClassIndex firstModuleIndex = JavaClassIndex.load(indexFile);
+        firstModuleIndex.put(new IndexedJavaClass("com.acme.Util", new String[] {"com.acme.First"}, firstModuleClassFile));
+        firstModuleIndex.store(indexFile);
+        final JavaClassIndex secondModuleIndex = JavaClassIndex.load(indexFile);
+        secondModuleIndex.put(new IndexedJavaClass("com.acme.Util", new String[] {"com.acme.Second"}, secondModuleClassFile));
+        secondModuleIndex.store(indexFile);
+
+        // when
+        final JavaClassIndex sharedIndex = JavaClassIndex.load(indexFile);
+
+        // then
+        assertThat(sharedIndex.getClass(firstModuleClassFile).getImports()).containsExactly("com.acme.First");
+        assertThat(sharedIndex.getClass(secondModuleClassFile).getImports()).containsExactly("com.acme.Second");
+    }
+}
@@ -0,0 +1,78 @@
+package org.arquillian.smart.testing.strategies.affected.ast;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SourceToClassIndexTest {
+
+    private static final String PACKAGE_DIRECTORY = "org/arquillian/smart/testing/strategies/affected/ast";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void should_find_class_files_of_nested_classes() {
+        // given
+        final SourceToClassIndex sourceToClassIndex = new SourceToClassIndex();
+
+        // when
+        final List<File> classFiles =
+            sourceToClassIndex.getClassFiles(new File("src/main/java/" + PACKAGE_DIRECTORY + "/SourceToClassIndex.java"));
+
+        // then
+        assertThat(classFiles)
+            .extracting(File::getName)
+            .startsWith("SourceToClassIndex.class")
+            .contains("SourceToClassIndex$OutputDirectory.class", "SourceToClassIndex$ClassFile.class");
+    }
+
+    @Test
+    public void should_find_class_file_of_source_in_custom_layout() throws IOException {
+        // given
+        final File module = temporaryFolder.newFolder("module");
+        Files.createFile(module.toPath().resolve("pom.xml"));
+        final Path classFile = copyClassFile(module.toPath().resolve("target/classes"), "SimpleImportsClass.class");
+
+        // when
+        final File foundClassFile = new SourceToClassIndex()
+            .getClassFile(new File(module, "generated-sources/" + PACKAGE_DIRECTORY + "/SimpleImportsClass.java"));
+
+        // then
+        assertThat(foundClassFile).isEqualTo(classFile.toFile());
+    }
+
+    @Test
+    public void should_update_index_when_class_file_is_removed() throws IOException {
+        // given
+        final File module = temporaryFolder.newFolder("module");
+        Files.createFile(module.toPath().resolve("pom.xml"));
+        final Path classFile = copyClassFile(module.toPath().resolve("target/test-classes"), "SimpleImportsClass.class");
+        final File sourceFile = new File(module, "src/test/java/" + PACKAGE_DIRECTORY + "/SimpleImportsClass.java");
+        assertThat(new SourceToClassIndex().getClassFile(sourceFile)).isEqualTo(classFile.toFile());
+
+        // when
+        Files.delete(classFile);
+        final File foundClassFile = new SourceToClassIndex().getClassFile(sourceFile);
+
+        // then
+        assertThat(foundClassFile).isNull();
+    }
+
+    private Path copyClassFile(Path outputDirectory, String classFileName) throws IOException {
+        final Path classFile = outputDirectory.resolve(PACKAGE_DIRECTORY).resolve(classFileName);
+        Files.createDirectories(classFile.getParent());
+        try (InputStream inputStream = SourceToClassIndexTest.class.getResourceAsStream(classFileName)) {
+            Files.copy(inputStream, classFile);
+        }
+        return classFile;
+    }
+}
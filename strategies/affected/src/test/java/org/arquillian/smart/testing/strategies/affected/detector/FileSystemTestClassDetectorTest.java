@@ -75,6 +75,99 @@ public class FileSystemTestClassDetectorTest {
 
     }
 
+    @Test
+    public void should_skip_output_hidden_and_nested_module_directories() throws IOException {
+
+        // given
+
+        final File rootDirectory = temporaryFolder.newFolder("project");
+        Files.createFile(rootDirectory.toPath().resolve("pom.xml"));
+        createProjectLayoutWithTests(rootDirectory, "org.mytest", "MyFirstTest.java");
+
+        final Path nestedModule = Files.createDirectories(rootDirectory.toPath().resolve("nested"));
+        Files.createFile(nestedModule.resolve("pom.xml"));
+        createProjectLayoutWithTests(nestedModule.toFile(), "org.mytest", "NestedTest.java");
+
+        createLayoutWithTests(rootDirectory.toPath().resolve("target"), "GeneratedTest.java");
+        createLayoutWithTests(rootDirectory.toPath().resolve(".git"), "HiddenTest.java");
+        createLayoutWithTests(rootDirectory.toPath().resolve("node_modules"), "ModuleTest.java");
+        createLayoutWithTests(rootDirectory.toPath().resolve(Paths.get("src", "main", "java")), "MainTest.java");
+
+        final TestClassDetector testClassDetector =
+            new FileSystemTestClassDetector(rootDirectory, new EndingWithTestTestVerifier());
+
+        // when
+
+        final Set<File> testClasses = testClassDetector.detect();
+
+        // then
+
+        assertThat(testClasses)
+            .extracting(File::getName)
+            .containsExactly("MyFirstTest.java");
+
+    }
+
+    @Test
+    public void should_scan_whole_module_without_default_test_source_directory() throws IOException {
+
+        // given
+
+        final File rootDirectory = temporaryFolder.newFolder("project");
+        Files.createFile(rootDirectory.toPath().resolve("pom.xml"));
+        createLayoutWithTests(rootDirectory.toPath().resolve(Paths.get("tests", "org", "mytest")), "MyFirstTest.java");
+        createLayoutWithTests(rootDirectory.toPath().resolve("target"), "GeneratedTest.java");
+
+        final TestClassDetector testClassDetector =
+            new FileSystemTestClassDetector(rootDirectory, new EndingWithTestTestVerifier());
+
+        // when
+
+        final Set<File> testClasses = testClassDetector.detect();
+
+        // then
+
+        assertThat(testClasses)
+            .extracting(File::getName)
+            .containsExactly("MyFirstTest.java");
+
+    }
+
+    @Test
+    public void should_scan_only_given_test_source_roots() throws IOException {
+
+        // given
+
+        final File rootDirectory = temporaryFolder.newFolder("project");
+        Files.createFile(rootDirectory.toPath().resolve("pom.xml"));
+        createProjectLayoutWithTests(rootDirectory, "org.mytest", "DefaultLayoutTest.java");
+        createLayoutWithTests(rootDirectory.toPath().resolve(Paths.get("src", "it", "java")), "MyFirstTest.java");
+        final Path generatedTests = rootDirectory.toPath().resolve(Paths.get("target", "generated-test-sources"));
+        createLayoutWithTests(generatedTests, "GeneratedTest.java");
+
+        final TestClassDetector testClassDetector = new FileSystemTestClassDetector(rootDirectory,
+            Arrays.asList(new File("src/it/java"), generatedTests.toFile(), new File("src/missing")),
+            new EndingWithTestTestVerifier());
+
+        // when
+
+        final Set<File> testClasses = testClassDetector.detect();
+
+        // then
+
+        assertThat(testClasses)
+            .extracting(File::getName)
+            .containsExactlyInAnyOrder("MyFirstTest.java", "GeneratedTest.java");
+
+    }
+
+    private void createLayoutWithTests(Path directory, String... testNames) throws IOException {
+        Files.createDirectories(directory);
+        for (String testName : testNames) {
+            Files.createFile(directory.resolve(testName));
+        }
+    }
+
     private void createProjectLayoutWithTests(File directory, String packageDirectory, String... testNames) throws IOException {
         final String[] testDirectory = new String[] {"src", "test", "java"};
         final String[] packageDirectoryLocation = packageDirectory.split("\\.");
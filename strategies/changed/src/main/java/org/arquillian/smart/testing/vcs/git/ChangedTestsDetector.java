@@ -8,9 +8,8 @@ import org.arquillian.smart.testing.TestSelection;
 import org.arquillian.smart.testing.api.TestVerifier;
 import org.arquillian.smart.testing.configuration.Configuration;
 import org.arquillian.smart.testing.hub.storage.ChangeStorage;
-import org.arquillian.smart.testing.logger.Log;
-import org.arquillian.smart.testing.logger.Logger;
-import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.ChangeSnapshot;
+import org.arquillian.smart.testing.scm.ClassifiedChange;
 import org.arquillian.smart.testing.scm.spi.ChangeResolver;
 import org.arquillian.smart.testing.spi.JavaSPILoader;
 import org.arquillian.smart.testing.spi.TestExecutionPlanner;
@@ -20,8 +19,6 @@ import static org.arquillian.smart.testing.scm.ChangeType.RENAME;
 
 public class ChangedTestsDetector implements TestExecutionPlanner {
 
-    private static final Logger logger = Log.getLogger();
-
     private final ChangeResolver changeResolver;
     private final ChangeStorage changeStorage;
     private final File projectDir;
@@ -52,17 +49,12 @@ public class ChangedTestsDetector implements TestExecutionPlanner {
 
     @Override
     public Collection<TestSelection> getTests() {
-        //tag::read_changes[]
-        final Collection<Change> files = changeStorage.read(projectDir) // <1>
-            .orElseGet(() -> {
-                logger.warn("No cached changes detected... using direct resolution");
-                return changeResolver.diff(projectDir, configuration, getName()); // <2>
-            });
-        //end::read_changes[]
-        return files.stream()
+        return ChangeSnapshot.of(changeStorage, changeResolver, projectDir, testVerifier, configuration, getName())
+            .getJavaChanges()
+            .stream()
             .filter(change -> EnumSet.of(MODIFY, RENAME).contains(change.getChangeType()))
-            .filter(change -> testVerifier.isTest(change.getLocation()))
-            .map(change -> new TestSelection(change.getLocation(), getName()))
+            .filter(ClassifiedChange::isTest)
+            .map(change -> new TestSelection(change.getClassName(), getName()))
             .collect(Collectors.toList());
     }
 
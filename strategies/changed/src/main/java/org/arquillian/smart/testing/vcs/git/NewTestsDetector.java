@@ -7,9 +7,8 @@ import org.arquillian.smart.testing.TestSelection;
 import org.arquillian.smart.testing.api.TestVerifier;
 import org.arquillian.smart.testing.configuration.Configuration;
 import org.arquillian.smart.testing.hub.storage.ChangeStorage;
-import org.arquillian.smart.testing.logger.Log;
-import org.arquillian.smart.testing.logger.Logger;
-import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.ChangeSnapshot;
+import org.arquillian.smart.testing.scm.ClassifiedChange;
 import org.arquillian.smart.testing.scm.spi.ChangeResolver;
 import org.arquillian.smart.testing.spi.JavaSPILoader;
 import org.arquillian.smart.testing.spi.TestExecutionPlanner;
@@ -18,8 +17,6 @@ import static org.arquillian.smart.testing.scm.ChangeType.ADD;
 
 public class NewTestsDetector implements TestExecutionPlanner {
 
-    private static final Logger logger = Log.getLogger();
-
     private final ChangeResolver changeResolver;
     private final ChangeStorage changeStorage;
     private final File projectDir;
@@ -51,16 +48,12 @@ public class NewTestsDetector implements TestExecutionPlanner {
 
     @Override
     public final Collection<TestSelection> getTests() {
-        final Collection<Change> changes = changeStorage.read(projectDir)
-            .orElseGet(() -> {
-                logger.warn("No cached changes detected... using direct resolution");
-                return changeResolver.diff(projectDir, configuration, getName());
-        });
-
-        return changes.stream()
+        return ChangeSnapshot.of(changeStorage, changeResolver, projectDir, testVerifier, configuration, getName())
+            .getJavaChanges()
+            .stream()
             .filter(change -> ADD.equals(change.getChangeType()))
-            .filter(change -> testVerifier.isTest(change.getLocation()))
-            .map(change -> new TestSelection(change.getLocation(), getName()))
+            .filter(ClassifiedChange::isTest)
+            .map(change -> new TestSelection(change.getClassName(), getName()))
             .collect(Collectors.toList());
     }
 
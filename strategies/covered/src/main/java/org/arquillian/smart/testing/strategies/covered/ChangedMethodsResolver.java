@@ -0,0 +1,134 @@
+package org.arquillian.smart.testing.strategies.covered;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.CodeAttribute;
+import javassist.bytecode.LineNumberAttribute;
+import javassist.bytecode.MethodInfo;
+import org.arquillian.smart.testing.coverage.MethodCoverage;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+import org.arquillian.smart.testing.scm.Hunk;
+import org.arquillian.smart.testing.strategies.affected.ast.SourceToClassIndex;
+
+/**
+ * Resolves which methods of a changed source file have been changed, by matching its changed lines with the lines each
+ * method has been compiled from, as found in the line number tables of the compiled classes.
+ *
+ * All methods of the classes compiled from the file are taken as changed when a changed line doesn't belong to any
+ * method (eg. a constant, a field declaration or a removed method), as such a change can alter the behaviour of any of
+ * them. The same goes for a change of a static initializer (including static fields and enum constants) - it runs only
+ * once per JVM, so with reused forks its coverage is recorded only for the first test which has loaded the class.
+ */
+class ChangedMethodsResolver {
+
+    private static final Logger logger = Log.getLogger();
+
+    private static final String CLASS_INITIALIZER = "<clinit>";
+
+    private final SourceToClassIndex sourceToClassIndex = new SourceToClassIndex();
+
+    /**
+     * Returns signature hashes of the changed methods of the classes compiled from the given source file. The classes
+     * are looked up in the output directories of the module the file belongs to, which isn't necessarily the module
+     * whose tests are being selected.
+     *
+     * @param sourceFile the changed source file
+     * @param className fully qualified name of the top level class of the changed source file
+     * @param hunks changed lines of the source file, or null if the whole file has changed
+     */
+    Set<Long> resolve(Path sourceFile, String className, List<Hunk> hunks) {
+        final List<MethodLines> methods = findMethods(sourceFile);
+        final Set<Long> changedMethods = new HashSet<>();
+        if (hunks != null && methods.stream().allMatch(MethodLines::hasLines)) {
+            for (Hunk hunk : hunks) {
+                final List<MethodLines> changed = methods.stream()
+                    .filter(method -> hunk.overlaps(method.firstLine, method.lastLine))
+                    .collect(Collectors.toList());
+                if (changed.isEmpty()) {
+                    logger.debug("Lines %d-%d of %s don't belong to any method, taking all its methods as changed",
+                        hunk.getFirstLine(), hunk.getLastLine(), className);
+                    return allOf(methods);
+                }
+                if (changed.stream().anyMatch(method -> method.classInitializer)) {
+                    logger.debug("Lines %d-%d of %s belong to a static initializer, taking all its methods as changed",
+                        hunk.getFirstLine(), hunk.getLastLine(), className);
+                    return allOf(methods);
+                }
+                changed.forEach(method -> changedMethods.add(method.hash));
+            }
+            return changedMethods;
+        }
+        return allOf(methods);
+    }
+
+    private Set<Long> allOf(List<MethodLines> methods) {
+        return methods.stream().map(method -> method.hash).collect(Collectors.toSet());
+    }
+
+    private List<MethodLines> findMethods(Path sourceFile) {
+        final List<MethodLines> methods = new ArrayList<>();
+        for (File classFile : sourceToClassIndex.getClassFiles(sourceFile.toFile())) {
+            methods.addAll(readMethods(classFile.toPath()));
+        }
+        return methods;
+    }
+
+    private List<MethodLines> readMethods(Path classFile) {
+        final ClassFile parsedClass;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(classFile)))) {
+            parsedClass = new ClassFile(in);
+        } catch (IOException e) {
+            logger.warn("Unable to read class file %s. Reason: %s", classFile, e.getMessage());
+            return Collections.emptyList();
+        }
+
+        final List<MethodLines> methods = new ArrayList<>();
+        for (Object method : parsedClass.getMethods()) {
+            final MethodInfo methodInfo = (MethodInfo) method;
+            final CodeAttribute code = methodInfo.getCodeAttribute();
+            if (code == null) {
+                continue;
+            }
+            final long hash = MethodCoverage.hash(parsedClass.getName(), methodInfo.getName(), methodInfo.getDescriptor());
+            final LineNumberAttribute lineNumbers = (LineNumberAttribute) code.getAttribute(LineNumberAttribute.tag);
+            int firstLine = Integer.MAX_VALUE;
+            int lastLine = Integer.MIN_VALUE;
+            for (int i = 0; lineNumbers != null && i < lineNumbers.tableLength(); i++) {
+                firstLine = Math.min(firstLine, lineNumbers.lineNumber(i));
+                lastLine = Math.max(lastLine, lineNumbers.lineNumber(i));
+            }
+            methods.add(new MethodLines(hash, firstLine, lastLine, CLASS_INITIALIZER.equals(methodInfo.getName())));
+        }
+        return methods;
+    }
+
+    private static class MethodLines {
+        private final long hash;
+        private final int firstLine;
+        private final int lastLine;
+        private final boolean classInitializer;
+
+        MethodLines(long hash, int firstLine, int lastLine, boolean classInitializer) {
+            this.hash = hash;
+            this.firstLine = firstLine;
+            this.lastLine = lastLine;
+            this.classInitializer = classInitializer;
+        }
+
+        boolean hasLines() {
+            return firstLine <= lastLine;
+        }
+    }
+}
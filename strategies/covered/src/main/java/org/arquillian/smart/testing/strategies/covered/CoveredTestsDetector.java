@@ -0,0 +1,110 @@
+package org.arquillian.smart.testing.strategies.covered;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.arquillian.smart.testing.TestSelection;
+import org.arquillian.smart.testing.api.TestVerifier;
+import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.coverage.MethodCoverage;
+import org.arquillian.smart.testing.hub.storage.ChangeStorage;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+import org.arquillian.smart.testing.scm.ChangeSnapshot;
+import org.arquillian.smart.testing.scm.ClassifiedChange;
+import org.arquillian.smart.testing.scm.Hunk;
+import org.arquillian.smart.testing.scm.spi.ChangeResolver;
+import org.arquillian.smart.testing.spi.JavaSPILoader;
+import org.arquillian.smart.testing.spi.TestExecutionPlanner;
+
+import static org.arquillian.smart.testing.scm.ChangeType.DELETE;
+import static org.arquillian.smart.testing.scm.ChangeType.MODIFY;
+
+/**
+ * Selects tests which have executed any of the changed methods when they were run in the previous builds. The methods
+ * executed by each test are recorded by the surefire provider from the probes injected by {@link MethodProbesAgent}
+ * whenever this strategy is used. Changed lines of the modified files are mapped to the methods compiled from them, so
+ * a change of one method of a large class selects only the tests which have executed that method.
+ */
+public class CoveredTestsDetector implements TestExecutionPlanner {
+
+    private static final Logger logger = Log.getLogger();
+
+    private final ChangeResolver changeResolver;
+    private final ChangeStorage changeStorage;
+    private final File projectDir;
+    private final TestVerifier testVerifier;
+    private final Configuration configuration;
+
+    public CoveredTestsDetector(File projectDir, TestVerifier testVerifier, Configuration configuration) {
+        this(new JavaSPILoader().onlyOne(ChangeResolver.class).get(),
+            new JavaSPILoader().onlyOne(ChangeStorage.class).get(),
+            projectDir,
+            testVerifier,
+            configuration);
+    }
+
+    public CoveredTestsDetector(ChangeResolver changeResolver, ChangeStorage changeStorage, File projectDir,
+        TestVerifier testVerifier, Configuration configuration) {
+        this.changeResolver = changeResolver;
+        this.changeStorage = changeStorage;
+        this.projectDir = projectDir;
+        this.testVerifier = testVerifier;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public String getName() {
+        return "covered";
+    }
+
+    @Override
+    public Collection<TestSelection> getTests() {
+        final Path coverageFile = MethodCoverage.getFile(projectDir);
+        final MethodCoverage coverage = MethodCoverage.load(coverageFile);
+        if (coverage.size() == 0) {
+            logger.warn("No methods executed by tests have been recorded in %s yet, run the tests with %s strategy first",
+                coverageFile, getName());
+            return new LinkedHashSet<>();
+        }
+
+        final List<ClassifiedChange> changes =
+            ChangeSnapshot.of(changeStorage, changeResolver, projectDir, testVerifier, configuration, getName())
+                .getJavaChanges()
+                .stream()
+                .filter(change -> change.getChangeType() != DELETE)
+                .collect(Collectors.toList());
+
+        final Map<Path, List<Hunk>> hunks = resolveHunks(changes);
+        final ChangedMethodsResolver changedMethodsResolver = new ChangedMethodsResolver();
+        final Set<Long> changedMethods = new HashSet<>();
+        changes.forEach(change -> changedMethods.addAll(
+            changedMethodsResolver.resolve(change.getLocation(), change.getClassName(), hunks.get(change.getLocation()))));
+
+        final Set<String> coveringTests = coverage.findTestsExecutingAnyOf(changedMethods);
+        logger.debug("Found %d tests which have executed any of %d changed methods", coveringTests.size(),
+            changedMethods.size());
+
+        return coveringTests.stream()
+            .map(test -> new TestSelection(test, getName()))
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private Map<Path, List<Hunk>> resolveHunks(List<ClassifiedChange> changes) {
+        final List<Path> modified = changes.stream()
+            .filter(change -> change.getChangeType() == MODIFY)
+            .map(ClassifiedChange::getLocation)
+            .collect(Collectors.toList());
+        if (modified.isEmpty() || !changeResolver.isApplicable(projectDir)) {
+            return Collections.emptyMap();
+        }
+        return changeResolver.hunks(projectDir, configuration, modified);
+    }
+}
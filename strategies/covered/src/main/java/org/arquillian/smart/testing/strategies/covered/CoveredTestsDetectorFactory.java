@@ -0,0 +1,25 @@
+package org.arquillian.smart.testing.strategies.covered;
+
+import java.io.File;
+import org.arquillian.smart.testing.api.TestVerifier;
+import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.spi.TestExecutionPlanner;
+import org.arquillian.smart.testing.spi.TestExecutionPlannerFactory;
+
+public class CoveredTestsDetectorFactory implements TestExecutionPlannerFactory {
+
+    @Override
+    public String alias() {
+        return "covered";
+    }
+
+    @Override
+    public boolean isFor(String name) {
+        return alias().equalsIgnoreCase(name);
+    }
+
+    @Override
+    public TestExecutionPlanner create(File projectDir, TestVerifier verifier, Configuration configuration) {
+        return new CoveredTestsDetector(projectDir, verifier, configuration);
+    }
+}
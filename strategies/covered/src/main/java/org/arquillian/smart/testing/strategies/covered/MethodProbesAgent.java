@@ -0,0 +1,17 @@
+package org.arquillian.smart.testing.strategies.covered;
+
+import java.lang.instrument.Instrumentation;
+import org.arquillian.smart.testing.coverage.MethodProbes;
+
+/**
+ * Agent injecting {@link MethodProbes} into the project classes as they are loaded by the tests, so the surefire
+ * provider can record which methods each test has executed. It's attached to the test runs by the maven extension
+ * whenever covered strategy is used.
+ */
+public class MethodProbesAgent {
+
+    public static void premain(String arguments, Instrumentation instrumentation) {
+        MethodProbes.activate();
+        instrumentation.addTransformer(new MethodProbesTransformer());
+    }
+}
@@ -0,0 +1,103 @@
+package org.arquillian.smart.testing.strategies.covered;
+
+import java.io.ByteArrayInputStream;
+import java.lang.instrument.ClassFileTransformer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtBehavior;
+import javassist.CtClass;
+import javassist.LoaderClassPath;
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.MethodInfo;
+import org.arquillian.smart.testing.coverage.MethodProbes;
+
+/**
+ * Injects a call of {@link MethodProbes#hit(int)} at the beginning of each method, constructor and static initializer
+ * of the classes loaded from directories - ie. the classes compiled from the project and not the ones of its
+ * dependencies.
+ *
+ * Classes are read by javassist relocated into the jar of the agent, so the agent works whatever version of javassist
+ * the tested project uses.
+ */
+class MethodProbesTransformer implements ClassFileTransformer {
+
+    private static final String PROBE = MethodProbes.class.getName() + ".hit(%d);";
+    private static final String PROBES_PACKAGE = MethodProbes.class.getPackage().getName().replace('.', '/') + "/";
+
+    private final Map<String, Boolean> directoryLocations = new ConcurrentHashMap<>();
+    private final Map<ClassLoader, ClassPool> classPools = new WeakHashMap<>();
+
+    @Override
+    public synchronized byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+        ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        if (loader == null || className == null || className.startsWith(PROBES_PACKAGE) || !isLoadedFromDirectory(
+            protectionDomain)) {
+            return null;
+        }
+
+        try {
+            final CtClass ctClass = getClassPool(loader).makeClass(new ByteArrayInputStream(classfileBuffer));
+            try {
+                boolean instrumented = false;
+                for (CtBehavior behavior : ctClass.getDeclaredBehaviors()) {
+                    instrumented |= instrument(ctClass, behavior);
+                }
+                if (ctClass.getClassInitializer() != null) {
+                    instrumented |= instrument(ctClass, ctClass.getClassInitializer());
+                }
+                return instrumented ? ctClass.toBytecode() : null;
+            } finally {
+                ctClass.detach();
+            }
+        } catch (Exception e) {
+            // the class is loaded without probes rather than breaking the tests
+            return null;
+        }
+    }
+
+    private boolean instrument(CtClass ctClass, CtBehavior behavior) throws CannotCompileException {
+        final MethodInfo methodInfo = behavior.getMethodInfo();
+        if (methodInfo.getCodeAttribute() == null || (methodInfo.getAccessFlags() & AccessFlag.BRIDGE) != 0) {
+            return false;
+        }
+        final int id = MethodProbes.register(MethodProbes.hash(ctClass.getName(), methodInfo.getName(),
+            methodInfo.getDescriptor()));
+        if (id < 0) {
+            return false;
+        }
+        behavior.insertBefore(String.format(PROBE, id));
+        return true;
+    }
+
+    private ClassPool getClassPool(ClassLoader loader) {
+        return classPools.computeIfAbsent(loader, classLoader -> {
+            final ClassPool classPool = new ClassPool();
+            classPool.appendClassPath(new LoaderClassPath(classLoader));
+            return classPool;
+        });
+    }
+
+    private boolean isLoadedFromDirectory(ProtectionDomain protectionDomain) {
+        final CodeSource codeSource = protectionDomain == null ? null : protectionDomain.getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return false;
+        }
+        final URL location = codeSource.getLocation();
+        return directoryLocations.computeIfAbsent(location.toExternalForm(), ignored -> {
+            try {
+                return "file".equals(location.getProtocol()) && Files.isDirectory(Paths.get(location.toURI()));
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                return false;
+            }
+        });
+    }
+}
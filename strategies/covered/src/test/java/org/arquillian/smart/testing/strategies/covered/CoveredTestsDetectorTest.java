@@ -0,0 +1,163 @@
+package org.arquillian.smart.testing.strategies.covered;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import org.arquillian.smart.testing.TestSelection;
+import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.coverage.MethodCoverage;
+import org.arquillian.smart.testing.hub.storage.ChangeStorage;
+import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.ChangeType;
+import org.arquillian.smart.testing.scm.Hunk;
+import org.arquillian.smart.testing.scm.spi.ChangeResolver;
+import org.arquillian.smart.testing.strategies.covered.fixture.Service;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CoveredTestsDetectorTest {
+
+    // lines of fixture.Service
+    private static final int FIND_BODY = 8;
+    private static final int STORED_FIELD = 5;
+    private static final int STATIC_FIELD = 16;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ChangeResolver changeResolver = mock(ChangeResolver.class);
+    private final ChangeStorage changeStorage = mock(ChangeStorage.class);
+
+    private File projectDir;
+    private Path changedSource;
+
+    @Before
+    public void record_coverage_and_compile_service() throws IOException {
+        projectDir = temporaryFolder.newFolder("module");
+        final String service = Service.class.getName();
+        final MethodCoverage coverage = new MethodCoverage();
+        // the class is initialized only once per JVM, so only the first test which has loaded it has executed <clinit>
+        coverage.record("org.example.FindTest", new long[] {
+            MethodCoverage.hash(service, "<clinit>", "()V"),
+            MethodCoverage.hash(service, "<init>", "()V"),
+            MethodCoverage.hash(service, "find", "(Ljava/lang/String;)I")});
+        coverage.record("org.example.StoreTest", new long[] {
+            MethodCoverage.hash(service, "<init>", "()V"),
+            MethodCoverage.hash(service, "store", "(Ljava/lang/String;)V")});
+        coverage.store(MethodCoverage.getFile(projectDir));
+
+        changedSource = compileService(projectDir.toPath());
+        when(changeStorage.read(projectDir))
+            .thenReturn(Optional.of(Collections.singletonList(new Change(changedSource, ChangeType.MODIFY))));
+        when(changeResolver.isApplicable(projectDir)).thenReturn(true);
+    }
+
+    @Test
+    public void should_select_only_tests_which_have_executed_changed_method() {
+        // given
+        when(changeResolver.hunks(any(), any(), anyCollection()))
+            .thenReturn(Collections.singletonMap(changedSource, Collections.singletonList(new Hunk(FIND_BODY, FIND_BODY))));
+
+        final CoveredTestsDetector detector = createDetector();
+
+        // when
+        final Collection<TestSelection> tests = detector.getTests();
+
+        // then
+        assertThat(tests)
+            .extracting(TestSelection::getClassName)
+            .containsOnly("org.example.FindTest");
+    }
+
+    @Test
+    public void should_select_tests_which_have_executed_any_method_when_change_is_outside_of_methods() {
+        // given
+        when(changeResolver.hunks(any(), any(), anyCollection()))
+            .thenReturn(Collections.singletonMap(changedSource, Collections.singletonList(new Hunk(STORED_FIELD, STORED_FIELD))));
+
+        final CoveredTestsDetector detector = createDetector();
+
+        // when
+        final Collection<TestSelection> tests = detector.getTests();
+
+        // then
+        assertThat(tests)
+            .extracting(TestSelection::getClassName)
+            .containsOnly("org.example.FindTest", "org.example.StoreTest");
+    }
+
+    @Test
+    public void should_select_tests_which_have_executed_any_method_when_static_initializer_is_changed() {
+        // given
+        when(changeResolver.hunks(any(), any(), anyCollection()))
+            .thenReturn(Collections.singletonMap(changedSource, Collections.singletonList(new Hunk(STATIC_FIELD, STATIC_FIELD))));
+
+        final CoveredTestsDetector detector = createDetector();
+
+        // when
+        final Collection<TestSelection> tests = detector.getTests();
+
+        // then
+        assertThat(tests)
+            .extracting(TestSelection::getClassName)
+            .containsOnly("org.example.FindTest", "org.example.StoreTest");
+    }
+
+    @Test
+    public void should_select_tests_which_have_executed_changed_method_of_other_module() throws IOException {
+        // given
+        final Path otherModuleSource = compileService(temporaryFolder.newFolder("other-module").toPath());
+        when(changeStorage.read(projectDir))
+            .thenReturn(Optional.of(Collections.singletonList(new Change(otherModuleSource, ChangeType.MODIFY))));
+        when(changeResolver.hunks(any(), any(), anyCollection()))
+            .thenReturn(Collections.singletonMap(otherModuleSource, Collections.singletonList(new Hunk(FIND_BODY, FIND_BODY))));
+        Files.delete(projectDir.toPath().resolve("target/classes").resolve(Service.class.getName().replace('.', '/') + ".class"));
+
+        final CoveredTestsDetector detector = createDetector();
+
+        // when
+        final Collection<TestSelection> tests = detector.getTests();
+
+        // then
+        assertThat(tests)
+            .extracting(TestSelection::getClassName)
+            .containsOnly("org.example.FindTest");
+    }
+
+    /**
+     * Creates a module with the compiled fixture.Service class and returns its source file.
+     */
+    private Path compileService(Path moduleDir) throws IOException {
+        Files.write(moduleDir.resolve("pom.xml"), "<project/>".getBytes());
+        final String service = Service.class.getName();
+        final String classFile = service.replace('.', '/') + ".class";
+        final Path compiledClass = moduleDir.resolve("target/classes").resolve(classFile);
+        Files.createDirectories(compiledClass.getParent());
+        try (InputStream classFileStream = Service.class.getClassLoader().getResourceAsStream(classFile)) {
+            Files.copy(classFileStream, compiledClass);
+        }
+
+        final Path source = moduleDir.resolve("src/main/java").resolve(service.replace('.', '/') + ".java");
+        Files.createDirectories(source.getParent());
+        Files.write(source, ("package " + Service.class.getPackage().getName() + ";\n\npublic class Service {}").getBytes());
+        return source;
+    }
+
+    private CoveredTestsDetector createDetector() {
+        return new CoveredTestsDetector(changeResolver, changeStorage, projectDir,
+            className -> className.endsWith("Test"), mock(Configuration.class));
+    }
+}
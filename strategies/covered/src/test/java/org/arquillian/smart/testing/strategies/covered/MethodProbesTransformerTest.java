@@ -0,0 +1,67 @@
+package org.arquillian.smart.testing.strategies.covered;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.arquillian.smart.testing.coverage.MethodCoverage;
+import org.arquillian.smart.testing.coverage.MethodProbes;
+import org.arquillian.smart.testing.strategies.covered.fixture.Service;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MethodProbesTransformerTest {
+
+    private static final String SERVICE = Service.class.getName();
+
+    @Test
+    public void should_report_methods_executed_by_instrumented_class() throws Exception {
+        // given
+        final Class<?> instrumentedService = new InstrumentingClassLoader().loadClass(SERVICE);
+        final Object service = instrumentedService.newInstance();
+        MethodProbes.drain();
+
+        // when
+        instrumentedService.getMethod("find", String.class).invoke(service, "key");
+
+        // then
+        assertThat(MethodProbes.drain())
+            .containsExactly(MethodCoverage.hash(SERVICE, "find", "(Ljava/lang/String;)I"));
+    }
+
+    private static class InstrumentingClassLoader extends ClassLoader {
+
+        private final MethodProbesTransformer transformer = new MethodProbesTransformer();
+
+        InstrumentingClassLoader() {
+            super(InstrumentingClassLoader.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!SERVICE.equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            final String internalName = name.replace('.', '/');
+            try (InputStream classFile = getParent().getResourceAsStream(internalName + ".class")) {
+                final byte[] original = readAll(classFile);
+                final byte[] instrumented =
+                    transformer.transform(this, internalName, null, Service.class.getProtectionDomain(), original);
+                assertThat(instrumented).isNotNull();
+                return defineClass(name, instrumented, 0, instrumented.length, Service.class.getProtectionDomain());
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+
+        private byte[] readAll(InputStream in) throws IOException {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.arquillian.smart.testing.strategies.covered.fixture;
+
+public class Service {
+
+    private int stored;
+
+    public int find(String key) {
+        return key.length() + stored;
+    }
+
+    public void store(String value) {
+        stored += value.length();
+    }
+
+    private static final int LIMIT = Integer.getInteger("service.limit", 10);
+}
@@ -0,0 +1,17 @@
+package org.arquillian.smart.testing.strategies.traced;
+
+import java.lang.instrument.Instrumentation;
+import org.arquillian.smart.testing.LoadedClasses;
+
+/**
+ * Agent injecting probes of {@link LoadedClasses} into the project classes as they are loaded by the tests, so the
+ * surefire provider can record which classes each test has used. It's attached to the test runs by the maven extension whenever traced strategy
+ * is used.
+ */
+public class ClassLoadingAgent {
+
+    public static void premain(String arguments, Instrumentation instrumentation) {
+        LoadedClasses.activate();
+        instrumentation.addTransformer(new ClassLoadingTransformer());
+    }
+}
@@ -0,0 +1,109 @@
+package org.arquillian.smart.testing.strategies.traced;
+
+import java.io.ByteArrayInputStream;
+import java.lang.instrument.ClassFileTransformer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.util.Collection;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtBehavior;
+import javassist.CtClass;
+import javassist.LoaderClassPath;
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.MethodInfo;
+import org.arquillian.smart.testing.LoadedClasses;
+
+/**
+ * Registers each class loaded from a directory - ie. a class compiled from any module of the project and not one of
+ * its dependencies - to {@link LoadedClasses} and injects a call of {@link LoadedClasses#used(int)} at the beginning of
+ * each of its methods, constructors and static initializer, so every test running any code of the class reports it.
+ *
+ * Classes are read by javassist relocated into the jar of the agent, so the agent works whatever version of javassist
+ * the tested project uses.
+ */
+class ClassLoadingTransformer implements ClassFileTransformer {
+
+    private static final String PROBE = LoadedClasses.class.getName() + ".used(%d);";
+    private static final String PROBES_CLASS = LoadedClasses.class.getName().replace('.', '/');
+
+    private final Map<String, Boolean> directoryLocations = new ConcurrentHashMap<>();
+    private final Map<ClassLoader, ClassPool> classPools = new WeakHashMap<>();
+
+    @Override
+    public synchronized byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+        ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        if (loader == null || className == null || classBeingRedefined != null || PROBES_CLASS.equals(className)
+            || !isLoadedFromDirectory(protectionDomain)) {
+            return null;
+        }
+
+        final CtClass ctClass;
+        try {
+            ctClass = getClassPool(loader).makeClass(new ByteArrayInputStream(classfileBuffer));
+        } catch (Exception e) {
+            // the class is reported only by the test which loads it rather than breaking the tests
+            LoadedClasses.register(className.replace('/', '.'), new String[0]);
+            return null;
+        }
+        try {
+            final Collection<?> referencedClasses = ctClass.getRefClasses();
+            final int id = LoadedClasses.register(ctClass.getName(),
+                referencedClasses.toArray(new String[referencedClasses.size()]));
+            if (id < 0) {
+                return null;
+            }
+            boolean instrumented = false;
+            for (CtBehavior behavior : ctClass.getDeclaredBehaviors()) {
+                instrumented |= instrument(behavior, id);
+            }
+            if (ctClass.getClassInitializer() != null) {
+                instrumented |= instrument(ctClass.getClassInitializer(), id);
+            }
+            return instrumented ? ctClass.toBytecode() : null;
+        } catch (Exception e) {
+            return null;
+        } finally {
+            ctClass.detach();
+        }
+    }
+
+    private boolean instrument(CtBehavior behavior, int id) throws CannotCompileException {
+        final MethodInfo methodInfo = behavior.getMethodInfo();
+        if (methodInfo.getCodeAttribute() == null || (methodInfo.getAccessFlags() & AccessFlag.BRIDGE) != 0) {
+            return false;
+        }
+        behavior.insertBefore(String.format(PROBE, id));
+        return true;
+    }
+
+    private ClassPool getClassPool(ClassLoader loader) {
+        return classPools.computeIfAbsent(loader, classLoader -> {
+            final ClassPool classPool = new ClassPool();
+            classPool.appendClassPath(new LoaderClassPath(classLoader));
+            return classPool;
+        });
+    }
+
+    private boolean isLoadedFromDirectory(ProtectionDomain protectionDomain) {
+        final CodeSource codeSource = protectionDomain == null ? null : protectionDomain.getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return false;
+        }
+        final URL location = codeSource.getLocation();
+        return directoryLocations.computeIfAbsent(location.toExternalForm(), ignored -> {
+            try {
+                return "file".equals(location.getProtocol()) && Files.isDirectory(Paths.get(location.toURI()));
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                return false;
+            }
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package org.arquillian.smart.testing.strategies.traced;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.arquillian.smart.testing.TestSelection;
+import org.arquillian.smart.testing.TestTraces;
+import org.arquillian.smart.testing.api.TestVerifier;
+import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.hub.storage.ChangeStorage;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+import org.arquillian.smart.testing.scm.ChangeSnapshot;
+import org.arquillian.smart.testing.scm.ClassifiedChange;
+import org.arquillian.smart.testing.scm.spi.ChangeResolver;
+import org.arquillian.smart.testing.spi.JavaSPILoader;
+import org.arquillian.smart.testing.spi.TestExecutionPlanner;
+
+import static org.arquillian.smart.testing.scm.ChangeType.DELETE;
+
+/**
+ * Selects tests which have loaded any of the changed classes when they were run in the previous builds. The classes
+ * loaded by each test are recorded by the surefire provider whenever this strategy is used, so no classes have to be
+ * parsed - the tests are just looked up in the recorded traces.
+ */
+public class TracedTestsDetector implements TestExecutionPlanner {
+
+    private static final Logger logger = Log.getLogger();
+
+    private final ChangeResolver changeResolver;
+    private final ChangeStorage changeStorage;
+    private final File projectDir;
+    private final TestVerifier testVerifier;
+    private final Configuration configuration;
+
+    public TracedTestsDetector(File projectDir, TestVerifier testVerifier, Configuration configuration) {
+        this(new JavaSPILoader().onlyOne(ChangeResolver.class).get(),
+            new JavaSPILoader().onlyOne(ChangeStorage.class).get(),
+            projectDir,
+            testVerifier,
+            configuration);
+    }
+
+    public TracedTestsDetector(ChangeResolver changeResolver, ChangeStorage changeStorage, File projectDir,
+        TestVerifier testVerifier, Configuration configuration) {
+        this.changeResolver = changeResolver;
+        this.changeStorage = changeStorage;
+        this.projectDir = projectDir;
+        this.testVerifier = testVerifier;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public String getName() {
+        return "traced";
+    }
+
+    @Override
+    public Collection<TestSelection> getTests() {
+        final Path tracesFile = TestTraces.getFile(projectDir);
+        final TestTraces traces = TestTraces.load(tracesFile);
+        if (traces.size() == 0) {
+            logger.warn("No classes loaded by tests have been recorded in %s yet, run the tests with %s strategy first",
+                tracesFile, getName());
+            return new LinkedHashSet<>();
+        }
+
+        final Collection<String> changedClasses =
+            ChangeSnapshot.of(changeStorage, changeResolver, projectDir, testVerifier, configuration, getName())
+                .getJavaChanges()
+                .stream()
+                .filter(change -> change.getChangeType() != DELETE)
+                .map(ClassifiedChange::getClassName)
+                .collect(Collectors.toSet());
+        final Set<String> tracedTests = traces.findTestsLoadingAnyOf(changedClasses);
+        logger.debug("Found %d tests which have loaded any of %d changed classes", tracedTests.size(), changedClasses.size());
+
+        return tracedTests.stream()
+            .map(test -> new TestSelection(test, getName()))
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
@@ -0,0 +1,25 @@
+package org.arquillian.smart.testing.strategies.traced;
+
+import java.io.File;
+import org.arquillian.smart.testing.api.TestVerifier;
+import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.spi.TestExecutionPlanner;
+import org.arquillian.smart.testing.spi.TestExecutionPlannerFactory;
+
+public class TracedTestsDetectorFactory implements TestExecutionPlannerFactory {
+
+    @Override
+    public String alias() {
+        return "traced";
+    }
+
+    @Override
+    public boolean isFor(String name) {
+        return alias().equalsIgnoreCase(name);
+    }
+
+    @Override
+    public TestExecutionPlanner create(File projectDir, TestVerifier verifier, Configuration configuration) {
+        return new TracedTestsDetector(projectDir, verifier, configuration);
+    }
+}
@@ -0,0 +1,96 @@
+package org.arquillian.smart.testing.strategies.traced;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import net.jcip.annotations.NotThreadSafe;
+import org.arquillian.smart.testing.LoadedClasses;
+import org.arquillian.smart.testing.strategies.traced.fixture.Greeter;
+import org.arquillian.smart.testing.strategies.traced.fixture.Greetings;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// reported classes are collected JVM wide
+@Category(NotThreadSafe.class)
+public class ClassLoadingTransformerTest {
+
+    private static final String GREETER = Greeter.class.getName();
+    private static final String GREETINGS = Greetings.class.getName();
+
+    private final ClassLoadingTransformer transformer = new ClassLoadingTransformer();
+
+    @Test
+    public void should_report_loaded_class_and_classes_it_refers_to_whenever_its_code_runs() throws Exception {
+        // given
+        final Class<?> instrumentedGreeter = new InstrumentingClassLoader().loadClass(GREETER);
+        final Object greeter = instrumentedGreeter.newInstance();
+        instrumentedGreeter.getMethod("greet", String.class).invoke(greeter, "first");
+        assertThat(LoadedClasses.drain()).contains(GREETER, GREETINGS);
+
+        // when
+        instrumentedGreeter.getMethod("greet", String.class).invoke(greeter, "second");
+
+        // then
+        assertThat(LoadedClasses.drain()).containsOnly(GREETER, GREETINGS);
+    }
+
+    @Test
+    public void should_not_report_class_loaded_from_jar() {
+        // given
+        LoadedClasses.drain();
+        final Class<?> dependencyClass = Test.class;
+
+        // when
+        transformer.transform(dependencyClass.getClassLoader(), dependencyClass.getName().replace('.', '/'), null,
+            dependencyClass.getProtectionDomain(), new byte[0]);
+
+        // then
+        assertThat(LoadedClasses.drain()).isEmpty();
+    }
+
+    private class InstrumentingClassLoader extends ClassLoader {
+
+        private final List<String> instrumentedClasses = Arrays.asList(GREETER, GREETINGS);
+
+        InstrumentingClassLoader() {
+            super(InstrumentingClassLoader.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!instrumentedClasses.contains(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                final Class<?> loadedClass = findLoadedClass(name);
+                if (loadedClass != null) {
+                    return loadedClass;
+                }
+                final String internalName = name.replace('.', '/');
+                try (InputStream classFile = getParent().getResourceAsStream(internalName + ".class")) {
+                    final byte[] original = readAll(classFile);
+                    final byte[] instrumented =
+                        transformer.transform(this, internalName, null, Greeter.class.getProtectionDomain(), original);
+                    assertThat(instrumented).isNotNull();
+                    return defineClass(name, instrumented, 0, instrumented.length, Greeter.class.getProtectionDomain());
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+
+        private byte[] readAll(InputStream in) throws IOException {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
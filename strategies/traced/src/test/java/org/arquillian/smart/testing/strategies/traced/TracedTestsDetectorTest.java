@@ -0,0 +1,85 @@
+package org.arquillian.smart.testing.strategies.traced;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import org.arquillian.smart.testing.TestSelection;
+import org.arquillian.smart.testing.TestTraces;
+import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.hub.storage.ChangeStorage;
+import org.arquillian.smart.testing.scm.Change;
+import org.arquillian.smart.testing.scm.ChangeType;
+import org.arquillian.smart.testing.scm.spi.ChangeResolver;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TracedTestsDetectorTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ChangeStorage changeStorage = mock(ChangeStorage.class);
+
+    @Test
+    public void should_select_tests_which_have_loaded_changed_class() throws IOException {
+        // given
+        final File projectDir = temporaryFolder.getRoot();
+        final TestTraces traces = new TestTraces();
+        traces.record("org.example.ATest", Arrays.asList("org.example.ATest", "org.example.A", "org.example.Shared"));
+        traces.record("org.example.BTest", Arrays.asList("org.example.BTest", "org.example.B", "org.example.Shared"));
+        traces.record("org.example.CTest", Arrays.asList("org.example.CTest", "org.example.C"));
+        traces.store(TestTraces.getFile(projectDir));
+
+        final Path changedClass = writeSource(projectDir, "org/example/Shared.java", "package org.example;\n\npublic class Shared {}");
+        when(changeStorage.read(projectDir))
+            .thenReturn(Optional.of(Collections.singletonList(new Change(changedClass, ChangeType.MODIFY))));
+
+        final TracedTestsDetector detector = createDetector(projectDir);
+
+        // when
+        final Collection<TestSelection> tests = detector.getTests();
+
+        // then
+        assertThat(tests)
+            .extracting(TestSelection::getClassName)
+            .containsOnly("org.example.ATest", "org.example.BTest");
+    }
+
+    @Test
+    public void should_select_nothing_when_no_traces_are_recorded() throws IOException {
+        // given
+        final File projectDir = temporaryFolder.getRoot();
+        final Path changedClass = writeSource(projectDir, "org/example/Shared.java", "package org.example;\n\npublic class Shared {}");
+        when(changeStorage.read(projectDir))
+            .thenReturn(Optional.of(Collections.singletonList(new Change(changedClass, ChangeType.MODIFY))));
+
+        final TracedTestsDetector detector = createDetector(projectDir);
+
+        // when
+        final Collection<TestSelection> tests = detector.getTests();
+
+        // then
+        assertThat(tests).isEmpty();
+    }
+
+    private TracedTestsDetector createDetector(File projectDir) {
+        return new TracedTestsDetector(mock(ChangeResolver.class), changeStorage, projectDir,
+            className -> className.endsWith("Test"), mock(Configuration.class));
+    }
+
+    private Path writeSource(File projectDir, String location, String content) throws IOException {
+        final Path source = projectDir.toPath().resolve("src/main/java").resolve(location);
+        Files.createDirectories(source.getParent());
+        return Files.write(source, content.getBytes());
+    }
+}
@@ -0,0 +1,8 @@
+package org.arquillian.smart.testing.strategies.traced.fixture;
+
+public class Greeter {
+
+    public String greet(String name) {
+        return Greetings.prefix + name;
+    }
+}
@@ -0,0 +1,6 @@
+package org.arquillian.smart.testing.strategies.traced.fixture;
+
+public class Greetings {
+
+    public static String prefix = System.getProperty("greetings.prefix", "Hello ");
+}
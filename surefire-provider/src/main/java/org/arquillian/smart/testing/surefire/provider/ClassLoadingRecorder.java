@@ -0,0 +1,91 @@
+package org.arquillian.smart.testing.surefire.provider;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.arquillian.smart.testing.LoadedClasses;
+import org.arquillian.smart.testing.TestTraces;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+
+/**
+ * Records which classes of the project each test class uses, for the traced strategy.
+ *
+ * The classes are reported by the agent of the traced strategy for any class loaded from a directory, so the classes
+ * of all the modules of the reactor are recorded, not only the ones of the module being tested - the traces are keyed
+ * by the fully qualified class names, so changes in any module hit them. Each finished test is recorded with the
+ * classes it has loaded or run any code of (see {@link LoadedClasses}), so a class loaded by an earlier test of the
+ * same fork is recorded only for the later tests which use it as well.
+ *
+ * Nested classes are recorded as their top level class, as changes are resolved per source file.
+ */
+class ClassLoadingRecorder implements TestsRecorder {
+
+    private static final Logger logger = Log.getLogger();
+
+    private final Path tracesFile;
+    private final TestTraces traces = new TestTraces();
+    private final boolean active;
+    private boolean started;
+
+    ClassLoadingRecorder(File projectDir) {
+        this.tracesFile = TestTraces.getFile(projectDir);
+        this.active = LoadedClasses.isActive();
+        if (!active) {
+            logger.warn("Classes loaded by tests are not recorded, as the agent of the traced strategy is not attached "
+                + "to the tests");
+        }
+    }
+
+    @Override
+    public void started(Class<?> testClass) {
+        if (active && !started) {
+            // classes loaded before the first test (eg. while surefire was looking the tests up) belong to no test
+            LoadedClasses.drain();
+            started = true;
+        }
+    }
+
+    @Override
+    public void finished(Class<?> testClass) {
+        if (!active) {
+            return;
+        }
+        final Set<String> usedClassNames = new LinkedHashSet<>();
+        LoadedClasses.drain().forEach(className -> usedClassNames.add(toTopLevel(className)));
+        // the test class and its super classes are usually loaded by surefire before any test starts
+        for (Class<?> type = testClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            usedClassNames.add(toTopLevel(type.getName()));
+        }
+        traces.record(testClass.getName(), usedClassNames);
+    }
+
+    private String toTopLevel(String className) {
+        final int nested = className.indexOf('$');
+        return nested > 0 ? className.substring(0, nested) : className;
+    }
+
+    @Override
+    public void exhausted() {
+    }
+
+    /**
+     * Stores the recorded traces, unless the underlying provider has read all the tests before running them (eg.
+     * when running them in parallel), in which case the loaded classes can't be told apart by the tests.
+     */
+    @Override
+    public void store() {
+        if (!active) {
+            return;
+        }
+        if (!LoadedClasses.drain().isEmpty()) {
+            logger.debug("Classes loaded by tests are not recorded, as the tests haven't been run one by one");
+            return;
+        }
+        if (traces.size() > 0) {
+            traces.store(tracesFile);
+            logger.debug("Stored classes loaded by %d tests to %s", traces.size(), tracesFile);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.arquillian.smart.testing.surefire.provider;
+
+import java.io.File;
+import java.nio.file.Path;
+import org.arquillian.smart.testing.coverage.MethodCoverage;
+import org.arquillian.smart.testing.coverage.MethodProbes;
+import org.arquillian.smart.testing.logger.Log;
+import org.arquillian.smart.testing.logger.Logger;
+
+/**
+ * Records which methods of the project each test class executes, for the covered strategy.
+ *
+ * The methods are reported by the probes injected into the project classes by the agent of the covered strategy. When
+ * a test class is finished, the probes hit since the previous test class finished are collected and reset, so the
+ * methods recorded for each test are exactly the ones it has executed even when several tests run in the same fork.
+ */
+class MethodCoverageRecorder implements TestsRecorder {
+
+    private static final Logger logger = Log.getLogger();
+
+    private final Path coverageFile;
+    private final MethodCoverage coverage = new MethodCoverage();
+    private final boolean active;
+    private boolean started;
+
+    MethodCoverageRecorder(File projectDir) {
+        this.coverageFile = MethodCoverage.getFile(projectDir);
+        this.active = MethodProbes.isActive();
+        if (!active) {
+            logger.warn("Methods executed by tests are not recorded, as the agent of the covered strategy is not attached "
+                + "to the tests");
+        }
+    }
+
+    @Override
+    public void started(Class<?> testClass) {
+        if (active && !started) {
+            // methods executed before the first test (eg. while surefire was looking the tests up) belong to no test
+            MethodProbes.drain();
+            started = true;
+        }
+    }
+
+    @Override
+    public void finished(Class<?> testClass) {
+        if (active) {
+            coverage.record(testClass.getName(), MethodProbes.drain());
+        }
+    }
+
+    @Override
+    public void exhausted() {
+    }
+
+    /**
+     * Stores the recorded coverage, unless the underlying provider has read all the tests before running them (eg.
+     * when running them in parallel), in which case the executed methods can't be told apart by the tests.
+     */
+    @Override
+    public void store() {
+        if (!active) {
+            return;
+        }
+        if (MethodProbes.drain().length > 0) {
+            logger.debug("Methods executed by tests are not recorded, as the tests haven't been run one by one");
+            return;
+        }
+        if (coverage.size() > 0) {
+            coverage.store(coverageFile);
+            logger.debug("Stored methods executed by %d tests to %s", coverage.size(), coverageFile);
+        }
+    }
+}
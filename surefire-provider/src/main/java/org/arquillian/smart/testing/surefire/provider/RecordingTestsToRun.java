@@ -0,0 +1,84 @@
+package org.arquillian.smart.testing.surefire.provider;
+
+import java.util.Collections;
+import java.util.Iterator;
+import org.apache.maven.surefire.util.TestsToRun;
+
+/**
+ * Tests which notify a {@link TestsRecorder} while the underlying provider iterates over them. The test classes are
+ * handed to the underlying provider one by one, so a test class is finished when the provider asks for the next one.
+ */
+class RecordingTestsToRun extends TestsToRun {
+
+    private final TestsToRun testsToRun;
+    private final TestsRecorder recorder;
+
+    RecordingTestsToRun(TestsToRun testsToRun, TestsRecorder recorder) {
+        super(Collections.emptySet());
+        this.testsToRun = testsToRun;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Iterator<Class<?>> iterator() {
+        final Iterator<Class<?>> iterator = testsToRun.iterator();
+        return new Iterator<Class<?>>() {
+            private Class<?> current;
+
+            @Override
+            public boolean hasNext() {
+                final boolean hasNext = iterator.hasNext();
+                if (!hasNext) {
+                    finishCurrent();
+                    recorder.exhausted();
+                }
+                return hasNext;
+            }
+
+            @Override
+            public Class<?> next() {
+                finishCurrent();
+                current = iterator.next();
+                recorder.started(current);
+                return current;
+            }
+
+            private void finishCurrent() {
+                if (current != null) {
+                    recorder.finished(current);
+                    current = null;
+                }
+            }
+        };
+    }
+
+    @Override
+    public Iterator<Class<?>> iterated() {
+        return testsToRun.iterated();
+    }
+
+    @Override
+    public boolean containsAtLeast(int numberOfTests) {
+        return testsToRun.containsAtLeast(numberOfTests);
+    }
+
+    @Override
+    public boolean containsExactly(int numberOfTests) {
+        return testsToRun.containsExactly(numberOfTests);
+    }
+
+    @Override
+    public boolean allowEagerReading() {
+        return testsToRun.allowEagerReading();
+    }
+
+    @Override
+    public Class<?> getClassByName(String className) {
+        return testsToRun.getClassByName(className);
+    }
+
+    @Override
+    public String toString() {
+        return testsToRun.toString();
+    }
+}
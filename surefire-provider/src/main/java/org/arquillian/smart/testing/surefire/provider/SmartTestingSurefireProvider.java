@@ -1,10 +1,15 @@
 package org.arquillian.smart.testing.surefire.provider;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import org.apache.maven.surefire.cli.CommandLineOption;
@@ -17,6 +22,8 @@ import org.apache.maven.surefire.util.TestsToRun;
 import org.arquillian.smart.testing.TestSelection;
 import org.arquillian.smart.testing.api.SmartTesting;
 import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.daemon.SmartTestingDaemon;
+import org.arquillian.smart.testing.daemon.SmartTestingDaemonClient;
 import org.arquillian.smart.testing.logger.DefaultLoggerFactory;
 import org.arquillian.smart.testing.logger.Log;
 import org.arquillian.smart.testing.surefire.provider.logger.SurefireProviderLoggerFactory;
@@ -59,7 +66,28 @@ public class SmartTestingSurefireProvider implements SurefireProvider {
     public RunResult invoke(Object forkTestSet) throws TestSetFailedException, ReporterException, InvocationTargetException {
         final TestsToRun orderedTests = getTestsToRun(forkTestSet);
         this.surefireProvider = surefireProviderFactory.createInstance();
-        return surefireProvider.invoke(orderedTests);
+        final List<TestsRecorder> recorders = createRecorders();
+        TestsToRun recordedTests = orderedTests;
+        for (TestsRecorder recorder : recorders) {
+            recordedTests = recorder.record(recordedTests);
+        }
+        try {
+            return surefireProvider.invoke(recordedTests);
+        } finally {
+            recorders.forEach(TestsRecorder::store);
+        }
+    }
+
+    private List<TestsRecorder> createRecorders() {
+        final List<String> strategies = Arrays.asList(configuration.getStrategies());
+        final List<TestsRecorder> recorders = new ArrayList<>();
+        if (strategies.contains("traced")) {
+            recorders.add(new ClassLoadingRecorder(getProjectDir()));
+        }
+        if (strategies.contains("covered")) {
+            recorders.add(new MethodCoverageRecorder(getProjectDir()));
+        }
+        return recorders;
     }
 
     public void cancel() {
@@ -77,14 +105,54 @@ public class SmartTestingSurefireProvider implements SurefireProvider {
     }
 
     private TestsToRun getOptimizedTestsToRun(TestsToRun testsToRun) {
-        Set<TestSelection> selection = SmartTesting
-            .with(className -> testsToRun.getClassByName(className) != null, configuration)
-            .in(getProjectDir())
-            .applyOnClasses(testsToRun);
+        Set<TestSelection> selection = null;
+        final String daemonPort = System.getProperty(SmartTestingDaemon.SMART_TESTING_DAEMON_PORT);
+        if (daemonPort != null) {
+            selection = selectByDaemon(daemonPort, testsToRun);
+        }
+        if (selection == null) {
+            selection = SmartTesting
+                .with(className -> testsToRun.getClassByName(className) != null, configuration)
+                .in(getProjectDir())
+                .applyOnClasses(testsToRun);
+        }
 
         return new TestsToRun(SmartTesting.getClasses(selection));
     }
 
+    private Set<TestSelection> selectByDaemon(String daemonPort, TestsToRun testsToRun) {
+        if (!SmartTestingDaemonClient.isValidPort(daemonPort)) {
+            Log.getLogger().warn("Invalid port [%s] of Smart Testing daemon set by %s, selecting tests locally.",
+                daemonPort, SmartTestingDaemon.SMART_TESTING_DAEMON_PORT);
+            return null;
+        }
+        final int port = Integer.parseInt(daemonPort);
+        final List<String> testClassNames = new ArrayList<>();
+        testsToRun.forEach(testClass -> testClassNames.add(testClass.getName()));
+        try {
+            return new SmartTestingDaemonClient(port).select(getProjectDir(), getClasspath(),
+                SmartTestingDaemonClient.getForwardedProperties(), testClassNames);
+        } catch (IOException e) {
+            Log.getLogger().warn("Unable to select tests by Smart Testing daemon on port %d, selecting them locally. Reason: %s",
+                port, e.getMessage());
+            return null;
+        }
+    }
+
+    private List<String> getClasspath() {
+        final List<String> classpath = new ArrayList<>();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        while (classLoader != null) {
+            if (classLoader instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+                    classpath.add(url.toExternalForm());
+                }
+            }
+            classLoader = classLoader.getParent();
+        }
+        return classpath;
+    }
+
     private File getProjectDir() {
         if (System.getProperty("basedir") == null) {
             final File testSourceDirectory = bootParams.getTestRequest().getTestSourceDirectory();
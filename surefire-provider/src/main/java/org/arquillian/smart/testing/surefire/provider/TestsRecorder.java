@@ -0,0 +1,37 @@
+package org.arquillian.smart.testing.surefire.provider;
+
+import org.apache.maven.surefire.util.TestsToRun;
+
+/**
+ * Records what the test classes do while the underlying provider runs them one by one - see {@link RecordingTestsToRun}.
+ */
+interface TestsRecorder {
+
+    /**
+     * Called when the underlying provider takes the given test class to run it.
+     */
+    void started(Class<?> testClass);
+
+    /**
+     * Called when the underlying provider takes the next test class (or finds out there is none), so the given one has
+     * been run.
+     */
+    void finished(Class<?> testClass);
+
+    /**
+     * Called when the underlying provider has taken all the test classes.
+     */
+    void exhausted();
+
+    /**
+     * Stores what has been recorded - called once the underlying provider has finished.
+     */
+    void store();
+
+    /**
+     * Returns tests which notify this recorder while the underlying provider iterates over them.
+     */
+    default TestsToRun record(TestsToRun testsToRun) {
+        return new RecordingTestsToRun(testsToRun, this);
+    }
+}
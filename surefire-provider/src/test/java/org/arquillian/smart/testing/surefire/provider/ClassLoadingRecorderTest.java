@@ -0,0 +1,204 @@
+package org.arquillian.smart.testing.surefire.provider;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import net.jcip.annotations.NotThreadSafe;
+import org.apache.maven.surefire.util.TestsToRun;
+import org.arquillian.smart.testing.LoadedClasses;
+import org.arquillian.smart.testing.TestTraces;
+import org.arquillian.smart.testing.surefire.provider.recorded.FirstCase;
+import org.arquillian.smart.testing.surefire.provider.recorded.FirstService;
+import org.arquillian.smart.testing.surefire.provider.recorded.ReusingCase;
+import org.arquillian.smart.testing.surefire.provider.recorded.SecondCase;
+import org.arquillian.smart.testing.surefire.provider.recorded.SecondService;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// reported classes are collected JVM wide
+@Category(NotThreadSafe.class)
+public class ClassLoadingRecorderTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void activateAgent() {
+        LoadedClasses.activate();
+    }
+
+    @Before
+    public void drainClassesLoadedBefore() {
+        LoadedClasses.drain();
+    }
+
+    @Test
+    public void should_attribute_classes_loaded_by_test_to_that_test_and_not_the_next_one() throws Exception {
+        // given
+        final File projectDir = temporaryFolder.getRoot();
+        final Path testClasses = projectDir.toPath().resolve("target/test-classes");
+        copyClassFiles(testClasses, FirstCase.class, FirstService.class, SecondCase.class, SecondService.class);
+
+        try (URLClassLoader classLoader = new ReportingClassLoader(testClasses)) {
+            final Set<Class<?>> testClassesToRun = new LinkedHashSet<>(asList(
+                classLoader.loadClass(FirstCase.class.getName()), classLoader.loadClass(SecondCase.class.getName())));
+            final ClassLoadingRecorder recorder = new ClassLoadingRecorder(projectDir);
+
+            // when
+            for (Class<?> testClass : recorder.record(new TestsToRun(testClassesToRun))) {
+                testClass.newInstance();
+            }
+            recorder.store();
+        }
+
+        // then
+        final TestTraces traces = TestTraces.load(TestTraces.getFile(projectDir));
+        assertThat(traces.findTestsLoadingAnyOf(Collections.singletonList(FirstService.class.getName())))
+            .containsExactly(FirstCase.class.getName());
+        assertThat(traces.findTestsLoadingAnyOf(Collections.singletonList(SecondService.class.getName())))
+            .containsExactly(SecondCase.class.getName());
+    }
+
+    @Test
+    public void should_attribute_class_loaded_by_previous_test_to_next_test_using_it() throws Exception {
+        // given
+        final File projectDir = temporaryFolder.getRoot();
+        final Path testClasses = projectDir.toPath().resolve("target/test-classes");
+        copyClassFiles(testClasses, FirstCase.class, FirstService.class, SecondCase.class, SecondService.class,
+            ReusingCase.class);
+
+        try (ReportingClassLoader classLoader = new ReportingClassLoader(testClasses)) {
+            final Set<Class<?>> testClassesToRun = new LinkedHashSet<>(asList(
+                classLoader.loadClass(FirstCase.class.getName()), classLoader.loadClass(SecondCase.class.getName()),
+                classLoader.loadClass(ReusingCase.class.getName())));
+            final ClassLoadingRecorder recorder = new ClassLoadingRecorder(projectDir);
+
+            // when
+            for (Class<?> testClass : recorder.record(new TestsToRun(testClassesToRun))) {
+                testClass.newInstance();
+                if (testClass.getName().equals(ReusingCase.class.getName())) {
+                    // already loaded by the first test, so it's only reported by its probe
+                    classLoader.used(FirstService.class.getName());
+                }
+            }
+            recorder.store();
+        }
+
+        // then
+        final TestTraces traces = TestTraces.load(TestTraces.getFile(projectDir));
+        assertThat(traces.findTestsLoadingAnyOf(Collections.singletonList(FirstService.class.getName())))
+            .containsOnly(FirstCase.class.getName(), ReusingCase.class.getName());
+        assertThat(traces.findTestsLoadingAnyOf(Collections.singletonList(SecondService.class.getName())))
+            .containsExactly(SecondCase.class.getName());
+    }
+
+    @Test
+    public void should_not_store_traces_when_tests_are_read_before_being_run() throws Exception {
+        // given
+        final File projectDir = temporaryFolder.getRoot();
+        final Path testClasses = projectDir.toPath().resolve("target/test-classes");
+        copyClassFiles(testClasses, FirstCase.class, FirstService.class, SecondCase.class, SecondService.class);
+
+        try (URLClassLoader classLoader = new ReportingClassLoader(testClasses)) {
+            final Set<Class<?>> testClassesToRun = new LinkedHashSet<>(asList(
+                classLoader.loadClass(FirstCase.class.getName()), classLoader.loadClass(SecondCase.class.getName())));
+            final ClassLoadingRecorder recorder = new ClassLoadingRecorder(projectDir);
+
+            // when
+            final Iterable<Class<?>> recordedTests = recorder.record(new TestsToRun(testClassesToRun));
+            recordedTests.forEach(testClass -> {});
+            for (Class<?> testClass : testClassesToRun) {
+                testClass.newInstance();
+            }
+            recorder.store();
+        }
+
+        // then
+        assertThat(TestTraces.getFile(projectDir)).doesNotExist();
+    }
+
+    @Test
+    public void should_record_classes_of_other_modules_loaded_by_test() throws Exception {
+        // given
+        final File projectDir = temporaryFolder.newFolder("module");
+        final Path testClasses = projectDir.toPath().resolve("target/test-classes");
+        final Path otherModuleClasses = temporaryFolder.getRoot().toPath().resolve("other-module/target/classes");
+        copyClassFiles(testClasses, FirstCase.class);
+        copyClassFiles(otherModuleClasses, FirstService.class);
+
+        try (URLClassLoader classLoader = new ReportingClassLoader(testClasses, otherModuleClasses)) {
+            final Set<Class<?>> testClassesToRun =
+                Collections.singleton(classLoader.loadClass(FirstCase.class.getName()));
+            final ClassLoadingRecorder recorder = new ClassLoadingRecorder(projectDir);
+
+            // when
+            for (Class<?> testClass : recorder.record(new TestsToRun(testClassesToRun))) {
+                testClass.newInstance();
+            }
+            recorder.store();
+        }
+
+        // then
+        final TestTraces traces = TestTraces.load(TestTraces.getFile(projectDir));
+        assertThat(traces.findTestsLoadingAnyOf(Collections.singletonList(FirstService.class.getName())))
+            .containsExactly(FirstCase.class.getName());
+    }
+
+    private void copyClassFiles(Path outputDirectory, Class<?>... classes) throws IOException, URISyntaxException {
+        for (Class<?> type : classes) {
+            final Path classFile = outputDirectory.resolve(type.getName().replace('.', '/') + ".class");
+            Files.createDirectories(classFile.getParent());
+            Files.copy(Paths.get(type.getResource(type.getSimpleName() + ".class").toURI()), classFile);
+        }
+    }
+
+    /**
+     * Reports the classes it loads the way the agent of the traced strategy does - the probes the agent injects into
+     * the classes are simulated by {@link #used(String)}.
+     */
+    private static class ReportingClassLoader extends URLClassLoader {
+
+        private final Map<String, Integer> probes = new HashMap<>();
+
+        ReportingClassLoader(Path... outputDirectories) throws MalformedURLException {
+            super(toUrls(outputDirectories), ClassLoader.getSystemClassLoader().getParent());
+        }
+
+        private static URL[] toUrls(Path... outputDirectories) throws MalformedURLException {
+            final URL[] urls = new URL[outputDirectories.length];
+            for (int i = 0; i < outputDirectories.length; i++) {
+                urls[i] = outputDirectories[i].toUri().toURL();
+            }
+            return urls;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            final Class<?> loadedClass = super.findClass(name);
+            probes.put(name, LoadedClasses.register(name, new String[0]));
+            return loadedClass;
+        }
+
+        void used(String name) {
+            LoadedClasses.used(probes.get(name));
+        }
+    }
+}
@@ -15,6 +15,7 @@ import org.apache.maven.surefire.report.DefaultConsoleReporter;
 import org.apache.maven.surefire.testset.TestRequest;
 import org.apache.maven.surefire.util.TestsToRun;
 import org.arquillian.smart.testing.configuration.Configuration;
+import org.arquillian.smart.testing.daemon.SmartTestingDaemon;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -80,6 +81,19 @@ public class SmartTestingProviderTest {
         assertThat(suites).containsExactlyElementsOf(expectedClassesToRun);
     }
 
+    @Test
+    public void should_select_tests_locally_when_daemon_port_is_not_a_number() {
+        // given
+        System.setProperty(SmartTestingDaemon.SMART_TESTING_DAEMON_PORT, "not-a-port");
+        SmartTestingSurefireProvider provider = new SmartTestingSurefireProvider(providerParameters, providerFactory);
+
+        // when
+        Iterable<Class<?>> suites = provider.getSuites();
+
+        // then
+        assertThat(suites).containsExactlyElementsOf(expectedClassesToRun);
+    }
+
     @Test
     public void test_when_invoke_is_called_with_null() throws Exception {
         // given
@@ -0,0 +1,4 @@
+package org.arquillian.smart.testing.surefire.provider.recorded;
+
+public class FirstService {
+}
@@ -0,0 +1,8 @@
+package org.arquillian.smart.testing.surefire.provider.recorded;
+
+public class ReusingCase {
+
+    public ReusingCase() {
+        new FirstService();
+    }
+}